@@ -0,0 +1,145 @@
+package org.opentripplanner.ext.flex.flexpathcalculator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.common.RepeatingTimePeriod;
+import org.opentripplanner.common.TurnRestriction;
+import org.opentripplanner.common.TurnRestrictionType;
+import org.opentripplanner.routing.algorithm.GraphRoutingTest;
+import org.opentripplanner.routing.core.TraverseMode;
+import org.opentripplanner.routing.core.TraverseModeSet;
+import org.opentripplanner.routing.edgetype.StreetEdge;
+import org.opentripplanner.routing.edgetype.StreetTraversalPermission;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.location.TemporaryStreetLocation;
+import org.opentripplanner.routing.spt.ShortestPathTree;
+import org.opentripplanner.routing.vertextype.StreetVertex;
+
+public class StreetFlexPathCacheTest extends GraphRoutingTest {
+
+  /** Each tree contains the three street vertices, room for one tree only */
+  private static final int MAX_VERTICES = 4;
+
+  private Graph graph;
+  private StreetVertex A, B, C;
+  private TemporaryStreetLocation T;
+  private StreetEdge AB, BC;
+
+  @BeforeEach
+  protected void setUp() {
+    // A <-> B <-> C
+    graph = graphOf(new Builder() {
+      @Override
+      public void build() {
+        A = intersection("A", 0.001, 45);
+        B = intersection("B", 0.002, 45);
+        C = intersection("C", 0.003, 45);
+        T = streetLocation("T", 0.001, 45.0005, false);
+
+        AB = street(A, B, 87, StreetTraversalPermission.CAR, StreetTraversalPermission.CAR).get(0);
+        BC = street(B, C, 87, StreetTraversalPermission.CAR, StreetTraversalPermission.CAR).get(0);
+        link(T, A);
+      }
+    });
+  }
+
+  @Test
+  public void cachedTreeIsReturned() {
+    var subject = new StreetFlexPathCache(graph, false, MAX_VERTICES);
+
+    ShortestPathTree spt = subject.getShortestPathTree(A);
+
+    assertNotNull(spt.getState(C));
+    assertSame(spt, subject.getShortestPathTree(A));
+    assertEquals(1, subject.size());
+  }
+
+  @Test
+  public void reverseSearchReturnsPathsToTheVertex() {
+    var subject = new StreetFlexPathCache(graph, true, MAX_VERTICES);
+
+    ShortestPathTree spt = subject.getShortestPathTree(C);
+
+    assertNotNull(spt.getPath(A, false));
+  }
+
+  @Test
+  public void temporaryVerticesAreNotCached() {
+    var subject = new StreetFlexPathCache(graph, false, MAX_VERTICES);
+
+    ShortestPathTree spt = subject.getShortestPathTree(T);
+
+    assertNotNull(spt.getState(C));
+    assertNotSame(spt, subject.getShortestPathTree(T));
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  public void leastRecentlyUsedTreeIsEvicted() {
+    var subject = new StreetFlexPathCache(graph, false, MAX_VERTICES);
+
+    ShortestPathTree fromA = subject.getShortestPathTree(A);
+    ShortestPathTree fromC = subject.getShortestPathTree(C);
+
+    assertEquals(1, subject.size());
+    assertSame(fromC, subject.getShortestPathTree(C));
+    assertNotSame(fromA, subject.getShortestPathTree(A));
+  }
+
+  @Test
+  public void treesAreWeighedByTheirVertexCount() {
+    // Room for two trees with three vertices each
+    var subject = new StreetFlexPathCache(graph, false, 6);
+
+    subject.getShortestPathTree(A);
+    subject.getShortestPathTree(B);
+    assertEquals(2, subject.size());
+
+    subject.getShortestPathTree(C);
+    assertEquals(2, subject.size());
+  }
+
+  @Test
+  public void nothingIsCachedWithTimeDependentTurnRestrictions() {
+    var restriction = new TurnRestriction(
+        AB, BC, TurnRestrictionType.NO_TURN, new TraverseModeSet(TraverseMode.CAR)
+    );
+    restriction.time = RepeatingTimePeriod.parseFromOsmTurnRestriction(
+        "Mo", "Fr", "07:00", "09:00"
+    );
+    graph.addTurnRestriction(AB, restriction);
+    var subject = new StreetFlexPathCache(graph, false, MAX_VERTICES);
+
+    ShortestPathTree spt = subject.getShortestPathTree(A);
+
+    assertNotSame(spt, subject.getShortestPathTree(A));
+    subject.prefill(List.of(A, B, C));
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  public void prefillKeepsTheTreesThatFit() {
+    var subject = new StreetFlexPathCache(graph, false, 3 * MAX_VERTICES);
+
+    subject.prefill(List.of(A, B, C, T, A));
+
+    assertEquals(3, subject.size());
+  }
+
+  @Test
+  public void invalidateAllRemovesTheTrees() {
+    var subject = new StreetFlexPathCache(graph, false, MAX_VERTICES);
+    ShortestPathTree spt = subject.getShortestPathTree(A);
+
+    subject.invalidateAll();
+
+    assertEquals(0, subject.size());
+    assertNotSame(spt, subject.getShortestPathTree(A));
+  }
+}
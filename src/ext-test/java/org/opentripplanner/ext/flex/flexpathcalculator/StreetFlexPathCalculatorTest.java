@@ -0,0 +1,58 @@
+package org.opentripplanner.ext.flex.flexpathcalculator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.algorithm.GraphRoutingTest;
+import org.opentripplanner.routing.edgetype.StreetTraversalPermission;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.vertextype.StreetVertex;
+
+public class StreetFlexPathCalculatorTest extends GraphRoutingTest {
+
+  private Graph graph;
+  private StreetVertex A, B, C;
+
+  @BeforeEach
+  protected void setUp() {
+    // A -> B -> C, one way
+    graph = graphOf(new Builder() {
+      @Override
+      public void build() {
+        A = intersection("A", 0.001, 45);
+        B = intersection("B", 0.002, 45);
+        C = intersection("C", 0.003, 45);
+
+        street(A, B, 100, StreetTraversalPermission.CAR);
+        street(B, C, 200, StreetTraversalPermission.CAR);
+      }
+    });
+  }
+
+  @Test
+  public void calculateAccessPath() {
+    var cache = new StreetFlexPathCache(graph, false, StreetFlexPathCache.DEFAULT_MAX_VERTICES);
+    var subject = new StreetFlexPathCalculator(cache);
+
+    FlexPath path = subject.calculateFlexPath(A, C, 0, 1);
+
+    assertNotNull(path);
+    assertEquals(300, path.distanceMeters);
+    assertNull(subject.calculateFlexPath(C, A, 0, 1));
+  }
+
+  @Test
+  public void calculateEgressPath() {
+    var cache = new StreetFlexPathCache(graph, true, StreetFlexPathCache.DEFAULT_MAX_VERTICES);
+    var subject = new StreetFlexPathCalculator(cache);
+
+    FlexPath path = subject.calculateFlexPath(A, C, 0, 1);
+
+    assertNotNull(path);
+    assertEquals(300, path.distanceMeters);
+    assertNull(subject.calculateFlexPath(C, A, 0, 1));
+  }
+}
@@ -4,6 +4,7 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import org.opentripplanner.common.geometry.HashGridSpatialIndex;
+import org.opentripplanner.ext.flex.flexpathcalculator.StreetFlexPathCache;
 import org.opentripplanner.ext.flex.trip.FlexTrip;
 import org.opentripplanner.model.FeedScopedId;
 import org.opentripplanner.model.FlexStopLocation;
@@ -13,8 +14,12 @@ import org.opentripplanner.model.SimpleTransfer;
 import org.opentripplanner.model.StopLocation;
 import org.opentripplanner.model.Trip;
 import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graph.Vertex;
+import org.opentripplanner.routing.vertextype.StreetVertex;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
@@ -31,7 +36,13 @@ public class FlexIndex {
 
   public Map<FeedScopedId, Trip> tripById = new HashMap<>();
 
+  private StreetFlexPathCache accessPathCache;
+
+  private StreetFlexPathCache egressPathCache;
+
   public FlexIndex(Graph graph) {
+    initStreetPathCache(graph, StreetFlexPathCache.DEFAULT_MAX_VERTICES);
+
     for (SimpleTransfer transfer : graph.transfersByStop.values()) {
       transfersToStop.put(transfer.to, transfer);
     }
@@ -58,6 +69,52 @@ public class FlexIndex {
     }
   }
 
+  /**
+   * Replace the street path caches with new empty caches, keeping shortest path trees with at
+   * most {@code maxVertices} vertices in total in each direction.
+   */
+  public void initStreetPathCache(Graph graph, int maxVertices) {
+    accessPathCache = new StreetFlexPathCache(graph, false, maxVertices);
+    egressPathCache = new StreetFlexPathCache(graph, true, maxVertices);
+  }
+
+  /**
+   * Remove all street paths from the caches, call this if the street network is changed.
+   */
+  public void invalidateStreetPathCache() {
+    accessPathCache.invalidateAll();
+    egressPathCache.invalidateAll();
+  }
+
+  /**
+   * Calculate the street paths from and to the vertices of all stops and locations used by flex
+   * trips. Require the graph index to be created.
+   */
+  public void prefillStreetPathCache(Graph graph) {
+    List<Vertex> vertices = new ArrayList<>();
+    for (StopLocation stop : flexTripsByStop.keySet()) {
+      Vertex vertex = graph.index.getStopVertexForStop().get(stop);
+      if (vertex != null) {
+        vertices.add(vertex);
+      }
+    }
+    for (StreetVertex vertex : graph.getVerticesOfType(StreetVertex.class)) {
+      if (vertex.flexStopLocations != null) {
+        vertices.add(vertex);
+      }
+    }
+    accessPathCache.prefill(vertices);
+    egressPathCache.prefill(vertices);
+  }
+
+  public StreetFlexPathCache getAccessPathCache() {
+    return accessPathCache;
+  }
+
+  public StreetFlexPathCache getEgressPathCache() {
+    return egressPathCache;
+  }
+
   Stream<FlexTrip> getFlexTripsByStop(StopLocation stopLocation) {
     return flexTripsByStop.get(stopLocation).stream();
   }
@@ -0,0 +1,40 @@
+package org.opentripplanner.ext.flex;
+
+import org.opentripplanner.ext.flex.flexpathcalculator.StreetFlexPathCache;
+
+public class FlexParameters {
+
+  public static final FlexParameters DEFAULT = new FlexParameters(
+      StreetFlexPathCache.DEFAULT_MAX_VERTICES,
+      false
+  );
+
+  /**
+   * The maximum number of vertices in all street shortest path trees kept in the access and in
+   * the egress street path cache. Each tree contains the vertices reached by car in 45 minutes
+   * from a flex stop vertex, and each vertex uses a few hundred bytes.
+   * <p>
+   * Optional, default value is 2 000 000.
+   */
+  private final int streetPathCacheMaxVertices;
+
+  /**
+   * Calculate the street paths from and to all flex stop vertices at startup.
+   * <p>
+   * Optional, default value is false.
+   */
+  private final boolean prefillStreetPathCache;
+
+  public FlexParameters(int streetPathCacheMaxVertices, boolean prefillStreetPathCache) {
+    this.streetPathCacheMaxVertices = streetPathCacheMaxVertices;
+    this.prefillStreetPathCache = prefillStreetPathCache;
+  }
+
+  public int streetPathCacheMaxVertices() {
+    return streetPathCacheMaxVertices;
+  }
+
+  public boolean prefillStreetPathCache() {
+    return prefillStreetPathCache;
+  }
+}
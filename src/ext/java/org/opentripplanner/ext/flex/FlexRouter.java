@@ -63,8 +63,8 @@ public class FlexRouter {
     this.streetAccesses = streetAccesses;
     this.streetEgresses = egressTransfers;
     this.flexIndex = graph.index.getFlexIndex();
-    this.accessFlexPathCalculator = new StreetFlexPathCalculator(graph, false);
-    this.egressFlexPathCalculator = new StreetFlexPathCalculator(graph, true);
+    this.accessFlexPathCalculator = new StreetFlexPathCalculator(flexIndex.getAccessPathCache());
+    this.egressFlexPathCalculator = new StreetFlexPathCalculator(flexIndex.getEgressPathCache());
 
     ZoneId tz = graph.getTimeZone().toZoneId();
     LocalDate searchDate = LocalDate.ofInstant(searchInstant, tz);
@@ -0,0 +1,154 @@
+package org.opentripplanner.ext.flex.flexpathcalculator;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import org.opentripplanner.routing.algorithm.astar.AStar;
+import org.opentripplanner.routing.algorithm.astar.strategies.DurationSkipEdgeStrategy;
+import org.opentripplanner.routing.algorithm.astar.strategies.TrivialRemainingWeightHeuristic;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.core.TraverseMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graph.Vertex;
+import org.opentripplanner.routing.spt.DominanceFunction;
+import org.opentripplanner.routing.spt.ShortestPathTree;
+import org.opentripplanner.routing.vertextype.TemporaryVertex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Cache the one-to-many street searches used by the {@link StreetFlexPathCalculator}. The searches
+ * only depend on the street network and are done with a default car request, so the cache is
+ * shared by all flex requests. The size of the cache is bounded by the total number of vertices
+ * in the cached trees, the least recently used trees are evicted first. The cache can be filled
+ * at startup for the flex stop vertices, see {@link #prefill(Collection)}.
+ * <p>
+ * Searches from temporary vertices are not cached, the vertices belong to a single request.
+ * Nothing is cached if the graph has time-dependent turn restrictions, because the trees depend
+ * on the time of the search. The real-time updaters do not change the streets driven by car; if
+ * that changes, the cache must be invalidated, see {@link #invalidateAll()}.
+ * <p>
+ * This class is THREAD-SAFE.
+ */
+public class StreetFlexPathCache {
+
+  public static final int DEFAULT_MAX_VERTICES = 2_000_000;
+
+  private static final Logger LOG = LoggerFactory.getLogger(StreetFlexPathCache.class);
+
+  private static final long MAX_FLEX_TRIP_DURATION_SECONDS = Duration.ofMinutes(45).toSeconds();
+
+  private final Graph graph;
+  private final boolean reverseDirection;
+  private final boolean cacheEnabled;
+  private final LoadingCache<Vertex, ShortestPathTree> cache;
+
+  /**
+   * @param reverseDirection If {@code true} the searches are done in the reverse direction, and
+   *                         the trees contain the paths TO the cached vertex.
+   * @param maxVertices      The maximum number of vertices in all shortest path trees kept in the
+   *                         cache. There is about one state per vertex in a tree.
+   */
+  public StreetFlexPathCache(Graph graph, boolean reverseDirection, int maxVertices) {
+    this.graph = graph;
+    this.reverseDirection = reverseDirection;
+    this.cacheEnabled = !graph.hasTimeDependentTurnRestrictions();
+    // A single segment keeps the weight limit exact, the trees are not calculated while the
+    // segment is locked
+    this.cache = CacheBuilder.newBuilder()
+        .concurrencyLevel(1)
+        .maximumWeight(maxVertices)
+        .weigher((Vertex v, ShortestPathTree spt) -> spt.getVertexCount())
+        .build(CacheLoader.from(this::routeToMany));
+
+    if (!cacheEnabled && !reverseDirection) {
+      LOG.warn(
+          "The graph has time-dependent turn restrictions, flex street paths are not cached."
+      );
+    }
+  }
+
+  public boolean isReverseDirection() {
+    return reverseDirection;
+  }
+
+  public ShortestPathTree getShortestPathTree(Vertex vertex) {
+    if (!cacheEnabled || vertex instanceof TemporaryVertex) {
+      return routeToMany(vertex);
+    }
+    return cache.getUnchecked(vertex);
+  }
+
+  /**
+   * Calculate the shortest path trees for the given vertices IN PARALLEL, and add them to the
+   * cache. A warning is logged if the cache is too small to keep all the trees.
+   */
+  public void prefill(Collection<? extends Vertex> vertices) {
+    if (!cacheEnabled) {
+      return;
+    }
+    long start = System.currentTimeMillis();
+
+    List<Vertex> cacheable = vertices
+        .stream()
+        .filter(it -> !(it instanceof TemporaryVertex))
+        .distinct()
+        .collect(Collectors.toList());
+
+    cacheable.parallelStream().forEach(cache::getUnchecked);
+
+    LOG.info(
+        "Flex street paths calculated {} {} vertices in {} ms.",
+        reverseDirection ? "to" : "from",
+        cacheable.size(),
+        System.currentTimeMillis() - start
+    );
+
+    if (cache.size() < cacheable.size()) {
+      LOG.warn(
+          "The flex street path cache is too small, only {} of {} trees calculated {} the flex "
+          + "stop vertices are kept. Increase the 'streetPathCacheMaxVertices' flex parameter.",
+          cache.size(),
+          cacheable.size(),
+          reverseDirection ? "to" : "from"
+      );
+    }
+  }
+
+  /**
+   * Remove all trees from the cache, call this if the street network is changed.
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  /* private methods */
+
+  private ShortestPathTree routeToMany(Vertex vertex) {
+    RoutingRequest routingRequest = new RoutingRequest(TraverseMode.CAR);
+    routingRequest.arriveBy = reverseDirection;
+    if (reverseDirection) {
+      routingRequest.setRoutingContext(graph, null, vertex);
+    } else {
+      routingRequest.setRoutingContext(graph, vertex, null);
+    }
+    routingRequest.disableRemainingWeightHeuristic = true;
+    routingRequest.rctx.remainingWeightHeuristic = new TrivialRemainingWeightHeuristic();
+    routingRequest.dominanceFunction = new DominanceFunction.EarliestArrival();
+    routingRequest.oneToMany = true;
+    AStar search = new AStar();
+    search.setSkipEdgeStrategy(new DurationSkipEdgeStrategy(MAX_FLEX_TRIP_DURATION_SECONDS));
+    ShortestPathTree spt = search.getShortestPathTree(routingRequest);
+    routingRequest.cleanup();
+    return spt;
+  }
+}
@@ -1,18 +1,10 @@
 package org.opentripplanner.ext.flex.flexpathcalculator;
 
 import org.locationtech.jts.geom.LineString;
-import org.opentripplanner.routing.algorithm.astar.AStar;
-import org.opentripplanner.routing.algorithm.astar.strategies.DurationSkipEdgeStrategy;
-import org.opentripplanner.routing.algorithm.astar.strategies.TrivialRemainingWeightHeuristic;
-import org.opentripplanner.routing.api.request.RoutingRequest;
-import org.opentripplanner.routing.core.TraverseMode;
-import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.Vertex;
-import org.opentripplanner.routing.spt.DominanceFunction;
 import org.opentripplanner.routing.spt.GraphPath;
 import org.opentripplanner.routing.spt.ShortestPathTree;
 
-import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -29,18 +21,20 @@ import java.util.Map;
  * configured so that the caching is done with either the origin or destination vertex as the key.
  * The one-to-many search will then either be done in the forward or the reverse direction depending
  * on this configuration.
+ *
+ * The trees are fetched from a {@link StreetFlexPathCache} shared by all requests, and are also
+ * kept for the lifetime of this calculator, so the trees used by a request are not evicted while
+ * the request is running.
  */
 public class StreetFlexPathCalculator implements FlexPathCalculator {
 
-  private static final long MAX_FLEX_TRIP_DURATION_SECONDS = Duration.ofMinutes(45).toSeconds();
-
-  private final Graph graph;
+  private final StreetFlexPathCache sharedCache;
   private final Map<Vertex, ShortestPathTree> cache = new HashMap<>();
   private final boolean reverseDirection;
 
-  public StreetFlexPathCalculator(Graph graph, boolean reverseDirection) {
-    this.graph = graph;
-    this.reverseDirection = reverseDirection;
+  public StreetFlexPathCalculator(StreetFlexPathCache sharedCache) {
+    this.sharedCache = sharedCache;
+    this.reverseDirection = sharedCache.isReverseDirection();
   }
 
   @Override
@@ -51,13 +45,10 @@ public class StreetFlexPathCalculator implements FlexPathCalculator {
     Vertex originVertex = reverseDirection ? tov : fromv;
     Vertex destinationVertex = reverseDirection ? fromv : tov;
 
-    ShortestPathTree shortestPathTree;
-    if (cache.containsKey(originVertex)) {
-      shortestPathTree = cache.get(originVertex);
-    } else {
-      shortestPathTree = routeToMany(originVertex);
-      cache.put(originVertex, shortestPathTree);
-    }
+    ShortestPathTree shortestPathTree = cache.computeIfAbsent(
+        originVertex,
+        sharedCache::getShortestPathTree
+    );
 
     GraphPath path = shortestPathTree.getPath(destinationVertex, false);
     if (path == null) {
@@ -70,23 +61,4 @@ public class StreetFlexPathCalculator implements FlexPathCalculator {
 
     return new FlexPath(distance, duration, geometry);
   }
-
-  private ShortestPathTree routeToMany(Vertex vertex) {
-    RoutingRequest routingRequest = new RoutingRequest(TraverseMode.CAR);
-    routingRequest.arriveBy = reverseDirection;
-    if (reverseDirection) {
-      routingRequest.setRoutingContext(graph, null, vertex);
-    } else {
-      routingRequest.setRoutingContext(graph, vertex, null);
-    }
-    routingRequest.disableRemainingWeightHeuristic = true;
-    routingRequest.rctx.remainingWeightHeuristic = new TrivialRemainingWeightHeuristic();
-    routingRequest.dominanceFunction = new DominanceFunction.EarliestArrival();
-    routingRequest.oneToMany = true;
-    AStar search = new AStar();
-    search.setSkipEdgeStrategy(new DurationSkipEdgeStrategy(MAX_FLEX_TRIP_DURATION_SECONDS));
-    ShortestPathTree spt = search.getShortestPathTree(routingRequest);
-    routingRequest.cleanup();
-    return spt;
-  }
 }
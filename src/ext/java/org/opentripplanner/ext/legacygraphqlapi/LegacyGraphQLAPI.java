@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.opentripplanner.standalone.server.OTPServer;
 import org.opentripplanner.standalone.server.Router;
+import org.opentripplanner.standalone.server.RoutingRequestExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,6 +15,8 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -41,6 +44,7 @@ public class LegacyGraphQLAPI {
   private static final Logger LOG = LoggerFactory.getLogger(LegacyGraphQLAPI.class);
 
   private final Router router;
+  private final RoutingRequestExecutor routingExecutor;
   private final ObjectMapper deserializer = new ObjectMapper();
 
   public LegacyGraphQLAPI(
@@ -49,6 +53,7 @@ public class LegacyGraphQLAPI {
       @PathParam("routerId") String routerId
   ) {
     this.router = otpServer.getRouter();
+    this.routingExecutor = otpServer.getRoutingExecutor();
 
     ContextResolver<ObjectMapper> resolver =
         providers.getContextResolver(ObjectMapper.class, MediaType.APPLICATION_JSON_TYPE);
@@ -59,19 +64,21 @@ public class LegacyGraphQLAPI {
   @POST
   @Path("/")
   @Consumes(MediaType.APPLICATION_JSON)
-  public Response getGraphQL(
+  public void getGraphQL(
       HashMap<String, Object> queryParameters,
       @HeaderParam("OTPTimeout") @DefaultValue("30000") int timeout,
       @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves,
-      @Context HttpHeaders headers
+      @Context HttpHeaders headers,
+      @Suspended AsyncResponse asyncResponse
   ) {
     if (queryParameters == null || !queryParameters.containsKey("query")) {
       LOG.debug("No query found in body");
-      return Response
+      asyncResponse.resume(Response
           .status(Response.Status.BAD_REQUEST)
           .type(MediaType.TEXT_PLAIN_TYPE)
           .entity("No query found in body")
-          .build();
+          .build());
+      return;
     }
 
     Locale locale = headers.getAcceptableLanguages().size() > 0
@@ -90,17 +97,18 @@ public class LegacyGraphQLAPI {
         variables = deserializer.readValue((String) queryVariables, Map.class);
       }
       catch (IOException e) {
-        return Response
+        asyncResponse.resume(Response
             .status(Response.Status.BAD_REQUEST)
             .type(MediaType.TEXT_PLAIN_TYPE)
             .entity("Variables must be a valid json object")
-            .build();
+            .build());
+        return;
       }
     }
     else {
       variables = new HashMap<>();
     }
-    return LegacyGraphQLIndex.getGraphQLResponse(
+    routingExecutor.execute(asyncResponse, () -> LegacyGraphQLIndex.getGraphQLResponse(
         query,
         router,
         variables,
@@ -108,29 +116,30 @@ public class LegacyGraphQLAPI {
         maxResolves,
         timeout,
         locale
-    );
+    ));
   }
 
   @POST
   @Path("/")
   @Consumes("application/graphql")
-  public Response getGraphQL(
+  public void getGraphQL(
       String query,
       @HeaderParam("OTPTimeout") @DefaultValue("30000") int timeout,
       @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves,
-      @Context HttpHeaders headers
+      @Context HttpHeaders headers,
+      @Suspended AsyncResponse asyncResponse
   ) {
     Locale locale = headers.getAcceptableLanguages().size() > 0
         ? headers.getAcceptableLanguages().get(0)
         : router.defaultRoutingRequest.locale;
-    return LegacyGraphQLIndex.getGraphQLResponse(
+    routingExecutor.execute(asyncResponse, () -> LegacyGraphQLIndex.getGraphQLResponse(
         query,
         router,
         null,
         null,
         maxResolves,
         timeout,
-        locale);
+        locale));
   }
 
   @POST
@@ -10,6 +10,7 @@ import org.opentripplanner.model.StopPattern;
 import org.opentripplanner.model.StopTime;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.model.TimetableSnapshotCommitStatistics;
 import org.opentripplanner.model.TimetableSnapshotProvider;
 import org.opentripplanner.model.Trip;
 import org.opentripplanner.model.TripPattern;
@@ -150,6 +151,11 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
         return snapshotToReturn;
     }
 
+    @Override
+    public TimetableSnapshotCommitStatistics getCommitStatistics() {
+        return buffer.getCommitStatistics();
+    }
+
     private TimetableSnapshot getTimetableSnapshot(final boolean force) {
         final long now = System.currentTimeMillis();
         if (force || now - lastSnapshotTime > maxSnapshotFrequency) {
@@ -874,12 +880,12 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
          * Update pattern with triptimes so get correct dwell times and lower bound on running times.
          * New patterns only affects a single trip, previously added tripTimes is no longer valid, and is therefore removed
          */
-        pattern.scheduledTimetable.tripTimes.clear();
+        pattern.scheduledTimetable.clearTripTimes();
         pattern.scheduledTimetable.addTripTimes(updatedTripTimes);
         pattern.scheduledTimetable.finish();
 
         // Remove trip times to avoid real time trip times being visible for ignoreRealtimeInformation queries
-        pattern.scheduledTimetable.tripTimes.clear();
+        pattern.scheduledTimetable.clearTripTimes();
 
         // Add to buffer as-is to include it in the 'lastAddedTripPattern'
         buffer.update(pattern, updatedTripTimes, serviceDate);
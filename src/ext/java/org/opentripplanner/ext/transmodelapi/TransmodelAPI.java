@@ -8,6 +8,7 @@ import org.opentripplanner.routing.api.request.RoutingRequest;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.standalone.server.OTPServer;
 import org.opentripplanner.standalone.server.Router;
+import org.opentripplanner.standalone.server.RoutingRequestExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,6 +21,8 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -45,6 +48,8 @@ public class TransmodelAPI {
 
     private final Router router;
 
+    private final RoutingRequestExecutor routingExecutor;
+
     private final TransmodelGraph index;
     private final ObjectMapper deserializer = new ObjectMapper();
 
@@ -57,6 +62,7 @@ public class TransmodelAPI {
 
     public TransmodelAPI(@Context OTPServer otpServer) {
         this.router = otpServer.getRouter();
+        this.routingExecutor = otpServer.getRoutingExecutor();
         this.index = new TransmodelGraph(schema);
     }
 
@@ -89,7 +95,11 @@ public class TransmodelAPI {
     @POST
     @Path("/graphql")
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response getGraphQL(HashMap<String, Object> queryParameters, @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves) {
+    public void getGraphQL(
+            HashMap<String, Object> queryParameters,
+            @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves,
+            @Suspended AsyncResponse asyncResponse
+    ) {
         if (queryParameters==null || !queryParameters.containsKey("query")) {
             LOG.debug("No query found in body");
             throw new BadRequestException("No query found in body");
@@ -110,14 +120,24 @@ public class TransmodelAPI {
         } else {
             variables = new HashMap<>();
         }
-        return index.getGraphQLResponse(query, router, variables, operationName, maxResolves);
+        routingExecutor.execute(
+                asyncResponse,
+                () -> index.getGraphQLResponse(query, router, variables, operationName, maxResolves)
+        );
     }
 
     @POST
     @Path("/graphql")
     @Consumes("application/graphql")
-    public Response getGraphQL(String query, @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves) {
-        return index.getGraphQLResponse(query, router, null, null, maxResolves);
+    public void getGraphQL(
+            String query,
+            @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves,
+            @Suspended AsyncResponse asyncResponse
+    ) {
+        routingExecutor.execute(
+                asyncResponse,
+                () -> index.getGraphQLResponse(query, router, null, null, maxResolves)
+        );
     }
 
     @POST
@@ -0,0 +1,17 @@
+package org.opentripplanner.api.model.serverinfo;
+
+import org.opentripplanner.transit.raptor.util.StopArraysPool;
+
+public class ApiStopArraysPoolStatistics {
+  public final int maxSize;
+  public final int size;
+  public final long hits;
+  public final long misses;
+
+  public ApiStopArraysPoolStatistics(StopArraysPool pool) {
+    this.maxSize = pool.maxSize();
+    this.size = pool.size();
+    this.hits = pool.hits();
+    this.misses = pool.misses();
+  }
+}
@@ -29,6 +29,11 @@ public class DebugOutput {
      */
     public final long filteringTime;
 
+    /**
+     * Time taken to calculate the fares of the filtered itineraries in milliseconds.
+     */
+    public final long fareCalculationTime;
+
     /**
      * Time taken for the mapping of the internal classes to the api classes in milliseconds.
      */
@@ -46,13 +51,14 @@ public class DebugOutput {
 
     public DebugOutput(
         long precalculationTime, long directStreetRouterTime, long transitRouterTime,
-        long filteringTime, long renderingTime, long totalTime,
+        long filteringTime, long fareCalculationTime, long renderingTime, long totalTime,
         TransitTimingOutput transitRouterTimes
     ) {
         this.precalculationTime = precalculationTime;
         this.directStreetRouterTime = directStreetRouterTime;
         this.transitRouterTime = transitRouterTime;
         this.filteringTime = filteringTime;
+        this.fareCalculationTime = fareCalculationTime;
         this.renderingTime = renderingTime;
         this.totalTime = totalTime;
         this.transitRouterTimes = transitRouterTimes;
@@ -19,6 +19,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.UriInfo;
@@ -49,9 +51,26 @@ public class PlannerResource extends RoutingResource {
     // We inject info about the incoming request so we can include the incoming query
     // parameters in the outgoing response. This is a TriMet requirement.
     // Jersey uses @Context to inject internal types and @InjectParam or @Resource for DI objects.
+    // The request is suspended and routed on a routing thread, which resumes it with the response.
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public TripPlannerResponse plan(@Context UriInfo uriInfo, @Context Request grizzlyRequest) {
+    public void plan(
+        @Context UriInfo uriInfo,
+        @Context Request grizzlyRequest,
+        @Suspended AsyncResponse asyncResponse
+    ) {
+        // Create response object, containing a copy of all request parameters. Maybe they should be in the debug section of the response.
+        // The request is read on the HTTP handler thread, before it is suspended.
+        TripPlannerResponse response = new TripPlannerResponse(uriInfo);
+        String clientIpAddress = grizzlyRequest.getRemoteAddr();
+
+        otpServer.getRoutingExecutor().execute(
+            asyncResponse,
+            () -> plan(response, clientIpAddress)
+        );
+    }
+
+    private TripPlannerResponse plan(TripPlannerResponse response, String clientIpAddress) {
 
         /*
          * TODO: add Lang / Locale parameter, and thus get localized content (Messages & more...)
@@ -61,8 +80,6 @@ public class PlannerResource extends RoutingResource {
          *       out so it's used here too...
          */
 
-        // Create response object, containing a copy of all request parameters. Maybe they should be in the debug section of the response.
-        TripPlannerResponse response = new TripPlannerResponse(uriInfo);
         RoutingRequest request = null;
         Router router = null;
         RoutingResponse res = null;
@@ -100,20 +117,19 @@ public class PlannerResource extends RoutingResource {
         }
 
         /* Log this request if such logging is enabled. */
-        logRequest(grizzlyRequest, request, router, res);
+        logRequest(clientIpAddress, request, router, res);
 
         return response;
     }
 
     private void logRequest(
-        Request grizzlyRequest,
+        String clientIpAddress,
         RoutingRequest request,
         Router router,
         RoutingResponse res
     ) {
         if (request != null && router != null && router.requestLogger != null) {
             StringBuilder sb = new StringBuilder();
-            String clientIpAddress = grizzlyRequest.getRemoteAddr();
             //sb.append(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
             sb.append(clientIpAddress);
             sb.append(' ');
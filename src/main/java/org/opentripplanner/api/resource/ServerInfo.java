@@ -1,11 +1,17 @@
 package org.opentripplanner.api.resource;
 
 import org.opentripplanner.api.model.serverinfo.ApiServerInfo;
+import org.opentripplanner.api.model.serverinfo.ApiStopArraysPoolStatistics;
 import org.opentripplanner.model.projectinfo.OtpProjectInfo;
+import org.opentripplanner.routing.algorithm.raptor.transit.TransitLayer;
+import org.opentripplanner.routing.algorithm.raptor.transit.request.TransferCacheStatistics;
+import org.opentripplanner.standalone.server.OTPServer;
+import org.opentripplanner.standalone.server.RoutingQueueStatistics;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import java.io.BufferedReader;
 import java.io.FileInputStream;
@@ -23,6 +29,40 @@ public class ServerInfo {
     public ApiServerInfo getServerInfo() {
         return SERVER_INFO;
     }    
+
+    /**
+     * Return the number of requests waiting for a routing thread, the time they wait and the
+     * number of requests rejected because the server is overloaded.
+     */
+    @GET
+    @Path("routingQueue")
+    @Produces(MediaType.APPLICATION_JSON)
+    public RoutingQueueStatistics getRoutingQueueStatistics(@Context OTPServer otpServer) {
+        return otpServer.getRoutingExecutor().getStatistics();
+    }
+
+    /**
+     * Return the hits, misses and build time of the cache of transfers calculated per transfer
+     * routing request. Returns nothing if the graph has no transit.
+     */
+    @GET
+    @Path("transferCache")
+    @Produces(MediaType.APPLICATION_JSON)
+    public TransferCacheStatistics getTransferCacheStatistics(@Context OTPServer otpServer) {
+        TransitLayer transitLayer = otpServer.getRouter().graph.getTransitLayer();
+        return transitLayer == null ? null : transitLayer.getTransferCacheStatistics();
+    }
+
+    /**
+     * Return the size, hits and misses of the pool of stop indexed arrays used by the Raptor
+     * search, see the {@code stopArraysPoolSize} transit tuning parameter.
+     */
+    @GET
+    @Path("stopArraysPool")
+    @Produces(MediaType.APPLICATION_JSON)
+    public ApiStopArraysPoolStatistics getStopArraysPoolStatistics(@Context OTPServer otpServer) {
+        return new ApiStopArraysPoolStatistics(otpServer.getRouter().raptorConfig.stopArraysPool());
+    }
     
     /**
      * Determine the OTP version and CPU type of the running server. This information should not
@@ -1,5 +1,6 @@
 package org.opentripplanner.api.resource;
 
+import org.opentripplanner.model.TimetableSnapshotCommitStatistics;
 import org.opentripplanner.standalone.server.OTPServer;
 import org.opentripplanner.standalone.server.Router;
 import org.opentripplanner.updater.GraphUpdater;
@@ -46,6 +47,20 @@ public class UpdaterStatusResource {
         return Response.status(Response.Status.OK).entity(updaterManager.getUpdaterDescriptions()).build();
     }
 
+    /**
+     * Return the commit statistics of the real-time timetable snapshot: the number of commits,
+     * the commit latency and the bytes allocated by each commit.
+     */
+    @GET
+    @Path("/timetableSnapshot")
+    public Response getTimetableSnapshotCommitStatistics () {
+        TimetableSnapshotCommitStatistics statistics = router.graph.getTimetableSnapshotCommitStatistics();
+        if (statistics == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity("No timetable snapshot updaters running.").build();
+        }
+        return Response.status(Response.Status.OK).entity(statistics).build();
+    }
+
     /** Return status for a specific updater. */
     @GET
     @Path("/{updaterId}")
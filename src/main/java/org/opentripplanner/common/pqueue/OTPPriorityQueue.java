@@ -0,0 +1,36 @@
+package org.opentripplanner.common.pqueue;
+
+/**
+ * A min priority queue with double priorities. The queue does not support decrease-key or
+ * removal of elements; elements that are no longer relevant are skipped by the caller when they
+ * are extracted. Use {@link PriorityQueueType} to create an instance.
+ */
+public interface OTPPriorityQueue<T> {
+
+    int size();
+
+    boolean empty();
+
+    /**
+     * @throws IllegalStateException if the queue is empty.
+     */
+    double peek_min_key();
+
+    /**
+     * @return the element with the smallest priority, or {@code null} if the queue is empty.
+     */
+    T peek_min();
+
+    void insert(T e, double p);
+
+    /**
+     * Remove and return the element with the smallest priority, {@code null} is returned if the
+     * queue is empty.
+     */
+    T extract_min();
+
+    /**
+     * Empty the queue in one operation.
+     */
+    void reset();
+}
@@ -0,0 +1,32 @@
+package org.opentripplanner.common.pqueue;
+
+import java.util.function.Predicate;
+
+/**
+ * The priority queue implementations available for the street search.
+ */
+public enum PriorityQueueType {
+    /**
+     * The classic binary heap, see {@link BinHeap}.
+     */
+    BINARY_HEAP,
+
+    /**
+     * A 4-ary heap, witch drop stale elements before it grows, see {@link QuaternaryHeap}.
+     */
+    QUATERNARY_HEAP;
+
+    /**
+     * @param isStale Elements matching this predicate are never needed by the caller, the
+     *                queue may drop them. Not all implementations use it.
+     */
+    public <T> OTPPriorityQueue<T> create(int initialCapacity, Predicate<? super T> isStale) {
+        switch (this) {
+            case QUATERNARY_HEAP:
+                return new QuaternaryHeap<>(initialCapacity, isStale);
+            case BINARY_HEAP:
+            default:
+                return new BinHeap<>(initialCapacity);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.opentripplanner.common.pqueue;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+/**
+ * A 4-ary min heap with double priorities, stored in two parallel arrays. Compared with the
+ * {@link BinHeap} the tree is half as deep, so an insert moves fewer elements, and the four
+ * children of a node are next to each other in memory.
+ * <p>
+ * The street search never remove or re-prioritize states, so states dominated after they
+ * are inserted stay in the queue until they are extracted and skipped. If a predicate for stale
+ * elements is given, the stale elements are dropped (lazy deletion) before the heap grows, and
+ * the heap only grows if that does not free enough space. This keeps the queue small for long
+ * searches, where many states are dominated.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class QuaternaryHeap<T> implements OTPPriorityQueue<T> {
+
+    private static final int MIN_CAPACITY = 10;
+    private static final int GROW_FACTOR = 2;
+
+    @Nullable
+    private final Predicate<? super T> isStale;
+    private double[] prio;
+    private Object[] elem;
+    private int size = 0;
+
+    public QuaternaryHeap(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * @param isStale Elements matching this predicate are dropped before the heap grows, if
+     *                {@code null} no elements are dropped.
+     */
+    public QuaternaryHeap(int capacity, @Nullable Predicate<? super T> isStale) {
+        capacity = Math.max(capacity, MIN_CAPACITY);
+        this.isStale = isStale;
+        this.prio = new double[capacity];
+        this.elem = new Object[capacity];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean empty() {
+        return size == 0;
+    }
+
+    @Override
+    public double peek_min_key() {
+        if (size == 0) {
+            throw new IllegalStateException("An empty queue does not have a minimum key.");
+        }
+        return prio[0];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T peek_min() {
+        return size == 0 ? null : (T) elem[0];
+    }
+
+    @Override
+    public void insert(T e, double p) {
+        if (size == elem.length) {
+            makeRoom();
+        }
+        siftUp(size++, e, p);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T extract_min() {
+        if (size == 0) {
+            return null;
+        }
+        T min = (T) elem[0];
+        --size;
+        Object last = elem[size];
+        double lastPrio = prio[size];
+        elem[size] = null;
+
+        if (size > 0) {
+            siftDown(0, last, lastPrio);
+        }
+        return min;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(elem, 0, size, null);
+        size = 0;
+    }
+
+
+    /* private methods */
+
+    private void siftUp(int i, Object e, double p) {
+        while (i > 0) {
+            int parent = (i - 1) >> 2;
+            if (prio[parent] <= p) { break; }
+            elem[i] = elem[parent];
+            prio[i] = prio[parent];
+            i = parent;
+        }
+        elem[i] = e;
+        prio[i] = p;
+    }
+
+    private void siftDown(int i, Object e, double p) {
+        while (true) {
+            int first = 4 * i + 1;
+            if (first >= size) { break; }
+
+            int end = Math.min(first + 4, size);
+            int min = first;
+            for (int c = first + 1; c < end; ++c) {
+                if (prio[c] < prio[min]) { min = c; }
+            }
+            if (prio[min] >= p) { break; }
+
+            elem[i] = elem[min];
+            prio[i] = prio[min];
+            i = min;
+        }
+        elem[i] = e;
+        prio[i] = p;
+    }
+
+    private void makeRoom() {
+        if (isStale != null) {
+            dropStaleElements();
+            // Grow anyway if less than a quarter of the heap is freed, to avoid dropping
+            // stale elements on every insert.
+            if (size <= elem.length - elem.length / 4) {
+                return;
+            }
+        }
+        prio = Arrays.copyOf(prio, elem.length * GROW_FACTOR);
+        elem = Arrays.copyOf(elem, elem.length * GROW_FACTOR);
+    }
+
+    /**
+     * Remove all stale elements and rebuild the heap, this is O(n).
+     */
+    @SuppressWarnings("unchecked")
+    private void dropStaleElements() {
+        int n = 0;
+        for (int i = 0; i < size; ++i) {
+            if (!isStale.test((T) elem[i])) {
+                elem[n] = elem[i];
+                prio[n] = prio[i];
+                ++n;
+            }
+        }
+        Arrays.fill(elem, n, size, null);
+        size = n;
+
+        // Restore the heap property bottom-up, starting with the parent of the last element
+        for (int i = (size - 2) >> 2; i >= 0; --i) {
+            siftDown(i, elem[i], prio[i]);
+        }
+    }
+}
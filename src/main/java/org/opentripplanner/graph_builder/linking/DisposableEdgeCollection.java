@@ -6,6 +6,7 @@ import org.opentripplanner.routing.graph.Vertex;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -19,6 +20,8 @@ public class DisposableEdgeCollection {
 
   private final Scope scope;
 
+  private final boolean overlay;
+
   private final Set<Edge> edges = new HashSet<>();
 
   public DisposableEdgeCollection(Graph graph) {
@@ -26,14 +29,32 @@ public class DisposableEdgeCollection {
   }
 
   public DisposableEdgeCollection(Graph graph, Scope scope) {
+    this(graph, scope, false);
+  }
+
+  DisposableEdgeCollection(Graph graph, Scope scope, boolean overlay) {
     this.graph = graph;
     this.scope = scope;
+    this.overlay = overlay;
+  }
+
+  /**
+   * If true the edges are only added to the temporary vertices, the permanent vertices of the
+   * graph are not changed. Edges connected to a permanent vertex are only visible to a search
+   * through the overlay of the {@link org.opentripplanner.routing.core.RoutingContext}.
+   */
+  public boolean isOverlay() {
+    return overlay;
   }
 
   public void addEdge(Edge edge) {
     this.edges.add(edge);
   }
 
+  public Collection<Edge> getEdges() {
+    return Collections.unmodifiableSet(edges);
+  }
+
   /**
    * Removes all the edges in this collection from the graph.
    */
@@ -47,7 +68,12 @@ public class DisposableEdgeCollection {
     for (Edge e : edges) {
       vertices.add(e.getFromVertex());
       vertices.add(e.getToVertex());
-      graph.removeEdge(e);
+      if (overlay) {
+        graph.removeOverlayEdge(e);
+      }
+      else {
+        graph.removeEdge(e);
+      }
     }
     for (Vertex v : vertices) {
       graph.removeIfUnconnected(v);
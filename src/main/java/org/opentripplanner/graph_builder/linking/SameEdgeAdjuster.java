@@ -3,6 +3,7 @@ package org.opentripplanner.graph_builder.linking;
 import com.google.common.collect.Sets;
 import org.locationtech.jts.geom.LineString;
 import org.opentripplanner.common.geometry.GeometryUtils;
+import org.opentripplanner.routing.core.OverlayGraph;
 import org.opentripplanner.routing.edgetype.StreetEdge;
 import org.opentripplanner.routing.edgetype.TemporaryFreeEdge;
 import org.opentripplanner.routing.edgetype.TemporaryPartialStreetEdge;
@@ -25,20 +26,25 @@ public class SameEdgeAdjuster {
    * Utility class. If the from and to vertices are generated and lie along some of the same edges,
    * we need to wire them up along those edges so that we don't get odd circuitous routes for
    * really short trips.
+   * <p>
+   * The new edges are created as overlay edges, and the given overlay is used to find the
+   * temporary edges connected to permanent vertices.
    */
-  public static DisposableEdgeCollection adjust(Vertex from, Vertex to, Graph graph) {
-    DisposableEdgeCollection tempEdges = new DisposableEdgeCollection(graph, Scope.REQUEST);
+  public static DisposableEdgeCollection adjust(
+      Vertex from, Vertex to, Graph graph, OverlayGraph overlay
+  ) {
+    DisposableEdgeCollection tempEdges = new DisposableEdgeCollection(graph, Scope.REQUEST, true);
     if (from == null || to == null) { return tempEdges; }
 
     try {
       Set<StreetVertex> fromVertices = new HashSet<>();
 
-      for (Edge outgoing : from.getOutgoing()) {
+      for (Edge outgoing : overlay.getAllOutgoing(from)) {
         Vertex toVertex = outgoing.getToVertex();
         if (outgoing instanceof TemporaryFreeEdge
             && toVertex instanceof StreetVertex
-            && toVertex
-              .getOutgoing()
+            && overlay
+              .getAllOutgoing(toVertex)
               .stream()
               .anyMatch(edge -> edge instanceof TemporaryPartialStreetEdge)
         ) {
@@ -53,12 +59,12 @@ public class SameEdgeAdjuster {
 
       Set<StreetVertex> toVertices = new HashSet<>();
 
-      for (Edge incoming : to.getIncoming()) {
+      for (Edge incoming : overlay.getAllIncoming(to)) {
         Vertex fromVertex = incoming.getFromVertex();
         if (incoming instanceof TemporaryFreeEdge
             && fromVertex instanceof StreetVertex
-            && fromVertex
-              .getIncoming()
+            && overlay
+              .getAllIncoming(fromVertex)
               .stream()
               .anyMatch(edge -> edge instanceof TemporaryPartialStreetEdge)
         ) {
@@ -73,7 +79,9 @@ public class SameEdgeAdjuster {
 
       for (StreetVertex fromStreetVertex : fromVertices) {
         for (StreetVertex toStreetVertex : toVertices) {
-          Set<StreetEdge> overlap = overlappingParentStreetEdges(fromStreetVertex, toStreetVertex);
+          Set<StreetEdge> overlap = overlappingParentStreetEdges(
+              fromStreetVertex, toStreetVertex, overlay
+          );
           for (StreetEdge pse : overlap) {
             makePartialEdgeAlong(pse, fromStreetVertex, toStreetVertex, tempEdges);
           }
@@ -92,10 +100,12 @@ public class SameEdgeAdjuster {
    * Returns the StreetEdges that overlap between two vertices' edge sets. It does not look at the
    * TemporaryPartialStreetEdges, but the real parents of these edges.
    */
-  private static Set<StreetEdge> overlappingParentStreetEdges(Vertex u, Vertex v) {
+  private static Set<StreetEdge> overlappingParentStreetEdges(
+      Vertex u, Vertex v, OverlayGraph overlay
+  ) {
     // Fetch the parent edges so we aren't stuck with temporary edges.
-    Set<StreetEdge> vEdges = getConnectedParentEdges(v);
-    Set<StreetEdge> uEdges = getConnectedParentEdges(u);
+    Set<StreetEdge> vEdges = getConnectedParentEdges(v, overlay);
+    Set<StreetEdge> uEdges = getConnectedParentEdges(u, overlay);
     return Sets.intersection(uEdges, vEdges);
   }
 
@@ -104,9 +114,12 @@ public class SameEdgeAdjuster {
    * Vertex#getIncoming()} and {@link Vertex#getIncoming()} edges. Edges of other types are
    * ignored.
    */
-  private static Set<StreetEdge> getConnectedParentEdges(Vertex loc) {
+  private static Set<StreetEdge> getConnectedParentEdges(Vertex loc, OverlayGraph overlay) {
     return Stream
-        .concat(loc.getIncoming().stream(), loc.getOutgoing().stream())
+        .concat(
+            overlay.getAllIncoming(loc).stream(),
+            overlay.getAllOutgoing(loc).stream()
+        )
         .filter(it -> it instanceof TemporaryPartialStreetEdge)
         .map(it -> ((TemporaryPartialStreetEdge) it).getParentEdge())
         .collect(Collectors.toSet());
@@ -147,7 +160,8 @@ public class SameEdgeAdjuster {
           to,
           partial,
           new NonLocalizedString(name),
-          length
+          length,
+          true
       ));
     }
   }
@@ -128,6 +128,28 @@ public class VertexLinker {
     );
   }
 
+  /**
+   * Link the vertex for a single routing request without changing the permanent vertices of the
+   * graph, the new edges are only added to the temporary vertices. Edges connected to a permanent
+   * vertex are visible to the search through the overlay of the routing context the returned
+   * collection is added to. The edge function must create the edges as overlay edges.
+   */
+  public DisposableEdgeCollection linkVertexForRequestOverlay(
+      Vertex vertex,
+      TraverseModeSet traverseModes,
+      LinkingDirection direction,
+      BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
+  ) {
+    return link(
+        vertex,
+        traverseModes,
+        direction,
+        Scope.REQUEST,
+        new DisposableEdgeCollection(graph, Scope.REQUEST, true),
+        edgeFunction
+    );
+  }
+
   public void removeEdgeFromIndex(Edge edge, Scope scope) {
     // Edges without geometry will not have been added to the index in the first place
     if (edge.getGeometry() != null) {
@@ -163,7 +185,17 @@ public class VertexLinker {
     DisposableEdgeCollection tempEdges = (scope != Scope.PERMANENT)
         ? new DisposableEdgeCollection(graph, scope)
         : null;
+    return link(vertex, traverseModes, direction, scope, tempEdges, edgeFunction);
+  }
 
+  private DisposableEdgeCollection link(
+      Vertex vertex,
+      TraverseModeSet traverseModes,
+      LinkingDirection direction,
+      Scope scope,
+      DisposableEdgeCollection tempEdges,
+      BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
+  ) {
     try {
       Set<StreetVertex> streetVertices = linkToStreetEdges(vertex,
           traverseModes,
@@ -2,4 +2,15 @@ package org.opentripplanner.model;
 
 public enum BikeAccess {
     UNKNOWN, NOT_ALLOWED, ALLOWED;
+
+    /**
+     * The bike access of the trip, or of the route of the trip if the access is not set on the
+     * trip itself.
+     */
+    public static BikeAccess fromTrip(Trip trip) {
+        if (trip.getBikesAllowed() != UNKNOWN) {
+            return trip.getBikesAllowed();
+        }
+        return trip.getRoute().getBikesAllowed();
+    }
 }
@@ -8,6 +8,7 @@ import com.google.transit.realtime.GtfsRealtime.TripUpdate.StopTimeUpdate;
 import org.opentripplanner.model.calendar.ServiceDate;
 import org.opentripplanner.routing.core.ServiceDay;
 import org.opentripplanner.routing.trippattern.FrequencyEntry;
+import org.opentripplanner.routing.trippattern.StopDepartures;
 import org.opentripplanner.routing.trippattern.TripTimes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +19,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.function.Predicate;
 
 
 /**
@@ -70,6 +72,15 @@ public class Timetable implements Serializable {
      * Helps determine whether a particular pattern is worth searching for departures at a given time. 
      */
     private transient int minTime, maxTime;
+
+    /**
+     * The trips sorted on departure time at each stop position, created lazily when departures
+     * are requested for a stop. The index is dropped when the trips in this timetable change. A
+     * timetable in a committed {@link TimetableSnapshot} is not changed, so the index is only
+     * created once for each real-time update of the pattern. Racing threads may both create the
+     * index for a stop, this is harmless since {@link StopDepartures} is immutable.
+     */
+    private transient StopDepartures[] stopDepartures;
     
     /** Construct an empty Timetable. */
     public Timetable(TripPattern pattern) {
@@ -117,6 +128,7 @@ public class Timetable implements Serializable {
      * actions to compact the data structure such as trimming and deduplicating arrays.
      */
     public void finish() {
+        clearStopDepartures();
         int nStops = pattern.stopPattern.size;
         int nHops = nStops - 1;
         /* Find lower bounds on dwell and running times at each stop. */
@@ -195,9 +207,28 @@ public class Timetable implements Serializable {
      * @return old trip times of trip
      */
     public TripTimes setTripTimes(int tripIndex, TripTimes tt) {
+        clearStopDepartures();
         return tripTimes.set(tripIndex, tt);
     }
 
+    /**
+     * Return the trips sorted on departure time at the given stop position in the pattern. Use
+     * this to find the next departures from a stop without visiting every trip.
+     */
+    public StopDepartures getStopDepartures(int stopPos) {
+        StopDepartures[] index = stopDepartures;
+        if (index == null) {
+            index = new StopDepartures[pattern.stopPattern.size];
+            stopDepartures = index;
+        }
+        StopDepartures departures = index[stopPos];
+        if (departures == null) {
+            departures = StopDepartures.create(tripTimes, stopPos);
+            index[stopPos] = departures;
+        }
+        return departures;
+    }
+
     /**
      * Apply the TripUpdate to the appropriate TripTimes from this Timetable. The existing TripTimes
      * must not be modified directly because they may be shared with the underlying
@@ -379,9 +410,22 @@ public class Timetable implements Serializable {
      * Here we don't know if it's a scheduled trip or a realtime-added trip.
      */
     public void addTripTimes(TripTimes tt) {
+        clearStopDepartures();
         tripTimes.add(tt);
     }
 
+    /** Remove all trips matching the given predicate. */
+    public void removeTripTimes(Predicate<TripTimes> removeTripTimes) {
+        clearStopDepartures();
+        tripTimes.removeIf(removeTripTimes);
+    }
+
+    /** Remove all trips, frequency entries are kept. */
+    public void clearTripTimes() {
+        clearStopDepartures();
+        tripTimes.clear();
+    }
+
     /**
      * Add a frequency entry to this Timetable. See addTripTimes method. Maybe Frequency Entries should
      * just be TripTimes for simplicity.
@@ -432,4 +476,11 @@ public class Timetable implements Serializable {
             tt.serviceCode = serviceCodes.get(tt.trip.getServiceId());
         }
     }
+
+
+    /* private methods */
+
+    private void clearStopDepartures() {
+        stopDepartures = null;
+    }
 }
@@ -1,20 +1,18 @@
 package org.opentripplanner.model;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.SetMultimap;
 import org.opentripplanner.model.calendar.ServiceDate;
 import org.opentripplanner.routing.algorithm.raptor.transit.mappers.TransitLayerUpdater;
 import org.opentripplanner.routing.trippattern.TripTimes;
+import org.opentripplanner.util.PersistentMap;
+import org.opentripplanner.util.PersistentSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.ConcurrentModificationException;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
@@ -94,11 +92,11 @@ public class TimetableSnapshot {
      * we have an updated Timetable. The keys include both TripPatterns from the scheduled GTFS, and TripPatterns added
      * by realtime messages and tracked by the TripPatternCache. Note that the keys will not include all scheduled
      * TripPatterns, only those for which we've got an update.
-     * We use a HashMap rather than a Map so we can clone it. If this turns out to be slow/spacious we can use an array
-     * with integer pattern indexes. The SortedSet members are copy-on-write.
-     * FIXME: this could be made into a flat hashtable with compound keys.
+     * We use a PersistentMap, so the committed snapshot can share the map with the buffer, and
+     * an update only copies the path to the changed entry. The SortedSet members are
+     * copy-on-write.
      */
-    private HashMap<TripPattern, SortedSet<Timetable>> timetables = new HashMap();
+    private PersistentMap<TripPattern, SortedSet<Timetable>> timetables = PersistentMap.empty();
 
     /**
      * <p>
@@ -107,22 +105,22 @@ public class TimetableSnapshot {
      * with trip times of a trip that didn't exist yet in the trip pattern.
      * </p>
      * <p>
-     * This is a HashMap and not a Map so the clone function is available.
+     * This is a PersistentMap, so it can be shared with the committed snapshot.
      * </p>
      * TODO clarify what it means to say "last" added trip pattern. There can be more than one? What happens to the older ones?
      */
-    private HashMap<TripIdAndServiceDate, TripPattern> lastAddedTripPattern = new HashMap<>();
+    private PersistentMap<TripIdAndServiceDate, TripPattern> lastAddedTripPattern = PersistentMap.empty();
 
     /**
      * This maps contains all of the new or updated TripPatterns added by realtime data indexed on
      * stop. This has to be kept in order for them to be included in the stop times api call on a
      * specific stop.
      *
-     * This is a SetMultimap, so that each pattern can only be added once.
+     * The patterns are kept in a set, so that each pattern can only be added once.
      *
      * TODO Find a generic way to keep all realtime indexes.
      */
-    private SetMultimap<Stop, TripPattern> patternsForStop = HashMultimap.create();
+    private PersistentMap<Stop, PersistentSet<TripPattern>> patternsForStop = PersistentMap.empty();
     
     /**
      * Boolean value indicating that timetable snapshot is read only if true. Once it is true, it shouldn't
@@ -142,6 +140,17 @@ public class TimetableSnapshot {
      */
     private Set<Timetable> dirtyTimetables = new HashSet<>();
 
+    /** Statistics for the commits of this buffer, not set for a committed snapshot. */
+    private final TimetableSnapshotCommitStatistics commitStatistics;
+
+    public TimetableSnapshot() {
+        this(new TimetableSnapshotCommitStatistics());
+    }
+
+    private TimetableSnapshot(TimetableSnapshotCommitStatistics commitStatistics) {
+        this.commitStatistics = commitStatistics;
+    }
+
     /**
      * Returns an updated timetable for the specified pattern if one is available in this snapshot,
      * or the originally scheduled timetable if there are no updates in this snapshot.
@@ -212,7 +221,7 @@ public class TimetableSnapshot {
             if(old.serviceDate != null)
                 sortedTimetables.remove(old);
             sortedTimetables.add(tt);
-            timetables.put(pattern, sortedTimetables);
+            timetables = timetables.plus(pattern, sortedTimetables);
             dirtyTimetables.add(tt);
             dirty = true;
         }
@@ -226,7 +235,7 @@ public class TimetableSnapshot {
             // Remember this pattern for the added trip id and service date
             FeedScopedId tripId = updatedTripTimes.trip.getId();
             TripIdAndServiceDate tripIdAndServiceDate = new TripIdAndServiceDate(tripId, serviceDate);
-            lastAddedTripPattern.put(tripIdAndServiceDate, pattern);
+            lastAddedTripPattern = lastAddedTripPattern.plus(tripIdAndServiceDate, pattern);
         } else {
             // Set updated trip times of trip
             tt.setTripTimes(tripIndex, updatedTripTimes);
@@ -242,7 +251,7 @@ public class TimetableSnapshot {
 
     /**
      * This produces a small delay of typically around 50ms, which is almost entirely due to
-     * the indexing step. Cloning the map is much faster (2ms).
+     * the indexing step. The maps are shared with the committed snapshot, they are not copied.
      * It is perhaps better to index timetables as they are changed to avoid experiencing all
      * this lag at once, but we want to avoid re-indexing when receiving multiple updates for
      * the same timetable in rapid succession. This compromise is expressed by the
@@ -254,20 +263,25 @@ public class TimetableSnapshot {
         return commit(null, false);
     }
 
-    @SuppressWarnings("unchecked")
     public TimetableSnapshot commit(TransitLayerUpdater transitLayerUpdater, boolean force) {
         if (readOnly) {
             throw new ConcurrentModificationException("This TimetableSnapshot is read-only.");
         }
         
-        TimetableSnapshot ret = new TimetableSnapshot();
         if (!force && !this.isDirty()) { return null; }
+
+        long startTime = System.nanoTime();
+        long startAllocatedBytes = TimetableSnapshotCommitStatistics.currentThreadAllocatedBytes();
+        int nUpdatedTimetables = dirtyTimetables.size();
+
+        TimetableSnapshot ret = new TimetableSnapshot(null);
         for (Timetable tt : dirtyTimetables) {
             tt.finish(); // summarize, index, etc. the new timetables
         }
-        ret.timetables = (HashMap<TripPattern, SortedSet<Timetable>>) this.timetables.clone();
-        ret.lastAddedTripPattern = (HashMap<TripIdAndServiceDate, TripPattern>)
-                this.lastAddedTripPattern.clone();
+        // The maps are immutable, share them with the snapshot
+        ret.timetables = this.timetables;
+        ret.lastAddedTripPattern = this.lastAddedTripPattern;
+        ret.patternsForStop = this.patternsForStop;
 
         if (transitLayerUpdater != null) {
             transitLayerUpdater.update(dirtyTimetables);
@@ -276,9 +290,14 @@ public class TimetableSnapshot {
         this.dirtyTimetables.clear();
         this.dirty = false;
 
-        ret.setPatternsForStop(HashMultimap.create(this.patternsForStop));
-
         ret.readOnly = true; // mark the snapshot as henceforth immutable
+
+        commitStatistics.record(
+            System.nanoTime() - startTime,
+            startAllocatedBytes,
+            TimetableSnapshotCommitStatistics.currentThreadAllocatedBytes(),
+            nUpdatedTimetables
+        );
         return ret;
     }
 
@@ -308,7 +327,15 @@ public class TimetableSnapshot {
      * @return true if the timetable changed as a result of the call
      */
     protected boolean clearTimetable(String feedId) {
-        return timetables.keySet().removeIf(tripPattern -> feedId.equals(tripPattern.getFeedId()));
+        PersistentMap<TripPattern, SortedSet<Timetable>> result = timetables;
+        for (TripPattern tripPattern : timetables.keySet()) {
+            if (feedId.equals(tripPattern.getFeedId())) {
+                result = result.minus(tripPattern);
+            }
+        }
+        boolean modified = result != timetables;
+        timetables = result;
+        return modified;
     }
 
     /**
@@ -318,10 +345,15 @@ public class TimetableSnapshot {
      * @return true if the lastAddedTripPattern changed as a result of the call
      */
     protected boolean clearLastAddedTripPattern(String feedId) {
-        return lastAddedTripPattern.keySet().removeIf(
-            lastAddedTripPattern ->
-                feedId.equals(lastAddedTripPattern.getTripId().getFeedId())
-        );
+        PersistentMap<TripIdAndServiceDate, TripPattern> result = lastAddedTripPattern;
+        for (TripIdAndServiceDate it : lastAddedTripPattern.keySet()) {
+            if (feedId.equals(it.getTripId().getFeedId())) {
+                result = result.minus(it);
+            }
+        }
+        boolean modified = result != lastAddedTripPattern;
+        lastAddedTripPattern = result;
+        return modified;
     }
 
     /**
@@ -333,9 +365,10 @@ public class TimetableSnapshot {
         }
 
         boolean modified = false;
-        for (Iterator<TripPattern> it = timetables.keySet().iterator(); it.hasNext();){
-            TripPattern pattern = it.next();
-            SortedSet<Timetable> sortedTimetables = timetables.get(pattern);
+        PersistentMap<TripPattern, SortedSet<Timetable>> keptTimetables = timetables;
+        for (Entry<TripPattern, SortedSet<Timetable>> it : timetables.entrySet()) {
+            TripPattern pattern = it.getKey();
+            SortedSet<Timetable> sortedTimetables = it.getValue();
             SortedSet<Timetable> toKeepTimetables =
                     new TreeSet<Timetable>(new SortedTimetableComparator());
             for(Timetable timetable : sortedTimetables) {
@@ -347,21 +380,22 @@ public class TimetableSnapshot {
             }
 
             if(toKeepTimetables.isEmpty()) {
-                it.remove();
-            } else {
-                timetables.put(pattern, toKeepTimetables);
+                keptTimetables = keptTimetables.minus(pattern);
+            } else if (toKeepTimetables.size() != sortedTimetables.size()) {
+                keptTimetables = keptTimetables.plus(pattern, toKeepTimetables);
             }
         }
+        timetables = keptTimetables;
         
         // Also remove last added trip pattern for days that are purged
-        for (Iterator<Entry<TripIdAndServiceDate, TripPattern>> iterator = lastAddedTripPattern
-                .entrySet().iterator(); iterator.hasNext();) {
-            TripIdAndServiceDate tripIdAndServiceDate = iterator.next().getKey();
+        PersistentMap<TripIdAndServiceDate, TripPattern> keptLastAdded = lastAddedTripPattern;
+        for (TripIdAndServiceDate tripIdAndServiceDate : lastAddedTripPattern.keySet()) {
             if (serviceDate.compareTo(tripIdAndServiceDate.getServiceDate()) >= 0) {
-                iterator.remove();
+                keptLastAdded = keptLastAdded.minus(tripIdAndServiceDate);
                 modified = true;
             }
         }
+        lastAddedTripPattern = keptLastAdded;
 
         return modified;
     }
@@ -391,16 +425,26 @@ public class TimetableSnapshot {
     private void addPatternToIndex(TripPattern tripPattern) {
         if (tripPattern.isCreatedByRealtimeUpdater()) {
             for (Stop stop: tripPattern.getStops()) {
-                patternsForStop.put(stop, tripPattern);
+                PersistentSet<TripPattern> patterns = patternsForStop.get(stop);
+                if (patterns == null) {
+                    patterns = PersistentSet.empty();
+                }
+                PersistentSet<TripPattern> newPatterns = patterns.plus(tripPattern);
+                if (newPatterns != patterns) {
+                    patternsForStop = patternsForStop.plus(stop, newPatterns);
+                }
             }
         }
     }
 
     public Collection<TripPattern> getPatternsForStop(Stop stop) {
-        return patternsForStop.get(stop);
+        return patternsForStop.getOrDefault(stop, PersistentSet.empty());
     }
 
-    public void setPatternsForStop(SetMultimap<Stop, TripPattern> patternsForStop) {
-        this.patternsForStop = patternsForStop;
+    /**
+     * Statistics for the commits of this buffer, {@code null} for a committed snapshot.
+     */
+    public TimetableSnapshotCommitStatistics getCommitStatistics() {
+        return commitStatistics;
     }
 }
@@ -0,0 +1,113 @@
+package org.opentripplanner.model;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import org.opentripplanner.model.base.ToStringBuilder;
+
+/**
+ * Keep track of the time spent and the memory allocated when a {@link TimetableSnapshot} is
+ * committed, including the update of the real-time TransitLayer. The statistics are reported by
+ * the updater status API.
+ * <p>
+ * The allocated bytes are measured for the committing thread, if the JVM does not support it the
+ * allocated bytes are {@code -1}.
+ * <p>
+ * This class is THREAD-SAFE, the statistics are recorded by the committing thread and read by
+ * the API.
+ */
+public class TimetableSnapshotCommitStatistics {
+
+    private static final int NOT_SUPPORTED = -1;
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = threadMXBean();
+
+    private long commits = 0;
+    private long lastDurationNanos = 0;
+    private long maxDurationNanos = 0;
+    private long totalDurationNanos = 0;
+    private long lastAllocatedBytes = NOT_SUPPORTED;
+    private long totalAllocatedBytes = 0;
+    private int lastUpdatedTimetables = 0;
+
+    /** Return the bytes allocated by the current thread, used to measure a commit. */
+    static long currentThreadAllocatedBytes() {
+        return THREAD_MX_BEAN == null ? NOT_SUPPORTED : THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    synchronized void record(
+            long durationNanos,
+            long startAllocatedBytes,
+            long endAllocatedBytes,
+            int updatedTimetables
+    ) {
+        ++commits;
+        lastDurationNanos = durationNanos;
+        maxDurationNanos = Math.max(maxDurationNanos, durationNanos);
+        totalDurationNanos += durationNanos;
+        lastUpdatedTimetables = updatedTimetables;
+
+        if (startAllocatedBytes == NOT_SUPPORTED || endAllocatedBytes == NOT_SUPPORTED) {
+            lastAllocatedBytes = NOT_SUPPORTED;
+        }
+        else {
+            lastAllocatedBytes = endAllocatedBytes - startAllocatedBytes;
+            totalAllocatedBytes += lastAllocatedBytes;
+        }
+    }
+
+    public synchronized long getCommits() {
+        return commits;
+    }
+
+    public synchronized double getLastCommitMs() {
+        return toMs(lastDurationNanos);
+    }
+
+    public synchronized double getMaxCommitMs() {
+        return toMs(maxDurationNanos);
+    }
+
+    public synchronized double getAverageCommitMs() {
+        return commits == 0 ? 0 : toMs(totalDurationNanos) / commits;
+    }
+
+    public synchronized long getLastCommitAllocatedBytes() {
+        return lastAllocatedBytes;
+    }
+
+    public synchronized long getAverageCommitAllocatedBytes() {
+        if (lastAllocatedBytes == NOT_SUPPORTED) {
+            return NOT_SUPPORTED;
+        }
+        return commits == 0 ? 0 : totalAllocatedBytes / commits;
+    }
+
+    /** The number of timetables updated since the previous commit. */
+    public synchronized int getLastCommitUpdatedTimetables() {
+        return lastUpdatedTimetables;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return ToStringBuilder.of(TimetableSnapshotCommitStatistics.class)
+            .addNum("commits", commits)
+            .addNum("lastCommitMs", getLastCommitMs())
+            .addNum("averageCommitMs", getAverageCommitMs())
+            .addNum("lastCommitAllocatedBytes", lastAllocatedBytes)
+            .toString();
+    }
+
+    private static double toMs(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            var it = (com.sun.management.ThreadMXBean) bean;
+            if (it.isThreadAllocatedMemorySupported() && it.isThreadAllocatedMemoryEnabled()) {
+                return it;
+            }
+        }
+        return null;
+    }
+}
@@ -1,5 +1,7 @@
 package org.opentripplanner.model;
 
+import javax.annotation.Nullable;
+
 /**
  * This interface is used to retrieve the current instance of the TimetableSnapshot. Any provider
  * implementing this interface is responsible for thread-safe access to the latest valid
@@ -11,4 +13,13 @@ package org.opentripplanner.model;
  */
 public interface TimetableSnapshotProvider {
     TimetableSnapshot getTimetableSnapshot();
+
+    /**
+     * Return the statistics for the commits of the timetable snapshot, or {@code null} if the
+     * provider does not keep track of them.
+     */
+    @Nullable
+    default TimetableSnapshotCommitStatistics getCommitStatistics() {
+        return null;
+    }
 }
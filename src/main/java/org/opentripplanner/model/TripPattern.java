@@ -331,10 +331,10 @@ public class TripPattern extends TransitEntity implements Cloneable, Serializabl
     public void removeTrips(Predicate<Trip> removeTrip) {
         trips.removeIf(removeTrip);
         if(trips.isEmpty()) {
-            scheduledTimetable.tripTimes.clear();
+            scheduledTimetable.clearTripTimes();
         }
         else {
-            scheduledTimetable.tripTimes.removeIf(tt -> removeTrip.test(tt.trip));
+            scheduledTimetable.removeTripTimes(tt -> removeTrip.test(tt.trip));
         }
     }
 
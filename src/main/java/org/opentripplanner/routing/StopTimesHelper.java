@@ -11,6 +11,7 @@ import org.opentripplanner.model.TripTimeShort;
 import org.opentripplanner.model.calendar.ServiceDate;
 import org.opentripplanner.routing.core.ServiceDay;
 import org.opentripplanner.routing.trippattern.FrequencyEntry;
+import org.opentripplanner.routing.trippattern.StopDepartures;
 import org.opentripplanner.routing.trippattern.TripTimes;
 
 import java.util.ArrayList;
@@ -184,19 +185,16 @@ public class StopTimesHelper {
       ServiceDate[] serviceDates
   ) {
 
-    // The bounded priority Q is used to keep a sorted short list of trip times. We can not
-    // relay on the trip times to be in order because of real-time updates. This code can
-    // probably be optimized, and the trip search in the Raptor search does almost the same
-    // thing. This is no part of a routing request, but is a used frequently in some
-    // operation like Entur for "departure boards" (apps, widgets, screens on platforms, and
-    // hotel lobbies). Setting the numberOfDepartures and timeRange to a big number for a
-    // transit hub could result in a DOS attack, but there are probably other more effective
-    // ways to do it.
+    // The bounded priority Q is used to merge the departures of the service dates into a sorted
+    // short list of trip times. We can not relay on the trip times to be in order because of
+    // real-time updates, so the departures at each stop are looked up in the timetable
+    // departure index, sorted on departure time, see {@link Timetable#getStopDepartures(int)}.
+    // This is no part of a routing request, but is a used frequently in some operation like
+    // Entur for "departure boards" (apps, widgets, screens on platforms, and hotel lobbies).
     //
     // The {@link MinMaxPriorityQueue} is marked beta, but we do not have a god alternative.
     MinMaxPriorityQueue<TripTimeShort> pq = MinMaxPriorityQueue
-            .orderedBy(Comparator.comparing((TripTimeShort tts) -> tts.getServiceDay()
-                + tts.getRealtimeDeparture()))
+            .orderedBy(Comparator.comparing(StopTimesHelper::departureTime))
             .maximumSize(numberOfDepartures)
             .create();
 
@@ -217,13 +215,7 @@ public class StopTimesHelper {
       for (Stop currStop : pattern.stopPattern.stops) {
         if (currStop == stop) {
           if (omitNonPickups && pattern.stopPattern.pickups[sidx] == StopPattern.PICKDROP_NONE) continue;
-          for (TripTimes t : tt.tripTimes) {
-            if (!sd.serviceRunning(t.serviceCode)) continue;
-            if (t.getDepartureTime(sidx) != -1 &&
-                    t.getDepartureTime(sidx) >= secondsSinceMidnight) {
-              pq.add(new TripTimeShort(t, sidx, stop, sd));
-            }
-          }
+          addNextDepartures(pq, tt, sd, stop, sidx, secondsSinceMidnight, numberOfDepartures);
 
           // TODO: This needs to be adapted after #1647 is merged
           for (FrequencyEntry freq : tt.frequencyEntries) {
@@ -252,4 +244,41 @@ public class StopTimesHelper {
     }
     return pq;
   }
+
+  /**
+   * Add the next departures at or after the given time from the stop to the queue. The departures
+   * are visited in departure time order, so the search stops when the queue is full and the
+   * departure is later than the last departure in the queue.
+   */
+  private static void addNextDepartures(
+      MinMaxPriorityQueue<TripTimeShort> pq,
+      Timetable tt,
+      ServiceDay sd,
+      Stop stop,
+      int stopPos,
+      int secondsSinceMidnight,
+      int numberOfDepartures
+  ) {
+    StopDepartures departures = tt.getStopDepartures(stopPos);
+    int found = 0;
+
+    for (
+        int i = departures.findFirstDepartureAtOrAfter(secondsSinceMidnight);
+        i < departures.size() && found < numberOfDepartures;
+        ++i
+    ) {
+      if (pq.size() == numberOfDepartures
+          && sd.time(departures.departureTime(i)) >= departureTime(pq.peekLast())) {
+        return;
+      }
+      TripTimes t = tt.getTripTimes(departures.tripIndex(i));
+      if (!sd.serviceRunning(t.serviceCode)) { continue; }
+      pq.add(new TripTimeShort(t, stopPos, stop, sd));
+      ++found;
+    }
+  }
+
+  private static long departureTime(TripTimeShort tripTimeShort) {
+    return tripTimeShort.getServiceDay() + tripTimeShort.getRealtimeDeparture();
+  }
 }
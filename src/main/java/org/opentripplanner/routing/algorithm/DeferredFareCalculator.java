@@ -0,0 +1,51 @@
+package org.opentripplanner.routing.algorithm;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.routing.core.Fare;
+
+/**
+ * Keep the fare calculation for each transit itinerary, and run it after the itineraries are
+ * filtered. No filter use the fares, so only the returned itineraries pay for the calculation.
+ * <p>
+ * This class has a request scope, and is not thread-safe.
+ */
+class DeferredFareCalculator {
+
+    /** The itineraries are compared by identity. */
+    private final Map<Itinerary, Supplier<Fare>> fareCalculations = new HashMap<>();
+
+    private final ParallelMapper parallelMapper;
+
+    DeferredFareCalculator(ParallelMapper parallelMapper) {
+        this.parallelMapper = parallelMapper;
+    }
+
+    void add(Itinerary itinerary, Supplier<Fare> fareCalculation) {
+        fareCalculations.put(itinerary, fareCalculation);
+    }
+
+    /**
+     * Calculate the fares of the given itineraries in parallel, and set the fare of each
+     * itinerary. Itineraries without a fare calculation are not changed.
+     */
+    void calculateFares(List<Itinerary> itineraries) {
+        List<Itinerary> transitItineraries = itineraries.stream()
+            .filter(fareCalculations::containsKey)
+            .collect(Collectors.toList());
+
+        List<Fare> fares = parallelMapper.map(
+            transitItineraries,
+            it -> fareCalculations.get(it).get(),
+            "fares"
+        );
+
+        for (int i = 0; i < fares.size(); ++i) {
+            transitItineraries.get(i).fare = fares.get(i);
+        }
+    }
+}
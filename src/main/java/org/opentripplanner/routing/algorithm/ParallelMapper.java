@@ -0,0 +1,68 @@
+package org.opentripplanner.routing.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Map the elements of a list using a thread pool, and return the results in the same order as
+ * the input. Without a thread pool the elements are mapped in the calling thread.
+ * <p>
+ * The calling thread waits for all tasks to complete, so the tasks MUST NOT wait for other tasks
+ * in the same pool.
+ */
+class ParallelMapper {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelMapper.class);
+
+    @Nullable
+    private final ExecutorService threadPool;
+
+    ParallelMapper(@Nullable ExecutorService threadPool) {
+        this.threadPool = threadPool;
+    }
+
+    /**
+     * @param description what is mapped, used in the error message if a task fails.
+     */
+    <T, R> List<R> map(List<T> input, Function<T, R> mapper, String description) {
+        if (threadPool == null || input.size() < 2) {
+            return input.stream().map(mapper).collect(Collectors.toList());
+        }
+
+        List<Future<R>> futures = new ArrayList<>(input.size());
+        for (T it : input) {
+            futures.add(threadPool.submit(() -> mapper.apply(it)));
+        }
+
+        List<R> result = new ArrayList<>(input.size());
+        try {
+            for (Future<R> future : futures) {
+                result.add(future.get());
+            }
+        }
+        catch (ExecutionException e) {
+            futures.forEach(it -> it.cancel(true));
+            LOG.error("Failed to create " + description + " in parallel.", e.getCause());
+            throw new IllegalStateException(
+                "Failed to create " + description + " in parallel. Details: " + e.getMessage(),
+                e.getCause()
+            );
+        }
+        catch (InterruptedException e) {
+            futures.forEach(it -> it.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                "Interrupted while creating " + description + " in parallel.", e
+            );
+        }
+        return result;
+    }
+}
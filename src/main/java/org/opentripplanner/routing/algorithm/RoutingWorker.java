@@ -1,5 +1,6 @@
 package org.opentripplanner.routing.algorithm;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -48,6 +49,7 @@ import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
 import org.opentripplanner.transit.raptor.api.response.RaptorResponse;
 import org.opentripplanner.transit.raptor.rangeraptor.configure.RaptorConfig;
 import org.opentripplanner.util.OTPFeature;
+import org.opentripplanner.util.time.Deadline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,6 +65,12 @@ public class RoutingWorker {
 
     private final RaptorService<TripSchedule> raptorService;
 
+    /**
+     * The Raptor thread pool is used to map paths to itineraries in parallel, if it is configured.
+     * The tasks never wait for other tasks in the pool, so sharing it with Raptor is safe.
+     */
+    private final ParallelMapper parallelMapper;
+
     /** An object that accumulates profiling and debugging info for inclusion in the response. */
     public final DebugTimingAggregator debugTimingAggregator = new DebugTimingAggregator();
 
@@ -72,9 +80,13 @@ public class RoutingWorker {
     private int searchWindowUsedInSeconds = NOT_SET;
     private Itinerary firstRemovedItinerary = null;
 
+    private final DeferredFareCalculator fareCalculator;
+
     public RoutingWorker(RaptorConfig<TripSchedule> config, RoutingRequest request) {
         this.debugTimingAggregator.startedCalculating();
         this.raptorService = new RaptorService<>(config);
+        this.parallelMapper = new ParallelMapper(config.threadPool());
+        this.fareCalculator = new DeferredFareCalculator(parallelMapper);
         this.request = request;
         this.emptyDirectModeHandler = new FilterTransitWhenDirectModeIsEmpty(request.modes);
     }
@@ -83,6 +95,11 @@ public class RoutingWorker {
         List<Itinerary> itineraries = new ArrayList<>();
         List<RoutingError> routingErrors = new ArrayList<>();
 
+        // All stages of the search share the same deadline, see RoutingRequest#getDeadline()
+        request.setDeadline(
+            Deadline.after(Duration.ofMillis((long) (router.routingTimeoutSeconds() * 1000)))
+        );
+
         // If no direct mode is set, then we set one.
         // See {@link FilterTransitWhenDirectModeIsEmpty}
         request.modes.directMode = emptyDirectModeHandler.resolveDirectMode();
@@ -123,6 +140,21 @@ public class RoutingWorker {
 
         this.debugTimingAggregator.finishedFiltering();
 
+        fareCalculator.calculateFares(itineraries);
+
+        this.debugTimingAggregator.finishedFareCalculation();
+
+        // The search was stopped early, the itineraries found so far are returned
+        if (request.getDeadline().hasExpired()) {
+            LOG.warn(
+                "Routing timeout, returning {} itineraries. From: {}, to: {}",
+                itineraries.size(),
+                request.from,
+                request.to
+            );
+            routingErrors.add(new RoutingError(RoutingErrorCode.REQUEST_TIMEOUT, null));
+        }
+
         // Restore original directMode.
         request.modes.directMode = emptyDirectModeHandler.originalDirectMode();
 
@@ -199,6 +231,10 @@ public class RoutingWorker {
             }
         }
 
+        // There is no time left for the transit search, and the access/egress lists might be
+        // incomplete - a missing stop should not be reported as a routing error
+        if (request.getDeadline().isExpired()) { return Collections.emptyList(); }
+
         verifyEgressAccess(accessList, egressList);
 
         List<Itinerary> itineraries = new ArrayList<>();
@@ -223,8 +259,15 @@ public class RoutingWorker {
 
         this.debugTimingAggregator.finishedRaptorSearch();
 
+        // Range Raptor iterates over the search window one minute at the time, starting at the
+        // end of the window. A search stopped by the deadline has not visited the first minutes,
+        // so the paths found are not the best for the requested time - drop them and let the
+        // REQUEST_TIMEOUT error tell the client to try again.
+        if (request.getDeadline().hasExpired()) { return Collections.emptyList(); }
+
         Collection<Path<TripSchedule>> paths = transitResponse.paths();
 
+        // The optimizer stops when the deadline expires, the rest of the paths are kept as is
         if(OTPFeature.OptimizeTransfers.isOn()) {
             paths = TransferOptimizationServiceConfigurator.createOptimizeTransferService(
                 transitLayer::getStopByIndex,
@@ -232,7 +275,7 @@ public class RoutingWorker {
                 requestTransitDataProvider,
                 raptorRequest,
                 request.transferOptimization
-            ).optimize(transitResponse.paths());
+            ).optimize(transitResponse.paths(), request.getDeadline());
         }
 
         // Create itineraries
@@ -245,20 +288,30 @@ public class RoutingWorker {
         );
         FareService fareService = router.graph.getService(FareService.class);
 
-        // TODO
-        for (Path<TripSchedule> path : paths) {
-            // Convert the Raptor/Astar paths to OTP API Itineraries
-            Itinerary itinerary = itineraryMapper.createItinerary(path);
-            // Decorate the Itineraries with fare information.
-            // Itinerary and Leg are API model classes, lacking internal object references needed for effective
-            // fare calculation. We derive the fares from the internal Path objects and add them to the itinerary.
-            if (fareService != null) {
-                itinerary.fare = fareService.getCost(path, transitLayer);
+        // Convert the Raptor paths to OTP API Itineraries, the mapping re-traverse the street
+        // edges of the access, egress and transfer legs, so it is done in parallel
+        List<Path<TripSchedule>> pathList = new ArrayList<>(paths);
+        itineraries.addAll(
+            parallelMapper.map(pathList, itineraryMapper::createItinerary, "itineraries")
+        );
+
+        // Itinerary and Leg are API model classes, lacking internal object references needed for
+        // effective fare calculation. We derive the fares from the internal Path objects, after
+        // the itineraries are filtered, see DeferredFareCalculator.
+        if (fareService != null) {
+            for (int i = 0; i < pathList.size(); ++i) {
+                Path<TripSchedule> path = pathList.get(i);
+                fareCalculator.add(
+                    itineraries.get(i),
+                    () -> fareService.getCost(path, transitLayer)
+                );
             }
-            itineraries.add(itinerary);
         }
 
-        checkIfTransitConnectionExists(transitResponse);
+        // An empty result from an incomplete search does not mean that no connection exist
+        if (!request.getDeadline().hasExpired()) {
+            checkIfTransitConnectionExists(transitResponse);
+        }
 
         // Filter itineraries away that depart after the latest-departure-time for depart after
         // search. These itineraries is a result of time-shifting the access leg and is needed for
@@ -1,7 +1,7 @@
 package org.opentripplanner.routing.algorithm.astar;
 
 import com.beust.jcommander.internal.Lists;
-import org.opentripplanner.common.pqueue.BinHeap;
+import org.opentripplanner.common.pqueue.OTPPriorityQueue;
 import org.opentripplanner.routing.algorithm.astar.strategies.RemainingWeightHeuristic;
 import org.opentripplanner.routing.algorithm.astar.strategies.SearchTerminationStrategy;
 import org.opentripplanner.routing.algorithm.astar.strategies.SkipEdgeStrategy;
@@ -51,7 +51,7 @@ public class AStar {
 
         public State u;
         public ShortestPathTree spt;
-        BinHeap<State> pq;
+        OTPPriorityQueue<State> pq;
         RemainingWeightHeuristic heuristic;
         public RoutingContext rctx;
         public int nVisited;
@@ -117,7 +117,10 @@ public class AStar {
         // before reaching its target.
         int initialSize = runState.rctx.graph.getVertices().size();
         initialSize = (int) Math.ceil(2 * (Math.sqrt((double) initialSize + 1)));
-        runState.pq = new BinHeap<>(initialSize);
+        // A state is stale if it is dominated after it was added to the queue, the queue may
+        // drop these, since they are skipped when extracted anyway.
+        ShortestPathTree spt = runState.spt;
+        runState.pq = options.streetSearchPriorityQueue.create(initialSize, s -> !spt.visit(s));
         runState.nVisited = 0;
         runState.targetAcceptedStates = Lists.newArrayList();
         
@@ -161,7 +164,10 @@ public class AStar {
 
         runState.nVisited += 1;
         
-        Collection<Edge> edges = runState.options.arriveBy ? runState.u_vertex.getIncoming() : runState.u_vertex.getOutgoing();
+        // The routing context includes the temporary edges connected to permanent vertices
+        Collection<Edge> edges = runState.options.arriveBy
+            ? runState.rctx.getIncoming(runState.u_vertex)
+            : runState.rctx.getOutgoing(runState.u_vertex);
         for (Edge edge : edges) {
 
             if (skipEdgeStrategy != null &&
@@ -221,7 +227,10 @@ public class AStar {
             /*
              * Terminate based on timeout?
              */
-            if (abortTime < Long.MAX_VALUE  && System.currentTimeMillis() > abortTime) {
+            if (
+                (abortTime < Long.MAX_VALUE  && System.currentTimeMillis() > abortTime)
+                || runState.options.getDeadline().isExpired()
+            ) {
                 LOG.warn("Search timeout. origin={} target={}", runState.rctx.fromVertices, runState.rctx.toVertices);
                 // Rather than returning null to indicate that the search was aborted/timed out,
                 // we instead set a flag in the routing context and return the SPT anyway. This
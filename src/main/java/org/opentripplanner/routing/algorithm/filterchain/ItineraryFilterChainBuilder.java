@@ -13,8 +13,10 @@ import org.opentripplanner.routing.algorithm.filterchain.filters.RemoveBikerenta
 import org.opentripplanner.routing.algorithm.filterchain.filters.RemoveParkAndRideWithMostlyWalkingFilter;
 import org.opentripplanner.routing.algorithm.filterchain.filters.RemoveTransitIfStreetOnlyIsBetterFilter;
 import org.opentripplanner.routing.algorithm.filterchain.filters.RemoveWalkOnlyFilter;
+import org.opentripplanner.routing.algorithm.filterchain.filters.SkipOnDeadlineFilterWrapper;
 import org.opentripplanner.routing.algorithm.filterchain.filters.SortOnGeneralizedCost;
 import org.opentripplanner.routing.algorithm.filterchain.filters.TransitGeneralizedCostFilter;
+import org.opentripplanner.util.time.Deadline;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -45,6 +47,7 @@ public class ItineraryFilterChainBuilder {
     private DoubleFunction<Double> nonTransitGeneralizedCostLimit;
     private Instant latestDepartureTimeLimit = null;
     private Consumer<Itinerary> maxLimitReachedSubscriber;
+    private Deadline deadline = Deadline.NONE;
 
 
     /**
@@ -202,6 +205,16 @@ public class ItineraryFilterChainBuilder {
         return this;
     }
 
+    /**
+     * The group-by filters compare the itineraries with each other and are the most expensive
+     * part of the chain. They are skipped if the deadline is expired when the filter is applied.
+     * The other filters are always applied.
+     */
+    public ItineraryFilterChainBuilder withDeadline(Deadline deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
     public ItineraryFilter build() {
         List<ItineraryFilter> filters = new ArrayList<>();
 
@@ -219,10 +232,13 @@ public class ItineraryFilterChainBuilder {
 
             for (GroupBySimilarity it : groupBy) {
                 filters.add(
-                    new GroupBySimilarLegsFilter(
-                        it.groupByP,
-                        it.approximateMinLimit,
-                        new SortOnGeneralizedCost()
+                    new SkipOnDeadlineFilterWrapper(
+                        new GroupBySimilarLegsFilter(
+                            it.groupByP,
+                            it.approximateMinLimit,
+                            new SortOnGeneralizedCost()
+                        ),
+                        deadline
                     )
                 );
             }
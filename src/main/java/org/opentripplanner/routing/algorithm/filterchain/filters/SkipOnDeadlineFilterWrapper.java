@@ -0,0 +1,38 @@
+package org.opentripplanner.routing.algorithm.filterchain.filters;
+
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.routing.algorithm.filterchain.ItineraryFilter;
+import org.opentripplanner.util.time.Deadline;
+
+import java.util.List;
+
+/**
+ * Wrap a filter witch is not required for a valid result, like the group-by filters, and skip it
+ * if the request deadline has expired. The itineraries are returned unchanged, the required
+ * filters later in the chain, like the max-limit filter, still reduce the result.
+ */
+public class SkipOnDeadlineFilterWrapper implements ItineraryFilter {
+
+  private final ItineraryFilter delegate;
+  private final Deadline deadline;
+
+  public SkipOnDeadlineFilterWrapper(ItineraryFilter delegate, Deadline deadline) {
+    this.delegate = delegate;
+    this.deadline = deadline;
+  }
+
+  @Override
+  public String name() {
+    return delegate.name();
+  }
+
+  @Override
+  public List<Itinerary> filter(List<Itinerary> itineraries) {
+    return deadline.isExpired() ? itineraries : delegate.filter(itineraries);
+  }
+
+  @Override
+  public boolean removeItineraries() {
+    return delegate.removeItineraries();
+  }
+}
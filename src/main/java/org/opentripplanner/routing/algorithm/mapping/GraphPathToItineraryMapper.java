@@ -639,7 +639,7 @@ public abstract class GraphPathToItineraryMapper {
                     if (edge instanceof StreetEdge) {
                         // the next edges will be PlainStreetEdges, we hope
                         double angleDiff = getAbsoluteAngleDiff(thisAngle, lastAngle);
-                        for (Edge alternative : backState.getVertex().getOutgoingStreetEdges()) {
+                        for (Edge alternative : outgoingStreetEdges(backState, backState.getVertex())) {
                             if (alternative.getName(requestedLocale).equals(streetName)) {
                                 // alternatives that have the same name
                                 // are usually caused by street splits
@@ -658,9 +658,10 @@ public abstract class GraphPathToItineraryMapper {
                         // FIXME: this code might be wrong with the removal of the edge-based graph
                         State twoStatesBack = backState.getBackState();
                         Vertex backVertex = twoStatesBack.getVertex();
-                        for (Edge alternative : backVertex.getOutgoingStreetEdges()) {
-                            List<Edge> alternatives = alternative.getToVertex()
-                                    .getOutgoingStreetEdges();
+                        for (Edge alternative : outgoingStreetEdges(backState, backVertex)) {
+                            List<Edge> alternatives = outgoingStreetEdges(
+                                    backState, alternative.getToVertex()
+                            );
                             if (alternatives.size() == 0) {
                                 continue; // this is not an alternative
                             }
@@ -811,6 +812,20 @@ public abstract class GraphPathToItineraryMapper {
         return edge instanceof StreetEdge && (((StreetEdge)edge).getStreetClass() & StreetEdge.CLASS_LINK) == StreetEdge.CLASS_LINK;
     }
 
+    /**
+     * The outgoing street edges of the vertex, including the temporary edges of the request at
+     * permanent vertices next to the origin and destination.
+     */
+    private static List<Edge> outgoingStreetEdges(State state, Vertex vertex) {
+        List<Edge> result = new ArrayList<>();
+        for (Edge out : state.getOutgoingEdges(vertex)) {
+            if (out instanceof StreetEdge) {
+                result.add(out);
+            }
+        }
+        return result;
+    }
+
     private static double getAbsoluteAngleDiff(double thisAngle, double lastAngle) {
         double angleDiff = thisAngle - lastAngle;
         if (angleDiff < 0) {
@@ -62,6 +62,7 @@ public class RoutingRequestToFilterChainMapper {
         .withLatestDepartureTimeLimit(filterOnLatestDepartureTime)
         .withMaxLimitReachedSubscriber(maxLimitReachedSubscriber)
         .withRemoveWalkAllTheWayResults(removeWalkAllTheWayResults)
+        .withDeadline(request.getDeadline())
         .withDebugEnabled(p.debug);
 
     return builder.build();
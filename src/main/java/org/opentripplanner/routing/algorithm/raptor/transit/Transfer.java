@@ -9,6 +9,7 @@ import org.opentripplanner.routing.algorithm.raptor.transit.request.TransferWith
 import org.opentripplanner.routing.api.request.RoutingRequest;
 import org.opentripplanner.routing.core.State;
 import org.opentripplanner.routing.core.StateEditor;
+import org.opentripplanner.routing.edgetype.StreetEdge;
 import org.opentripplanner.routing.graph.Edge;
 import org.opentripplanner.transit.raptor.api.transit.RaptorCostConverter;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
@@ -20,16 +21,58 @@ public class Transfer {
 
     private final List<Edge> edges;
 
+    /**
+     * {@code true} if all edges are street edges. The cost of walking a transfer with only street
+     * edges can be derived from the aggregates below, elevators and other edges have costs which
+     * can not.
+     */
+    private final boolean streetEdgesOnly;
+
+    /** The slope adjusted walk distance of all street edges, except stairs. */
+    private final double walkDistanceMeters;
+
+    /** The slope adjusted walk distance of all stairs. */
+    private final double stairsDistanceMeters;
+
+    /**
+     * The duration and turn cost for the last walk speed used, see
+     * {@link #asRaptorTransfer(RoutingRequest)}.
+     */
+    private volatile WalkSpeedProfile walkSpeedProfile;
+
     public Transfer(int toStop, List<Edge> edges) {
         this.toStop = toStop;
         this.edges = edges;
         this.distanceMeters = (int) edges.stream().mapToDouble(Edge::getDistanceMeters).sum();
+
+        boolean streetEdgesOnly = true;
+        double walkDistanceMeters = 0;
+        double stairsDistanceMeters = 0;
+
+        for (Edge edge : edges) {
+            if (!(edge instanceof StreetEdge)) {
+                streetEdgesOnly = false;
+                continue;
+            }
+            StreetEdge streetEdge = (StreetEdge) edge;
+            if (streetEdge.isStairs()) {
+                stairsDistanceMeters += streetEdge.getEffectiveWalkDistance();
+            } else {
+                walkDistanceMeters += streetEdge.getEffectiveWalkDistance();
+            }
+        }
+        this.streetEdgesOnly = streetEdgesOnly;
+        this.walkDistanceMeters = walkDistanceMeters;
+        this.stairsDistanceMeters = stairsDistanceMeters;
     }
 
     public Transfer(int toStopIndex, int distanceMeters) {
         this.toStop = toStopIndex;
         this.distanceMeters = distanceMeters;
         this.edges = null;
+        this.streetEdgesOnly = false;
+        this.walkDistanceMeters = 0;
+        this.stairsDistanceMeters = 0;
     }
 
     public List<Coordinate> getCoordinates() {
@@ -53,6 +96,14 @@ public class Transfer {
         return edges;
     }
 
+    /**
+     * Calculate the duration and cost of the transfer for the given transfer routing request.
+     * <p>
+     * Walking along street edges, the duration and the turn costs depend on the walk speed only,
+     * while the cost is linear in the walk, stairs and turn reluctance. The duration and turn cost
+     * for the last walk speed are kept, so the transfer only need to be traversed again if the
+     * walk speed change. All other requests traverse the edges.
+     */
     public Optional<RaptorTransfer> asRaptorTransfer(RoutingRequest routingRequest) {
         if (edges == null || edges.isEmpty()) {
             int durationSeconds = (int) Math.ceil(distanceMeters / routingRequest.walkSpeed);
@@ -63,6 +114,15 @@ public class Transfer {
             ));
         }
 
+        boolean walkOnly = streetEdgesOnly && isWalkOnly(routingRequest);
+
+        if (walkOnly) {
+            WalkSpeedProfile profile = walkSpeedProfile;
+            if (profile != null && profile.walkSpeed == routingRequest.walkSpeed) {
+                return profile.asRaptorTransfer(this, routingRequest);
+            }
+        }
+
         StateEditor se = new StateEditor(routingRequest, edges.get(0).getFromVertex());
         se.setTimeSeconds(0);
 
@@ -70,10 +130,18 @@ public class Transfer {
         for (Edge e : edges) {
             s = e.traverse(s);
             if (s == null) {
-                return Optional.empty();
+                break;
             }
         }
 
+        if (walkOnly && routingRequest.turnReluctance > 0) {
+            walkSpeedProfile = WalkSpeedProfile.create(this, routingRequest, s);
+        }
+
+        if (s == null) {
+            return Optional.empty();
+        }
+
         return Optional.of(new TransferWithDuration(
             this,
             (int) s.getElapsedTimeSeconds(),
@@ -113,6 +181,24 @@ public class Transfer {
         return transferRoutingRequest;
     }
 
+    /* private methods */
+
+    /**
+     * Return {@code true} if the edges are traversed by walking only, and the traversal depend on
+     * the walk speed and reluctances, not the wheelchair options.
+     */
+    private static boolean isWalkOnly(RoutingRequest request) {
+        return request.streetSubRequestModes.getWalk()
+            && !request.streetSubRequestModes.getBicycle()
+            && !request.streetSubRequestModes.getCar()
+            && !request.wheelchairAccessible;
+    }
+
+    private double walkCost(RoutingRequest request) {
+        return (request.walkReluctance * walkDistanceMeters
+            + request.stairsReluctance * stairsDistanceMeters) / request.walkSpeed;
+    }
+
     private static double roundToHalf(double input) {
         return ((int) (input * 2 + 0.5)) / 2.0;
     }
@@ -128,4 +214,53 @@ public class Transfer {
 
         return ((input + 50) / 100) * 100;
     }
+
+    /**
+     * The part of walking a transfer which depend on the walk speed: the duration and the sum of
+     * the turn costs. The turn cost is derived from the traversal weight by subtracting the walk
+     * and stairs cost, the aggregated distances make this possible without storing anything per
+     * edge.
+     * <p>
+     * This class is immutable and THREAD-SAFE.
+     */
+    private static class WalkSpeedProfile {
+
+        private static final int NOT_TRAVERSABLE = -1;
+
+        private final double walkSpeed;
+        private final int durationSeconds;
+        private final double turnCost;
+
+        private WalkSpeedProfile(double walkSpeed, int durationSeconds, double turnCost) {
+            this.walkSpeed = walkSpeed;
+            this.durationSeconds = durationSeconds;
+            this.turnCost = turnCost;
+        }
+
+        private static WalkSpeedProfile create(Transfer transfer, RoutingRequest request, State s) {
+            if (s == null) {
+                return new WalkSpeedProfile(request.walkSpeed, NOT_TRAVERSABLE, 0);
+            }
+            double turnCost = (s.getWeight() - transfer.walkCost(request)) / request.turnReluctance;
+
+            return new WalkSpeedProfile(
+                request.walkSpeed,
+                (int) s.getElapsedTimeSeconds(),
+                Math.max(turnCost, 0)
+            );
+        }
+
+        private Optional<RaptorTransfer> asRaptorTransfer(Transfer transfer, RoutingRequest request) {
+            if (durationSeconds == NOT_TRAVERSABLE) {
+                return Optional.empty();
+            }
+            double weight = transfer.walkCost(request) + request.turnReluctance * turnCost;
+
+            return Optional.of(new TransferWithDuration(
+                transfer,
+                durationSeconds,
+                RaptorCostConverter.toRaptorCost(weight)
+            ));
+        }
+    }
 }
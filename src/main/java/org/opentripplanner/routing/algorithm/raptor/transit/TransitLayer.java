@@ -4,7 +4,6 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -12,16 +11,21 @@ import javax.annotation.Nullable;
 import org.opentripplanner.model.Stop;
 import org.opentripplanner.model.transfer.TransferService;
 import org.opentripplanner.routing.algorithm.raptor.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptor.transit.request.RaptorTransferIndex;
+import org.opentripplanner.routing.algorithm.raptor.transit.request.TransferCacheStatistics;
+import org.opentripplanner.routing.algorithm.raptor.transit.request.TripPatternForDatesCache;
 import org.opentripplanner.routing.api.request.RoutingRequest;
-import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
+import org.opentripplanner.util.PersistentMap;
 
 public class TransitLayer {
 
   /**
    * Transit data required for routing, indexed by each local date(Graph TimeZone) it runs through.
    * A Trip "runs through" a date if any of its arrivals or departures is happening on that date.
+   * The map is immutable, a copy of the TransitLayer shares the map and replacing a date only
+   * creates a new path to the changed entry.
    */
-  private final HashMap<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate;
+  private PersistentMap<LocalDate, Collection<TripPatternForDate>> tripPatternsRunningOnDate;
 
   /**
    * Index of outer list is from stop index, inner list index has no specific meaning. To stop index
@@ -44,9 +48,15 @@ public class TransitLayer {
   private final RaptorRequestTransferCache transferCache;
 
   /**
-   * Makes a shallow copy of the TransitLayer, except for the tripPatternsForDate, where a shallow
-   * copy of the HashMap is made. This is sufficient, as the TransitLayerUpdater will replace
-   * entire keys and their values in the map.
+   * Trip patterns merged by date range. This is not copied, each instance has its own cache,
+   * since the tripPatternsRunningOnDate may be different.
+   */
+  private final TripPatternForDatesCache tripPatternForDatesCache;
+
+  /**
+   * Makes a shallow copy of the TransitLayer. The tripPatternsForDate map is immutable and shared,
+   * the TransitLayerUpdater replaces entire keys and their values in the copy. The copy get a
+   * new, empty {@link TripPatternForDatesCache}.
    */
   public TransitLayer(TransitLayer transitLayer) {
     this(
@@ -60,19 +70,20 @@ public class TransitLayer {
   }
 
   public TransitLayer(
-      Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate,
+      Map<LocalDate, ? extends Collection<TripPatternForDate>> tripPatternsRunningOnDate,
       List<List<Transfer>> simpleTransfers,
       TransferService transferService,
       StopIndexForRaptor stopIndex,
       ZoneId transitDataZoneId,
       RaptorRequestTransferCache transferCache
   ) {
-    this.tripPatternsRunningOnDate = new HashMap<>(tripPatternsRunningOnDate);
+    this.tripPatternsRunningOnDate = PersistentMap.copyOf(tripPatternsRunningOnDate);
     this.simpleTransfersByStopIndex = simpleTransfers;
     this.transferService = transferService;
     this.stopIndex = stopIndex;
     this.transitDataZoneId = transitDataZoneId;
     this.transferCache = transferCache;
+    this.tripPatternForDatesCache = new TripPatternForDatesCache(this);
   }
 
   public int getIndexByStop(Stop stop) {
@@ -109,13 +120,13 @@ public class TransitLayer {
 
   @Nullable
   public List<TripPatternForDate> getTripPatternsRunningOnDateCopy(LocalDate runningPeriodDate) {
-    List<TripPatternForDate> tripPatternForDate = tripPatternsRunningOnDate.get(runningPeriodDate);
+    var tripPatternForDate = tripPatternsRunningOnDate.get(runningPeriodDate);
     return tripPatternForDate != null ? new ArrayList<>(tripPatternForDate) : null;
   }
 
   @Nullable
   public List<TripPatternForDate> getTripPatternsStartingOnDateCopy(LocalDate date) {
-    List<TripPatternForDate> tripPatternsRunningOnDate = getTripPatternsRunningOnDateCopy(date);
+    var tripPatternsRunningOnDate = this.tripPatternsRunningOnDate.get(date);
     return tripPatternsRunningOnDate != null ? tripPatternsRunningOnDate
         .stream()
         .filter(t -> t.getLocalDate().equals(date))
@@ -130,18 +141,36 @@ public class TransitLayer {
     return transferService;
   }
 
-  public List<List<RaptorTransfer>> getRaptorTransfersForRequest(RoutingRequest routingRequest) {
+  public TripPatternForDatesCache getTripPatternForDatesCache() {
+    return tripPatternForDatesCache;
+  }
+
+  public RaptorTransferIndex getRaptorTransfersForRequest(RoutingRequest routingRequest) {
     return transferCache.get(simpleTransfersByStopIndex, routingRequest);
   }
 
   /**
-   * Replaces all the TripPatternForDates for a single date. This is an atomic operation according
-   * to the HashMap implementation.
+   * Calculate the transfers for the given transfer routing requests in parallel, so the first
+   * routing requests using them do not have to wait, see {@link RaptorRequestTransferCache}.
+   */
+  public void prefillTransferCache(Collection<RoutingRequest> transferRoutingRequests) {
+    transferCache.prefill(simpleTransfersByStopIndex, transferRoutingRequests);
+  }
+
+  public TransferCacheStatistics getTransferCacheStatistics() {
+    return transferCache.getStatistics();
+  }
+
+  /**
+   * Replaces all the TripPatternForDates for a single date. The collection is not copied, it
+   * must not be changed after it is passed in. This TransitLayer must not be published before all
+   * updates are done.
    */
   public void replaceTripPatternsForDate(
       LocalDate date,
-      List<TripPatternForDate> tripPatternForDates
+      Collection<TripPatternForDate> tripPatternForDates
   ) {
-    this.tripPatternsRunningOnDate.replace(date, tripPatternForDates);
+    this.tripPatternsRunningOnDate = tripPatternsRunningOnDate.plus(date, tripPatternForDates);
+    this.tripPatternForDatesCache.invalidateAll();
   }
 }
@@ -1,6 +1,8 @@
 package org.opentripplanner.routing.algorithm.raptor.transit;
 
+import java.util.List;
 import org.opentripplanner.model.StopTransferPriority;
+import org.opentripplanner.routing.api.request.RoutingRequest;
 
 public interface TransitTuningParameters {
   /**
@@ -28,6 +30,8 @@ public interface TransitTuningParameters {
     }
 
     @Override public int transferCacheMaxSize() { return 5; }
+
+    @Override public List<RoutingRequest> transferCacheRequests() { return List.of(); }
   };
 
   /**
@@ -48,4 +52,12 @@ public interface TransitTuningParameters {
    * too large, more memory may be used than needed.
    */
   int transferCacheMaxSize();
+
+  /**
+   * The transfers for these routing requests, in addition to the default routing request, are
+   * calculated at startup. Only the parameters used in transfers are relevant, like the walk
+   * speed and reluctance. This avoids the first requests with common parameters having to wait
+   * for the transfers to be calculated.
+   */
+  List<RoutingRequest> transferCacheRequests();
 }
@@ -1,5 +1,7 @@
 package org.opentripplanner.routing.algorithm.raptor.transit;
 
+import org.opentripplanner.model.BikeAccess;
+import org.opentripplanner.model.Trip;
 import org.opentripplanner.routing.algorithm.raptor.transit.mappers.DateMapper;
 import org.opentripplanner.routing.trippattern.TripTimes;
 
@@ -7,6 +9,7 @@ import javax.annotation.Nullable;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Predicate;
@@ -44,6 +47,11 @@ public class TripPatternForDate {
      */
     private final LocalDateTime endOfRunningPeriod;
 
+    /**
+     * Trip attributes used to filter trips, lazy initialized. See {@link #tripFilterAttributes()}.
+     */
+    private TripFilterAttributes tripFilterAttributes;
+
     public TripPatternForDate(
         TripPatternWithRaptorStopIndexes tripPattern,
         List<TripTimes> tripTimes,
@@ -100,6 +108,34 @@ public class TripPatternForDate {
             .collect(Collectors.toList());
     }
 
+    /**
+     * The trips (trip index in this pattern-for-date) which allow bikes.
+     * <p>
+     * The returned set is shared and MUST NOT be modified.
+     */
+    public BitSet getTripsWithBikesAllowed() {
+        return tripFilterAttributes().bikesAllowed;
+    }
+
+    /**
+     * The trips (trip index in this pattern-for-date) which are wheelchair accessible.
+     * <p>
+     * The returned set is shared and MUST NOT be modified.
+     */
+    public BitSet getWheelchairAccessibleTrips() {
+        return tripFilterAttributes().wheelchairAccessible;
+    }
+
+    /**
+     * The trips (trip index in this pattern-for-date) which are NOT canceled or replaced in
+     * the planned data.
+     * <p>
+     * The returned set is shared and MUST NOT be modified.
+     */
+    public BitSet getNotCanceledOrReplacedTrips() {
+        return tripFilterAttributes().notCanceledOrReplaced;
+    }
+
     public int hashCode() {
         return Objects.hash(tripPattern, tripTimes, localDate);
     }
@@ -136,6 +172,32 @@ public class TripPatternForDate {
         );
     }
 
+    /**
+     * Same as {@link #newWithFilteredTripTimes(Predicate)}, but the filter is given as a set of
+     * accepted trip indexes. If {@code acceptedTrips} is {@code null} all trips are accepted.
+     */
+    @Nullable
+    public TripPatternForDate newWithFilteredTripTimes(@Nullable BitSet acceptedTrips) {
+        if (acceptedTrips == null) { return this; }
+
+        int nAccepted = acceptedTrips.cardinality();
+
+        if (nAccepted == 0) { return null; }
+
+        if (nAccepted == tripTimes.size()) { return this; }
+
+        List<TripTimes> filteredTripTimes = new ArrayList<>(nAccepted);
+        for (int i = acceptedTrips.nextSetBit(0); i >= 0; i = acceptedTrips.nextSetBit(i + 1)) {
+            filteredTripTimes.add(tripTimes.get(i));
+        }
+
+        return new TripPatternForDate(
+            tripPattern,
+            filteredTripTimes,
+            localDate
+        );
+    }
+
     @Override
     public String toString() {
         return "TripPatternForDate{" +
@@ -143,4 +205,47 @@ public class TripPatternForDate {
                 ", localDate=" + localDate +
                 '}';
     }
+
+    /**
+     * The attributes are calculated the first time they are needed, not in the constructor,
+     * because most filtered copies of this class created during a request never need them. The
+     * instances stored in the TransitLayer calculate them once and share them between requests.
+     */
+    private TripFilterAttributes tripFilterAttributes() {
+        if (tripFilterAttributes == null) {
+            tripFilterAttributes = new TripFilterAttributes(tripTimes);
+        }
+        return tripFilterAttributes;
+    }
+
+    /**
+     * One bit per trip for each attribute the request filter needs, the bit index is the index of
+     * the trip in {@link #tripTimes}. The sets are not modified after they are built, requests
+     * only read them or AND them into their own copies.
+     */
+    private static final class TripFilterAttributes {
+        private final BitSet bikesAllowed;
+        private final BitSet wheelchairAccessible;
+        private final BitSet notCanceledOrReplaced;
+
+        private TripFilterAttributes(List<TripTimes> tripTimes) {
+            int n = tripTimes.size();
+            this.bikesAllowed = new BitSet(n);
+            this.wheelchairAccessible = new BitSet(n);
+            this.notCanceledOrReplaced = new BitSet(n);
+
+            for (int i = 0; i < n; i++) {
+                Trip trip = tripTimes.get(i).trip;
+                if (BikeAccess.fromTrip(trip) == BikeAccess.ALLOWED) {
+                    bikesAllowed.set(i);
+                }
+                if (trip.getWheelchairAccessible() == 1) {
+                    wheelchairAccessible.set(i);
+                }
+                if (!trip.getTripAlteration().isCanceledOrReplaced()) {
+                    notCanceledOrReplaced.set(i);
+                }
+            }
+        }
+    }
 }
@@ -61,6 +61,8 @@ public class RaptorRequestMapper {
                 .addAccessPaths(accessPaths)
                 .addEgressPaths(egressPaths);
 
+        builder.deadline(request.getDeadline());
+
         if(!request.timetableView && request.arriveBy) {
             builder.searchParams().preferLateArrival(true);
         }
@@ -8,11 +8,11 @@ import org.opentripplanner.routing.algorithm.raptor.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptor.transit.TripPatternWithRaptorStopIndexes;
 import org.opentripplanner.routing.algorithm.raptor.transit.TripPatternForDate;
 import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.util.PersistentSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -22,9 +22,10 @@ import java.util.stream.Collectors;
 import static org.opentripplanner.routing.algorithm.raptor.transit.mappers.TripPatternMapper.mapOldTripPatternToRaptorTripPattern;
 
 /**
- * Update the TransitLayer from a set of TimeTables. A shallow copy is made of the TransitLayer
- * (this also includes a shallow copy of the TripPatternsForDate map). TripPatterns are matched on
- * id and replaced by their updated versions. The realtime TransitLayer is then switched out with
+ * Update the TransitLayer from a set of TimeTables. A shallow copy is made of the TransitLayer,
+ * the TripPatternsForDate map and the sets of patterns running on each date are persistent
+ * collections, so an update only creates new paths to the changed entries. TripPatterns are
+ * matched on id and replaced by their updated versions. The realtime TransitLayer is then switched out with
  * the updated copy in an atomic operation. This ensures that any TransitLayer that is referenced
  * from the Graph is never changed.
  */
@@ -42,7 +43,11 @@ public class TransitLayerUpdater {
    */
   private final Map<LocalDate, Map<TripPattern, TripPatternForDate>> tripPatternsStartingOnDateMapCache = new HashMap<>();
 
-  private final Map<LocalDate, Set<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
+  /**
+   * The patterns running on each date, the sets are immutable and shared with the published
+   * TransitLayers.
+   */
+  private final Map<LocalDate, PersistentSet<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
 
   public TransitLayerUpdater(
       Graph graph,
@@ -117,11 +122,8 @@ public class TransitLayerUpdater {
     // Now loop through all running period dates of old and new TripPatternsForDate and update
     // the tripPatternsByRunningPeriodDate accordingly
     for (LocalDate date : datesToBeUpdated) {
-      tripPatternsRunningOnDateMapCache.computeIfAbsent(date,
-          p -> new HashSet<>(realtimeTransitLayer.getTripPatternsRunningOnDateCopy(date))
-      );
-
-      Set<TripPatternForDate> patternsForDate = tripPatternsRunningOnDateMapCache.get(date);
+      PersistentSet<TripPatternForDate> patternsForDate = tripPatternsRunningOnDateMapCache
+          .computeIfAbsent(date, d -> PersistentSet.copyOf(realtimeTransitLayer.getTripPatternsForDate(d)));
 
       for (Map.Entry<TripPattern, TripPatternForDate> entry : oldTripPatternsForDate.entrySet()) {
         TripPattern tripPattern = entry.getKey();
@@ -130,7 +132,7 @@ public class TransitLayerUpdater {
         // Remove old TripPatternForDate for this date if it was valid on this date
         if (oldTripPatternForDate != null) {
           if (oldTripPatternForDate.getRunningPeriodDates().contains(date)) {
-            patternsForDate.remove(oldTripPatternForDate);
+            patternsForDate = patternsForDate.minus(oldTripPatternForDate);
           }
         }
       }
@@ -141,12 +143,13 @@ public class TransitLayerUpdater {
         // Add new TripPatternForDate for this date if it mapped correctly and is valid on this date
         if (newTripPatternForDate != null) {
           if (newTripPatternForDate.getRunningPeriodDates().contains(date)) {
-            patternsForDate.add(newTripPatternForDate);
+            patternsForDate = patternsForDate.plus(newTripPatternForDate);
           }
         }
       }
 
-      realtimeTransitLayer.replaceTripPatternsForDate(date, new ArrayList<>(patternsForDate));
+      tripPatternsRunningOnDateMapCache.put(date, patternsForDate);
+      realtimeTransitLayer.replaceTripPatternsForDate(date, patternsForDate);
     }
 
     // Switch out the reference with the updated realtimeTransitLayer. This is synchronized to
@@ -1,34 +1,41 @@
 package org.opentripplanner.routing.algorithm.raptor.transit.request;
 
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toMap;
-
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.function.Function;
 import lombok.EqualsAndHashCode;
 import lombok.SneakyThrows;
 import org.opentripplanner.routing.algorithm.raptor.transit.Transfer;
 import org.opentripplanner.routing.api.request.RoutingRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.core.BicycleOptimizeType;
-import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
-
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache the transfers with duration and cost calculated for the transfer routing requests, the
+ * calculation traverse all transfer edges and takes seconds for a large network. The cache can
+ * be filled at startup for the most used requests, see {@link #prefill(List, Collection)}.
+ * <p>
+ * This class is THREAD-SAFE.
+ */
 public class RaptorRequestTransferCache {
 
-    private final LoadingCache<CacheKey, List<List<RaptorTransfer>>> transferCache;
+    private static final Logger LOG = LoggerFactory.getLogger(RaptorRequestTransferCache.class);
+
+    private final LoadingCache<CacheKey, RaptorTransferIndex> transferCache;
 
     public RaptorRequestTransferCache(int maximumSize) {
         transferCache = CacheBuilder.newBuilder()
             .maximumSize(maximumSize)
+            .recordStats()
             .build(cacheLoader());
     }
 
     @SneakyThrows
-    public List<List<RaptorTransfer>> get(
+    public RaptorTransferIndex get(
         List<List<Transfer>> transfersByStopIndex,
         RoutingRequest routingRequest
     ) {
@@ -38,11 +45,39 @@ public class RaptorRequestTransferCache {
         ));
     }
 
-    private CacheLoader<CacheKey, List<List<RaptorTransfer>>> cacheLoader() {
+    /**
+     * Calculate the transfers for the given transfer routing requests IN PARALLEL, and add them to
+     * the cache. Use {@link Transfer#prepareTransferRoutingRequest(RoutingRequest)} to create the
+     * transfer routing requests.
+     */
+    public void prefill(
+        List<List<Transfer>> transfersByStopIndex,
+        Collection<RoutingRequest> transferRoutingRequests
+    ) {
+        long start = System.currentTimeMillis();
+
+        transferRoutingRequests
+            .parallelStream()
+            .map(it -> new CacheKey(transfersByStopIndex, it))
+            .distinct()
+            .forEach(transferCache::getUnchecked);
+
+        LOG.info(
+            "Transfers calculated for {} transfer request(s) in {} ms.",
+            transferRoutingRequests.size(),
+            System.currentTimeMillis() - start
+        );
+    }
+
+    public TransferCacheStatistics getStatistics() {
+        return new TransferCacheStatistics(transferCache.stats(), transferCache.size());
+    }
+
+    private CacheLoader<CacheKey, RaptorTransferIndex> cacheLoader() {
         return new CacheLoader<>() {
             @Override
-            public List<List<RaptorTransfer>> load(@javax.annotation.Nonnull CacheKey cacheKey) {
-                return createRaptorTransfersForRequest(
+            public RaptorTransferIndex load(@javax.annotation.Nonnull CacheKey cacheKey) {
+                return RaptorTransferIndex.create(
                         cacheKey.transfersByStopIndex,
                         cacheKey.routingRequest
                 );
@@ -50,24 +85,6 @@ public class RaptorRequestTransferCache {
         };
     }
 
-    static List<List<RaptorTransfer>> createRaptorTransfersForRequest(
-        List<List<Transfer>> transfersByStopIndex,
-        RoutingRequest routingRequest
-    ) {
-        return transfersByStopIndex
-            .stream()
-            .map(t -> new ArrayList<>(t
-                .stream()
-                .flatMap(s -> s.asRaptorTransfer(routingRequest).stream())
-                .collect(toMap(
-                    RaptorTransfer::stop,
-                    Function.identity(),
-                    (a, b) -> a.generalizedCost() < b.generalizedCost() ? a : b
-                ))
-                .values()))
-            .collect(toList());
-    }
-
     private static class CacheKey {
 
         private final List<List<Transfer>> transfersByStopIndex;
@@ -7,13 +7,12 @@ import org.opentripplanner.transit.raptor.api.transit.IntIterator;
 import org.opentripplanner.transit.raptor.api.transit.RaptorRoute;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransitDataProvider;
+import org.opentripplanner.transit.raptor.util.BitSetIterator;
 
 import java.time.Instant;
 import java.time.ZonedDateTime;
-import java.util.HashSet;
+import java.util.BitSet;
 import java.util.Iterator;
-import java.util.List;
-import java.util.Set;
 
 
 /**
@@ -26,14 +25,21 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
   private final TransitLayer transitLayer;
 
   /**
-   * Active trip patterns by stop index
+   * All trip patterns for the search date range and the pattern indexes by stop. This is shared
+   * between requests.
    */
-  private final List<List<TripPatternForDates>> activeTripPatternsPerStop;
+  private final TripPatternsForDateRange tripPatternsForDateRange;
+
+  /**
+   * The trip patterns after applying the request filter, indexed by pattern index. The pattern is
+   * {@code null} if it is filtered away.
+   */
+  private final TripPatternForDates[] activeTripPatterns;
 
   /**
    * Transfers by stop index
    */
-  private final List<List<RaptorTransfer>> transfers;
+  private final RaptorTransferIndex transfers;
 
   private final ZonedDateTime startOfTime;
 
@@ -49,15 +55,14 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     // the time of construction
     RaptorRoutingRequestTransitDataCreator creator = new RaptorRoutingRequestTransitDataCreator(
         transitLayer,
-        departureTime
+        departureTime,
+        additionalFutureSearchDays
     );
 
     this.transitLayer = transitLayer;
     this.startOfTime = creator.getSearchStartTime();
-    this.activeTripPatternsPerStop = creator.createTripPatternsPerStop(
-        additionalFutureSearchDays,
-        filter
-    );
+    this.tripPatternsForDateRange = creator.getTripPatternsForDateRange();
+    this.activeTripPatterns = creator.createActiveTripPatterns(filter);
 
     this.transfers = transitLayer.getRaptorTransfersForRequest(routingRequest);
   }
@@ -67,7 +72,7 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
    */
   @Override
   public Iterator<RaptorTransfer> getTransfers(int stopIndex) {
-    return transfers.get(stopIndex).iterator();
+    return transfers.getTransfersFromStop(stopIndex);
   }
 
   /**
@@ -75,11 +80,16 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
    */
   @Override
   public Iterator<? extends RaptorRoute<TripSchedule>> routeIterator(IntIterator stops) {
-    Set<RaptorRoute<TripSchedule>> activeTripPatternsForGivenStops = new HashSet<>();
+    // A bit set is used to remove duplicates, this is faster than a hash set
+    BitSet activeTripPatternsForGivenStops = new BitSet(activeTripPatterns.length);
     while (stops.hasNext()) {
-      activeTripPatternsForGivenStops.addAll(activeTripPatternsPerStop.get(stops.next()));
+      for (int patternIndex : tripPatternsForDateRange.patternIndexesForStop(stops.next())) {
+        if (activeTripPatterns[patternIndex] != null) {
+          activeTripPatternsForGivenStops.set(patternIndex);
+        }
+      }
     }
-    return activeTripPatternsForGivenStops.iterator();
+    return new TripPatternIterator(activeTripPatternsForGivenStops);
   }
 
   @Override
@@ -95,4 +105,22 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
   public ZonedDateTime getStartOfTime() {
     return startOfTime;
   }
+
+  private class TripPatternIterator implements Iterator<TripPatternForDates> {
+    private final IntIterator patternIndexes;
+
+    private TripPatternIterator(BitSet patternIndexes) {
+      this.patternIndexes = new BitSetIterator(patternIndexes);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return patternIndexes.hasNext();
+    }
+
+    @Override
+    public TripPatternForDates next() {
+      return activeTripPatterns[patternIndexes.next()];
+    }
+  }
 }
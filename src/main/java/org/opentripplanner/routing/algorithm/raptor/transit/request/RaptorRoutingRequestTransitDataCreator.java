@@ -7,12 +7,11 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.opentripplanner.routing.algorithm.raptor.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptor.transit.TripPatternForDate;
 import org.opentripplanner.routing.algorithm.raptor.transit.TripPatternWithRaptorStopIndexes;
@@ -24,53 +23,94 @@ import org.opentripplanner.routing.algorithm.raptor.transit.mappers.DateMapper;
  * {@link RaptorRoutingRequestTransitData}. The code is messy so it is nice to NOT have it in
  * the transit data class itself, to keep it clean. Another benefit of isolating this code
  * is that these methods are only available at construction time.
+ * <p>
+ * The request independent part, the patterns merged by date, is created once and cached in the
+ * {@link TripPatternForDatesCache}. Only the filtering is done for each request.
  */
 class RaptorRoutingRequestTransitDataCreator {
 
-  private final TransitLayer transitLayer;
-  private final ZonedDateTime searchStartTime;
-  private final LocalDate departureDate;
+  private final TripPatternsForDateRange tripPatternsForDateRange;
 
 
-  RaptorRoutingRequestTransitDataCreator(TransitLayer transitLayer, Instant departureTime) {
-    this.transitLayer = transitLayer;
-    this.departureDate = LocalDate.ofInstant(departureTime, transitLayer.getTransitDataZoneId());
-    this.searchStartTime = DateMapper.asStartOfService(departureDate, transitLayer.getTransitDataZoneId());
+  RaptorRoutingRequestTransitDataCreator(
+      TransitLayer transitLayer,
+      Instant departureTime,
+      int additionalFutureSearchDays
+  ) {
+    LocalDate departureDate = LocalDate.ofInstant(departureTime, transitLayer.getTransitDataZoneId());
+    this.tripPatternsForDateRange = transitLayer
+        .getTripPatternForDatesCache()
+        .get(departureDate, additionalFutureSearchDays);
   }
 
   ZonedDateTime getSearchStartTime() {
-    return searchStartTime;
+    return tripPatternsForDateRange.getSearchStartTime();
   }
 
-  List<List<TripPatternForDates>> createTripPatternsPerStop(
-      int additionalFutureSearchDays,
-      TransitDataProviderFilter filter
-  ) {
+  TripPatternsForDateRange getTripPatternsForDateRange() {
+    return tripPatternsForDateRange;
+  }
+
+  /**
+   * Apply the filter to the cached patterns. The pattern filter is applied to each pattern and
+   * the trip filter to each trip in the accepted patterns. Patterns where all trips are accepted
+   * are reused as is, and the filtered copies are kept with the cached patterns if the filter has
+   * a key for the accepted trips, see {@link TransitDataProviderFilter#acceptedTripsKey()}.
+   *
+   * @return the filtered patterns, indexed by the pattern index in the
+   *         {@link TripPatternsForDateRange}. A rejected pattern is {@code null}.
+   */
+  TripPatternForDates[] createActiveTripPatterns(TransitDataProviderFilter filter) {
+    int n = tripPatternsForDateRange.numberOfTripPatterns();
+    TripPatternForDates[] result = new TripPatternForDates[n];
+    BitSet acceptedPatterns = filter.acceptedTripPatterns(tripPatternsForDateRange);
 
+    for (int i = acceptedPatterns.nextSetBit(0); i >= 0; i = acceptedPatterns.nextSetBit(i + 1)) {
+      result[i] = tripPatternsForDateRange.getTripPattern(i).newWithFilteredTripTimes(filter);
+    }
+    return result;
+  }
+
+  /**
+   * Create the request independent data for the given date range. This is used by the
+   * {@link TripPatternForDatesCache} to populate the cache.
+   */
+  static TripPatternsForDateRange createTripPatternsForDateRange(
+      TransitLayer transitLayer,
+      LocalDate departureDate,
+      int additionalFutureSearchDays
+  ) {
+    ZonedDateTime searchStartTime = DateMapper.asStartOfService(
+        departureDate,
+        transitLayer.getTransitDataZoneId()
+    );
     List<TripPatternForDate> tripPatternForDates = getTripPatternsForDateRange(
-        additionalFutureSearchDays,
-        filter
+        transitLayer,
+        departureDate,
+        additionalFutureSearchDays
     );
 
-    List<TripPatternForDates> tripPatternForDateList = merge(searchStartTime, tripPatternForDates);
-
-    return createTripPatternsPerStop(tripPatternForDateList, transitLayer.getStopCount());
+    return new TripPatternsForDateRange(
+        searchStartTime,
+        merge(searchStartTime, tripPatternForDates),
+        transitLayer.getStopCount()
+    );
   }
 
-  private List<TripPatternForDate> getTripPatternsForDateRange(
-      int additionalFutureSearchDays,
-      TransitDataProviderFilter filter
+  private static List<TripPatternForDate> getTripPatternsForDateRange(
+      TransitLayer transitLayer,
+      LocalDate departureDate,
+      int additionalFutureSearchDays
   ) {
     List<TripPatternForDate> tripPatternForDates = new ArrayList<>();
 
     // This filters trips by the search date as well as additional dates before and after
     for (int d = 0; d <= additionalFutureSearchDays; ++d) {
       tripPatternForDates.addAll(
-        filterActiveTripPatterns(
+        activeTripPatterns(
           transitLayer,
           departureDate.plusDays(d),
-          d == 0,
-          filter
+          d == 0
         )
       );
     }
@@ -119,27 +159,10 @@ class RaptorRoutingRequestTransitDataCreator {
     return combinedList;
   }
 
-  private static List<List<TripPatternForDates>> createTripPatternsPerStop(
-      List<TripPatternForDates> tripPatternsForDate, int numberOfStops
-  ) {
-    List<List<TripPatternForDates>> result = Stream
-        .generate(ArrayList<TripPatternForDates>::new)
-        .limit(numberOfStops)
-        .collect(Collectors.toList());
-
-    for (TripPatternForDates tripPatternForDateList : tripPatternsForDate) {
-      for (int i : tripPatternForDateList.getTripPattern().getStopIndexes()) {
-        result.get(i).add(tripPatternForDateList);
-      }
-    }
-    return result;
-  }
-
-  private static List<TripPatternForDate> filterActiveTripPatterns(
+  private static List<TripPatternForDate> activeTripPatterns(
       TransitLayer transitLayer,
       LocalDate date,
-      boolean firstDay,
-      TransitDataProviderFilter filter
+      boolean firstDay
   ) {
 
     // On the first search day we want to add both TripPatternsForDate objects that start that day
@@ -149,10 +172,7 @@ class RaptorRoutingRequestTransitDataCreator {
     return transitLayer
         .getTripPatternsForDate(date)
         .stream()
-        .filter(filter::tripPatternPredicate)
         .filter(p -> firstDay || p.getStartOfRunningPeriod().toLocalDate().equals(date))
-        .map(p -> p.newWithFilteredTripTimes(filter::tripTimesPredicate))
-        .filter(Objects::nonNull)
         .collect(Collectors.toList());
   }
 }
@@ -0,0 +1,108 @@
+package org.opentripplanner.routing.algorithm.raptor.transit.request;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.opentripplanner.routing.algorithm.raptor.transit.Transfer;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
+
+/**
+ * The transfers for all stops with the duration and cost calculated for one transfer routing
+ * request. The transfers from all stops are kept in one array of transfer objects, with the
+ * transfers from stop {@code i} at the positions {@code stopOffsets[i]} until
+ * {@code stopOffsets[i+1]}. The to-stop, duration and cost are read from the transfer objects;
+ * they are not copied into separate int arrays, because Raptor needs the objects anyway.
+ * <p>
+ * The transfer objects are created once, when the index is created, and handed out to Raptor for
+ * every search. Raptor keeps references to them in the stop arrivals, and they are used to map
+ * the paths found back to itineraries, see {@link TransferWithDuration#transfer()}.
+ * <p>
+ * This class is immutable and THREAD-SAFE.
+ */
+public class RaptorTransferIndex {
+
+    private final int[] stopOffsets;
+    private final TransferWithDuration[] transfers;
+
+    private RaptorTransferIndex(int[] stopOffsets, TransferWithDuration[] transfers) {
+        this.stopOffsets = stopOffsets;
+        this.transfers = transfers;
+    }
+
+    /**
+     * Calculate the duration and cost of all transfers for the given transfer routing request. If
+     * more than one transfer exist between two stops, only the one with the lowest cost is kept.
+     */
+    public static RaptorTransferIndex create(
+        List<List<Transfer>> transfersByStopIndex,
+        RoutingRequest routingRequest
+    ) {
+        int nStops = transfersByStopIndex.size();
+        int[] stopOffsets = new int[nStops + 1];
+        List<TransferWithDuration> all = new ArrayList<>();
+
+        for (int i = 0; i < nStops; ++i) {
+            stopOffsets[i] = all.size();
+            all.addAll(cheapestTransferByToStop(transfersByStopIndex.get(i), routingRequest));
+        }
+        stopOffsets[nStops] = all.size();
+
+        return new RaptorTransferIndex(stopOffsets, all.toArray(new TransferWithDuration[0]));
+    }
+
+    public int numberOfStops() {
+        return stopOffsets.length - 1;
+    }
+
+    public int numberOfTransfers() {
+        return transfers.length;
+    }
+
+    /**
+     * Return the transfers from the given stop. The same transfer instances are returned for
+     * each call.
+     */
+    public Iterator<RaptorTransfer> getTransfersFromStop(int fromStop) {
+        final int end = stopOffsets[fromStop + 1];
+
+        return new Iterator<>() {
+            private int index = stopOffsets[fromStop];
+
+            @Override
+            public boolean hasNext() {
+                return index < end;
+            }
+
+            @Override
+            public RaptorTransfer next() {
+                if (index >= end) { throw new NoSuchElementException(); }
+                return transfers[index++];
+            }
+        };
+    }
+
+    /* private methods */
+
+    private static Collection<TransferWithDuration> cheapestTransferByToStop(
+        List<Transfer> transfers,
+        RoutingRequest routingRequest
+    ) {
+        // A linked map keep the order of the transfers stable between runs
+        Map<Integer, TransferWithDuration> result = new LinkedHashMap<>();
+
+        for (Transfer transfer : transfers) {
+            transfer.asRaptorTransfer(routingRequest).ifPresent(it -> result.merge(
+                it.stop(),
+                (TransferWithDuration) it,
+                // On equal cost the later transfer is kept, like the baseline stream collector
+                (a, b) -> a.generalizedCost() < b.generalizedCost() ? a : b
+            ));
+        }
+        return result.values();
+    }
+}
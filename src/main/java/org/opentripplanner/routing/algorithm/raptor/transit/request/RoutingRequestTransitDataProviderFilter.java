@@ -10,9 +10,20 @@ import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.graph.GraphIndex;
 import org.opentripplanner.routing.trippattern.TripTimes;
 
+import java.util.BitSet;
 import java.util.EnumSet;
 import java.util.Set;
-
+import javax.annotation.Nullable;
+
+/**
+ * Filter the transit data using the request parameters. The filters are implemented using bit sets
+ * pre-calculated for all requests: the patterns of each mode and route in
+ * {@link TripPatternsForDateRange}, and the trip attributes in {@link TripPatternForDate}. So no
+ * pattern or trip objects are inspected.
+ * <p>
+ * Only the first trip level requirement which is active is checked, in the order: bikes allowed,
+ * wheelchair accessible and planned cancellations.
+ */
 public class RoutingRequestTransitDataProviderFilter implements TransitDataProviderFilter {
 
   private final boolean requireBikesAllowed;
@@ -25,6 +36,9 @@ public class RoutingRequestTransitDataProviderFilter implements TransitDataProvi
 
   private final Set<FeedScopedId> bannedRoutes;
 
+  /** The trip level requirement checked, see {@link #acceptedTripsKey()}. */
+  private final TripRequirement tripRequirement;
+
   public RoutingRequestTransitDataProviderFilter(
       boolean requireBikesAllowed,
       boolean requireWheelchairAccessible,
@@ -39,6 +53,13 @@ public class RoutingRequestTransitDataProviderFilter implements TransitDataProvi
         ? EnumSet.noneOf(TransitMode.class)
         : EnumSet.copyOf(transitModes);
     this.bannedRoutes = bannedRoutes;
+    this.tripRequirement = requireBikesAllowed
+        ? TripRequirement.BIKES_ALLOWED
+        : requireWheelchairAccessible
+            ? TripRequirement.WHEELCHAIR_ACCESSIBLE
+            : !includePlannedCancellations
+                ? TripRequirement.NOT_CANCELED_OR_REPLACED
+                : TripRequirement.NONE;
   }
 
   public RoutingRequestTransitDataProviderFilter(
@@ -76,6 +97,50 @@ public class RoutingRequestTransitDataProviderFilter implements TransitDataProvi
     return true;
   }
 
+  @Override
+  public BitSet acceptedTripPatterns(TripPatternsForDateRange tripPatterns) {
+    BitSet accepted = new BitSet(tripPatterns.numberOfTripPatterns());
+
+    for (TransitMode mode : transitModes) {
+      accepted.or(tripPatterns.patternIndexesForMode(mode));
+    }
+    for (FeedScopedId routeId : bannedRoutes) {
+      accepted.andNot(tripPatterns.patternIndexesForRoute(routeId));
+    }
+    return accepted;
+  }
+
+  /**
+   * The returned set is one of the shared trip attribute sets of the {@link TripPatternForDate},
+   * the same requirement as in {@link #tripTimesPredicate(TripTimes)} is used.
+   */
+  @Nullable
+  @Override
+  public BitSet acceptedTrips(TripPatternForDate tripPatternForDate) {
+    if (requireBikesAllowed) {
+      return tripPatternForDate.getTripsWithBikesAllowed();
+    }
+
+    if (requireWheelchairAccessible) {
+      return tripPatternForDate.getWheelchairAccessibleTrips();
+    }
+
+    if (!includePlannedCancellations) {
+      return tripPatternForDate.getNotCanceledOrReplacedTrips();
+    }
+
+    return null;
+  }
+
+  /**
+   * The accepted trips only depend on the trip level requirement, so there are only a few
+   * filtered copies of each pattern.
+   */
+  @Override
+  public Object acceptedTripsKey() {
+    return tripRequirement;
+  }
+
   private boolean routeIsNotBanned(TripPatternForDate tripPatternForDate) {
     FeedScopedId routeId = tripPatternForDate.getTripPattern().getPattern().route.getId();
     return !bannedRoutes.contains(routeId);
@@ -87,10 +152,13 @@ public class RoutingRequestTransitDataProviderFilter implements TransitDataProvi
   }
 
   public static BikeAccess bikeAccessForTrip(Trip trip) {
-    if (trip.getBikesAllowed() != BikeAccess.UNKNOWN) {
-      return trip.getBikesAllowed();
-    }
+    return BikeAccess.fromTrip(trip);
+  }
 
-    return trip.getRoute().getBikesAllowed();
+  private enum TripRequirement {
+    BIKES_ALLOWED,
+    WHEELCHAIR_ACCESSIBLE,
+    NOT_CANCELED_OR_REPLACED,
+    NONE
   }
 }
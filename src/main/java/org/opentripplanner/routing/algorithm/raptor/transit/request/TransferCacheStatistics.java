@@ -0,0 +1,67 @@
+package org.opentripplanner.routing.algorithm.raptor.transit.request;
+
+import com.google.common.cache.CacheStats;
+import org.opentripplanner.model.base.ToStringBuilder;
+
+/**
+ * A snapshot of the {@link RaptorRequestTransferCache} statistics, reported by the server info
+ * API. The transfers calculated at startup are counted as misses.
+ * <p>
+ * This class is immutable and THREAD-SAFE.
+ */
+public class TransferCacheStatistics {
+
+    private final long size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final double averageBuildTimeMs;
+    private final double totalBuildTimeMs;
+
+    TransferCacheStatistics(CacheStats stats, long size) {
+        this.size = size;
+        this.hits = stats.hitCount();
+        this.misses = stats.missCount();
+        this.evictions = stats.evictionCount();
+        this.averageBuildTimeMs = stats.averageLoadPenalty() / 1_000_000.0;
+        this.totalBuildTimeMs = stats.totalLoadTime() / 1_000_000.0;
+    }
+
+    /** The number of transfer requests in the cache. */
+    public long getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /** The number of transfer requests removed from the cache, because the cache is full. */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /** The average time used to calculate the transfers for one transfer request. */
+    public double getAverageBuildTimeMs() {
+        return averageBuildTimeMs;
+    }
+
+    public double getTotalBuildTimeMs() {
+        return totalBuildTimeMs;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.of(TransferCacheStatistics.class)
+            .addNum("size", size)
+            .addNum("hits", hits)
+            .addNum("misses", misses)
+            .addNum("evictions", evictions)
+            .addNum("averageBuildTime", averageBuildTimeMs, "ms")
+            .toString();
+    }
+}
@@ -1,5 +1,8 @@
 package org.opentripplanner.routing.algorithm.raptor.transit.request;
 
+import java.util.BitSet;
+import java.util.List;
+import javax.annotation.Nullable;
 import org.opentripplanner.routing.algorithm.raptor.transit.TripPatternForDate;
 import org.opentripplanner.routing.trippattern.TripTimes;
 
@@ -18,4 +21,53 @@ public interface TransitDataProviderFilter {
   boolean tripPatternPredicate(TripPatternForDate tripPatternForDate);
 
   boolean tripTimesPredicate(TripTimes tripTimes);
+
+  /**
+   * Return the patterns accepted by this filter, as a set of pattern indexes in the given
+   * {@link TripPatternsForDateRange}. The caller may modify the returned set.
+   * <p>
+   * The default implementation tests the first {@link TripPatternForDate} of each pattern using
+   * the {@link #tripPatternPredicate(TripPatternForDate)}.
+   */
+  default BitSet acceptedTripPatterns(TripPatternsForDateRange tripPatterns) {
+    int n = tripPatterns.numberOfTripPatterns();
+    BitSet accepted = new BitSet(n);
+    for (int i = 0; i < n; i++) {
+      if (tripPatternPredicate(tripPatterns.getTripPattern(i).getFirstTripPatternForDate())) {
+        accepted.set(i);
+      }
+    }
+    return accepted;
+  }
+
+  /**
+   * Return the trips accepted by this filter, as a set of trip indexes in the given
+   * {@link TripPatternForDate}. Return {@code null} if all trips are accepted. The caller
+   * MUST NOT modify the returned set, the implementation may return a shared instance.
+   * <p>
+   * The default implementation tests each trip using the {@link #tripTimesPredicate(TripTimes)}.
+   */
+  @Nullable
+  default BitSet acceptedTrips(TripPatternForDate tripPatternForDate) {
+    List<TripTimes> tripTimes = tripPatternForDate.tripTimes();
+    BitSet accepted = new BitSet(tripTimes.size());
+    for (int i = 0; i < tripTimes.size(); i++) {
+      if (tripTimesPredicate(tripTimes.get(i))) {
+        accepted.set(i);
+      }
+    }
+    return accepted;
+  }
+
+  /**
+   * Return a key for the trips accepted by {@link #acceptedTrips(TripPatternForDate)}, filters
+   * with equal keys MUST accept the same trips. The filtered copies of the cached patterns are
+   * kept by key, so requests with the same key share them, and the times are flattened once.
+   * <p>
+   * The default implementation returns {@code null}, the filtered copies are not kept.
+   */
+  @Nullable
+  default Object acceptedTripsKey() {
+    return null;
+  }
 }
@@ -1,11 +1,17 @@
 package org.opentripplanner.routing.algorithm.raptor.transit.request;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
 import org.opentripplanner.model.base.ToStringBuilder;
 import org.opentripplanner.routing.algorithm.raptor.transit.TripPatternForDate;
 import org.opentripplanner.routing.algorithm.raptor.transit.TripPatternWithRaptorStopIndexes;
 import org.opentripplanner.routing.algorithm.raptor.transit.TripSchedule;
+import org.opentripplanner.routing.trippattern.TripTimes;
 import org.opentripplanner.transit.raptor.api.transit.RaptorGuaranteedTransferProvider;
 import org.opentripplanner.transit.raptor.api.transit.RaptorRoute;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTimeTable;
@@ -14,6 +20,13 @@ import org.opentripplanner.transit.raptor.api.transit.RaptorTripPattern;
 /**
  * A collection of all the TripSchedules active on a range of consecutive days. The outer list of tripSchedulesByDay
  * refers to days in order.
+ * <p>
+ * The trips are flattened into arrays indexed by the trip index used by Raptor, so no search is
+ * needed to find the day a trip belongs to. The arrival and departure times, with the day offset
+ * applied, are copied into primitive arrays the first time Raptor visits the pattern. The arrays
+ * are stored stop by stop, and exposed to Raptor as the stop-major index of the
+ * {@link RaptorTimeTable}. The trip search only uses these arrays, and the {@link TripSchedule}
+ * objects are created when a trip is boarded, and then reused.
  */
 public class TripPatternForDates
         implements
@@ -30,6 +43,26 @@ public class TripPatternForDates
 
     private final int numberOfTripSchedules;
 
+    /** The day index(index into tripPatternForDates/offsets) for each trip. */
+    private final int[] dayIndexByTrip;
+
+    /** The trip index within its day for each trip. */
+    private final int[] tripIndexInDay;
+
+    /** Trip schedules created on demand, the entries are {@code null} until first requested. */
+    private final TripSchedule[] tripSchedules;
+
+    /** Lazy initialized in {@link #timetable()}, see {@link TimesByStop}. */
+    private TimesByStop times;
+
+    /**
+     * The filtered copies of this pattern by {@link TransitDataProviderFilter#acceptedTripsKey()},
+     * empty if no trips are accepted. The copies are shared between requests, so their times are
+     * only flattened once.
+     */
+    private final Map<Object, Optional<TripPatternForDates>> filteredByKey =
+            new ConcurrentHashMap<>();
+
     TripPatternForDates(
             TripPatternWithRaptorStopIndexes tripPattern,
             List<TripPatternForDate> tripPatternForDates,
@@ -39,15 +72,89 @@ public class TripPatternForDates
         this.tripPatternForDates = tripPatternForDates.toArray(new TripPatternForDate[]{});
         this.offsets = offsets.stream().mapToInt(i -> i).toArray();
         this.numberOfTripSchedules = Arrays.stream(this.tripPatternForDates).mapToInt(TripPatternForDate::numberOfTripSchedules).sum();
+        this.dayIndexByTrip = new int[numberOfTripSchedules];
+        this.tripIndexInDay = new int[numberOfTripSchedules];
+        this.tripSchedules = new TripSchedule[numberOfTripSchedules];
+
+        int index = 0;
+        for (int day = 0; day < this.tripPatternForDates.length; day++) {
+            int n = this.tripPatternForDates[day].numberOfTripSchedules();
+            for (int i = 0; i < n; i++, index++) {
+                dayIndexByTrip[index] = day;
+                tripIndexInDay[index] = i;
+            }
+        }
     }
 
     public TripPatternWithRaptorStopIndexes getTripPattern() {
         return tripPattern;
     }
 
+    /**
+     * Return the first (earliest) TripPatternForDate. All TripPatternForDate elements share the
+     * same trip pattern, so this can be used to evaluate pattern level filters.
+     */
+    TripPatternForDate getFirstTripPatternForDate() {
+        return tripPatternForDates[0];
+    }
+
+    /**
+     * Return a new instance containing only the trips accepted by the given filter. If all trips
+     * are accepted {@code this} is returned, and if no trips are accepted {@code null} is
+     * returned. If the filter has a key for the accepted trips, the same instance is returned for
+     * all filters with an equal key.
+     */
+    @Nullable
+    TripPatternForDates newWithFilteredTripTimes(TransitDataProviderFilter filter) {
+        Object key = filter.acceptedTripsKey();
+        if (key == null) {
+            return filterTripTimes(filter);
+        }
+        return filteredByKey
+                .computeIfAbsent(key, it -> Optional.ofNullable(filterTripTimes(filter)))
+                .orElse(null);
+    }
+
+    @Nullable
+    private TripPatternForDates filterTripTimes(TransitDataProviderFilter filter) {
+        List<TripPatternForDate> filteredDates = null;
+        List<Integer> filteredOffsets = null;
+
+        for (int i = 0; i < tripPatternForDates.length; i++) {
+            TripPatternForDate it = tripPatternForDates[i];
+            TripPatternForDate filtered = it.newWithFilteredTripTimes(filter.acceptedTrips(it));
+
+            // Nothing changed so far, no need to copy
+            if (filtered == it && filteredDates == null) { continue; }
+
+            if (filteredDates == null) {
+                filteredDates = new ArrayList<>();
+                filteredOffsets = new ArrayList<>();
+                for (int j = 0; j < i; j++) {
+                    filteredDates.add(tripPatternForDates[j]);
+                    filteredOffsets.add(offsets[j]);
+                }
+            }
+            if (filtered != null) {
+                filteredDates.add(filtered);
+                filteredOffsets.add(offsets[i]);
+            }
+        }
+
+        if (filteredDates == null) { return this; }
+        if (filteredDates.isEmpty()) { return null; }
+
+        return new TripPatternForDates(tripPattern, filteredDates, filteredOffsets);
+    }
+
     // Implementing RaptorRoute
     @Override
     public RaptorTimeTable<TripSchedule> timetable() {
+        // Raptor always access the time-table through this method, so this is a good place to
+        // initialize the times. Patterns never visited by Raptor are never flattened.
+        if (times == null) {
+            times = new TimesByStop(this);
+        }
         return this;
     }
 
@@ -97,22 +204,57 @@ public class TripPatternForDates
     // Implementing RaptorTimeTable
 
     @Override public TripSchedule getTripSchedule(int index) {
-        for (int i = 0; i < tripPatternForDates.length; i++) {
-            TripPatternForDate tripPatternForDate = tripPatternForDates[i];
-
-            if (index < tripPatternForDate.numberOfTripSchedules()) {
-                return new TripScheduleWithOffset(this, tripPatternForDate.getLocalDate(),
-                        tripPatternForDate.getTripTimes(index), offsets[i]);
-            }
-            index -= tripPatternForDate.numberOfTripSchedules();
+        TripSchedule trip = tripSchedules[index];
+        if (trip == null) {
+            int day = dayIndexByTrip[index];
+            TripPatternForDate tripPatternForDate = tripPatternForDates[day];
+            trip = new TripScheduleWithOffset(
+                    this,
+                    tripPatternForDate.getLocalDate(),
+                    tripPatternForDate.getTripTimes(tripIndexInDay[index]),
+                    offsets[day]
+            );
+            tripSchedules[index] = trip;
         }
-        throw new IndexOutOfBoundsException("Index out of bound: " + index);
+        return trip;
     }
 
     @Override public int numberOfTripSchedules() {
         return numberOfTripSchedules;
     }
 
+    /**
+     * Raptor must call {@link #timetable()} before using this method.
+     */
+    @Override
+    public int arrivalTime(int tripIndex, int stopPositionInPattern) {
+        return times.arrivals[stopPositionInPattern * numberOfTripSchedules + tripIndex];
+    }
+
+    /**
+     * Raptor must call {@link #timetable()} before using this method.
+     */
+    @Override
+    public int departureTime(int tripIndex, int stopPositionInPattern) {
+        return times.departures[stopPositionInPattern * numberOfTripSchedules + tripIndex];
+    }
+
+    /**
+     * Raptor must call {@link #timetable()} before using this method.
+     */
+    @Override
+    public int[] arrivalTimesByStopPosition() {
+        return times.arrivals;
+    }
+
+    /**
+     * Raptor must call {@link #timetable()} before using this method.
+     */
+    @Override
+    public int[] departureTimesByStopPosition() {
+        return times.departures;
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.of(TripPatternForDates.class)
@@ -121,4 +263,35 @@ public class TripPatternForDates
                 .addNum("nTrips", numberOfTripSchedules)
                 .toString();
     }
+
+    /**
+     * The arrival and departure times of all trips, with the day offset applied. The times are
+     * stored stop by stop: {@code times[stopPositionInPattern * nTrips + tripIndex]}, so the
+     * times searched by the trip search for a given stop are next to each other in memory.
+     * <p>
+     * All fields are final, so an instance is safely published to other threads, even if more
+     * than one thread race to create it.
+     */
+    private static final class TimesByStop {
+        private final int[] arrivals;
+        private final int[] departures;
+
+        private TimesByStop(TripPatternForDates p) {
+            int nStops = p.numberOfStopsInPattern();
+            int nTrips = p.numberOfTripSchedules;
+            this.arrivals = new int[nTrips * nStops];
+            this.departures = new int[nTrips * nStops];
+
+            for (int t = 0; t < nTrips; t++) {
+                int day = p.dayIndexByTrip[t];
+                int offset = p.offsets[day];
+                TripTimes tripTimes = p.tripPatternForDates[day].getTripTimes(p.tripIndexInDay[t]);
+
+                for (int s = 0; s < nStops; s++) {
+                    arrivals[s * nTrips + t] = tripTimes.getArrivalTime(s) + offset;
+                    departures[s * nTrips + t] = tripTimes.getDepartureTime(s) + offset;
+                }
+            }
+        }
+    }
 }
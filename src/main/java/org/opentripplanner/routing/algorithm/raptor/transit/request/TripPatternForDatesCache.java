@@ -0,0 +1,89 @@
+package org.opentripplanner.routing.algorithm.raptor.transit.request;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import java.time.LocalDate;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import lombok.SneakyThrows;
+import org.opentripplanner.routing.algorithm.raptor.transit.TransitLayer;
+
+/**
+ * Cache the request independent part of the {@link RaptorRoutingRequestTransitData}, the trip
+ * patterns merged over the search days and the stop to pattern index. Creating these is expensive,
+ * and they only depend on the search date and the number of additional search days.
+ * <p>
+ * There is one cache per {@link TransitLayer} instance. The transit layer is copied and replaced
+ * when it is updated with realtime data, so the cache is versioned by the transit layer instance,
+ * and an updated transit layer starts with an empty cache.
+ */
+public class TripPatternForDatesCache {
+
+  /**
+   * Each entry holds all trips for a few days. Most requests search today or tomorrow, so only
+   * a few entries are needed.
+   */
+  private static final int MAX_SIZE = 8;
+
+  private final TransitLayer transitLayer;
+
+  private final LoadingCache<CacheKey, TripPatternsForDateRange> cache;
+
+  public TripPatternForDatesCache(TransitLayer transitLayer) {
+    this.transitLayer = transitLayer;
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(MAX_SIZE)
+        .build(cacheLoader());
+  }
+
+  @SneakyThrows
+  public TripPatternsForDateRange get(LocalDate departureDate, int additionalFutureSearchDays) {
+    return cache.get(new CacheKey(departureDate, additionalFutureSearchDays));
+  }
+
+  /**
+   * Remove all cached entries. This must be called if the trip patterns in the transit layer
+   * change.
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private CacheLoader<CacheKey, TripPatternsForDateRange> cacheLoader() {
+    return new CacheLoader<>() {
+      @Override
+      public TripPatternsForDateRange load(@Nonnull CacheKey key) {
+        return RaptorRoutingRequestTransitDataCreator.createTripPatternsForDateRange(
+            transitLayer,
+            key.departureDate,
+            key.additionalFutureSearchDays
+        );
+      }
+    };
+  }
+
+  private static class CacheKey {
+    private final LocalDate departureDate;
+    private final int additionalFutureSearchDays;
+
+    private CacheKey(LocalDate departureDate, int additionalFutureSearchDays) {
+      this.departureDate = departureDate;
+      this.additionalFutureSearchDays = additionalFutureSearchDays;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) { return true; }
+      if (o == null || getClass() != o.getClass()) { return false; }
+      CacheKey cacheKey = (CacheKey) o;
+      return additionalFutureSearchDays == cacheKey.additionalFutureSearchDays
+          && departureDate.equals(cacheKey.departureDate);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(departureDate, additionalFutureSearchDays);
+    }
+  }
+}
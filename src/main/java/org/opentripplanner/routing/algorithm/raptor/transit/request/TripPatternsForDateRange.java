@@ -0,0 +1,133 @@
+package org.opentripplanner.routing.algorithm.raptor.transit.request;
+
+import java.time.ZonedDateTime;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.model.FeedScopedId;
+import org.opentripplanner.model.TransitMode;
+import org.opentripplanner.model.base.ToStringBuilder;
+
+/**
+ * All trip patterns running in a given date range, merged by pattern and indexed by stop. This is
+ * the request independent part of {@link RaptorRoutingRequestTransitData}. It is created by the
+ * {@link TripPatternForDatesCache} and shared between all requests with the same search date and
+ * number of additional search days.
+ * <p>
+ * This class is immutable (except for the lazy initialized times and filtered copies of the
+ * {@link TripPatternForDates}) and thread safe.
+ */
+public final class TripPatternsForDateRange {
+
+  private static final BitSet EMPTY = new BitSet();
+
+  private final ZonedDateTime searchStartTime;
+
+  /**
+   * All patterns, the index in the array is used as a pattern index in the
+   * {@link #patternIndexesByStop}.
+   */
+  private final TripPatternForDates[] tripPatterns;
+
+  /**
+   * The pattern indexes for each stop, the outer array is indexed by stop index.
+   */
+  private final int[][] patternIndexesByStop;
+
+  /**
+   * The pattern indexes for each transit mode and for each route, used by the request filter to
+   * accept or reject patterns with bulk bit set operations.
+   */
+  private final Map<TransitMode, BitSet> patternIndexesByMode = new EnumMap<>(TransitMode.class);
+  private final Map<FeedScopedId, BitSet> patternIndexesByRoute = new HashMap<>();
+
+  TripPatternsForDateRange(
+      ZonedDateTime searchStartTime,
+      List<TripPatternForDates> tripPatterns,
+      int numberOfStops
+  ) {
+    this.searchStartTime = searchStartTime;
+    this.tripPatterns = tripPatterns.toArray(new TripPatternForDates[0]);
+    this.patternIndexesByStop = createPatternIndexesByStop(this.tripPatterns, numberOfStops);
+
+    for (int p = 0; p < this.tripPatterns.length; p++) {
+      var pattern = this.tripPatterns[p].getTripPattern();
+      patternIndexesByMode
+          .computeIfAbsent(pattern.getTransitMode(), it -> new BitSet())
+          .set(p);
+      patternIndexesByRoute
+          .computeIfAbsent(pattern.getPattern().route.getId(), it -> new BitSet())
+          .set(p);
+    }
+  }
+
+  ZonedDateTime getSearchStartTime() {
+    return searchStartTime;
+  }
+
+  int numberOfTripPatterns() {
+    return tripPatterns.length;
+  }
+
+  TripPatternForDates getTripPattern(int patternIndex) {
+    return tripPatterns[patternIndex];
+  }
+
+  int[] patternIndexesForStop(int stopIndex) {
+    return patternIndexesByStop[stopIndex];
+  }
+
+  /**
+   * The indexes of the patterns with the given transit mode. The returned set is shared and MUST
+   * NOT be modified.
+   */
+  BitSet patternIndexesForMode(TransitMode mode) {
+    return patternIndexesByMode.getOrDefault(mode, EMPTY);
+  }
+
+  /**
+   * The indexes of the patterns of the given route. The returned set is shared and MUST NOT be
+   * modified.
+   */
+  BitSet patternIndexesForRoute(FeedScopedId routeId) {
+    return patternIndexesByRoute.getOrDefault(routeId, EMPTY);
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder.of(TripPatternsForDateRange.class)
+        .addObj("searchStartTime", searchStartTime)
+        .addNum("nPatterns", tripPatterns.length)
+        .toString();
+  }
+
+  private static int[][] createPatternIndexesByStop(
+      TripPatternForDates[] tripPatterns,
+      int numberOfStops
+  ) {
+    int[] size = new int[numberOfStops];
+
+    for (TripPatternForDates it : tripPatterns) {
+      for (int stop : it.getTripPattern().getStopIndexes()) {
+        ++size[stop];
+      }
+    }
+
+    int[][] result = new int[numberOfStops][];
+    for (int i = 0; i < numberOfStops; i++) {
+      result[i] = new int[size[i]];
+      size[i] = 0;
+    }
+
+    // A pattern visiting the same stop twice is added twice, this is ok, the
+    // RaptorRoutingRequestTransitData remove duplicates when iterating.
+    for (int p = 0; p < tripPatterns.length; p++) {
+      for (int stop : tripPatterns[p].getTripPattern().getStopIndexes()) {
+        result[stop][size[stop]++] = p;
+      }
+    }
+    return result;
+  }
+}
@@ -17,6 +17,7 @@ import org.opentripplanner.routing.algorithm.transferoptimization.services.Trans
 import org.opentripplanner.transit.raptor.api.path.Path;
 import org.opentripplanner.transit.raptor.api.path.TransitPathLeg;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.util.time.Deadline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,12 +53,25 @@ public class OptimizeTransferService<T extends RaptorTripSchedule> {
   }
 
   public List<Path<T>> optimize(Collection<Path<T>> paths) {
+    return optimize(paths, Deadline.NONE);
+  }
+
+  /**
+   * Optimize the transfers of each path until the deadline expires. The rest of the paths are
+   * returned as found by Raptor.
+   */
+  public List<Path<T>> optimize(Collection<Path<T>> paths, Deadline deadline) {
     setup(paths);
 
     List<Path<T>> results = new ArrayList<>();
 
     for (Path<T> path : paths) {
-      results.addAll(optimize(path));
+      if (deadline.isExpired()) {
+        results.add(path);
+      }
+      else {
+        results.addAll(optimize(path));
+      }
     }
     return results;
   }
@@ -26,6 +26,7 @@ import org.opentripplanner.api.common.LocationStringParser;
 import org.opentripplanner.api.common.Message;
 import org.opentripplanner.api.common.ParameterException;
 import org.opentripplanner.common.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.common.pqueue.PriorityQueueType;
 import org.opentripplanner.model.FeedScopedId;
 import org.opentripplanner.model.GenericLocation;
 import org.opentripplanner.model.Route;
@@ -47,6 +48,7 @@ import org.opentripplanner.routing.spt.DominanceFunction;
 import org.opentripplanner.routing.spt.GraphPath;
 import org.opentripplanner.routing.spt.ShortestPathTree;
 import org.opentripplanner.util.time.DateUtils;
+import org.opentripplanner.util.time.Deadline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -608,6 +610,21 @@ public class RoutingRequest implements AutoCloseable, Cloneable, Serializable {
      */
     public boolean disableRemainingWeightHeuristic = false;
 
+    /**
+     * The priority queue used by the street search. The {@link PriorityQueueType#QUATERNARY_HEAP}
+     * drop dominated states before it grows, witch keeps the queue small for long searches.
+     *
+     * This is used by the Street search only.
+     */
+    public PriorityQueueType streetSearchPriorityQueue = PriorityQueueType.BINARY_HEAP;
+
+    /**
+     * The wall-clock deadline for the whole request, set once by the {@code RoutingWorker} when
+     * the search starts. The deadline is shared, not copied, with the street sub-requests, so the
+     * street, transit and itinerary filtering stages are all limited by the same time budget.
+     */
+    private Deadline deadline = Deadline.NONE;
+
     /**
      * The routing context used to actually carry out this search. It is important to build States from TraverseOptions
      * rather than RoutingContexts,and just keep a reference to the context in the TraverseOptions, rather than using
@@ -1146,6 +1163,21 @@ public class RoutingRequest implements AutoCloseable, Cloneable, Serializable {
         return this.rctx;
     }
 
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Set the deadline for this request, see {@link #getDeadline()}. The deadline can only be set
+     * once, the sub-requests created with {@link #clone()} share it with the main request.
+     */
+    public void setDeadline(Deadline deadline) {
+        if (this.deadline != Deadline.NONE) {
+            throw new IllegalStateException("The request deadline is already set.");
+        }
+        this.deadline = deadline;
+    }
+
     /** Tear down any routing context (remove temporary edges from edge lists) */
     public void cleanup() {
         if (this.rctx == null)
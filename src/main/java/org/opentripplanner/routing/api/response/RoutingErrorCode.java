@@ -25,5 +25,12 @@ public enum RoutingErrorCode {
   /**
    * The location was found, but no stops could be found within the search radius.
    */
-  NO_STOPS_IN_RANGE
+  NO_STOPS_IN_RANGE,
+
+  /**
+   * The request deadline expired before the search was completed. The result is incomplete, it
+   * contains the itineraries found before the search was stopped. If the transit search was
+   * stopped, no transit itineraries are returned.
+   */
+  REQUEST_TIMEOUT
 }
@@ -116,6 +116,24 @@ public class OverlayGraph implements Serializable {
         return ret;
     }
 
+    /**
+     * Get the outgoing edges of the vertex in the underlying graph together with the outgoing
+     * edges of the vertex in this overlay. A new list is only created if the overlay has edges
+     * for the vertex.
+     */
+    public Collection<Edge> getAllOutgoing(Vertex v) {
+        return concat(v.getOutgoing(), outgoing.get(v));
+    }
+
+    /**
+     * Get the incoming edges of the vertex in the underlying graph together with the incoming
+     * edges of the vertex in this overlay. A new list is only created if the overlay has edges
+     * for the vertex.
+     */
+    public Collection<Edge> getAllIncoming(Vertex v) {
+        return concat(v.getIncoming(), incoming.get(v));
+    }
+
     /**
      * A single edge can appear once or twice. (CH graphs might have only outgoing or only incoming
      * edges.) Avoid double-counting.
@@ -191,6 +209,16 @@ public class OverlayGraph implements Serializable {
         return outgoing.containsKey(vertex) || incoming.containsKey(vertex);
     }
 
+    private static Collection<Edge> concat(Collection<Edge> graphEdges, List<Edge> overlayEdges) {
+        if (overlayEdges == null || overlayEdges.isEmpty()) {
+            return graphEdges;
+        }
+        List<Edge> edges = new ArrayList<>(graphEdges.size() + overlayEdges.size());
+        edges.addAll(graphEdges);
+        edges.addAll(overlayEdges);
+        return edges;
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         for (List<Edge> le : outgoing.values()) {
             ((ArrayList<Edge>)le).trimToSize();
@@ -14,10 +14,12 @@ import org.opentripplanner.graph_builder.linking.DisposableEdgeCollection;
 import org.opentripplanner.routing.graph.Edge;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.Vertex;
+import org.opentripplanner.routing.vertextype.TemporaryVertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -47,6 +49,13 @@ public class RoutingContext implements Cloneable {
     public final Set<FeedScopedId> bannedRoutes;
 
     private final Set<DisposableEdgeCollection> tempEdges;
+
+    /**
+     * The request scoped edges connected to permanent vertices. These edges are not added to the
+     * permanent vertices, so linking the origin and destination does not change the graph shared
+     * with other requests.
+     */
+    private final OverlayGraph overlay = new OverlayGraph();
     
     // The back edge associated with the origin - i.e. continuing a previous search.
     // NOTE: not final so that it can be modified post-construction for testing.
@@ -119,6 +128,7 @@ public class RoutingContext implements Cloneable {
                 true,
                 tempEdges
             );
+            tempEdges.forEach(this::addToOverlay);
 
         } else {
             // debug mode, force endpoint vertices to those specified rather than searching
@@ -138,7 +148,11 @@ public class RoutingContext implements Cloneable {
         if (fromVertices != null && toVertices != null) {
             for (Vertex fromVertex : fromVertices) {
                 for (Vertex toVertex : toVertices) {
-                    tempEdges.add(SameEdgeAdjuster.adjust(fromVertex, toVertex, graph));
+                    DisposableEdgeCollection sameEdges = SameEdgeAdjuster.adjust(
+                        fromVertex, toVertex, graph, overlay
+                    );
+                    addToOverlay(sameEdges);
+                    tempEdges.add(sameEdges);
                 }
             }
         }
@@ -185,6 +199,22 @@ public class RoutingContext implements Cloneable {
         }
     }
 
+    /**
+     * The outgoing edges of the given vertex, including the temporary edges added to permanent
+     * vertices by this request. Use this rather than {@link Vertex#getOutgoing()} when searching.
+     */
+    public Collection<Edge> getOutgoing(Vertex v) {
+        return overlay.getAllOutgoing(v);
+    }
+
+    /**
+     * The incoming edges of the given vertex, including the temporary edges added to permanent
+     * vertices by this request. Use this rather than {@link Vertex#getIncoming()} when searching.
+     */
+    public Collection<Edge> getIncoming(Vertex v) {
+        return overlay.getAllIncoming(v);
+    }
+
     /**
      * Tear down this routing context, removing any temporary edges from
      * the "permanent" graph objects. This enables all temporary objects
@@ -193,4 +223,19 @@ public class RoutingContext implements Cloneable {
     public void destroy() {
         this.tempEdges.forEach(DisposableEdgeCollection::disposeEdges);
     }
-}
\ No newline at end of file
+
+    /* PRIVATE METHODS */
+
+    private void addToOverlay(DisposableEdgeCollection edges) {
+        if (!edges.isOverlay()) { return; }
+
+        for (Edge e : edges.getEdges()) {
+            if (!(e.getFromVertex() instanceof TemporaryVertex)) {
+                overlay.addOutgoing(e.getFromVertex(), e);
+            }
+            if (!(e.getToVertex() instanceof TemporaryVertex)) {
+                overlay.addIncoming(e.getToVertex(), e);
+            }
+        }
+    }
+}
@@ -481,6 +481,15 @@ public class State implements Cloneable {
         System.out.printf("---- END CHAIN OF STATES ----\n");
     }
 
+    /**
+     * The outgoing edges of the given vertex, including the temporary edges added to permanent
+     * vertices by the request of this state. See {@link RoutingContext#getOutgoing(Vertex)}.
+     */
+    public Collection<Edge> getOutgoingEdges(Vertex v) {
+        RoutingContext rctx = getContext();
+        return rctx == null ? v.getOutgoing() : rctx.getOutgoing(v);
+    }
+
     public long getTimeInMillis() {
         return time;
     }
@@ -488,7 +497,7 @@ public class State implements Cloneable {
     public boolean multipleOptionsBefore() {
         boolean foundAlternatePaths = false;
         TraverseMode requestedMode = getNonTransitMode();
-        for (Edge out : backState.vertex.getOutgoing()) {
+        for (Edge out : getOutgoingEdges(backState.vertex)) {
             if (out == backEdge) {
                 continue;
             }
@@ -510,7 +519,7 @@ public class State implements Cloneable {
             //now, from here, try a continuing path.
             Vertex tov = outState.getVertex();
             boolean found = false;
-            for (Edge out2 : tov.getOutgoing()) {
+            for (Edge out2 : getOutgoingEdges(tov)) {
                 State outState2 = out2.traverse(outState);
                 if (outState2 != null && !Objects.equals(outState2.getBackMode(), requestedMode)) {
                     // walking a bike, so, not really an exit
@@ -23,6 +23,10 @@ public class FreeEdge extends Edge {
         super(from, to);
     }
 
+    protected FreeEdge(Vertex from, Vertex to, boolean overlay) {
+        super(from, to, overlay);
+    }
+
     @Override
     public State traverse(State s0) {
         StateEditor s1 = s0.edit(this);
@@ -119,7 +119,14 @@ public class StreetEdge extends Edge implements BikeWalkableEdge, Cloneable, Car
     public StreetEdge(StreetVertex v1, StreetVertex v2, LineString geometry,
                       I18NString name, double length,
                       StreetTraversalPermission permission, boolean back) {
-        super(v1, v2);
+        this(v1, v2, geometry, name, length, permission, back, false);
+    }
+
+    /** See the {@link Edge} constructor for the overlay parameter. */
+    protected StreetEdge(StreetVertex v1, StreetVertex v2, LineString geometry,
+                      I18NString name, double length,
+                      StreetTraversalPermission permission, boolean back, boolean overlay) {
+        super(v1, v2, overlay);
         this.setBack(back);
         this.setGeometry(geometry);
         this.length_mm = (int) (length * 1000); // CONVERT FROM FLOAT METERS TO FIXED MILLIMETERS
@@ -833,14 +840,18 @@ public class StreetEdge extends Edge implements BikeWalkableEdge, Cloneable, Car
         StreetEdge e2 = null;
 
         if (direction == LinkingDirection.OUTGOING || direction == LinkingDirection.BOTH_WAYS) {
-            e1 = new TemporaryPartialStreetEdge(this, (StreetVertex) fromv, v, geoms.first, name);
+            e1 = new TemporaryPartialStreetEdge(
+                this, (StreetVertex) fromv, v, geoms.first, name, tempEdges.isOverlay()
+            );
                 e1.setMotorVehicleNoThruTraffic(this.isMotorVehicleNoThruTraffic());
                 e1.setBicycleNoThruTraffic(this.isBicycleNoThruTraffic());
             e1.setStreetClass(this.getStreetClass());
             tempEdges.addEdge(e1);
         }
         if (direction == LinkingDirection.INCOMING || direction == LinkingDirection.BOTH_WAYS) {
-            e2 = new TemporaryPartialStreetEdge(this, v, (StreetVertex) tov, geoms.second, name);
+            e2 = new TemporaryPartialStreetEdge(
+                this, v, (StreetVertex) tov, geoms.second, name, tempEdges.isOverlay()
+            );
                 e2.setMotorVehicleNoThruTraffic(this.isMotorVehicleNoThruTraffic());
                 e2.setBicycleNoThruTraffic(this.isBicycleNoThruTraffic());
             e2.setStreetClass(this.getStreetClass());
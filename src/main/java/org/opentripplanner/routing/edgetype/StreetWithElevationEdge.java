@@ -39,6 +39,12 @@ public class StreetWithElevationEdge extends StreetEdge {
 
     }
 
+    protected StreetWithElevationEdge(StreetVertex v1, StreetVertex v2, LineString geometry,
+            I18NString name, double length, StreetTraversalPermission permission, boolean back,
+            boolean overlay) {
+        super(v1, v2, geometry, name, length, permission, back, overlay);
+    }
+
     public StreetWithElevationEdge(StreetVertex v1, StreetVertex v2, LineString geometry,
             String name, double length, StreetTraversalPermission permission, boolean back) {
         this(v1, v2, geometry, new NonLocalizedString(name), length, permission, back);
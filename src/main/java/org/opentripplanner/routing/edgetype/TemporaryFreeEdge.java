@@ -8,15 +8,31 @@ import org.opentripplanner.routing.vertextype.TemporaryVertex;
 public class TemporaryFreeEdge extends FreeEdge implements TemporaryEdge {
 
     public TemporaryFreeEdge(TemporaryVertex from, Vertex to) {
-        super((Vertex) from, to);
+        this(from, to, false);
+    }
+
+    public TemporaryFreeEdge(Vertex from, TemporaryVertex to) {
+        this(from, to, false);
+    }
+
+    /**
+     * @param overlay If true, the edge is not added to the permanent vertex, see
+     *                {@link org.opentripplanner.routing.core.RoutingContext#getOutgoing(Vertex)}.
+     */
+    public TemporaryFreeEdge(TemporaryVertex from, Vertex to, boolean overlay) {
+        super((Vertex) from, to, overlay);
 
         if (from.isEndVertex()) {
             throw new IllegalStateException("A temporary edge is directed away from an end vertex");
         }
     }
 
-    public TemporaryFreeEdge(Vertex from, TemporaryVertex to) {
-        super(from, (Vertex) to);
+    /**
+     * @param overlay If true, the edge is not added to the permanent vertex, see
+     *                {@link org.opentripplanner.routing.core.RoutingContext#getIncoming(Vertex)}.
+     */
+    public TemporaryFreeEdge(Vertex from, TemporaryVertex to, boolean overlay) {
+        super(from, (Vertex) to, overlay);
 
         if (!to.isEndVertex()) {
             throw new IllegalStateException("A temporary edge is directed towards a start vertex");
@@ -34,7 +34,16 @@ final public class TemporaryPartialStreetEdge extends StreetWithElevationEdge im
      */
     public TemporaryPartialStreetEdge(StreetEdge parentEdge, StreetVertex v1, StreetVertex v2,
             LineString geometry, I18NString name, double length) {
-        super(v1, v2, geometry, name, length, parentEdge.getPermission(), false);
+        this(parentEdge, v1, v2, geometry, name, length, false);
+    }
+
+    /**
+     * Same as {@link #TemporaryPartialStreetEdge(StreetEdge, StreetVertex, StreetVertex, LineString, I18NString, double)},
+     * if {@code overlay} is true the edge is only added to the temporary vertices.
+     */
+    public TemporaryPartialStreetEdge(StreetEdge parentEdge, StreetVertex v1, StreetVertex v2,
+            LineString geometry, I18NString name, double length, boolean overlay) {
+        super(v1, v2, geometry, name, length, parentEdge.getPermission(), false, overlay);
         this.parentEdge = parentEdge;
         this.geometry = super.getGeometry();
         setCarSpeed(parentEdge.getCarSpeed());
@@ -47,8 +56,8 @@ final public class TemporaryPartialStreetEdge extends StreetWithElevationEdge im
      * The elevation data is calculated using the 'parentEdge' and the calculated 'length'.
      */
     TemporaryPartialStreetEdge(StreetEdge parentEdge, StreetVertex v1, StreetVertex v2,
-            LineString geometry, I18NString name) {
-        super(v1, v2, geometry, name, 0, parentEdge.getPermission(), false);
+            LineString geometry, I18NString name, boolean overlay) {
+        super(v1, v2, geometry, name, 0, parentEdge.getPermission(), false, overlay);
         this.parentEdge = parentEdge;
         this.geometry = super.getGeometry();
         setCarSpeed(parentEdge.getCarSpeed());
@@ -25,6 +25,7 @@ public class DebugTimingAggregator {
 
   private long finishedTransitRouter;
   private long finishedFiltering;
+  private long finishedFareCalculation;
   private long finishedRendering;
 
   private long precalculationTime;
@@ -35,6 +36,7 @@ public class DebugTimingAggregator {
   private long itineraryCreationTime;
   private long transitRouterTime;
   private long filteringTime;
+  private long fareCalculationTime;
   private long renderingTime;
 
   private final boolean notEnabled = !LOG.isDebugEnabled();
@@ -128,13 +130,21 @@ public class DebugTimingAggregator {
     log("├  Filtering itineraries", filteringTime);
   }
 
+  /** Record the time when we finished calculating the fares of the filtered itineraries. */
+  public void finishedFareCalculation() {
+    if(notEnabled) { return; }
+    finishedFareCalculation = System.currentTimeMillis();
+    fareCalculationTime = finishedFareCalculation - finishedFiltering;
+    log("├  Calculating fares", fareCalculationTime);
+  }
+
   /** Record the time when we finished converting the internal model to API classes */
   @SuppressWarnings("Convert2MethodRef")
   @Nullable
   public DebugOutput finishedRendering() {
     if(notEnabled) { return null; }
     finishedRendering = System.currentTimeMillis();
-    renderingTime = finishedRendering - finishedFiltering;
+    renderingTime = finishedRendering - Math.max(finishedFiltering, finishedFareCalculation);
     log("├  Converting model objects", renderingTime);
     log("┴  Request total", finishedRendering - startedCalculating);
     messages.forEach(m -> LOG.debug(m));
@@ -150,6 +160,7 @@ public class DebugTimingAggregator {
         directStreetRouterTime,
         transitRouterTime,
         filteringTime,
+        fareCalculationTime,
         renderingTime,
         totalTime,
         new TransitTimingOutput(
@@ -4,6 +4,7 @@ import java.util.Objects;
 import org.locationtech.jts.geom.LineString;
 import org.opentripplanner.model.Trip;
 import org.opentripplanner.routing.core.State;
+import org.opentripplanner.routing.vertextype.TemporaryVertex;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -24,6 +25,15 @@ public abstract class Edge implements Serializable {
     protected Vertex tov;
 
     protected Edge(Vertex v1, Vertex v2) {
+        this(v1, v2, false);
+    }
+
+    /**
+     * @param overlay If true, the edge is only added to the edge lists of the endpoints that are
+     *                {@link TemporaryVertex}s. The permanent vertices of the graph are not changed,
+     *                instead the edge is found through the overlay of the routing context.
+     */
+    protected Edge(Vertex v1, Vertex v2, boolean overlay) {
         if (v1 == null || v2 == null) {
             String err = String.format("%s constructed with null vertex : %s %s", this.getClass(),
                     v1, v2);
@@ -31,8 +41,12 @@ public abstract class Edge implements Serializable {
         }
         this.fromv = v1;
         this.tov = v2;
-        fromv.addOutgoing(this);
-        tov.addIncoming(this);
+        if (!overlay || fromv instanceof TemporaryVertex) {
+            fromv.addOutgoing(this);
+        }
+        if (!overlay || tov instanceof TemporaryVertex) {
+            tov.addIncoming(this);
+        }
     }
 
     public Vertex getFromVertex() {
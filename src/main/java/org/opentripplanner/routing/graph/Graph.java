@@ -66,6 +66,7 @@ import org.opentripplanner.model.Station;
 import org.opentripplanner.model.Stop;
 import org.opentripplanner.model.StopLocation;
 import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.model.TimetableSnapshotCommitStatistics;
 import org.opentripplanner.model.TimetableSnapshotProvider;
 import org.opentripplanner.model.TransitEntity;
 import org.opentripplanner.model.TransitMode;
@@ -91,6 +92,7 @@ import org.opentripplanner.routing.services.TransitAlertService;
 import org.opentripplanner.routing.services.notes.StreetNotesService;
 import org.opentripplanner.routing.trippattern.Deduplicator;
 import org.opentripplanner.routing.util.ConcurrentPublished;
+import org.opentripplanner.routing.vertextype.TemporaryVertex;
 import org.opentripplanner.routing.vertextype.TransitStopVertex;
 import org.opentripplanner.updater.GraphUpdaterConfigurator;
 import org.opentripplanner.updater.GraphUpdaterManager;
@@ -298,6 +300,11 @@ public class Graph implements Serializable {
         return timetableSnapshotProvider == null ? null : timetableSnapshotProvider.getTimetableSnapshot();
     }
 
+    @Nullable
+    public TimetableSnapshotCommitStatistics getTimetableSnapshotCommitStatistics() {
+        return timetableSnapshotProvider == null ? null : timetableSnapshotProvider.getCommitStatistics();
+    }
+
     /**
      * TODO OTP2 - This should be replaced by proper dependency injection
      */
@@ -343,6 +350,19 @@ public class Graph implements Serializable {
      * @param e The edge to be removed
      */
     public void removeEdge(Edge e) {
+        removeEdge(e, false);
+    }
+
+    /**
+     * Removes an edge created with the overlay flag set, the edge is only removed from the
+     * temporary vertices - it was never added to the permanent vertices.
+     * @param e The edge to be removed
+     */
+    public void removeOverlayEdge(Edge e) {
+        removeEdge(e, true);
+    }
+
+    private void removeEdge(Edge e, boolean overlay) {
         if (e != null) {
             turnRestrictions.remove(e);
             streetNotesService.removeStaticNotes(e);
@@ -350,7 +370,9 @@ public class Graph implements Serializable {
             if (e instanceof EdgeWithCleanup) ((EdgeWithCleanup) e).detach();
 
             if (e.fromv != null) {
-                e.fromv.removeOutgoing(e);
+                if (!overlay || e.fromv instanceof TemporaryVertex) {
+                    e.fromv.removeOutgoing(e);
+                }
 
                 for (Edge otherEdge : e.fromv.getIncoming()) {
                     for (TurnRestriction turnRestriction : getTurnRestrictions(otherEdge)) {
@@ -364,7 +386,9 @@ public class Graph implements Serializable {
             }
 
             if (e.tov != null) {
-                e.tov.removeIncoming(e);
+                if (!overlay || e.tov instanceof TemporaryVertex) {
+                    e.tov.removeIncoming(e);
+                }
                 e.tov = null;
             }
         }
@@ -442,6 +466,21 @@ public class Graph implements Serializable {
         }
     }
 
+    /**
+     * @return {@code true} if any turn restriction is only in force at certain times, see
+     *         {@link TurnRestriction#time}.
+     */
+    public boolean hasTimeDependentTurnRestrictions() {
+        for (List<TurnRestriction> it : turnRestrictions.values()) {
+            for (TurnRestriction turnRestriction : it) {
+                if (turnRestriction.time != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Get the {@link TurnRestriction} {@link List} that belongs to an {@link Edge} and return an
      * immutable copy. This method is thread-safe when used by itself, but not if addTurnRestriction
@@ -11,6 +11,7 @@ import com.esotericsoftware.kryo.serializers.JavaSerializer;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.HashBiMap;
 import com.google.common.collect.HashMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import de.javakaffee.kryoserializers.UnmodifiableCollectionsSerializer;
 import de.javakaffee.kryoserializers.guava.ArrayListMultimapSerializer;
 import de.javakaffee.kryoserializers.guava.HashMultimapSerializer;
@@ -27,11 +28,17 @@ import org.opentripplanner.model.projectinfo.OtpProjectInfo;
 import org.opentripplanner.standalone.config.BuildConfig;
 import org.opentripplanner.standalone.config.RouterConfig;
 import org.opentripplanner.util.OtpAppException;
+import org.opentripplanner.util.ParallelDeflaterOutputStream;
+import org.opentripplanner.util.ParallelInflaterInputStream;
 import org.opentripplanner.util.ProgressTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -42,6 +49,14 @@ import java.io.OutputStream;
 import java.io.Serializable;
 import java.util.BitSet;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.opentripplanner.model.projectinfo.OtpProjectInfo.projectInfo;
 
@@ -55,10 +70,49 @@ import static org.opentripplanner.model.projectinfo.OtpProjectInfo.projectInfo;
  * serializer to know that vertices referenced by the edges are the same vertices stored in the
  * graph itself. The easiest way to do this is to make only one serialization call, serializing a
  * single object that contains both the graph and the edge collection.
+ * <p>
+ * The file is split into independent sections, see {@link Section}. After the file header the
+ * number of sections and the section ids are written, followed by the sections in the same
+ * order. Each section is serialized with its own Kryo instance and written in blocks, see
+ * {@link ParallelDeflaterOutputStream}. The blocks are only compressed if the build config
+ * {@code compressGraphFile} parameter is set, then all available processors are used. When
+ * loading, the blocks are decompressed in parallel ahead of the deserialization and the small
+ * sections are deserialized concurrently with the graph. Sections not needed by the caller are
+ * skipped without reading them into memory.
+ * <p>
+ * The graph section is still ONE Kryo stream deserialized by one thread, so the load time does
+ * not scale with the number of processors.
  */
 public class SerializedGraphObject implements Serializable {
     private static final Logger LOG = LoggerFactory.getLogger(SerializedGraphObject.class);
 
+    /**
+     * The sections of the graph file. The graph and the edges must be in the same section, the
+     * edges reference the vertices in the graph. The id is written to the file, do not change it.
+     */
+    public enum Section {
+        BUILD_CONFIG(1),
+        ROUTER_CONFIG(2),
+        GRAPH(3);
+
+        private final int id;
+
+        Section(int id) {
+            this.id = id;
+        }
+
+        private static Section of(int id, String sourceDescription) {
+            for (Section it : values()) {
+                if (it.id == id) {
+                    return it;
+                }
+            }
+            throw new OtpAppException(
+                "Unknown section id %d in graph file: %s", id, sourceDescription
+            );
+        }
+    }
+
     public final Graph graph;
 
     private final Collection<Edge> edges;
@@ -70,8 +124,17 @@ public class SerializedGraphObject implements Serializable {
     public final RouterConfig routerConfig;
 
     public SerializedGraphObject(Graph graph, BuildConfig buildConfig, RouterConfig routerConfig) {
+        this(graph, graph.getEdges(), buildConfig, routerConfig);
+    }
+
+    private SerializedGraphObject(
+            Graph graph,
+            Collection<Edge> edges,
+            BuildConfig buildConfig,
+            RouterConfig routerConfig
+    ) {
         this.graph = graph;
-        this.edges = graph.getEdges();
+        this.edges = edges;
         this.buildConfig = buildConfig;
         this.routerConfig = routerConfig;
     }
@@ -90,14 +153,18 @@ public class SerializedGraphObject implements Serializable {
     }
 
     public static SerializedGraphObject load(DataSource source) {
-        return load(source.asInputStream(), source.path());
+        return load(source.asInputStream(), source.path(), EnumSet.noneOf(Section.class));
     }
 
+    /**
+     * Load the graph only, the config sections are skipped.
+     */
     public static Graph load(File file) {
         try {
             SerializedGraphObject serObj = load(
                     new FileInputStream(file),
-                    file.getAbsolutePath()
+                    file.getAbsolutePath(),
+                    EnumSet.of(Section.BUILD_CONFIG, Section.ROUTER_CONFIG)
             );
             return serObj == null ? null : serObj.graph;
         } catch (FileNotFoundException e) {
@@ -203,20 +270,71 @@ public class SerializedGraphObject implements Serializable {
 
     /* private methods */
 
-    private static SerializedGraphObject load(InputStream inputStream, String sourceDescription) {
-        // TODO store version information, halt load if versions mismatch
+    /**
+     * @param skip The sections to skip, the fields of skipped sections are {@code null}.
+     */
+    private static SerializedGraphObject load(
+            InputStream inputStream,
+            String sourceDescription,
+            Set<Section> skip
+    ) {
+        int nThreads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = newExecutor(nThreads);
+
         try(inputStream) {
             LOG.info("Reading graph from '{}'", sourceDescription);
-            Input input = new Input(inputStream);
+            DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
 
             validateGraphSerializationId(
-                input.readBytes(GraphFileHeader.headerLength()),
+                input.readNBytes(GraphFileHeader.headerLength()),
                 sourceDescription
             );
 
-            Kryo kryo = makeKryo();
-            SerializedGraphObject serObj = (SerializedGraphObject) kryo.readClassAndObject(input);
-            Graph graph = serObj.graph;
+            Section[] sections = new Section[input.readInt()];
+            for (int i = 0; i < sections.length; ++i) {
+                sections[i] = Section.of(input.readUnsignedByte(), sourceDescription);
+            }
+
+            Map<Section, Future<Object>> configs = new EnumMap<>(Section.class);
+            Graph graph = null;
+            Collection<Edge> edges = null;
+
+            for (Section section : sections) {
+                if (skip.contains(section)) {
+                    ParallelInflaterInputStream.skip(input);
+                    continue;
+                }
+                try (var in = new ParallelInflaterInputStream(input, executor, nThreads)) {
+                    if (section == Section.GRAPH) {
+                        // The graph is deserialized while the next blocks are decompressed
+                        Kryo kryo = makeKryo();
+                        kryo.setAutoReset(false);
+                        Input kryoInput = new Input(in);
+                        graph = (Graph) kryo.readClassAndObject(kryoInput);
+                        //noinspection unchecked
+                        edges = (Collection<Edge>) kryo.readClassAndObject(kryoInput);
+                    }
+                    else {
+                        // The config sections are small, deserialize them concurrently
+                        byte[] bytes = in.readAllBytes();
+                        configs.put(
+                            section,
+                            executor.submit(() -> makeKryo().readClassAndObject(new Input(bytes)))
+                        );
+                    }
+                }
+            }
+
+            if (graph == null) {
+                throw new OtpAppException("The graph section is missing: " + sourceDescription);
+            }
+
+            SerializedGraphObject serObj = new SerializedGraphObject(
+                graph,
+                edges,
+                (BuildConfig) waitFor(configs.get(Section.BUILD_CONFIG)),
+                (RouterConfig) waitFor(configs.get(Section.ROUTER_CONFIG))
+            );
             LOG.debug("Graph read.");
             serObj.reconstructEdgeLists();
             LOG.info("Graph read. |V|={} |E|={}", graph.countVertices(), graph.countEdges());
@@ -232,21 +350,91 @@ public class SerializedGraphObject implements Serializable {
                     + "loaded graph build with the same OTP version as you are using to load it? "
                     + "Graph: " + sourceDescription);
         }
+        finally {
+            executor.shutdownNow();
+        }
     }
 
     private void save(OutputStream outputStream, String graphName, long size) {
         LOG.info("Writing graph " + graphName + " ...");
         outputStream = wrapOutputStreamWithProgressTracker(outputStream, size);
-        Kryo kryo = makeKryo();
-        Output output = new Output(outputStream);
-        output.write(OtpProjectInfo.projectInfo().graphFileHeaderInfo.header());
-        kryo.writeClassAndObject(output, this);
-        output.close();
+        int nThreads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = newExecutor(nThreads);
+        boolean compress = buildConfig != null && buildConfig.compressGraphFile;
+
+        try (var output = new DataOutputStream(new BufferedOutputStream(outputStream))) {
+            output.write(OtpProjectInfo.projectInfo().graphFileHeaderInfo.header());
+            output.writeInt(Section.values().length);
+            for (Section section : Section.values()) {
+                output.writeByte(section.id);
+            }
+            for (Section section : Section.values()) {
+                var out = new ParallelDeflaterOutputStream(output, executor, nThreads, compress);
+                Output kryoOutput = new Output(out);
+                writeSection(section, kryoOutput);
+                kryoOutput.flush();
+                out.finish();
+            }
+        }
+        catch (IOException e) {
+            throw new KryoException(e);
+        }
+        finally {
+            executor.shutdownNow();
+        }
         LOG.info("Graph written: {}", graphName);
         // Summarize serialized classes and associated serializers to stdout:
         // ((InstanceCountingClassResolver) kryo.getClassResolver()).summarize();
     }
 
+    private void writeSection(Section section, Output output) {
+        Kryo kryo = makeKryo();
+        switch (section) {
+            case BUILD_CONFIG:
+                kryo.writeClassAndObject(output, buildConfig);
+                break;
+            case ROUTER_CONFIG:
+                kryo.writeClassAndObject(output, routerConfig);
+                break;
+            case GRAPH:
+                // Keep the references between the graph and the edges
+                kryo.setAutoReset(false);
+                kryo.writeClassAndObject(output, graph);
+                kryo.writeClassAndObject(output, edges);
+                kryo.reset();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown section: " + section);
+        }
+    }
+
+    private static ExecutorService newExecutor(int nThreads) {
+        return Executors.newFixedThreadPool(
+            nThreads,
+            new ThreadFactoryBuilder().setNameFormat("graph-io-%d").setDaemon(true).build()
+        );
+    }
+
+    @Nullable
+    private static Object waitFor(@Nullable Future<Object> future) throws IOException {
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OtpAppException("Interrupted while loading graph.");
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof KryoException) {
+                throw (KryoException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
     @SuppressWarnings("Convert2MethodRef")
     private static OutputStream wrapOutputStreamWithProgressTracker(OutputStream outputStream, long size) {
         return ProgressTracker.track(
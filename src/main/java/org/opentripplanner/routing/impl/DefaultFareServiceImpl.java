@@ -18,6 +18,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Currency;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -77,15 +78,32 @@ public class DefaultFareServiceImpl implements FareService {
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultFareServiceImpl.class);
 
-    /** For each fare type (regular, student, etc...) the collection of rules that apply. */
-    protected Map<FareType, Collection<FareRuleSet>> fareRulesPerType;
+    /**
+     * For each fare type (regular, student, etc...) the collection of rules that apply. This is a
+     * read-only view; the rules are indexed, so they can only be changed with
+     * {@link #addFareRules(FareType, Collection)}.
+     */
+    protected final Map<FareType, Collection<FareRuleSet>> fareRulesPerType;
+
+    private final Map<FareType, Collection<FareRuleSet>> modifiableFareRulesPerType;
+
+    /**
+     * The fare rules indexed by fare type. The index is not serialized with the graph, it is
+     * created the first time a fare is calculated after the graph is loaded.
+     */
+    private transient volatile Map<FareType, FareRuleIndex> fareRuleIndexes;
 
     public DefaultFareServiceImpl() {
-        fareRulesPerType = new HashMap<>();
+        modifiableFareRulesPerType = new HashMap<>();
+        fareRulesPerType = Collections.unmodifiableMap(modifiableFareRulesPerType);
     }
 
     public void addFareRules(FareType fareType, Collection<FareRuleSet> fareRules) {
-        fareRulesPerType.put(fareType, new ArrayList<>(fareRules));
+        modifiableFareRulesPerType.put(
+            fareType,
+            Collections.unmodifiableList(new ArrayList<>(fareRules))
+        );
+        fareRuleIndexes = null;
     }
 
     @Override
@@ -256,40 +274,43 @@ public class DefaultFareServiceImpl implements FareService {
             trips.add(ride.trip);
             transfersUsed += 1;
         }
-        
-        FareAttribute bestAttribute = null;
-        float bestFare = Float.POSITIVE_INFINITY;
+
+        RideSequence sequence = new RideSequence(
+            feedId,
+            startZone,
+            endZone,
+            zones,
+            firstRide.route,
+            routes,
+            firstRide.trip,
+            trips
+        );
         long tripTime = lastRideStartTime - startTime;
         long journeyTime = lastRideEndTime - startTime;
-        	
+
+        FareAttribute bestAttribute = null;
+        float bestFare = Float.POSITIVE_INFINITY;
+
         // find the best fare that matches this set of rides
-        for (FareRuleSet ruleSet : fareRules) {
-            FareAttribute attribute = ruleSet.getFareAttribute();
-            // fares also don't really have an agency id, they will have the per-feed default id
-            // check only if the fare is not mapped to an agency
-            if (!attribute.getId().getFeedId().equals(feedId))
+        for (FareAttribute attribute : matchingAttributes(fareType, fareRules, sequence)) {
+            // TODO Maybe move the code below in FareRuleSet::matches() ?
+            if (attribute.isTransfersSet() && attribute.getTransfers() < transfersUsed) {
                 continue;
-            
-            if (ruleSet.matches(startZone, endZone, zones, routes, trips)) {
-                // TODO Maybe move the code below in FareRuleSet::matches() ?
-                if (attribute.isTransfersSet() && attribute.getTransfers() < transfersUsed) {
-                    continue;
-                }
-                // assume transfers are evaluated at boarding time,
-                // as trimet does
-                if (attribute.isTransferDurationSet() && 
-                    tripTime > attribute.getTransferDuration()) {
-                    continue;
-                }
-                if (attribute.isJourneyDurationSet() && 
-                    journeyTime > attribute.getJourneyDuration()) {
-                    continue;
-                }
-                float newFare = getFarePrice(attribute, fareType);
-                if (newFare < bestFare) {
-                    bestAttribute = attribute;
-                    bestFare = newFare;
-                }
+            }
+            // assume transfers are evaluated at boarding time,
+            // as trimet does
+            if (attribute.isTransferDurationSet() &&
+                tripTime > attribute.getTransferDuration()) {
+                continue;
+            }
+            if (attribute.isJourneyDurationSet() &&
+                journeyTime > attribute.getJourneyDuration()) {
+                continue;
+            }
+            float newFare = getFarePrice(attribute, fareType);
+            if (newFare < bestFare) {
+                bestAttribute = attribute;
+                bestFare = newFare;
             }
         }
         LOG.debug("{} best for {}", bestAttribute, rides);
@@ -298,6 +319,42 @@ public class DefaultFareServiceImpl implements FareService {
         }
         return new FareAndId(bestFare, bestAttribute == null ? null : bestAttribute.getId());
     }
+
+    /**
+     * Find the fare attributes of the rules matching the ride sequence. The rules of this service
+     * are looked up in the index, other rules passed in by subclasses are all checked.
+     */
+    private List<FareAttribute> matchingAttributes(
+            FareType fareType,
+            Collection<FareRuleSet> fareRules,
+            RideSequence sequence
+    ) {
+        FareRuleIndex index = getFareRuleIndexes().get(fareType);
+        if (index != null && index.isIndexOf(fareRules)) {
+            return index.matchingAttributes(sequence);
+        }
+
+        List<FareAttribute> result = new ArrayList<>();
+        for (FareRuleSet ruleSet : fareRules) {
+            if (sequence.isMatchedBy(ruleSet)) {
+                result.add(ruleSet.getFareAttribute());
+            }
+        }
+        return result;
+    }
+
+    private Map<FareType, FareRuleIndex> getFareRuleIndexes() {
+        // The indexes may be created by more than one thread at the same time, the last one wins
+        Map<FareType, FareRuleIndex> indexes = fareRuleIndexes;
+        if (indexes == null) {
+            indexes = new HashMap<>();
+            for (Map.Entry<FareType, Collection<FareRuleSet>> it : fareRulesPerType.entrySet()) {
+                indexes.put(it.getKey(), new FareRuleIndex(it.getValue()));
+            }
+            fareRuleIndexes = indexes;
+        }
+        return indexes;
+    }
     
     private float getFarePrice(FareAttribute fare, FareType type) {
     	switch(type) {
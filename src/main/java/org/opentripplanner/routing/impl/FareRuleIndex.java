@@ -0,0 +1,137 @@
+package org.opentripplanner.routing.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import org.opentripplanner.common.model.P2;
+import org.opentripplanner.model.FareAttribute;
+import org.opentripplanner.model.FeedScopedId;
+import org.opentripplanner.routing.core.FareRuleSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Index a collection of fare rules, so only the rules which may match a ride sequence are checked.
+ * Each rule is indexed on one of its restrictions, in this order: origin zone, contained zones,
+ * route and trip. A rule without restrictions is always checked. A rule with an origin-destination
+ * pair without origin is indexed on the next restriction, the index only need to return a superset
+ * of the matching rules.
+ * <p>
+ * The fare attributes matching a ride sequence are kept in a bounded memo, itineraries with the
+ * same legs, or legs in common, match the same sequences.
+ * <p>
+ * This class is THREAD-SAFE.
+ */
+class FareRuleIndex {
+
+    private static final int MEMO_MAX_SIZE = 10_000;
+
+    private final Collection<FareRuleSet> fareRules;
+
+    /** The rules in the original order, the order decide which rule to use if prices are equal. */
+    private final FareRuleSet[] rules;
+
+    private final ListMultimap<String, Integer> rulesByOriginZone = ArrayListMultimap.create();
+    private final ListMultimap<Set<String>, Integer> rulesByContains = ArrayListMultimap.create();
+    private final ListMultimap<FeedScopedId, Integer> rulesByRoute = ArrayListMultimap.create();
+    private final ListMultimap<FeedScopedId, Integer> rulesByTrip = ArrayListMultimap.create();
+    private final List<Integer> rulesWithoutIndex = new ArrayList<>();
+
+    private final Cache<RideSequence, List<FareAttribute>> memo = CacheBuilder.newBuilder()
+        .maximumSize(MEMO_MAX_SIZE)
+        .build();
+
+    FareRuleIndex(Collection<FareRuleSet> fareRules) {
+        this.fareRules = fareRules;
+        this.rules = fareRules.toArray(new FareRuleSet[0]);
+
+        for (int i = 0; i < rules.length; ++i) {
+            add(rules[i], i);
+        }
+    }
+
+    /**
+     * The index is only valid for the exact same collection of rules.
+     */
+    boolean isIndexOf(Collection<FareRuleSet> fareRules) {
+        return this.fareRules == fareRules;
+    }
+
+    /**
+     * Return the fare attributes of all rules matching the given ride sequence, in the order of
+     * the rules.
+     */
+    List<FareAttribute> matchingAttributes(RideSequence sequence) {
+        List<FareAttribute> result = memo.getIfPresent(sequence);
+        if (result == null) {
+            result = findMatchingAttributes(sequence);
+            memo.put(sequence, result);
+        }
+        return result;
+    }
+
+    /* private methods */
+
+    private void add(FareRuleSet rule, int index) {
+        if (!rule.getOriginDestinations().isEmpty() && hasOriginInAllPairs(rule)) {
+            rule.getOriginDestinations().stream()
+                .map(it -> it.first)
+                .distinct()
+                .forEach(it -> rulesByOriginZone.put(it, index));
+        }
+        else if (!rule.getContains().isEmpty()) {
+            rulesByContains.put(rule.getContains(), index);
+        }
+        else if (!rule.getRoutes().isEmpty()) {
+            rule.getRoutes().forEach(it -> rulesByRoute.put(it, index));
+        }
+        else if (!rule.getTrips().isEmpty()) {
+            rule.getTrips().forEach(it -> rulesByTrip.put(it, index));
+        }
+        else {
+            rulesWithoutIndex.add(index);
+        }
+    }
+
+    private List<FareAttribute> findMatchingAttributes(RideSequence sequence) {
+        // All routes and trips in the sequence must be part of the rule, so it is enough to
+        // look up the first
+        int[] candidates = concat(
+            rulesByOriginZone.get(sequence.startZone),
+            rulesByContains.get(sequence.zones),
+            rulesByRoute.get(sequence.firstRoute),
+            rulesByTrip.get(sequence.firstTrip),
+            rulesWithoutIndex
+        );
+        // Each rule is indexed once, so there are no duplicates
+        Arrays.sort(candidates);
+
+        List<FareAttribute> result = new ArrayList<>();
+        for (int i : candidates) {
+            if (sequence.isMatchedBy(rules[i])) {
+                result.add(rules[i].getFareAttribute());
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private static boolean hasOriginInAllPairs(FareRuleSet rule) {
+        for (P2<String> od : rule.getOriginDestinations()) {
+            if (od.first == null) { return false; }
+        }
+        return true;
+    }
+
+    @SafeVarargs
+    private static int[] concat(List<Integer>... lists) {
+        return Arrays.stream(lists)
+            .flatMap(List::stream)
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+}
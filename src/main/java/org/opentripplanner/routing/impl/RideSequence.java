@@ -0,0 +1,75 @@
+package org.opentripplanner.routing.impl;
+
+import org.opentripplanner.model.FareAttribute;
+import org.opentripplanner.model.FeedScopedId;
+import org.opentripplanner.routing.core.FareRuleSet;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The zones, routes and trips of a sequence of rides, used to match fare rules. Two sequences with
+ * the same properties match the same fare rules, so this is used as a key in the
+ * {@link FareRuleIndex} memo. The transfer and duration limits of the fare attributes depend on
+ * the time of the rides, they are checked after the rules are matched.
+ */
+final class RideSequence {
+
+    final String feedId;
+    final String startZone;
+    final String endZone;
+    final Set<String> zones;
+    final FeedScopedId firstRoute;
+    final Set<FeedScopedId> routes;
+    final FeedScopedId firstTrip;
+    final Set<FeedScopedId> trips;
+
+    RideSequence(
+            String feedId,
+            String startZone,
+            String endZone,
+            Set<String> zones,
+            FeedScopedId firstRoute,
+            Set<FeedScopedId> routes,
+            FeedScopedId firstTrip,
+            Set<FeedScopedId> trips
+    ) {
+        this.feedId = feedId;
+        this.startZone = startZone;
+        this.endZone = endZone;
+        this.zones = zones;
+        this.firstRoute = firstRoute;
+        this.routes = routes;
+        this.firstTrip = firstTrip;
+        this.trips = trips;
+    }
+
+    boolean isMatchedBy(FareRuleSet ruleSet) {
+        FareAttribute attribute = ruleSet.getFareAttribute();
+        // fares also don't really have an agency id, they will have the per-feed default id
+        // check only if the fare is not mapped to an agency
+        if (!attribute.getId().getFeedId().equals(feedId)) {
+            return false;
+        }
+        return ruleSet.matches(startZone, endZone, zones, routes, trips);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) { return true; }
+        if (o == null || getClass() != o.getClass()) { return false; }
+        RideSequence that = (RideSequence) o;
+        // The first route and trip are only used to look up the candidate rules in the index
+        return feedId.equals(that.feedId)
+            && Objects.equals(startZone, that.startZone)
+            && Objects.equals(endZone, that.endZone)
+            && zones.equals(that.zones)
+            && routes.equals(that.routes)
+            && trips.equals(that.trips);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(feedId, startZone, endZone, zones, routes, trips);
+    }
+}
@@ -36,6 +36,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiFunction;
 
 /**
  * Indexes all edges and transit vertices of the graph spatially. Has a variety of query methods
@@ -207,14 +208,24 @@ public class StreetVertexIndex {
     Coordinate coordinate = location.getCoordinate();
     if (coordinate != null) {
       //return getClosestVertex(loc, options, endVertex);
-      return Collections.singleton(createVertexFromLocation(location, options, endVertex, tempEdges));
+      return Collections.singleton(
+          createVertexFromLocation(location, options, endVertex, true, tempEdges)
+      );
     }
 
     return null;
   }
 
+  /**
+   * @param overlay If true the permanent vertices are not changed, the edges connected to them are
+   *                only visible through the overlay of the routing context.
+   */
   private Vertex createVertexFromLocation(
-      GenericLocation location, RoutingRequest options, boolean endVertex, Set<DisposableEdgeCollection> tempEdges
+      GenericLocation location,
+      RoutingRequest options,
+      boolean endVertex,
+      boolean overlay,
+      Set<DisposableEdgeCollection> tempEdges
   ) {
     if (endVertex) {
       LOG.debug("Finding end vertex for {}", location);
@@ -245,18 +256,25 @@ public class StreetVertexIndex {
 
     TraverseMode nonTransitMode = getTraverseModeForLinker(options, endVertex);
 
-    tempEdges.add(vertexLinker.linkVertexForRequest(
-        temporaryStreetLocation,
-        new TraverseModeSet(nonTransitMode),
-        endVertex ? LinkingDirection.OUTGOING : LinkingDirection.INCOMING,
-        endVertex
-            ? (vertex, streetVertex) -> List.of(
-                new TemporaryFreeEdge(streetVertex, (TemporaryStreetLocation)vertex)
+    TraverseModeSet modes = new TraverseModeSet(nonTransitMode);
+    LinkingDirection direction = endVertex ? LinkingDirection.OUTGOING : LinkingDirection.INCOMING;
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction = endVertex
+        ? (vertex, streetVertex) -> List.of(
+            new TemporaryFreeEdge(streetVertex, (TemporaryStreetLocation)vertex, overlay)
+          )
+        : (vertex, streetVertex) -> List.of(
+            new TemporaryFreeEdge((TemporaryStreetLocation)vertex, streetVertex, overlay)
+          );
+
+    tempEdges.add(
+        overlay
+            ? vertexLinker.linkVertexForRequestOverlay(
+                temporaryStreetLocation, modes, direction, edgeFunction
               )
-            : (vertex, streetVertex) -> List.of(
-                new TemporaryFreeEdge((TemporaryStreetLocation)vertex, streetVertex)
+            : vertexLinker.linkVertexForRequest(
+                temporaryStreetLocation, modes, direction, edgeFunction
               )
-    ));
+    );
 
     if (temporaryStreetLocation.getIncoming().isEmpty()
         && temporaryStreetLocation.getOutgoing().isEmpty()) {
@@ -330,7 +348,7 @@ public class StreetVertexIndex {
     Coordinate coordinate = location.getCoordinate();
     if (coordinate != null) {
       //return getClosestVertex(loc, options, endVertex);
-      return createVertexFromLocation(location, options, endVertex, tempEdges);
+      return createVertexFromLocation(location, options, endVertex, false, tempEdges);
     }
 
     return null;
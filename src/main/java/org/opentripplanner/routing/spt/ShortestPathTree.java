@@ -122,7 +122,8 @@ public class ShortestPathTree {
 
         // if the vertex has no states, add one and return
         if (states == null) {
-            states = new ArrayList<>();
+            // Most vertices only have one state, so avoid the default capacity
+            states = new ArrayList<>(1);
             stateSets.put(vertex, states);
             states.add(newState);
             return true;
@@ -0,0 +1,80 @@
+package org.opentripplanner.routing.trippattern;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The departures of all trips in a timetable at one stop in the pattern, sorted on departure
+ * time. The trips in a timetable are not guaranteed to be sorted, real-time updates may change
+ * the order, so this index allow finding the next departures after a given time with a binary
+ * search, instead of visiting every trip.
+ * <p>
+ * Trips without a departure time at the stop are not included. Frequency based trips are not
+ * included, see {@link FrequencyEntry}.
+ * <p>
+ * This class is immutable and THREAD-SAFE.
+ */
+public final class StopDepartures {
+
+    private final int[] departureTimes;
+    private final int[] tripIndexes;
+
+    private StopDepartures(int[] departureTimes, int[] tripIndexes) {
+        this.departureTimes = departureTimes;
+        this.tripIndexes = tripIndexes;
+    }
+
+    /**
+     * Sort the trips on departure time at the given stop position. Departure times and trip
+     * indexes are packed into one long, so the sort is done on a primitive array.
+     */
+    public static StopDepartures create(List<TripTimes> tripTimes, int stopPos) {
+        long[] packed = new long[tripTimes.size()];
+        int size = 0;
+
+        for (int i = 0; i < tripTimes.size(); ++i) {
+            int departureTime = tripTimes.get(i).getDepartureTime(stopPos);
+            if (departureTime < 0) { continue; }
+            packed[size++] = ((long) departureTime << 32) | i;
+        }
+        Arrays.sort(packed, 0, size);
+
+        int[] departureTimes = new int[size];
+        int[] tripIndexes = new int[size];
+
+        for (int i = 0; i < size; ++i) {
+            departureTimes[i] = (int) (packed[i] >>> 32);
+            tripIndexes[i] = (int) packed[i];
+        }
+        return new StopDepartures(departureTimes, tripIndexes);
+    }
+
+    public int size() {
+        return departureTimes.length;
+    }
+
+    public int departureTime(int index) {
+        return departureTimes[index];
+    }
+
+    /** The index of the trip in the {@link org.opentripplanner.model.Timetable#tripTimes}. */
+    public int tripIndex(int index) {
+        return tripIndexes[index];
+    }
+
+    /**
+     * Return the index of the first departure at or after the given time, or {@link #size()} if
+     * all departures are before the given time.
+     */
+    public int findFirstDepartureAtOrAfter(int time) {
+        int low = 0;
+        int high = departureTimes.length;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (departureTimes[mid] < time) { low = mid + 1; }
+            else { high = mid; }
+        }
+        return low;
+    }
+}
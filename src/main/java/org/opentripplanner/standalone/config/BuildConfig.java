@@ -107,6 +107,12 @@ public class BuildConfig {
      */
     public final boolean embedRouterConfig;
 
+    /**
+     * Compress the graph file. This makes the file smaller, but saving and loading the graph is
+     * slower unless reading the file is slow, like over a network.
+     */
+    public final boolean compressGraphFile;
+
     /**
      * Perform visibility calculations on OSM areas (these calculations can be time consuming).
      */
@@ -321,6 +327,7 @@ public class BuildConfig {
         areaVisibility = c.asBoolean("areaVisibility", false);
         banDiscouragedWalking = c.asBoolean("banDiscouragedWalking", false);
         banDiscouragedBiking = c.asBoolean("banDiscouragedBiking", false);
+        compressGraphFile = c.asBoolean("compressGraphFile", false);
         configVersion = c.asText("configVersion", null);
         dataImportReport = c.asBoolean("dataImportReport", false);
         distanceBetweenElevationSamples = c.asDouble("distanceBetweenElevationSamples",
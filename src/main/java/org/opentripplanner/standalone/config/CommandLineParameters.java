@@ -106,7 +106,17 @@ public class CommandLineParameters implements Cloneable {
             + "(for development).")
     public boolean disableFileCache = false;
 
-    @Parameter(names = {"--maxThreads"}, description = "The maximum number of HTTP handler threads.")
+    @Parameter(names = {"--maxRequestQueueSize"}, validateWith = PositiveInteger.class,
+            description = "The maximum number of routing requests waiting for a routing thread, "
+                    + "more requests are rejected with 503 Service Unavailable.")
+    public int maxRequestQueueSize = 1000;
+
+    @Parameter(names = {"--maxRequestQueueWaitMs"}, validateWith = PositiveInteger.class,
+            description = "Routing requests waiting longer than this for a routing thread are "
+                    + "rejected with 503 Service Unavailable.")
+    public int maxRequestQueueWaitMs = 10000;
+
+    @Parameter(names = {"--maxThreads"}, description = "The maximum number of HTTP handler and routing threads.")
     public Integer maxThreads;
 
     @Parameter(names = {"--port"}, validateWith = PositiveInteger.class,
@@ -2,8 +2,10 @@ package org.opentripplanner.standalone.config;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.MissingNode;
+import org.opentripplanner.ext.flex.FlexParameters;
 import org.opentripplanner.routing.algorithm.raptor.transit.TransitTuningParameters;
 import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.standalone.config.sandbox.FlexConfig;
 import org.opentripplanner.transit.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.updater.UpdatersParameters;
 import org.slf4j.Logger;
@@ -19,6 +21,7 @@ import static org.opentripplanner.standalone.config.RoutingRequestMapper.mapRout
 public class RouterConfig implements Serializable {
 
     private static final double DEFAULT_STREET_ROUTING_TIMEOUT = 5.0;
+    private static final double NO_ROUTING_TIMEOUT = 0.0;
     private static final Logger LOG = LoggerFactory.getLogger(RouterConfig.class);
 
     public static final RouterConfig DEFAULT = new RouterConfig(
@@ -33,10 +36,12 @@ public class RouterConfig implements Serializable {
     private final String requestLogFile;
     private final boolean transmodelApiHideFeedId;
     private final double streetRoutingTimeoutSeconds;
+    private final double routingTimeoutSeconds;
     private final RoutingRequest routingRequestDefaults;
     private final TransitRoutingConfig transitConfig;
     private final UpdatersParameters updatersParameters;
     private final VectorTileConfig vectorTileLayers;
+    private final FlexParameters flexParameters;
 
     public RouterConfig(JsonNode node, String source, boolean logUnusedParams) {
         NodeAdapter adapter = new NodeAdapter(node, source);
@@ -47,10 +52,12 @@ public class RouterConfig implements Serializable {
         this.streetRoutingTimeoutSeconds = adapter.asDouble(
                 "streetRoutingTimeout", DEFAULT_STREET_ROUTING_TIMEOUT
         );
+        this.routingTimeoutSeconds = adapter.asDouble("routingTimeout", NO_ROUTING_TIMEOUT);
         this.transitConfig = new TransitRoutingConfig(adapter.path("transit"));
         this.routingRequestDefaults = mapRoutingRequest(adapter.path("routingDefaults"));
         this.updatersParameters = new UpdatersConfig(adapter);
         this.vectorTileLayers = new VectorTileConfig(adapter.path("vectorTileLayers").asList());
+        this.flexParameters = FlexConfig.create(adapter.path("flex"));
 
         if(logUnusedParams) {
             adapter.logAllUnusedParameters(LOG);
@@ -88,6 +95,17 @@ public class RouterConfig implements Serializable {
         return streetRoutingTimeoutSeconds;
     }
 
+    /**
+     * The wall-clock time limit for a complete routing request: the direct street search, the
+     * access/egress street searches, the transit search, transfer optimization and itinerary
+     * filtering. The stages check the deadline and stop early, and a timeout routing error is
+     * returned. The transit results are dropped if the transit search is stopped, the itineraries
+     * found by the other stages are returned. The default is {@code 0}, no limit.
+     */
+    public double routingTimeoutSeconds() {
+        return routingTimeoutSeconds;
+    }
+
     public boolean transmodelApiHideFeedId() { return transmodelApiHideFeedId; }
 
     public RoutingRequest routingRequestDefaults() {
@@ -106,6 +124,8 @@ public class RouterConfig implements Serializable {
 
     public VectorTileConfig vectorTileLayers() { return vectorTileLayers; }
 
+    public FlexParameters flexParameters() { return flexParameters; }
+
     /**
      * If {@code true} the config is loaded from file, in not the DEFAULT config is used.
      */
@@ -1,8 +1,11 @@
 package org.opentripplanner.standalone.config;
 
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import org.opentripplanner.model.StopTransferPriority;
 import org.opentripplanner.routing.algorithm.raptor.transit.TransitTuningParameters;
+import org.opentripplanner.routing.api.request.RoutingRequest;
 import org.opentripplanner.transit.raptor.api.request.DynamicSearchWindowCoefficients;
 import org.opentripplanner.transit.raptor.api.request.RaptorTuningParameters;
 
@@ -19,7 +22,10 @@ public final class TransitRoutingConfig
     private final int scheduledTripBinarySearchThreshold;
     private final int iterationDepartureStepInSeconds;
     private final int searchThreadPoolSize;
+    private final int searchWindowSliceMinutes;
+    private final int stopArraysPoolSize;
     private final int transferCacheMaxSize;
+    private final List<RoutingRequest> transferCacheRequests;
     private final Map<StopTransferPriority, Integer> stopTransferCost;
     private final DynamicSearchWindowCoefficients dynamicSearchWindowCoefficients;
 
@@ -42,6 +48,14 @@ public final class TransitRoutingConfig
             "searchThreadPoolSize",
             dft.searchThreadPoolSize()
         );
+        this.searchWindowSliceMinutes = c.asInt(
+            "searchWindowSliceMinutes",
+            dft.searchWindowSliceMinutes()
+        );
+        this.stopArraysPoolSize = c.asInt(
+            "stopArraysPoolSize",
+            dft.stopArraysPoolSize()
+        );
         // Dynamic Search Window
         this.dynamicSearchWindowCoefficients = new DynamicSearchWindowConfig(
             c.path("dynamicSearchWindow")
@@ -55,6 +69,11 @@ public final class TransitRoutingConfig
                 "transferCacheMaxSize",
                 25
         );
+        this.transferCacheRequests = c.path("transferCacheRequests")
+            .asList()
+            .stream()
+            .map(RoutingRequestMapper::mapRoutingRequest)
+            .collect(Collectors.toList());
     }
 
     @Override
@@ -77,6 +96,16 @@ public final class TransitRoutingConfig
         return searchThreadPoolSize;
     }
 
+    @Override
+    public int searchWindowSliceMinutes() {
+        return searchWindowSliceMinutes;
+    }
+
+    @Override
+    public int stopArraysPoolSize() {
+        return stopArraysPoolSize;
+    }
+
     @Override
     public DynamicSearchWindowCoefficients dynamicSearchWindowCoefficients() {
         return dynamicSearchWindowCoefficients;
@@ -97,6 +126,11 @@ public final class TransitRoutingConfig
         return transferCacheMaxSize;
     }
 
+    @Override
+    public List<RoutingRequest> transferCacheRequests() {
+        return transferCacheRequests;
+    }
+
     private static class DynamicSearchWindowConfig
             implements DynamicSearchWindowCoefficients
     {
@@ -0,0 +1,19 @@
+package org.opentripplanner.standalone.config.sandbox;
+
+import org.opentripplanner.ext.flex.FlexParameters;
+import org.opentripplanner.standalone.config.NodeAdapter;
+
+public class FlexConfig {
+  public static FlexParameters create(NodeAdapter c) {
+
+    if(c.isEmpty()) { return FlexParameters.DEFAULT; }
+
+    return new FlexParameters(
+        c.asInt(
+            "streetPathCacheMaxVertices",
+            FlexParameters.DEFAULT.streetPathCacheMaxVertices()
+        ),
+        c.asBoolean("prefillStreetPathCache", FlexParameters.DEFAULT.prefillStreetPathCache())
+    );
+  }
+}
@@ -32,6 +32,7 @@ public class PollingStoptimeUpdaterConfig {
         c.asInt("maxSnapshotFrequencyMs", -1),
         c.asBoolean("purgeExpiredData", false),
         c.asBoolean("fuzzyTripMatching", false),
+        c.asBoolean("skipUnchangedUpdates", false),
         sourceType,
         c.asText("feedId", null),
         url,
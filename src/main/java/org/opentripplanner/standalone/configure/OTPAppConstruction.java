@@ -68,7 +68,7 @@ public class OTPAppConstruction {
      * every time this method is called.
      */
     public GrizzlyServer createGrizzlyServer(Router router) {
-        return new GrizzlyServer(config.getCli(), createApplication(router));
+        return new GrizzlyServer(config.getCli(), createApplication(router), server(router));
     }
 
     public void validateConfigAndDataSources() {
@@ -24,8 +24,6 @@ public class GrizzlyServer {
 
     private static final Logger LOG = LoggerFactory.getLogger(GrizzlyServer.class);
 
-    private static final int MIN_THREADS = 4;
-
     static {
         // Remove existing handlers attached to the j.u.l root logger
         SLF4JBridgeHandler.removeHandlersForRootLogger();  // (since SLF4J 1.6.5)
@@ -36,31 +34,14 @@ public class GrizzlyServer {
     /** The command line parameters, including things like port number and content directories. */
     private CommandLineParameters params;
     private Application app;
+    /** The server components, shut down together with the HTTP server. */
+    private OTPServer server;
 
     /** Construct a Grizzly server with the given IoC injector and command line parameters. */
-    public GrizzlyServer (CommandLineParameters params, Application app) {
+    public GrizzlyServer (CommandLineParameters params, Application app, OTPServer server) {
         this.params = params;
         this.app = app;
-    }
-
-    /**
-     * OTP is CPU-bound, so we want roughly as many worker threads as we have cores, subject to some constraints.
-     */
-    private int getMaxThreads() {
-        int maxThreads = Runtime.getRuntime().availableProcessors();
-        LOG.info("Java reports that this machine has {} available processors.", maxThreads);
-        // Testing shows increased throughput up to 1.25x as many threads as cores
-        maxThreads *= 1.25;
-        if (params.maxThreads != null) {
-            maxThreads = params.maxThreads;
-            LOG.info("Based on configuration, forced max thread pool size to {} threads.", maxThreads);
-        }
-        if (maxThreads < MIN_THREADS) {
-            // Some machines apparently report 1 processor even when they have 8.
-            maxThreads = MIN_THREADS;
-        }
-        LOG.info("Maximum HTTP handler thread pool size will be {} threads.", maxThreads);
-        return maxThreads;
+        this.server = server;
     }
 
     /**
@@ -81,9 +62,11 @@ public class GrizzlyServer {
 
         // Set up a pool of threads to handle incoming HTTP requests.
         // According to the Grizzly docs, setting the core and max pool size equal with no queue limit
-        // will use a more efficient fixed-size thread pool implementation.
-        // TODO we should probably use Grizzly async processing rather than tying up the HTTP handler threads.
-        int nHandlerThreads = getMaxThreads();
+        // will use a more efficient fixed-size thread pool implementation. The routing and GraphQL
+        // resources suspend the request and do the work in the RoutingRequestExecutor, which has
+        // a bounded queue, so the HTTP handler threads are not tied up by slow requests.
+        int nHandlerThreads = OTPServer.getMaxThreads(params);
+        LOG.info("Maximum HTTP handler thread pool size will be {} threads.", nHandlerThreads);
         ThreadPoolConfig threadPoolConfig = ThreadPoolConfig.defaultConfig()
             .setCorePoolSize(nHandlerThreads)
             .setMaxPoolSize(nHandlerThreads)
@@ -143,7 +126,7 @@ public class GrizzlyServer {
 
         // Add shutdown hook to gracefully shut down Grizzly.
         // Signal handling (sun.misc.Signal) is potentially not available on all JVMs.
-        Thread shutdownThread = new Thread(httpServer::shutdown);
+        Thread shutdownThread = new Thread(() -> shutdown(httpServer));
         Runtime.getRuntime().addShutdownHook(shutdownThread);
 
         /* RELINQUISH CONTROL TO THE SERVER THREAD */
@@ -161,6 +144,11 @@ public class GrizzlyServer {
 
         // Clean up graceful shutdown hook before shutting down Grizzly.
         Runtime.getRuntime().removeShutdownHook(shutdownThread);
+        shutdown(httpServer);
+    }
+
+    private void shutdown(HttpServer httpServer) {
         httpServer.shutdown();
+        server.shutdown();
     }
 }
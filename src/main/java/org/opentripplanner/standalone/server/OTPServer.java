@@ -18,14 +18,43 @@ public class OTPServer {
 
     private static final Logger LOG = LoggerFactory.getLogger(OTPServer.class);
 
+    private static final int MIN_THREADS = 4;
+
     public final CommandLineParameters params;
 
     private final Router router;
 
+    private final RoutingRequestExecutor routingExecutor;
+
     public OTPServer (CommandLineParameters params, Router router) {
         LOG.info("Wiring up and configuring server.");
         this.params = params;
         this.router = router;
+        this.routingExecutor = new RoutingRequestExecutor(
+            getMaxThreads(params),
+            params.maxRequestQueueSize,
+            params.maxRequestQueueWaitMs
+        );
+    }
+
+    /**
+     * OTP is CPU-bound, so we want roughly as many worker threads as we have cores, subject to some constraints.
+     * This is used for both the HTTP handler threads and the routing threads.
+     */
+    static int getMaxThreads(CommandLineParameters params) {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        LOG.info("Java reports that this machine has {} available processors.", maxThreads);
+        // Testing shows increased throughput up to 1.25x as many threads as cores
+        maxThreads *= 1.25;
+        if (params.maxThreads != null) {
+            maxThreads = params.maxThreads;
+            LOG.info("Based on configuration, forced max thread pool size to {} threads.", maxThreads);
+        }
+        if (maxThreads < MIN_THREADS) {
+            // Some machines apparently report 1 processor even when they have 8.
+            maxThreads = MIN_THREADS;
+        }
+        return maxThreads;
     }
 
     /**
@@ -42,6 +71,22 @@ public class OTPServer {
         return router;
     }
 
+    /**
+     * The executor to run routing and GraphQL requests on, the HTTP request should be suspended
+     * while the request is processed.
+     */
+    public RoutingRequestExecutor getRoutingExecutor() {
+        return routingExecutor;
+    }
+
+    /**
+     * Stop the routing threads, called when the HTTP server shuts down.
+     */
+    public void shutdown() {
+        LOG.info("Shutting down the routing request executor.");
+        routingExecutor.shutdown();
+    }
+
     /**
      * This method is used to create a {@link RoutingService} valid for one request. It grantees
      * that the data and services used are consistent and operate on the same transit snapshot.
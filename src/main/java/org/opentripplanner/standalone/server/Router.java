@@ -5,14 +5,18 @@ import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.FileAppender;
+import org.opentripplanner.ext.flex.FlexIndex;
+import org.opentripplanner.ext.flex.FlexParameters;
 import org.opentripplanner.ext.transmodelapi.TransmodelAPI;
 import org.opentripplanner.inspector.TileRendererManager;
+import org.opentripplanner.routing.algorithm.raptor.transit.Transfer;
 import org.opentripplanner.routing.algorithm.raptor.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptor.transit.TripSchedule;
 import org.opentripplanner.routing.algorithm.raptor.transit.mappers.TransitLayerMapper;
 import org.opentripplanner.routing.algorithm.raptor.transit.mappers.TransitLayerUpdater;
 import org.opentripplanner.routing.api.request.RoutingRequest;
 import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graph.Vertex;
 import org.opentripplanner.standalone.config.RouterConfig;
 import org.opentripplanner.transit.raptor.rangeraptor.configure.RaptorConfig;
 import org.opentripplanner.updater.GraphUpdaterConfigurator;
@@ -22,6 +26,10 @@ import org.opentripplanner.util.WorldEnvelope;
 import org.opentripplanner.visualizer.GraphVisualizer;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Represents the configuration of a single router (a single graph for a specific geographic area)
  * in an OTP server.
@@ -86,6 +94,7 @@ public class Router {
         if (graph.hasTransit && graph.index != null) {
             graph.setTransitLayer(TransitLayerMapper.map(routerConfig.transitTuningParameters(), graph));
             graph.setRealtimeTransitLayer(new TransitLayer(graph.getTransitLayer()));
+            prefillTransferCache();
             graph.transitLayerUpdater = new TransitLayerUpdater(
                 graph,
                 graph.index.getServiceCodesRunningForDate()
@@ -94,6 +103,10 @@ public class Router {
             LOG.warn("Cannot create Raptor data, that requires the graph to have transit data and be indexed.");
         }
 
+        if (OTPFeature.FlexRouting.isOn() && graph.index != null) {
+            setupFlexStreetPathCache();
+        }
+
         /* Create Graph updater modules from JSON config. */
         GraphUpdaterConfigurator.setupGraph(
             this.graph,
@@ -125,6 +138,41 @@ public class Router {
         GraphUpdaterConfigurator.shutdownGraph(this.graph);
     }
 
+    /**
+     * Calculate the transfers for the default routing request and the configured transfer cache
+     * requests. The realtime transit layer share the cache with the scheduled transit layer.
+     */
+    private void prefillTransferCache() {
+        List<RoutingRequest> requests = new ArrayList<>();
+        requests.add(defaultRoutingRequest);
+        requests.addAll(routerConfig.transitTuningParameters().transferCacheRequests());
+
+        List<RoutingRequest> transferRequests = requests.stream()
+            .map(Transfer::prepareTransferRoutingRequest)
+            .collect(Collectors.toList());
+        try {
+            transferRequests.forEach(it -> it.setRoutingContext(graph, (Vertex) null, null));
+            graph.getTransitLayer().prefillTransferCache(transferRequests);
+        }
+        finally {
+            transferRequests.forEach(RoutingRequest::cleanup);
+        }
+    }
+
+    /**
+     * The flex street path cache is shared by all flex requests, replace it with a cache of the
+     * configured size and optionally calculate the paths for all flex stops.
+     */
+    private void setupFlexStreetPathCache() {
+        FlexIndex flexIndex = graph.index.getFlexIndex();
+        FlexParameters parameters = routerConfig.flexParameters();
+
+        flexIndex.initStreetPathCache(graph, parameters.streetPathCacheMaxVertices());
+        if (parameters.prefillStreetPathCache()) {
+            flexIndex.prefillStreetPathCache(graph);
+        }
+    }
+
     /**
      * Programmatically (i.e. not in XML) create a Logback logger for requests happening on this router.
      * http://stackoverflow.com/a/17215011/778449
@@ -150,4 +198,8 @@ public class Router {
     public double streetRoutingTimeoutSeconds() {
         return  routerConfig.streetRoutingTimeoutSeconds();
     }
+
+    public double routingTimeoutSeconds() {
+        return routerConfig.routingTimeoutSeconds();
+    }
 }
@@ -0,0 +1,90 @@
+package org.opentripplanner.standalone.server;
+
+import org.opentripplanner.model.base.ToStringBuilder;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Keep track of the requests waiting for a thread in the {@link RoutingRequestExecutor}, the time
+ * they wait and the number of requests rejected because the queue is full or they waited too
+ * long. The statistics are reported by the server info API.
+ * <p>
+ * This class is THREAD-SAFE.
+ */
+public class RoutingQueueStatistics {
+
+    private final IntSupplier queueDepth;
+
+    private long started = 0;
+    private long lastWaitNanos = 0;
+    private long maxWaitNanos = 0;
+    private long totalWaitNanos = 0;
+    private long rejected = 0;
+    private long expired = 0;
+
+    RoutingQueueStatistics(IntSupplier queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    synchronized void recordWait(long waitNanos) {
+        ++started;
+        lastWaitNanos = waitNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+        totalWaitNanos += waitNanos;
+    }
+
+    synchronized void recordRejected() {
+        ++rejected;
+    }
+
+    synchronized void recordExpired() {
+        ++expired;
+    }
+
+    /** The number of requests waiting for a routing thread right now. */
+    public int getQueueDepth() {
+        return queueDepth.getAsInt();
+    }
+
+    /** The number of requests taken from the queue, including the expired requests. */
+    public synchronized long getStarted() {
+        return started;
+    }
+
+    public synchronized double getLastWaitMs() {
+        return toMs(lastWaitNanos);
+    }
+
+    public synchronized double getMaxWaitMs() {
+        return toMs(maxWaitNanos);
+    }
+
+    public synchronized double getAverageWaitMs() {
+        return started == 0 ? 0 : toMs(totalWaitNanos) / started;
+    }
+
+    /** The number of requests rejected because the queue is full. */
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    /** The number of requests rejected because they waited too long in the queue. */
+    public synchronized long getExpired() {
+        return expired;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return ToStringBuilder.of(RoutingQueueStatistics.class)
+            .addNum("queueDepth", getQueueDepth())
+            .addNum("started", started)
+            .addNum("averageWait", getAverageWaitMs(), "ms")
+            .addNum("rejected", rejected)
+            .addNum("expired", expired)
+            .toString();
+    }
+
+    private static double toMs(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,181 @@
+package org.opentripplanner.standalone.server;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Run the CPU-bound work of API requests, like routing and GraphQL queries, on a fixed pool of
+ * threads with a bounded queue. The resource suspends the HTTP request and the HTTP handler thread
+ * is released while the request waits and is processed.
+ * <p>
+ * Under overload the requests are shed early with 503 Service Unavailable instead of queueing
+ * without limit: a request is rejected if the queue is full, or when it is taken from the queue
+ * after waiting longer than the max wait time. The client has most likely given up on such a
+ * request, so there is no point in routing it.
+ * <p>
+ * This class is THREAD-SAFE.
+ */
+public class RoutingRequestExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RoutingRequestExecutor.class);
+
+    private static final int RETRY_AFTER_SECONDS = 1;
+
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final ThreadPoolExecutor executor;
+    private final long maxQueueWaitNanos;
+    private final RoutingQueueStatistics statistics;
+
+    public RoutingRequestExecutor(int nThreads, int maxQueueSize, int maxQueueWaitMs) {
+        this.executor = new ThreadPoolExecutor(
+            nThreads,
+            nThreads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxQueueSize),
+            new ThreadFactoryBuilder().setNameFormat("routing-%d").setDaemon(true).build()
+        );
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs);
+        this.statistics = new RoutingQueueStatistics(() -> executor.getQueue().size());
+        LOG.info(
+            "Routing requests are run on {} threads, max {} requests may wait up to {} ms.",
+            nThreads,
+            maxQueueSize,
+            maxQueueWaitMs
+        );
+    }
+
+    /**
+     * Run the task on a routing thread and resume the suspended response with the result. An
+     * exception thrown by the task is passed on to the response, so it is mapped to an HTTP
+     * response the same way as if it was thrown by a synchronous resource method. Any other
+     * throwable is logged and the response is resumed with 500 Internal Server Error.
+     */
+    public void execute(AsyncResponse response, Supplier<?> task) {
+        final long enqueuedTime = System.nanoTime();
+        try {
+            executor.execute(new RoutingTask(response, task, enqueuedTime));
+        }
+        catch (RejectedExecutionException e) {
+            statistics.recordRejected();
+            response.resume(serviceUnavailable(
+                executor.isShutdown()
+                    ? "The server is shutting down."
+                    : "The server is overloaded, the request queue is full."
+            ));
+        }
+    }
+
+    public RoutingQueueStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Stop the routing threads. Called when the server shuts down. New and queued requests are
+     * resumed with 503 Service Unavailable, and the running requests are given some time to
+     * complete before they are interrupted.
+     */
+    public void shutdown() {
+        executor.shutdown();
+
+        // The queued requests are not started, so the clients can retry them at once
+        List<Runnable> queued = new ArrayList<>();
+        executor.getQueue().drainTo(queued);
+        rejectOnShutdown(queued);
+
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOG.warn(
+                    "Routing requests still running after {} s, interrupting them.",
+                    SHUTDOWN_TIMEOUT_SECONDS
+                );
+                rejectOnShutdown(executor.shutdownNow());
+            }
+        }
+        catch (InterruptedException e) {
+            rejectOnShutdown(executor.shutdownNow());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /* private methods */
+
+    private void process(AsyncResponse response, Supplier<?> task, long enqueuedTime) {
+        final long waitNanos = System.nanoTime() - enqueuedTime;
+        statistics.recordWait(waitNanos);
+
+        if (waitNanos > maxQueueWaitNanos) {
+            statistics.recordExpired();
+            response.resume(serviceUnavailable("The server is overloaded, the request waited too long."));
+            return;
+        }
+        try {
+            response.resume(task.get());
+        }
+        catch (RuntimeException e) {
+            response.resume(e);
+        }
+        catch (Throwable e) {
+            // Errors like StackOverflowError must not leave the client waiting for a response
+            LOG.error("Unexpected error while processing the request: " + e.getMessage(), e);
+            response.resume(internalServerError());
+        }
+    }
+
+    private static void rejectOnShutdown(List<Runnable> notStarted) {
+        for (Runnable it : notStarted) {
+            ((RoutingTask) it).response.resume(serviceUnavailable("The server is shutting down."));
+        }
+    }
+
+    private static Response internalServerError() {
+        return Response
+            .status(Response.Status.INTERNAL_SERVER_ERROR)
+            .type(MediaType.TEXT_PLAIN_TYPE)
+            .entity("Internal server error.")
+            .build();
+    }
+
+    private static Response serviceUnavailable(String message) {
+        return Response
+            .status(Response.Status.SERVICE_UNAVAILABLE)
+            .header("Retry-After", RETRY_AFTER_SECONDS)
+            .type(MediaType.TEXT_PLAIN_TYPE)
+            .entity(message)
+            .build();
+    }
+
+    /**
+     * Keep the suspended response with the task, so a task that is never started can be resumed.
+     */
+    private final class RoutingTask implements Runnable {
+        private final AsyncResponse response;
+        private final Supplier<?> task;
+        private final long enqueuedTime;
+
+        private RoutingTask(AsyncResponse response, Supplier<?> task, long enqueuedTime) {
+            this.response = response;
+            this.task = task;
+            this.enqueuedTime = enqueuedTime;
+        }
+
+        @Override
+        public void run() {
+            process(response, task, enqueuedTime);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
 import org.opentripplanner.transit.raptor.rangeraptor.configure.RaptorConfig;
 import org.opentripplanner.transit.raptor.service.HeuristicSearchTask;
 import org.opentripplanner.transit.raptor.service.RangeRaptorDynamicSearch;
+import org.opentripplanner.transit.raptor.util.StopArrays;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,10 +31,13 @@ public class RaptorService<T extends RaptorTripSchedule> {
 
     public RaptorResponse<T> route(RaptorRequest<T> request, RaptorTransitDataProvider<T> transitData) {
         LOG.debug("Original request: {}", request);
-        if(request.isDynamicSearch()) {
-            return new RangeRaptorDynamicSearch<>(config, transitData, request).route();
+        // The stop arrays are returned to the pool when the request is complete
+        try (StopArrays stopArrays = config.stopArrays()) {
+            if (request.isDynamicSearch()) {
+                return new RangeRaptorDynamicSearch<>(config, transitData, request, stopArrays).route();
+            }
+            return routeUsingStdWorker(transitData, request, stopArrays);
         }
-        return routeUsingStdWorker(transitData, request);
     }
 
     public void compareHeuristics(
@@ -41,13 +45,15 @@ public class RaptorService<T extends RaptorTripSchedule> {
             RaptorRequest<T> r2,
             RaptorTransitDataProvider<T> transitData
     ) {
-        HeuristicSearchTask<T> fwdHeur = new HeuristicSearchTask<>(r1, config, transitData);
-        HeuristicSearchTask<T> revHeur = new HeuristicSearchTask<>(r2, config, transitData);
+        try (StopArrays stopArrays = config.stopArrays()) {
+            HeuristicSearchTask<T> fwdHeur = new HeuristicSearchTask<>(r1, config, transitData, stopArrays);
+            HeuristicSearchTask<T> revHeur = new HeuristicSearchTask<>(r2, config, transitData, stopArrays);
 
-        fwdHeur.forceRun();
-        revHeur.forceRun();
+            fwdHeur.forceRun();
+            revHeur.forceRun();
 
-        fwdHeur.debugCompareResult(revHeur);
+            fwdHeur.debugCompareResult(revHeur);
+        }
     }
 
     public void shutdown() {
@@ -56,9 +62,13 @@ public class RaptorService<T extends RaptorTripSchedule> {
 
     /* private methods */
 
-    private RaptorResponse<T> routeUsingStdWorker(RaptorTransitDataProvider<T> transitData, RaptorRequest<T> request) {
+    private RaptorResponse<T> routeUsingStdWorker(
+            RaptorTransitDataProvider<T> transitData,
+            RaptorRequest<T> request,
+            StopArrays stopArrays
+    ) {
         LOG.debug("Run query: {}", request);
-        Collection<Path<T>> paths = config.createStdWorker(transitData, request).route();
+        Collection<Path<T>> paths = config.createStdWorker(transitData, request, stopArrays).route();
         LOG.debug("Result: {}", paths);
         return new RaptorResponse<>(paths, request, request);
     }
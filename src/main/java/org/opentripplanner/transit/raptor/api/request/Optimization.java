@@ -35,7 +35,18 @@ public enum Optimization {
      * <p>
      * This only apply to: multi-criteria search.
      */
-    PARETO_CHECK_AGAINST_DESTINATION;
+    PARETO_CHECK_AGAINST_DESTINATION,
+
+    /**
+     * Cache the new stop arrivals found in a round in primitive arrays (arrival-time, cost,
+     * round, previous-arrival-index and stop), and only create the stop arrival objects for
+     * arrivals accepted by the stop pareto set. Most new arrivals are rejected, so this reduce
+     * the number of objects created, and the load on the garbage collector. The arrays are
+     * reused in every round and Range Raptor iteration.
+     * <p>
+     * This only apply to: multi-criteria search.
+     */
+    STOP_ARRIVAL_ARENA;
 
 
     public boolean is(Optimization other) {
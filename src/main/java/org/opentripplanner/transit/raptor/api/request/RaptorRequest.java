@@ -4,6 +4,7 @@ import com.esotericsoftware.minlog.Log;
 import org.opentripplanner.transit.raptor.api.transit.RaptorSlackProvider;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransitDataProvider;
+import org.opentripplanner.util.time.Deadline;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -25,6 +26,7 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
     private final McCostParams mcCostParams;
     private final DebugRequest debug;
     private final RaptorSlackProvider slackProvider;
+    private final Deadline deadline;
 
 
     static <T extends RaptorTripSchedule> RaptorRequest<T> defaults() {
@@ -40,6 +42,7 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
         // Slack defaults: 1 minute for transfer-slack, 0 minutes for board- and alight-slack.
         slackProvider = RaptorSlackProvider.defaultSlackProvider(60, 0, 0);
         debug = DebugRequest.defaults();
+        deadline = Deadline.NONE;
     }
 
     RaptorRequest(RaptorRequestBuilder<T> builder) {
@@ -50,6 +53,7 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
         this.mcCostParams = new McCostParams(builder.mcCostFactors());
         this.slackProvider = builder.slackProvider();
         this.debug = builder.debug().build();
+        this.deadline = builder.deadline();
         verify();
     }
 
@@ -125,6 +129,10 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
         return optimizationEnabled(Optimization.PARALLEL);
     }
 
+    public boolean useStopArrivalArena() {
+        return optimizationEnabled(Optimization.STOP_ARRIVAL_ARENA);
+    }
+
     /**
      * The multi-criteria cost criteria factors.
      */
@@ -141,6 +149,17 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
         return debug;
     }
 
+    /**
+     * The search is stopped after the current Range Raptor iteration or round if the deadline
+     * expires, returning the paths found so far. The deadline is not part of the request
+     * {@code equals()}, it does not change the result of a search completing in time.
+     * <p/>
+     * The default is {@link Deadline#NONE}.
+     */
+    public Deadline deadline() {
+        return deadline;
+    }
+
     @Override
     public String toString() {
         return "RaptorRequest{" +
@@ -185,6 +204,9 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
             if(useDestinationPruning()) {
                 Log.warn("Destination pruning is only supported using McRangeRaptor");
             }
+            if(useStopArrivalArena()) {
+                Log.warn("Stop arrival arena is only supported using McRangeRaptor");
+            }
         }
     }
 }
@@ -2,6 +2,7 @@ package org.opentripplanner.transit.raptor.api.request;
 
 import org.opentripplanner.transit.raptor.api.transit.RaptorSlackProvider;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.util.time.Deadline;
 
 import javax.validation.constraints.NotNull;
 import java.util.Collection;
@@ -25,6 +26,7 @@ public class RaptorRequestBuilder<T extends RaptorTripSchedule> {
     private final SearchParamsBuilder<T> searchParams;
     private SearchDirection searchDirection;
     private RaptorSlackProvider slackProvider;
+    private Deadline deadline;
 
     // Algorithm
     private RaptorProfile profile;
@@ -43,6 +45,7 @@ public class RaptorRequestBuilder<T extends RaptorTripSchedule> {
         this.searchParams = new SearchParamsBuilder<>(this, defaults.searchParams());
         this.searchDirection = defaults.searchDirection();
         this.slackProvider = defaults.slackProvider();
+        this.deadline = defaults.deadline();
 
         // Algorithm
         this.profile = defaults.profile();
@@ -83,6 +86,15 @@ public class RaptorRequestBuilder<T extends RaptorTripSchedule> {
         this.slackProvider = slackProvider;
     }
 
+    public Deadline deadline() {
+        return deadline;
+    }
+
+    public RaptorRequestBuilder<T> deadline(@NotNull Deadline deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
     public Collection<Optimization> optimizations() {
         return optimizations;
     }
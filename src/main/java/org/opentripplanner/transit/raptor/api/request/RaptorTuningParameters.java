@@ -51,6 +51,9 @@ public interface RaptorTuningParameters {
      * <p/>
      * Multiple searches can run in parallel - this parameter have no effect with regard to that.
      * <p/>
+     * OTP also use the thread pool to create the itineraries and calculate the fares of a search
+     * in parallel.
+     * <p/>
      * The default value is 0 - zero. If 0, no extra threads are stated and the search is done in
      * one thread.
      */
@@ -59,6 +62,33 @@ public interface RaptorTuningParameters {
     }
 
 
+    /**
+     * Split the search-window of a multi-criteria search into slices of at least the given
+     * number of minutes, and search each slice in parallel using the thread pool. The results
+     * are merged into one pareto-set at the end. This requires a thread pool, see
+     * {@link #searchThreadPoolSize()}, and is only done if the search-window can be split into
+     * two or more slices.
+     * <p/>
+     * The default value is 0 - zero. If 0, the search-window is not split.
+     */
+    default int searchWindowSliceMinutes() {
+        return 0;
+    }
+
+
+    /**
+     * The maximum number of stop indexed arrays kept in a pool for reuse between searches. Each
+     * search uses about 5 arrays, plus one array per round for a standard search, all with one
+     * element for each stop. Reusing the arrays reduce the load on the garbage collector for large
+     * networks, at the cost of keeping the arrays in memory.
+     * <p/>
+     * The default value is 0 - zero. If 0, no arrays are pooled.
+     */
+    default int stopArraysPoolSize() {
+        return 0;
+    }
+
+
     /**
      * Coefficients used to calculate raptor-search-window parameters dynamically  from heuristics.
      */
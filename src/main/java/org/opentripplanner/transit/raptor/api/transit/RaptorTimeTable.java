@@ -1,5 +1,7 @@
 package org.opentripplanner.transit.raptor.api.transit;
 
+import javax.annotation.Nullable;
+
 /**
  * A TimeTable is a list of trips in service for the given search date and a limited time
  * before and after. This can be a subset of all trips available to speed up the trip search
@@ -24,4 +26,45 @@ public interface RaptorTimeTable<T extends RaptorTripSchedule> {
      * Number of trips in time-table.
      */
     int numberOfTripSchedules();
+
+    /**
+     * The arrival time for the trip with the given index at the given stop position in pattern.
+     * This is the same as {@code getTripSchedule(tripIndex).arrival(stopPositionInPattern)}, but
+     * the implementation may override it to avoid creating/looking up the trip schedule. Raptor
+     * uses this method in the trip search, so only the trip found needs to be fetched.
+     * <p/>
+     * This method needs to be FAST - it is in the most critical line of execution in Raptor.
+     */
+    default int arrivalTime(int tripIndex, int stopPositionInPattern) {
+        return getTripSchedule(tripIndex).arrival(stopPositionInPattern);
+    }
+
+    /**
+     * Same as {@link #arrivalTime(int, int)}, but for the departure time.
+     */
+    default int departureTime(int tripIndex, int stopPositionInPattern) {
+        return getTripSchedule(tripIndex).departure(stopPositionInPattern);
+    }
+
+    /**
+     * OPTIONAL index of all arrival times, stored stop by stop in one array:
+     * {@code arrivalTimesByStopPosition()[stopPositionInPattern * numberOfTripSchedules() + tripIndex]}.
+     * The trip search for a given stop position then scan a contiguous part of the array, without
+     * any method calls or object dereferences.
+     * <p/>
+     * Return {@code null} if the index is not supported, this is the default. Raptor then falls
+     * back to {@link #arrivalTime(int, int)}. Raptor never changes the returned array.
+     */
+    @Nullable
+    default int[] arrivalTimesByStopPosition() {
+        return null;
+    }
+
+    /**
+     * Same as {@link #arrivalTimesByStopPosition()}, but for the departure times.
+     */
+    @Nullable
+    default int[] departureTimesByStopPosition() {
+        return null;
+    }
 }
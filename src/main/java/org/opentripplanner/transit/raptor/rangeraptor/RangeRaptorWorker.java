@@ -26,6 +26,7 @@ import org.opentripplanner.transit.raptor.rangeraptor.transit.TripScheduleBoardS
 import org.opentripplanner.transit.raptor.rangeraptor.transit.TripScheduleSearch;
 import org.opentripplanner.transit.raptor.rangeraptor.workerlifecycle.LifeCycleEventPublisher;
 import org.opentripplanner.transit.raptor.util.AvgTimer;
+import org.opentripplanner.util.time.Deadline;
 
 
 /**
@@ -97,6 +98,13 @@ public final class RangeRaptorWorker<T extends RaptorTripSchedule> implements Wo
 
     private final boolean enableGuaranteedTransfers;
 
+    /**
+     * The search is stopped when the request deadline expires, checked once for each round.
+     * The paths found so far are returned; they are valid, but the first minutes of the search
+     * window are not searched. The caller is responsible for discarding or flagging the result.
+     */
+    private final Deadline deadline;
+
     private boolean inFirstIteration = true;
 
    private boolean hasTimeDependentAccess = false;
@@ -116,7 +124,8 @@ public final class RangeRaptorWorker<T extends RaptorTripSchedule> implements Wo
             TransitCalculator<T> calculator,
             LifeCycleEventPublisher lifeCyclePublisher,
             WorkerPerformanceTimers timers,
-            boolean enableGuaranteedTransfers
+            boolean enableGuaranteedTransfers,
+            Deadline deadline
     ) {
         this.transitWorker = transitWorker;
         this.state = state;
@@ -128,6 +137,7 @@ public final class RangeRaptorWorker<T extends RaptorTripSchedule> implements Wo
         this.accessArrivedOnBoard = groupByRound(accessPaths, RaptorTransfer::stopReachedOnBoard);
         this.minNumberOfRounds = calculateMaxNumberOfRides(accessPaths);
         this.enableGuaranteedTransfers = enableGuaranteedTransfers;
+        this.deadline = deadline;
 
         // We do a cast here to avoid exposing the round tracker  and the life cycle publisher to
         // "everyone" by providing access to it in the context.
@@ -155,7 +165,7 @@ public final class RangeRaptorWorker<T extends RaptorTripSchedule> implements Wo
             // depart later, because the arrival time given departure at time t is upper-bounded by
             // the arrival time given departure at minute t + 1.
             final IntIterator it = calculator.rangeRaptorMinutes();
-            while (it.hasNext()) {
+            while (it.hasNext() && !deadline.isExpired()) {
                 // Run the raptor search for this particular iteration departure time
                 iterationDepartureTime = it.next();
                 lifeCycle.setupIteration(iterationDepartureTime);
@@ -172,7 +182,7 @@ public final class RangeRaptorWorker<T extends RaptorTripSchedule> implements Wo
     private void runRaptorForMinute() {
         addAccessPaths(accessArrivedByWalking.get(0));
 
-        while (hasMoreRounds()) {
+        while (hasMoreRounds() && !deadline.isExpired()) {
             lifeCycle.prepareForNextRound(roundTracker.nextRound());
 
             // NB since we have transfer limiting not bothering to cut off search when there are no
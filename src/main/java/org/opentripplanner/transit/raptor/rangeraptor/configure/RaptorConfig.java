@@ -18,6 +18,8 @@ import org.opentripplanner.transit.raptor.rangeraptor.standard.heuristics.Heuris
 import org.opentripplanner.transit.raptor.rangeraptor.transit.SearchContext;
 import org.opentripplanner.transit.raptor.service.RaptorSearchWindowCalculator;
 import org.opentripplanner.transit.raptor.service.WorkerPerformanceTimersCache;
+import org.opentripplanner.transit.raptor.util.StopArrays;
+import org.opentripplanner.transit.raptor.util.StopArraysPool;
 
 
 /**
@@ -33,41 +35,90 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     private final ExecutorService threadPool;
     private final RaptorTuningParameters tuningParameters;
     private final WorkerPerformanceTimersCache timers;
+    private final StopArraysPool stopArraysPool;
 
 
     public RaptorConfig(RaptorTuningParameters tuningParameters) {
         this.tuningParameters = tuningParameters;
         this.threadPool = createNewThreadPool(tuningParameters.searchThreadPoolSize());
         this.timers = new WorkerPerformanceTimersCache(isMultiThreaded());
+        this.stopArraysPool = new StopArraysPool(tuningParameters.stopArraysPoolSize());
     }
 
     public static <T extends RaptorTripSchedule> RaptorConfig<T> defaultConfigForTest() {
         return new RaptorConfig<>(new RaptorTuningParameters() {});
     }
 
-    public SearchContext<T> context(RaptorTransitDataProvider<T> transit, RaptorRequest<T> request) {
-        return new SearchContext<>(request, tuningParameters, transit, timers.get(request));
+    /**
+     * Create a new request scoped lease for the stop arrays used by the workers. The lease is
+     * owned by the caller, and must be closed when the request is complete - use
+     * try-with-resources.
+     */
+    public StopArrays stopArrays() {
+        return stopArraysPool.newLease();
     }
 
-    public Worker<T> createStdWorker(RaptorTransitDataProvider<T> transitData, RaptorRequest<T> request) {
-        SearchContext<T> context = context(transitData, request);
+    public StopArraysPool stopArraysPool() {
+        return stopArraysPool;
+    }
+
+    /**
+     * Create a new search context. The stop arrays lease is owned by the caller, the context
+     * does not close it.
+     */
+    public SearchContext<T> context(
+            RaptorTransitDataProvider<T> transit,
+            RaptorRequest<T> request,
+            StopArrays stopArrays
+    ) {
+        return new SearchContext<>(request, tuningParameters, transit, timers.get(request), stopArrays);
+    }
+
+    public Worker<T> createStdWorker(
+            RaptorTransitDataProvider<T> transitData,
+            RaptorRequest<T> request,
+            StopArrays stopArrays
+    ) {
+        SearchContext<T> context = context(transitData, request, stopArrays);
         return new StdRangeRaptorConfig<>(context).createSearch((s, w) -> createWorker(context, s, w));
     }
 
-    public Worker<T> createMcWorker(RaptorTransitDataProvider<T> transitData, RaptorRequest<T> request, Heuristics heuristics) {
-        final SearchContext<T> context = context(transitData, request);
+    public Worker<T> createMcWorker(
+            RaptorTransitDataProvider<T> transitData,
+            RaptorRequest<T> request,
+            Heuristics heuristics,
+            StopArrays stopArrays
+    ) {
+        final SearchContext<T> context = context(transitData, request, stopArrays);
         return new McRangeRaptorConfig<>(context).createWorker(heuristics, (s, w) -> createWorker(context, s, w));
     }
 
     public HeuristicSearch<T> createHeuristicSearch(
             RaptorTransitDataProvider<T> transitData,
-            RaptorRequest<T> request
+            RaptorRequest<T> request,
+            StopArrays stopArrays
     ) {
-        SearchContext<T> context = context(transitData, request);
+        SearchContext<T> context = context(transitData, request, stopArrays);
         return new StdRangeRaptorConfig<>(context)
                 .createHeuristicSearch((s, w) -> createWorker(context, s, w));
     }
 
+    /**
+     * The minimum search-window slice length in seconds used when splitting a multi-criteria
+     * search in smaller parallel searches, or 0 if the search-window should not be split.
+     */
+    public int searchWindowSliceSeconds() {
+        return isMultiThreaded() ? tuningParameters.searchWindowSliceMinutes() * 60 : 0;
+    }
+
+    public int threadPoolSize() {
+        return isMultiThreaded() ? tuningParameters.searchThreadPoolSize() : 0;
+    }
+
+    public int iterationDepartureStepInSeconds() {
+        return tuningParameters.iterationDepartureStepInSeconds();
+    }
+
     public boolean isMultiThreaded() {
         return threadPool != null;
     }
@@ -103,7 +154,8 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
                 ctx.calculator(),
                 ctx.createLifeCyclePublisher(),
                 ctx.timers(),
-                ctx.enableGuaranteedTransfers()
+                ctx.enableGuaranteedTransfers(),
+                ctx.deadline()
         );
     }
 
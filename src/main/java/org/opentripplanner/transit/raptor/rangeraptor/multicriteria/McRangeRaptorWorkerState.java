@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import javax.annotation.Nullable;
 import org.opentripplanner.transit.raptor.api.path.Path;
 import org.opentripplanner.transit.raptor.api.transit.CostCalculator;
 import org.opentripplanner.transit.raptor.api.transit.IntIterator;
@@ -36,6 +37,8 @@ final public class McRangeRaptorWorkerState<T extends RaptorTripSchedule> implem
     private final DestinationArrivalPaths<T> paths;
     private final HeuristicsProvider<T> heuristics;
     private final List<AbstractStopArrival<T>> arrivalsCache = new ArrayList<>();
+    @Nullable
+    private final StopArrivalArena<T> arena;
     private final CostCalculator<T> costCalculator;
     private final TransitCalculator<T> transitCalculator;
     private boolean firstRound;
@@ -43,6 +46,9 @@ final public class McRangeRaptorWorkerState<T extends RaptorTripSchedule> implem
     /**
      * create a RaptorState for a network with a particular number of stops, and a given maximum
      * duration
+     *
+     * @param useStopArrivalArena cache new arrivals in a {@link StopArrivalArena} instead of
+     *                            creating a stop arrival object for each of them.
      */
     public McRangeRaptorWorkerState(
             Stops<T> stops,
@@ -50,9 +56,11 @@ final public class McRangeRaptorWorkerState<T extends RaptorTripSchedule> implem
             HeuristicsProvider<T> heuristics,
             CostCalculator<T> costCalculator,
             TransitCalculator<T> transitCalculator,
-            WorkerLifeCycle lifeCycle
+            WorkerLifeCycle lifeCycle,
+            boolean useStopArrivalArena
     ) {
         this.stops = stops;
+        this.arena = useStopArrivalArena ? new StopArrivalArena<>() : null;
         this.paths = paths;
         this.heuristics = heuristics;
         this.costCalculator = costCalculator;
@@ -139,6 +147,10 @@ final public class McRangeRaptorWorkerState<T extends RaptorTripSchedule> implem
             ride.trip.transitReluctanceFactorIndex(),
             alightStop
         );
+        if (arena != null) {
+            arena.addTransit(ride.prevArrival, alightStop, stopArrivalTime, costTransit, ride.trip);
+            return;
+        }
         arrivalsCache.add(
             new TransitStopArrival<>(
                 ride.prevArrival,
@@ -156,6 +168,9 @@ final public class McRangeRaptorWorkerState<T extends RaptorTripSchedule> implem
     /** This method is part of the Worker life cycle */
     private void setupIteration() {
         arrivalsCache.clear();
+        if (arena != null) {
+            arena.clear();
+        }
         // clear all touched stops to avoid constant re-exploration
         stops.clearTouchedStopsAndSetStopMarkers();
     }
@@ -177,19 +192,42 @@ final public class McRangeRaptorWorkerState<T extends RaptorTripSchedule> implem
         for (AbstractStopArrival<T> it : fromArrivals) {
             int arrivalTime = it.arrivalTime() + transferTimeInSeconds;
 
-            if (!exceedsTimeLimit(arrivalTime)) {
+            if (exceedsTimeLimit(arrivalTime)) {
+                continue;
+            }
+            if (arena != null) {
+                arena.addTransfer(it, transfer, arrivalTime);
+            }
+            else {
                 arrivalsCache.add(new TransferStopArrival<>(it, transfer, arrivalTime));
             }
         }
     }
 
     private void commitCachedArrivals() {
+        if (arena != null) {
+            commitArenaArrivals();
+            return;
+        }
         for (AbstractStopArrival<T> arrival : arrivalsCache) {
             addStopArrival(arrival);
         }
         arrivalsCache.clear();
     }
 
+    /**
+     * Only create stop arrivals for the elements witch qualify at the stop, the arena is
+     * cleared and reused in the next round.
+     */
+    private void commitArenaArrivals() {
+        for (int i = 0; i < arena.size(); ++i) {
+            if (stops.qualify(arena.stop(i), arena.arrivalTime(i), arena.paretoRound(i), arena.cost(i))) {
+                addStopArrival(arena.createStopArrival(i));
+            }
+        }
+        arena.clear();
+    }
+
     private void addStopArrival(AbstractStopArrival<T> arrival) {
         if (heuristics.rejectDestinationArrivalBasedOnHeuristic(arrival)) {
             return;
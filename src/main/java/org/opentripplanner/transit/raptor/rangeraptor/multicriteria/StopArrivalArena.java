@@ -0,0 +1,172 @@
+package org.opentripplanner.transit.raptor.rangeraptor.multicriteria;
+
+import java.util.Arrays;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arrivals.AbstractStopArrival;
+import org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arrivals.TransferStopArrival;
+import org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arrivals.TransitStopArrival;
+
+/**
+ * Cache new stop arrivals found in a round, before they are added to the stop pareto sets. The
+ * arrivals are stored in primitive arrays, one array for each field (struct-of-arrays), and the
+ * {@link AbstractStopArrival} is only created for arrivals witch qualify. The previous arrival
+ * is not copied into each element, but referenced by index - all transit arrivals for the same
+ * ride, and all transfers from the same stop arrival share the same previous arrival.
+ * <p>
+ * The arrays grow as needed, and are reused after {@link #clear()}; Hence no objects are
+ * created in the cache after the first few rounds.
+ * <p>
+ * This is used by the {@link McRangeRaptorWorkerState} when the
+ * {@link org.opentripplanner.transit.raptor.api.request.Optimization#STOP_ARRIVAL_ARENA} is
+ * enabled.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+final class StopArrivalArena<T extends RaptorTripSchedule> {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private int size = 0;
+    private int[] stop = new int[INITIAL_CAPACITY];
+    private int[] arrivalTime = new int[INITIAL_CAPACITY];
+    private int[] cost = new int[INITIAL_CAPACITY];
+    private int[] paretoRound = new int[INITIAL_CAPACITY];
+    private int[] previous = new int[INITIAL_CAPACITY];
+
+    /** The trip for transit arrivals, {@code null} for transfers. */
+    private Object[] trip = new Object[INITIAL_CAPACITY];
+
+    /** The transfer for transfer arrivals, {@code null} for transits. */
+    private RaptorTransfer[] transfer = new RaptorTransfer[INITIAL_CAPACITY];
+
+    private int nPrevious = 0;
+    private AbstractStopArrival<?>[] previousArrivals = new AbstractStopArrival[INITIAL_CAPACITY];
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Remove all elements. The references to the previous arrivals, trips and transfers are not
+     * cleared, they are overwritten in the following rounds.
+     */
+    void clear() {
+        size = 0;
+        nPrevious = 0;
+    }
+
+    void addTransit(
+        AbstractStopArrival<T> previousArrival,
+        int stopIndex,
+        int arrivalTime,
+        int additionalCost,
+        T trip
+    ) {
+        int i = addElement(
+            previousArrival,
+            stopIndex,
+            arrivalTime,
+            additionalCost,
+            // Transit following transit is incremented by 2, see AbstractStopArrival
+            previousArrival.arrivedByTransit() ? 2 : 1
+        );
+        this.trip[i] = trip;
+        this.transfer[i] = null;
+    }
+
+    void addTransfer(AbstractStopArrival<T> previousArrival, RaptorTransfer transfer, int arrivalTime) {
+        int i = addElement(
+            previousArrival,
+            transfer.stop(),
+            arrivalTime,
+            transfer.generalizedCost(),
+            1
+        );
+        this.trip[i] = null;
+        this.transfer[i] = transfer;
+    }
+
+    int stop(int index) {
+        return stop[index];
+    }
+
+    int arrivalTime(int index) {
+        return arrivalTime[index];
+    }
+
+    int cost(int index) {
+        return cost[index];
+    }
+
+    int paretoRound(int index) {
+        return paretoRound[index];
+    }
+
+    /**
+     * Create the stop arrival for the element at the given index.
+     */
+    @SuppressWarnings("unchecked")
+    AbstractStopArrival<T> createStopArrival(int index) {
+        var prev = (AbstractStopArrival<T>) previousArrivals[previous[index]];
+
+        if (transfer[index] != null) {
+            return new TransferStopArrival<>(prev, transfer[index], arrivalTime[index]);
+        }
+        return new TransitStopArrival<>(
+            prev,
+            stop[index],
+            arrivalTime[index],
+            cost[index] - prev.cost(),
+            (T) trip[index]
+        );
+    }
+
+
+    /* private methods */
+
+    private int addElement(
+        AbstractStopArrival<T> previousArrival,
+        int stopIndex,
+        int arrivalTime,
+        int additionalCost,
+        int paretoRoundIncrement
+    ) {
+        if (size == stop.length) {
+            growElements();
+        }
+        int i = size++;
+        this.stop[i] = stopIndex;
+        this.arrivalTime[i] = arrivalTime;
+        this.cost[i] = previousArrival.cost() + additionalCost;
+        this.paretoRound[i] = previousArrival.paretoRound() + paretoRoundIncrement;
+        this.previous[i] = indexOfPrevious(previousArrival);
+        return i;
+    }
+
+    /**
+     * The elements are added ride by ride and transfer-stop by transfer-stop, so it is enough to
+     * check the last previous arrival to avoid duplicates.
+     */
+    private int indexOfPrevious(AbstractStopArrival<T> previousArrival) {
+        if (nPrevious > 0 && previousArrivals[nPrevious - 1] == previousArrival) {
+            return nPrevious - 1;
+        }
+        if (nPrevious == previousArrivals.length) {
+            previousArrivals = Arrays.copyOf(previousArrivals, nPrevious * 2);
+        }
+        previousArrivals[nPrevious] = previousArrival;
+        return nPrevious++;
+    }
+
+    private void growElements() {
+        int newLength = stop.length * 2;
+        stop = Arrays.copyOf(stop, newLength);
+        arrivalTime = Arrays.copyOf(arrivalTime, newLength);
+        cost = Arrays.copyOf(cost, newLength);
+        paretoRound = Arrays.copyOf(paretoRound, newLength);
+        previous = Arrays.copyOf(previous, newLength);
+        trip = Arrays.copyOf(trip, newLength);
+        transfer = Arrays.copyOf(transfer, newLength);
+    }
+}
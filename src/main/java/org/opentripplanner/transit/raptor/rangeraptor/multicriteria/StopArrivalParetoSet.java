@@ -61,4 +61,45 @@ class StopArrivalParetoSet<T extends RaptorTripSchedule> extends ParetoSetWithMa
 
         return new StopArrivalParetoSet<>(listener);
     }
+
+    /**
+     * Test if a new stop arrival with the given criteria qualify, without creating it. This
+     * uses the same criteria as {@link AbstractStopArrival#compareArrivalTimeRoundAndCost()}
+     * and returns the same result as {@link #qualify(Object)}.
+     */
+    boolean qualify(int arrivalTime, int paretoRound, int cost) {
+        boolean mutualDominanceExist = false;
+        boolean equivalentVectorExist = false;
+
+        for (int i = 0; i < size(); ++i) {
+            AbstractStopArrival<T> it = get(i);
+
+            boolean leftDominance = arrivalTime < it.arrivalTime()
+                || paretoRound < it.paretoRound()
+                || cost < it.cost();
+            boolean rightDominance = it.arrivalTime() < arrivalTime
+                || it.paretoRound() < paretoRound
+                || it.cost() < cost;
+
+            if (leftDominance && rightDominance) {
+                if(equivalentVectorExist) {
+                    return false;
+                }
+                mutualDominanceExist = true;
+            }
+            else if (leftDominance) {
+                return true;
+            }
+            else if (rightDominance) {
+                return false;
+            }
+            else {
+                if(mutualDominanceExist) {
+                    return false;
+                }
+                equivalentVectorExist = true;
+            }
+        }
+        return size() == 0 || mutualDominanceExist;
+    }
 }
@@ -10,6 +10,7 @@ import org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arrivals.Abs
 import org.opentripplanner.transit.raptor.rangeraptor.path.DestinationArrivalPaths;
 import org.opentripplanner.transit.raptor.api.transit.CostCalculator;
 import org.opentripplanner.transit.raptor.util.BitSetIterator;
+import org.opentripplanner.transit.raptor.util.StopArrays;
 
 import java.util.BitSet;
 import java.util.Collection;
@@ -31,23 +32,27 @@ import static java.util.Collections.emptyList;
 public final class Stops<T extends RaptorTripSchedule> {
     private final StopArrivalParetoSet<T>[] stops;
     private final BitSet touchedStops;
+    /** All stops with a pareto set, used to reset the array when returned to the pool. */
+    private final BitSet stopsWithSet;
     private final DebugHandlerFactory<T> debugHandlerFactory;
     private final DebugStopArrivalsStatistics debugStats;
 
     /**
      * Set the time at a transit index iff it is optimal. This sets both the best time and the transfer time
      */
+    @SuppressWarnings("unchecked")
     public Stops(
             int nStops,
+            StopArrays stopArrays,
             Collection<RaptorTransfer> egressPath,
             DestinationArrivalPaths<T> paths,
             CostCalculator<T> costCalculator,
             DebugHandlerFactory<T> debugHandlerFactory,
             DebugLogger debugLogger
     ) {
-        //noinspection unchecked
-        this.stops = (StopArrivalParetoSet<T>[]) new StopArrivalParetoSet[nStops];
-        this.touchedStops = new BitSet(nStops);
+        this.stopsWithSet = stopArrays.bitSet(nStops);
+        this.stops = stopArrays.objectArray(StopArrivalParetoSet.class, nStops, stopsWithSet);
+        this.touchedStops = stopArrays.bitSet(nStops);
         this.debugHandlerFactory = debugHandlerFactory;
         this.debugStats = new DebugStopArrivalsStatistics(debugLogger);
 
@@ -76,6 +81,19 @@ public final class Stops<T extends RaptorTripSchedule> {
         }
     }
 
+    /**
+     * Test if a new stop arrival at the given stop would be accepted by the stop pareto set. If
+     * the stop is debugged, {@code true} is returned so the arrival is added and the debug
+     * handler is notified about the result.
+     */
+    boolean qualify(int stop, int arrivalTime, int paretoRound, int cost) {
+        StopArrivalParetoSet<T> it = stops[stop];
+        if(it == null || debugHandlerFactory.isDebugStopArrival(stop)) {
+            return true;
+        }
+        return it.qualify(arrivalTime, paretoRound, cost);
+    }
+
     void debugStateInfo() {
         debugStats.debugStatInfo(stops);
     }
@@ -103,6 +121,7 @@ public final class Stops<T extends RaptorTripSchedule> {
     private StopArrivalParetoSet<T> findOrCreateSet(final int stop) {
         if(stops[stop] == null) {
             stops[stop] = StopArrivalParetoSet.createStopArrivalSet(stop, debugHandlerFactory);
+            stopsWithSet.set(stop);
         }
         return stops[stop];
     }
@@ -124,5 +143,6 @@ public final class Stops<T extends RaptorTripSchedule> {
                 paths,
                 debugHandlerFactory
         );
+        this.stopsWithSet.set(stop);
     }
 }
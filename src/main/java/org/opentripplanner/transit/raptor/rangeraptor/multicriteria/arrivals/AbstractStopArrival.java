@@ -90,6 +90,13 @@ public abstract class AbstractStopArrival<T extends RaptorTripSchedule> implemen
         return travelDuration;
     }
 
+    /**
+     * The round used in the pareto comparison, see {@link #paretoRound} field doc.
+     */
+    public final int paretoRound() {
+        return paretoRound;
+    }
+
     public AbstractStopArrival<T> timeShiftNewArrivalTime(int newArrivalTime) {
         throw new UnsupportedOperationException("No accessEgress for transfer stop arrival");
     }
@@ -62,13 +62,15 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
                 createHeuristicsProvider(heuristics),
                 context.costCalculator(),
                 context.calculator(),
-                context.lifeCycle()
+                context.lifeCycle(),
+                context.useStopArrivalArena()
         );
     }
 
     private Stops<T> createStops() {
         return new Stops<>(
                 context.nStops(),
+                context.stopArrays(),
                 context.egressPaths(),
                 createDestinationArrivalPaths(),
                 context.costCalculator(),
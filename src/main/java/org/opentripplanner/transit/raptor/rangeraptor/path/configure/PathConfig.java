@@ -50,7 +50,12 @@ public class PathConfig<T extends RaptorTripSchedule> {
         );
     }
 
-    private ParetoComparator<Path<T>> paretoComparator(boolean includeCost) {
+    /**
+     * Create the pareto comparator used to compare paths at the destination. This is the same
+     * comparator used by the {@link DestinationArrivalPaths}, and can be used to merge paths
+     * from more than one search.
+     */
+    public ParetoComparator<Path<T>> paretoComparator(boolean includeCost) {
         double relaxedCost = ctx.searchParams().relaxCostAtDestination();
         boolean includeRelaxedCost = includeCost && relaxedCost > 0.0;
         boolean includeTimetable = ctx.searchParams().timetableEnabled();
@@ -1,12 +1,11 @@
 package org.opentripplanner.transit.raptor.rangeraptor.standard.besttimes;
 
-import static org.opentripplanner.transit.raptor.util.IntUtils.intArray;
-
 import java.util.BitSet;
 import org.opentripplanner.model.base.ToStringBuilder;
 import org.opentripplanner.transit.raptor.rangeraptor.WorkerLifeCycle;
 import org.opentripplanner.transit.raptor.rangeraptor.transit.TransitCalculator;
 import org.opentripplanner.transit.raptor.util.BitSetIterator;
+import org.opentripplanner.transit.raptor.util.StopArrays;
 
 
 /**
@@ -41,17 +40,29 @@ public final class BestTimes {
     /** Stops touched by transit or transfers in LAST round. */
     private BitSet reachedLastRound;
 
+    /**
+     * All stops with a time set, across rounds and iterations. This is used to reset the times
+     * when the arrays are returned to the pool.
+     */
+    private final BitSet reachedStops;
+
     private final TransitCalculator<?> calculator;
 
 
-    public BestTimes(int nStops, TransitCalculator<?> calculator, WorkerLifeCycle lifeCycle) {
+    public BestTimes(
+            int nStops,
+            StopArrays stopArrays,
+            TransitCalculator<?> calculator,
+            WorkerLifeCycle lifeCycle
+    ) {
         this.calculator = calculator;
-        this.times = intArray(nStops, calculator.unreachedTime());
-        this.reachedCurrentRound = new BitSet(nStops);
-        this.reachedLastRound = new BitSet(nStops);
+        this.reachedStops = stopArrays.bitSet(nStops);
+        this.times = stopArrays.intArray(nStops, calculator.unreachedTime(), reachedStops);
+        this.reachedCurrentRound = stopArrays.bitSet(nStops);
+        this.reachedLastRound = stopArrays.bitSet(nStops);
 
-        this.transitTimes = intArray(nStops, calculator.unreachedTime());
-        this.transitReachedCurrentRound = new BitSet(nStops);
+        this.transitTimes = stopArrays.intArray(nStops, calculator.unreachedTime(), reachedStops);
+        this.transitReachedCurrentRound = stopArrays.bitSet(nStops);
 
         // Attach to Worker life cycle
         lifeCycle.onSetupIteration((ignore) -> setupIteration());
@@ -186,6 +197,7 @@ public final class BestTimes {
     private void setTime(final int stop, final int time) {
         times[stop] = time;
         reachedCurrentRound.set(stop);
+        reachedStops.set(stop);
     }
 
     private boolean isBestTime(int stop, int time) {
@@ -199,6 +211,7 @@ public final class BestTimes {
     private void setTransitTime(int stop, int time) {
         transitTimes[stop] = time;
         transitReachedCurrentRound.set(stop);
+        reachedStops.set(stop);
     }
 
     private void swapReachedCurrentAndLastRound() {
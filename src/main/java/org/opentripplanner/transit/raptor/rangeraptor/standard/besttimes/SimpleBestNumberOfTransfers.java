@@ -1,8 +1,9 @@
 package org.opentripplanner.transit.raptor.rangeraptor.standard.besttimes;
 
+import java.util.BitSet;
 import org.opentripplanner.transit.raptor.rangeraptor.RoundProvider;
 import org.opentripplanner.transit.raptor.rangeraptor.standard.BestNumberOfTransfers;
-import org.opentripplanner.transit.raptor.util.IntUtils;
+import org.opentripplanner.transit.raptor.util.StopArrays;
 
 
 /**
@@ -11,10 +12,17 @@ import org.opentripplanner.transit.raptor.util.IntUtils;
  */
 public class SimpleBestNumberOfTransfers implements BestNumberOfTransfers {
     private final int[] bestNumOfTransfers;
+    /** The stops reached, used to reset the array when it is returned to the pool. */
+    private final BitSet reachedStops;
     private final RoundProvider roundProvider;
 
-    public SimpleBestNumberOfTransfers(int nStops, RoundProvider roundProvider) {
-        this.bestNumOfTransfers = IntUtils.intArray(nStops, unreachedMinNumberOfTransfers());
+    public SimpleBestNumberOfTransfers(int nStops, StopArrays stopArrays, RoundProvider roundProvider) {
+        this.reachedStops = stopArrays.bitSet(nStops);
+        this.bestNumOfTransfers = stopArrays.intArray(
+            nStops,
+            unreachedMinNumberOfTransfers(),
+            reachedStops
+        );
         this.roundProvider = roundProvider;
     }
 
@@ -25,6 +33,7 @@ public class SimpleBestNumberOfTransfers implements BestNumberOfTransfers {
         final int numOfTransfers = roundProvider.round() - 1;
         if(numOfTransfers < bestNumOfTransfers[stop] ) {
             bestNumOfTransfers[stop] = numOfTransfers;
+            reachedStops.set(stop);
         }
     }
 
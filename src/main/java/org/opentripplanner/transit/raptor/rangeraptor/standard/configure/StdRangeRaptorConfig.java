@@ -126,6 +126,7 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
     private SimpleBestNumberOfTransfers simpleBestNumberOfTransfers() {
         SimpleBestNumberOfTransfers value = new SimpleBestNumberOfTransfers(
                 ctx.nStops(),
+                ctx.stopArrays(),
                 ctx.roundProvider()
         );
         setBestNumberOfTransfers(value);
@@ -154,6 +155,7 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
             stops = new Stops<>(
                     ctx.nRounds(),
                     ctx.nStops(),
+                    ctx.stopArrays(),
                     ctx.roundProvider()
             );
             setBestNumberOfTransfers(stops);
@@ -195,7 +197,7 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
     private BestTimes bestTimes() {
         // Cache best times; request scope
         if (bestTimes == null) {
-            bestTimes = new BestTimes(ctx.nStops(), ctx.calculator(), ctx.lifeCycle());
+            bestTimes = new BestTimes(ctx.nStops(), ctx.stopArrays(), ctx.calculator(), ctx.lifeCycle());
         }
         return bestTimes;
     }
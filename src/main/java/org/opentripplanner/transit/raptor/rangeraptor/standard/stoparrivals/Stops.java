@@ -1,12 +1,14 @@
 package org.opentripplanner.transit.raptor.rangeraptor.standard.stoparrivals;
 
 
+import java.util.BitSet;
 import java.util.function.Consumer;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
 import org.opentripplanner.transit.raptor.api.transit.TransitArrival;
 import org.opentripplanner.transit.raptor.rangeraptor.RoundProvider;
 import org.opentripplanner.transit.raptor.rangeraptor.standard.BestNumberOfTransfers;
+import org.opentripplanner.transit.raptor.util.StopArrays;
 
 /**
  *
@@ -15,16 +17,23 @@ import org.opentripplanner.transit.raptor.rangeraptor.standard.BestNumberOfTrans
 public final class Stops<T extends RaptorTripSchedule> implements BestNumberOfTransfers {
 
     private final StopArrivalState<T>[][] stops;
+    /** All stops with a state in any round, used to reset the arrays when returned to the pool. */
+    private final BitSet reachedStops;
     private final RoundProvider roundProvider;
 
+    @SuppressWarnings("unchecked")
     public Stops(
             int nRounds,
             int nStops,
+            StopArrays stopArrays,
             RoundProvider roundProvider
     ) {
         this.roundProvider = roundProvider;
-        //noinspection unchecked
-        this.stops = (StopArrivalState<T>[][]) new StopArrivalState[nRounds][nStops];
+        this.reachedStops = stopArrays.bitSet(nStops);
+        this.stops = (StopArrivalState<T>[][]) new StopArrivalState[nRounds][];
+        for (int round = 0; round < nRounds; ++round) {
+            this.stops[round] = stopArrays.objectArray(StopArrivalState.class, nStops, reachedStops);
+        }
     }
 
     /**
@@ -43,6 +52,7 @@ public final class Stops<T extends RaptorTripSchedule> implements BestNumberOfTr
                         transitArrivalCallback
                     );
                     stops[round][egressPath.stop()] = state;
+                    reachedStops.set(egressPath.stop());
                 }
                 else {
                     throw new IllegalStateException(""
@@ -79,6 +89,7 @@ public final class Stops<T extends RaptorTripSchedule> implements BestNumberOfTr
 
     void setAccessTime(int time, RaptorTransfer access) {
         final int stop = access.stop();
+        reachedStops.set(stop);
         if (stops[round()][stop] == null) {
             stops[round()][stop] = new AccessStopArrivalState<>(time, access);
         } else {
@@ -116,6 +127,7 @@ public final class Stops<T extends RaptorTripSchedule> implements BestNumberOfTr
     private StopArrivalState<T> findOrCreateStopIndex(final int round, final int stop) {
         if (stops[round][stop] == null) {
             stops[round][stop] = new StopArrivalState<>();
+            reachedStops.set(stop);
         }
         return get(round, stop);
     }
@@ -28,6 +28,8 @@ import org.opentripplanner.transit.raptor.rangeraptor.path.PathMapper;
 import org.opentripplanner.transit.raptor.rangeraptor.path.ReversePathMapper;
 import org.opentripplanner.transit.raptor.rangeraptor.workerlifecycle.LifeCycleEventPublisher;
 import org.opentripplanner.transit.raptor.rangeraptor.workerlifecycle.LifeCycleSubscriptions;
+import org.opentripplanner.transit.raptor.util.StopArrays;
+import org.opentripplanner.util.time.Deadline;
 
 /**
  * The search context is used to hold search scoped instances and to pass these
@@ -54,6 +56,7 @@ public class SearchContext<T extends RaptorTripSchedule> {
     private final PathMapper<T> pathMapper;
     private final WorkerPerformanceTimers timers;
     private final DebugHandlerFactory<T> debugFactory;
+    private final StopArrays stopArrays;
 
     private final LifeCycleSubscriptions lifeCycleSubscriptions = new LifeCycleSubscriptions();
 
@@ -61,7 +64,8 @@ public class SearchContext<T extends RaptorTripSchedule> {
             RaptorRequest<T> request,
             RaptorTuningParameters tuningParameters,
             RaptorTransitDataProvider<T> transit,
-            WorkerPerformanceTimers timers
+            WorkerPerformanceTimers timers,
+            StopArrays stopArrays
     ) {
         this.request = request;
         this.tuningParameters = tuningParameters;
@@ -80,6 +84,7 @@ public class SearchContext<T extends RaptorTripSchedule> {
         this.pathMapper = createPathMapper(request, lifeCycle());
         this.timers = timers;
         this.debugFactory = new DebugHandlerFactory<>(debugRequest(request), lifeCycle());
+        this.stopArrays = stopArrays;
     }
 
     public Collection<RaptorTransfer> accessPaths() {
@@ -155,11 +160,24 @@ public class SearchContext<T extends RaptorTripSchedule> {
         return debugFactory;
     }
 
+    /** The search is stopped early, returning the paths found so far, if the deadline expires. */
+    public Deadline deadline() {
+        return request.deadline();
+    }
+
     public DebugLogger debugLogger() {
         DebugLogger logger = request.debug().logger();
         return logger != null ? logger : NOOP_DEBUG_LOGGER;
     }
 
+    /**
+     * Use this to allocate arrays indexed by stop, the arrays are reused across requests if
+     * pooling is enabled.
+     */
+    public StopArrays stopArrays() {
+        return stopArrays;
+    }
+
     /** Number of stops in transit graph. */
     public int nStops() {
         return transit.numberOfStops();
@@ -196,6 +214,10 @@ public class SearchContext<T extends RaptorTripSchedule> {
         return searchParams().guaranteedTransfersEnabled();
     }
 
+    public boolean useStopArrivalArena() {
+        return request.useStopArrivalArena();
+    }
+
     /* private methods */
 
     /**
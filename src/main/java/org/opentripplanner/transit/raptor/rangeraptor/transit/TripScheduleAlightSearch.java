@@ -19,6 +19,10 @@ import org.opentripplanner.transit.raptor.api.transit.RaptorTripScheduleBoardOrA
  * The search use a binary search if the number of trip schedules is above a
  * given threshold. A linear search is slow when the number of schedules is very
  * large, let say more than 300 trip schedules.
+ * <p>
+ * If the time-table provide the stop-major index of times, see
+ * {@link RaptorTimeTable#arrivalTimesByStopPosition()}, the times are read directly from the
+ * index, not through the time-table interface.
  *
  * @param <T> The TripSchedule type defined by the user of the raptor API.
  */
@@ -26,20 +30,26 @@ public final class
 TripScheduleAlightSearch<T extends RaptorTripSchedule>
         implements TripScheduleSearch<T>, RaptorTripScheduleBoardOrAlightEvent<T>
 {
+    private static final int NOT_SET = -1;
+
     private final int nTripsBinarySearchThreshold;
     private final RaptorTimeTable<T> timeTable;
     private final int nTrips;
+    /** The stop-major index of arrival times, {@code null} if not supported by the time-table. */
+    @Nullable
+    private final int[] arrivalTimes;
 
     private int latestAlightTime;
     private int stopPositionInPattern;
 
     private T candidateTrip;
-    private int candidateTripIndex;
+    private int candidateTripIndex = NOT_SET;
 
     TripScheduleAlightSearch(int scheduledTripBinarySearchThreshold, RaptorTimeTable<T> timeTable) {
         this.nTripsBinarySearchThreshold = scheduledTripBinarySearchThreshold;
         this.timeTable = timeTable;
         this.nTrips = timeTable.numberOfTripSchedules();
+        this.arrivalTimes = timeTable.arrivalTimesByStopPosition();
     }
 
 
@@ -47,6 +57,10 @@ TripScheduleAlightSearch<T extends RaptorTripSchedule>
 
     @Override
     public final T getTrip() {
+        // The trip is fetched lazily, only when the alighting is used
+        if (candidateTrip == null) {
+            candidateTrip = timeTable.getTripSchedule(candidateTripIndex);
+        }
         return candidateTrip;
     }
 
@@ -57,7 +71,7 @@ TripScheduleAlightSearch<T extends RaptorTripSchedule>
 
     @Override
     public final int getTime() {
-        return candidateTrip.arrival(stopPositionInPattern);
+        return arrivalTime(candidateTripIndex);
     }
 
     @Override
@@ -85,7 +99,7 @@ TripScheduleAlightSearch<T extends RaptorTripSchedule>
         this.latestAlightTime = latestAlightTime;
         this.stopPositionInPattern = stopPositionInPattern;
         this.candidateTrip = null;
-        this.candidateTripIndex = -1;
+        this.candidateTripIndex = NOT_SET;
 
         // No previous trip is found
         if (tripIndexLowerBound == UNBOUNDED_TRIP_INDEX) {
@@ -146,21 +160,18 @@ TripScheduleAlightSearch<T extends RaptorTripSchedule>
     @Nullable
     private RaptorTripScheduleBoardOrAlightEvent<T> findBoardingSearchForwardInTime(int tripIndexLowerBound) {
         for (int i = tripIndexLowerBound; i < nTrips;  ++i) {
-            T trip = timeTable.getTripSchedule(i);
-
-            final int arrival = trip.arrival(stopPositionInPattern);
+            final int arrival = arrivalTime(i);
 
             if (arrival <= latestAlightTime) {
-                candidateTrip = trip;
                 candidateTripIndex = i;
             } else {
                 // this trip arrives too early. We can break out of the loop since
                 // trips are sorted by departure time (trips in given schedule)
                 // Trips passing another trip is not accounted for if both are in service.
-                return candidateTrip == null ? null : this;
+                return candidateTripIndex == NOT_SET ? null : this;
             }
         }
-        return candidateTrip == null ? null : this;
+        return candidateTripIndex == NOT_SET ? null : this;
     }
 
     /**
@@ -174,12 +185,9 @@ TripScheduleAlightSearch<T extends RaptorTripSchedule>
             final int tripIndexUpperBound
     ) {
         for (int i = tripIndexUpperBound-1; i >=0; --i) {
-            T trip = timeTable.getTripSchedule(i);
-
-            final int arrival = trip.arrival(stopPositionInPattern);
+            final int arrival = arrivalTime(i);
 
             if (arrival <= latestAlightTime) {
-                candidateTrip = trip;
                 candidateTripIndex = i;
                 return this;
             }
@@ -204,9 +212,7 @@ TripScheduleAlightSearch<T extends RaptorTripSchedule>
         while (upper - lower > nTripsBinarySearchThreshold) {
             int m = (lower + upper) / 2;
 
-            RaptorTripSchedule trip = timeTable.getTripSchedule(m);
-
-            int arrival = trip.arrival(stopPositionInPattern);
+            int arrival = arrivalTime(m);
 
             if (arrival <= latestAlightTime) {
                 lower = m;
@@ -217,4 +223,10 @@ TripScheduleAlightSearch<T extends RaptorTripSchedule>
         }
         return lower;
     }
+
+    private int arrivalTime(int tripIndex) {
+        return arrivalTimes == null
+                ? timeTable.arrivalTime(tripIndex, stopPositionInPattern)
+                : arrivalTimes[stopPositionInPattern * nTrips + tripIndex];
+    }
 }
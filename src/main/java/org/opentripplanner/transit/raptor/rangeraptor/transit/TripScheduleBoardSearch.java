@@ -17,6 +17,10 @@ import org.opentripplanner.transit.raptor.api.transit.RaptorTripScheduleBoardOrA
  * The search use a binary search if the number of trip schedules is above a
  * given threshold. A linear search is slow when the number of schedules is very
  * large, let say more than 300 trip schedules.
+ * <p>
+ * If the time-table provide the stop-major index of times, see
+ * {@link RaptorTimeTable#departureTimesByStopPosition()}, the times are read directly from the
+ * index, not through the time-table interface.
  *
  * @param <T> The TripSchedule type defined by the user of the raptor API.
  */
@@ -28,6 +32,9 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     private final int nTripsBinarySearchThreshold;
     private final RaptorTimeTable<T> timeTable;
     private final int nTrips;
+    /** The stop-major index of departure times, {@code null} if not supported by the time-table. */
+    @Nullable
+    private final int[] departureTimes;
 
     private int earliestBoardTime;
     private int stopPositionInPattern;
@@ -41,6 +48,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
         this.nTripsBinarySearchThreshold = scheduledTripBinarySearchThreshold;
         this.timeTable = timeTable;
         this.nTrips = timeTable.numberOfTripSchedules();
+        this.departureTimes = timeTable.departureTimesByStopPosition();
     }
 
 
@@ -48,6 +56,10 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
 
     @Override
     public final T getTrip() {
+        // The trip is fetched lazily, only when the boarding is used
+        if (candidateTrip == null) {
+            candidateTrip = timeTable.getTripSchedule(candidateTripIndex);
+        }
         return candidateTrip;
     }
 
@@ -58,7 +70,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
 
     @Override
     public final int getTime() {
-        return candidateTrip.departure(stopPositionInPattern);
+        return departureTime(candidateTripIndex);
     }
 
     @Override
@@ -150,20 +162,18 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     @Nullable
     private RaptorTripScheduleBoardOrAlightEvent<T> findBoardingBySteppingBackwardsInTime(int tripIndexUpperBound) {
         for (int i = tripIndexUpperBound-1; i >= 0; --i) {
-            T trip = timeTable.getTripSchedule(i);
-            final int boardTime = trip.departure(stopPositionInPattern);
+            final int boardTime = departureTime(i);
 
             if (boardTime >= earliestBoardTime) {
-                candidateTrip = trip;
                 candidateTripIndex = i;
             } else {
                 // this trip arrives too early. We can break out of the loop since
                 // trips are sorted by departure time (trips in given schedule)
                 // Trips passing another trip is not accounted for if both are in service.
-                return candidateTrip == null ? null : this;
+                return candidateTripIndex == NOT_SET ? null : this;
             }
         }
-        return candidateTrip == null ? null : this;
+        return candidateTripIndex == NOT_SET ? null : this;
     }
 
     /**
@@ -175,11 +185,9 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     @Nullable
     private RaptorTripScheduleBoardOrAlightEvent<T> findBoardingBySteppingForwardInTime(final int tripIndexLowerBound) {
         for (int i = tripIndexLowerBound; i < nTrips; ++i) {
-            T trip = timeTable.getTripSchedule(i);
-            final int boardTime = trip.departure(stopPositionInPattern);
+            final int boardTime = departureTime(i);
 
             if (boardTime >= earliestBoardTime) {
-                candidateTrip = trip;
                 candidateTripIndex = i;
                 return this;
             }
@@ -202,9 +210,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
         while (upper - lower > nTripsBinarySearchThreshold) {
             int m = (lower + upper) / 2;
 
-            RaptorTripSchedule trip = timeTable.getTripSchedule(m);
-
-            int departure = trip.departure(stopPositionInPattern);
+            int departure = departureTime(m);
 
             if (departure >= earliestBoardTime) {
                 upper = m;
@@ -215,4 +221,10 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
         }
         return upper == nTrips ? nTrips : upper + 1;
     }
+
+    private int departureTime(int tripIndex) {
+        return departureTimes == null
+                ? timeTable.departureTime(tripIndex, stopPositionInPattern)
+                : departureTimes[stopPositionInPattern * nTrips + tripIndex];
+    }
 }
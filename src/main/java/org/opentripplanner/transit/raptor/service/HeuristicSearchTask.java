@@ -10,6 +10,7 @@ import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
 import org.opentripplanner.transit.raptor.api.view.Heuristics;
 import org.opentripplanner.transit.raptor.rangeraptor.configure.RaptorConfig;
 import org.opentripplanner.transit.raptor.rangeraptor.standard.heuristics.HeuristicSearch;
+import org.opentripplanner.transit.raptor.util.StopArrays;
 import org.opentripplanner.util.time.DurationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +31,7 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
   private final String name;
   private final RaptorConfig<T> config;
   private final RaptorTransitDataProvider<T> transitData;
+  private final StopArrays stopArrays;
 
   private boolean run = false;
   private HeuristicSearch<T> search = null;
@@ -39,13 +41,15 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
   public HeuristicSearchTask(
       RaptorRequest<T> request,
       RaptorConfig<T> config,
-      RaptorTransitDataProvider<T> transitData
+      RaptorTransitDataProvider<T> transitData,
+      StopArrays stopArrays
   ) {
     this(
         request.searchDirection(),
         RequestAlias.alias(request, config.isMultiThreaded()),
         config,
-        transitData
+        transitData,
+        stopArrays
     );
     this.originalRequest = request;
   }
@@ -54,12 +58,14 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
       SearchDirection direction,
       String name,
       RaptorConfig<T> config,
-      RaptorTransitDataProvider<T> transitData
+      RaptorTransitDataProvider<T> transitData,
+      StopArrays stopArrays
   ) {
     this.direction = direction;
     this.name = name;
     this.config = config;
     this.transitData = transitData;
+    this.stopArrays = stopArrays;
   }
 
   public String name() {
@@ -144,7 +150,7 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
           .searchParams()
           .searchOneIterationOnly()
           .build();
-      search = config.createHeuristicSearch(transitData, heuristicReq);
+      search = config.createHeuristicSearch(transitData, heuristicReq, stopArrays);
     }
   }
 }
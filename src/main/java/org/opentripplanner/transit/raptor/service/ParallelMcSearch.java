@@ -0,0 +1,172 @@
+package org.opentripplanner.transit.raptor.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import javax.annotation.Nullable;
+import org.opentripplanner.transit.raptor.api.path.Path;
+import org.opentripplanner.transit.raptor.api.request.RaptorProfile;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
+import org.opentripplanner.transit.raptor.api.request.SearchParams;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransitDataProvider;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.api.view.Heuristics;
+import org.opentripplanner.transit.raptor.rangeraptor.configure.RaptorConfig;
+import org.opentripplanner.transit.raptor.rangeraptor.path.configure.PathConfig;
+import org.opentripplanner.transit.raptor.util.StopArrays;
+import org.opentripplanner.transit.raptor.util.paretoset.ParetoSet;
+import org.opentripplanner.util.OtpAppException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Split the search-window of a multi-criteria Range Raptor search into time slices, and run one
+ * worker for each slice in parallel using the {@link RaptorConfig#threadPool()}. The paths found
+ * are merged into one pareto-set using the same criteria as the destination arrivals in each
+ * worker.
+ * <p>
+ * The slices are created backwards from the end of the search-window, and each slice length is a
+ * multiple of the iteration step, so the Range Raptor iterations are the same as in a search
+ * using one worker. The first iteration of each slice is not limited by the previous iteration,
+ * so each slice may find more paths than the same iterations in a single search, these are
+ * removed when the results are merged.
+ * <p>
+ * Only FORWARD searches are split, the search-window of a REVERSE search is not used in the same
+ * way.
+ */
+class ParallelMcSearch<T extends RaptorTripSchedule> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelMcSearch.class);
+
+  private final RaptorConfig<T> config;
+  private final RaptorTransitDataProvider<T> transitData;
+  private final RaptorRequest<T> request;
+  private final Heuristics heuristics;
+  private final StopArrays stopArrays;
+  private final List<RaptorRequest<T>> slices;
+
+  ParallelMcSearch(
+      RaptorConfig<T> config,
+      RaptorTransitDataProvider<T> transitData,
+      RaptorRequest<T> request,
+      @Nullable Heuristics heuristics,
+      StopArrays stopArrays
+  ) {
+    this.config = config;
+    this.transitData = transitData;
+    this.request = request;
+    this.heuristics = heuristics;
+    this.stopArrays = stopArrays;
+    this.slices = createSlices();
+  }
+
+  /**
+   * Return {@code true} if the search-window is split in two or more slices.
+   */
+  boolean isSliced() {
+    return slices.size() > 1;
+  }
+
+  Collection<Path<T>> route() {
+    LOG.debug("Route using RangeRaptor - search-window split in {} slices.", slices.size());
+    List<Future<Collection<Path<T>>>> results = new ArrayList<>();
+
+    try {
+      // Submit all but the first, and run the first slice in this thread
+      for (int i = 1; i < slices.size(); ++i) {
+        RaptorRequest<T> slice = slices.get(i);
+        results.add(config.threadPool().submit(() -> routeSlice(slice)));
+      }
+
+      ParetoSet<Path<T>> paths = new ParetoSet<>(
+          new PathConfig<>(config.context(transitData, request, stopArrays)).paretoComparator(true)
+      );
+      addAll(paths, routeSlice(slices.get(0)));
+
+      for (Future<Collection<Path<T>>> it : results) {
+        addAll(paths, it.get());
+      }
+      return new ArrayList<>(paths);
+    }
+    catch (RuntimeException e) {
+      results.forEach(it -> it.cancel(true));
+      // The slice run in this thread failed, the other slices may still be running
+      stopArrays.abandon();
+      throw e;
+    }
+    catch (ExecutionException | InterruptedException e) {
+      results.forEach(it -> it.cancel(true));
+      // The canceled slices may still be running, do not reuse their stop arrays
+      stopArrays.abandon();
+      LOG.error(e.getMessage() + ". Request: " + request, e);
+      throw new OtpAppException(
+          "Failed to run multi-criteria search in parallel. Details: " + e.getMessage()
+      );
+    }
+  }
+
+  private Collection<Path<T>> routeSlice(RaptorRequest<T> slice) {
+    return config.createMcWorker(transitData, slice, heuristics, stopArrays).route();
+  }
+
+  /**
+   * The same path may be found in more than one slice, duplicates are removed.
+   */
+  private static <T extends RaptorTripSchedule> void addAll(
+      ParetoSet<Path<T>> set,
+      Collection<Path<T>> paths
+  ) {
+    for (Path<T> path : paths) {
+      if (!set.contains(path)) {
+        set.add(path);
+      }
+    }
+  }
+
+  private List<RaptorRequest<T>> createSlices() {
+    SearchParams s = request.searchParams();
+    int minSliceLength = config.searchWindowSliceSeconds();
+
+    if (
+        minSliceLength <= 0
+        || !request.profile().is(RaptorProfile.MULTI_CRITERIA)
+        || !request.searchDirection().isForward()
+        || !s.isEarliestDepartureTimeSet()
+        || !s.isSearchWindowSet()
+    ) {
+      return List.of(request);
+    }
+
+    int step = config.iterationDepartureStepInSeconds();
+    int searchWindow = s.searchWindowInSeconds();
+
+    // Use as many slices as there are threads, but not shorter than the min slice length
+    int sliceLength = Math.max(minSliceLength, searchWindow / (config.threadPoolSize() + 1));
+    // Round up to a multiple of the iteration step
+    sliceLength = ((sliceLength + step - 1) / step) * step;
+
+    int nSlices = searchWindow / sliceLength;
+
+    if (nSlices < 2) {
+      return List.of(request);
+    }
+
+    List<RaptorRequest<T>> list = new ArrayList<>();
+    int end = s.earliestDepartureTime() + searchWindow;
+
+    for (int i = 0; i < nSlices; ++i) {
+      // The last slice start at the EDT, and include the rest of the search-window
+      int start = i == nSlices - 1 ? s.earliestDepartureTime() : end - sliceLength;
+      list.add(
+          request.mutate().searchParams()
+              .earliestDepartureTime(start)
+              .searchWindowInSeconds(end - start)
+              .build()
+      );
+      end = start;
+    }
+    return list;
+  }
+}
@@ -20,8 +20,8 @@ import org.opentripplanner.transit.raptor.api.response.RaptorResponse;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransitDataProvider;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
 import org.opentripplanner.transit.raptor.api.view.Heuristics;
-import org.opentripplanner.transit.raptor.api.view.Worker;
 import org.opentripplanner.transit.raptor.rangeraptor.configure.RaptorConfig;
+import org.opentripplanner.transit.raptor.util.StopArrays;
 import org.opentripplanner.util.OtpAppException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,7 +31,9 @@ import org.slf4j.LoggerFactory;
  * This search helps the {@link org.opentripplanner.transit.raptor.RaptorService} to configure
  * heuristics and set dynamic search parameters like EDT, LAT and raptor-search-window.
  * <p>
- * If possible the forward and reverse heuristics will be run in parallel.
+ * If possible the forward and reverse heuristics will be run in parallel. The main multi-criteria
+ * search may also be split in search-window slices and run in parallel, see
+ * {@link ParallelMcSearch}.
  * <p>
  * Depending on which optimization is enabled and which search parameters are set a forward and/or a
  * reverse "single-iteration" raptor search is performed and heuristics are collected. This is used
@@ -43,6 +45,7 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     private final RaptorConfig<T> config;
     private final RaptorTransitDataProvider<T> transitData;
     private final RaptorRequest<T> originalRequest;
+    private final StopArrays stopArrays;
     private final RaptorSearchWindowCalculator dynamicSearchParamsCalculator;
 
     private final HeuristicSearchTask<T> fwdHeuristics;
@@ -51,16 +54,18 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     public RangeRaptorDynamicSearch(
             RaptorConfig<T> config,
             RaptorTransitDataProvider<T> transitData,
-            RaptorRequest<T> originalRequest
+            RaptorRequest<T> originalRequest,
+            StopArrays stopArrays
     ) {
         this.config = config;
         this.transitData = transitData;
         this.originalRequest = originalRequest;
+        this.stopArrays = stopArrays;
         this.dynamicSearchParamsCalculator = config.searchWindowCalculator()
                 .withSearchParams(originalRequest.searchParams());
 
-        this.fwdHeuristics = new HeuristicSearchTask<>(FORWARD, "Forward", config, transitData);
-        this.revHeuristics = new HeuristicSearchTask<>(REVERSE, "Reverse", config, transitData);
+        this.fwdHeuristics = new HeuristicSearchTask<>(FORWARD, "Forward", config, transitData, stopArrays);
+        this.revHeuristics = new HeuristicSearchTask<>(REVERSE, "Reverse", config, transitData, stopArrays);
     }
 
     public RaptorResponse<T> route() {
@@ -120,19 +125,26 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     private RaptorResponse<T> createAndRunDynamicRRWorker(RaptorRequest<T> mcRequest) {
 
         LOG.debug("Main request: " + mcRequest.toString());
-        Worker<T> worker;
+        Collection<Path<T>> paths;
 
-        // Create worker
         if (mcRequest.profile().is(MULTI_CRITERIA)) {
-            worker = config.createMcWorker(transitData, mcRequest, getDestinationHeuristics());
+            Heuristics heuristics = getDestinationHeuristics();
+            var parallelSearch = new ParallelMcSearch<>(
+                    config, transitData, mcRequest, heuristics, stopArrays
+            );
+
+            // Split the search-window and route in parallel, if enabled
+            if (parallelSearch.isSliced()) {
+                paths = parallelSearch.route();
+            }
+            else {
+                paths = config.createMcWorker(transitData, mcRequest, heuristics, stopArrays).route();
+            }
         }
         else {
-            worker = config.createStdWorker(transitData, mcRequest);
+            paths = config.createStdWorker(transitData, mcRequest, stopArrays).route();
         }
 
-        // Route
-        Collection<Path<T>> paths = worker.route();
-
         // create and return response
         return new RaptorResponse<>(paths, originalRequest, mcRequest);
     }
@@ -156,12 +168,20 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
             revHeuristics.withRequest(originalRequest);
 
             Future<?> f = config.threadPool().submit(fwdHeuristics::run);
-            revHeuristics.run();
+            try {
+                revHeuristics.run();
+            }
+            catch (RuntimeException e) {
+                // The forward search may still be running, do not reuse its stop arrays
+                stopArrays.abandon();
+                throw e;
+            }
             f.get();
             LOG.debug("Route using RangeRaptor - "
                     + "REVERSE and FORWARD heuristic search performed in parallel.");
         }
         catch (ExecutionException | InterruptedException e) {
+            stopArrays.abandon();
             if (e.getCause() instanceof DestinationNotReachedException) {
                 throw new DestinationNotReachedException();
             }
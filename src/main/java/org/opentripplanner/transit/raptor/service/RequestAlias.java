@@ -18,6 +18,10 @@ public class RequestAlias {
             // Heuristic to prune on pareto optimal Destination arrivals
             alias += "-DP";
         }
+        if (request.useStopArrivalArena()) {
+            // Cache new stop arrivals in primitive arrays
+            alias += "-SA";
+        }
         return alias;
     }
 }
@@ -0,0 +1,150 @@
+package org.opentripplanner.transit.raptor.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Request scoped access to the {@link StopArraysPool}. The arrays are reset and handed back to
+ * the pool when the request {@link #close()}s the lease. Do not use any of the arrays after the
+ * lease is closed.
+ * <p>
+ * A typical search only reach a few percent of all stops, so resetting all elements is
+ * expensive compared with the search itself. To avoid this the caller may pass in a bit-set of
+ * dirty stops when taking an array, and then set the stop index in the dirty-set for every element
+ * changed. Only the dirty elements are then reset, the same dirty-set can be used for more than
+ * one array.
+ * <p>
+ * The lease is shared between the workers of a request, some of witch may run in parallel;
+ * Hence this class is thread-safe.
+ */
+public final class StopArrays implements AutoCloseable {
+
+    private final StopArraysPool pool;
+    private final List<Leased> leasedArrays = new ArrayList<>();
+    private final List<BitSet> leasedBitSets = new ArrayList<>();
+
+    StopArrays(StopArraysPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Take an int array with the given length from the pool, all elements are set to the
+     * given initial value. All elements are reset when the lease is closed.
+     */
+    public int[] intArray(int length, int initialValue) {
+        return intArray(length, initialValue, null);
+    }
+
+    /**
+     * Take an int array with the given length from the pool, all elements are set to the
+     * given initial value.
+     *
+     * @param dirtyStops The caller must set the index of every element changed in this set, only
+     *                   these are reset when the lease is closed.
+     */
+    public int[] intArray(int length, int initialValue, @Nullable BitSet dirtyStops) {
+        return lease(pool.takeIntArray(length, initialValue), initialValue, dirtyStops);
+    }
+
+    /** Take an empty bit-set from the pool. */
+    public synchronized BitSet bitSet(int nBits) {
+        BitSet b = pool.takeBitSet(nBits);
+        leasedBitSets.add(b);
+        return b;
+    }
+
+    /**
+     * Take an array with the given length from the pool, all elements are {@code null}. All
+     * elements are reset when the lease is closed.
+     */
+    public <E> E[] objectArray(Class<E> type, int length) {
+        return objectArray(type, length, null);
+    }
+
+    /**
+     * Take an array with the given length from the pool, all elements are {@code null}.
+     *
+     * @param dirtyStops The caller must set the index of every element changed in this set, only
+     *                   these are reset when the lease is closed.
+     */
+    public <E> E[] objectArray(Class<E> type, int length, @Nullable BitSet dirtyStops) {
+        return lease(pool.takeObjectArray(type, length), 0, dirtyStops);
+    }
+
+    /**
+     * Reset and return all arrays to the pool.
+     */
+    @Override
+    public synchronized void close() {
+        if (pool.isPoolingEnabled()) {
+            // The arrays must be reset before the dirty-sets are cleared
+            for (Leased it : leasedArrays) {
+                it.resetAndReturn(pool);
+            }
+            for (BitSet it : leasedBitSets) {
+                it.clear();
+                pool.returnBitSet(it);
+            }
+        }
+        leasedArrays.clear();
+        leasedBitSets.clear();
+    }
+
+    /**
+     * Forget all arrays without returning them to the pool. Use this if the request failed and
+     * the arrays might still be in use by another thread.
+     */
+    public synchronized void abandon() {
+        leasedArrays.clear();
+        leasedBitSets.clear();
+    }
+
+    private synchronized <A> A lease(A array, int value, BitSet dirtyStops) {
+        leasedArrays.add(new Leased(array, value, dirtyStops));
+        return array;
+    }
+
+    private static final class Leased {
+        private final Object array;
+        private final int value;
+        private final BitSet dirtyStops;
+
+        private Leased(Object array, int value, BitSet dirtyStops) {
+            this.array = array;
+            this.value = value;
+            this.dirtyStops = dirtyStops;
+        }
+
+        private void resetAndReturn(StopArraysPool pool) {
+            if (array instanceof int[]) {
+                int[] a = (int[]) array;
+                if (dirtyStops == null) {
+                    Arrays.fill(a, value);
+                }
+                else {
+                    BitSetIterator it = new BitSetIterator(dirtyStops);
+                    while (it.hasNext()) {
+                        a[it.next()] = value;
+                    }
+                }
+                pool.returnIntArray(a, value);
+            }
+            else {
+                Object[] a = (Object[]) array;
+                if (dirtyStops == null) {
+                    Arrays.fill(a, null);
+                }
+                else {
+                    BitSetIterator it = new BitSetIterator(dirtyStops);
+                    while (it.hasNext()) {
+                        a[it.next()] = null;
+                    }
+                }
+                pool.returnObjectArray(a);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.opentripplanner.transit.raptor.util;
+
+import java.lang.reflect.Array;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.opentripplanner.model.base.ToStringBuilder;
+
+/**
+ * A pool of arrays and bit-sets indexed by stop. The Raptor worker state allocate several of
+ * these for each request, and for large networks that is a lot of short-lived memory. The
+ * arrays are taken from the pool using a request scoped {@link StopArrays} and returned to the
+ * pool when the request is complete.
+ * <p>
+ * All arrays in the pool are reset: int arrays have the same value in all elements, object
+ * arrays contain {@code null} only and bit-sets are empty. The {@link StopArrays} reset the arrays
+ * before they are returned, only the elements set is reset if the stops touched is tracked. The
+ * int arrays are pooled by the initial value, so an array can be reused without a full reset.
+ * <p>
+ * The pool is bounded, if it is full the returned arrays are dropped. A pooled array with a
+ * different size than requested is also dropped, this happens if the number of stops change.
+ * <p>
+ * This class is THREAD-SAFE and should have APPLICATION scope, while each array is only used
+ * by one request at the time.
+ */
+public final class StopArraysPool {
+
+    private final int maxSize;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private final Map<Integer, Queue<int[]>> intArrays = new ConcurrentHashMap<>();
+    private final Queue<BitSet> bitSets = new ConcurrentLinkedQueue<>();
+    private final Map<Class<?>, Queue<Object[]>> objectArrays = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxSize the maximum number of arrays and bit-sets kept in the pool. If zero, no
+     *                arrays are pooled.
+     */
+    public StopArraysPool(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /** Create a new request scoped lease for taking arrays from this pool. */
+    public StopArrays newLease() {
+        return new StopArrays(this);
+    }
+
+    /** The maximum number of arrays and bit-sets kept in the pool. */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /** The number of arrays and bit-sets in the pool right now. */
+    public int size() {
+        return size.get();
+    }
+
+    /** The number of arrays taken from the pool. */
+    public long hits() {
+        return hits.get();
+    }
+
+    /** The number of arrays allocated, because no matching array existed in the pool. */
+    public long misses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.of(StopArraysPool.class)
+            .addNum("maxSize", maxSize)
+            .addNum("size", size.get())
+            .addNum("hits", hits.get())
+            .addNum("misses", misses.get())
+            .toString();
+    }
+
+    boolean isPoolingEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Take an array where all elements are set to the given value.
+     */
+    int[] takeIntArray(int length, int value) {
+        int[] a = take(intArrays.get(value));
+        if (a != null && a.length == length) {
+            hits.incrementAndGet();
+            return a;
+        }
+        misses.incrementAndGet();
+        return IntUtils.intArray(length, value);
+    }
+
+    BitSet takeBitSet(int nBits) {
+        BitSet b = take(bitSets);
+        if (b != null) {
+            hits.incrementAndGet();
+            return b;
+        }
+        misses.incrementAndGet();
+        return new BitSet(nBits);
+    }
+
+    @SuppressWarnings("unchecked")
+    <E> E[] takeObjectArray(Class<E> type, int length) {
+        Object[] a = take(objectArrays.get(type));
+        if (a != null && a.length == length) {
+            hits.incrementAndGet();
+            return (E[]) a;
+        }
+        misses.incrementAndGet();
+        return (E[]) Array.newInstance(type, length);
+    }
+
+    /**
+     * Return an array where all elements are set to the given value.
+     */
+    void returnIntArray(int[] array, int value) {
+        put(intArrays.computeIfAbsent(value, v -> new ConcurrentLinkedQueue<>()), array);
+    }
+
+    /** Return an empty bit-set. */
+    void returnBitSet(BitSet bitSet) {
+        put(bitSets, bitSet);
+    }
+
+    /** Return an array where all elements are {@code null}. */
+    void returnObjectArray(Object[] array) {
+        put(
+            objectArrays.computeIfAbsent(
+                array.getClass().getComponentType(),
+                t -> new ConcurrentLinkedQueue<>()
+            ),
+            array
+        );
+    }
+
+
+    /* private methods */
+
+    private <E> E take(Queue<E> queue) {
+        if (queue == null) { return null; }
+        E e = queue.poll();
+        if (e != null) {
+            size.decrementAndGet();
+        }
+        return e;
+    }
+
+    private <E> void put(Queue<E> queue, E e) {
+        if (size.incrementAndGet() > maxSize) {
+            size.decrementAndGet();
+            return;
+        }
+        queue.add(e);
+    }
+}
@@ -0,0 +1,198 @@
+package org.opentripplanner.updater.stoptime;
+
+import com.google.common.hash.Funnels;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.CodedOutputStream;
+import com.google.transit.realtime.GtfsRealtime.TripDescriptor;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate.StopTimeUpdate;
+import org.opentripplanner.model.calendar.ServiceDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drop the trip updates of a FULL_DATASET GTFS-RT message that are unchanged since the previous
+ * message. Most feeds republish all trip updates every 10-30 seconds, while only a small fraction
+ * of them change. A fingerprint of the trip descriptor and the stop time updates is kept for each
+ * trip and service date, the message timestamp is not part of it.
+ * <p>
+ * If no trip disappeared from the feed, only the new and changed updates are returned and they
+ * should be applied as a DIFFERENTIAL message, the previously applied updates are still in the
+ * buffer. If a trip disappeared, the message contains duplicate trips or the previous message was
+ * not a FULL_DATASET, all updates are returned and the message is applied as a FULL_DATASET. The
+ * buffer is then cleared so that the removed updates are reverted.
+ * <p>
+ * The fingerprints of a message are only kept after the returned updates are applied, see
+ * {@link #commit()}. If the previous message was not committed, the content of the buffer is
+ * unknown and the next message is applied in full.
+ * <p>
+ * This class is NOT THREAD-SAFE, it is used by the graph writer thread only.
+ */
+public class DifferentialTripUpdateFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DifferentialTripUpdateFilter.class);
+
+    private static final HashFunction HASH_FUNCTION = Hashing.farmHashFingerprint64();
+
+    /** Log the number of applied and skipped updates every LOG_FREQUENCY committed messages. */
+    private static final int LOG_FREQUENCY = 100;
+
+    /** The fingerprints of the last applied FULL_DATASET message, empty if there is none. */
+    private Map<String, Long> fingerprints = new HashMap<>();
+
+    /** The fingerprints of the last filtered message, {@code null} if it is committed. */
+    private Map<String, Long> pendingFingerprints = null;
+
+    private boolean fullDataset = true;
+
+    private long appliedUpdates = 0;
+    private long skippedUpdates = 0;
+    private long committedMessages = 0;
+
+    /**
+     * Return the trip updates that should be applied, use {@link #isFullDataset()} to find out how
+     * the returned updates should be applied.
+     *
+     * @param fullDataset true iff the updates represent all updates that are active right now
+     */
+    public List<TripUpdate> filter(List<TripUpdate> updates, boolean fullDataset) {
+        if (pendingFingerprints != null) {
+            // The previous updates were not applied, the content of the buffer is unknown
+            fingerprints = new HashMap<>();
+        }
+        if (!fullDataset) {
+            // The fingerprints do not represent the buffer after a DIFFERENTIAL message
+            fingerprints = new HashMap<>();
+            pendingFingerprints = fingerprints;
+            return applyAll(updates, false);
+        }
+
+        final String today = new ServiceDate().asCompactString();
+        final Map<String, Long> newFingerprints = new HashMap<>((int) (updates.size() / 0.75) + 1);
+        final List<TripUpdate> changed = new ArrayList<>();
+        boolean applyAll = fingerprints.isEmpty();
+        int retained = 0;
+
+        for (TripUpdate it : updates) {
+            final String key = key(it, today);
+            final long fingerprint = fingerprint(it);
+
+            if (newFingerprints.put(key, fingerprint) != null) {
+                // The order of the updates for the same trip matters, apply everything
+                applyAll = true;
+            }
+            final Long previous = fingerprints.get(key);
+            if (previous != null) {
+                ++retained;
+            }
+            if (previous == null || previous != fingerprint) {
+                changed.add(it);
+            }
+        }
+
+        // A trip is removed from the feed if not all previous keys are retained
+        if (retained != fingerprints.size()) {
+            applyAll = true;
+        }
+
+        pendingFingerprints = newFingerprints;
+
+        if (applyAll) {
+            return applyAll(updates, true);
+        }
+        this.fullDataset = false;
+        appliedUpdates += changed.size();
+        skippedUpdates += updates.size() - changed.size();
+        return changed;
+    }
+
+    /**
+     * Keep the fingerprints of the last filtered message, call this when the returned updates are
+     * successfully applied.
+     */
+    public void commit() {
+        if (pendingFingerprints == null) {
+            return;
+        }
+        fingerprints = pendingFingerprints;
+        pendingFingerprints = null;
+
+        if (++committedMessages % LOG_FREQUENCY == 0) {
+            LOG.info(
+                "Applied {} trip updates and skipped {} unchanged trip updates in {} messages.",
+                appliedUpdates,
+                skippedUpdates,
+                committedMessages
+            );
+        }
+    }
+
+    /**
+     * @return true iff the last list returned by {@link #filter(List, boolean)} should be applied
+     *         as a FULL_DATASET
+     */
+    public boolean isFullDataset() {
+        return fullDataset;
+    }
+
+    /** The total number of updates passed on to be applied. */
+    public long getAppliedUpdates() {
+        return appliedUpdates;
+    }
+
+    /** The total number of unchanged updates dropped. */
+    public long getSkippedUpdates() {
+        return skippedUpdates;
+    }
+
+
+    /* private methods */
+
+    private List<TripUpdate> applyAll(List<TripUpdate> updates, boolean fullDataset) {
+        this.fullDataset = fullDataset;
+        appliedUpdates += updates.size();
+        return updates;
+    }
+
+    /**
+     * Identify the trip and service date of an update. An update without a start date is applied
+     * to today, so the date is part of the key.
+     */
+    private static String key(TripUpdate update, String today) {
+        final TripDescriptor trip = update.getTrip();
+        final String date = trip.hasStartDate() ? trip.getStartDate() : today;
+
+        if (trip.hasTripId()) {
+            return trip.getTripId() + '|' + date;
+        }
+        // The trip is matched by the fuzzy trip matcher
+        return trip.getRouteId() + '|' + trip.getDirectionId() + '|' + trip.getStartTime() + '|' + date;
+    }
+
+    private static long fingerprint(TripUpdate update) {
+        final Hasher hasher = HASH_FUNCTION.newHasher();
+        final CodedOutputStream out = CodedOutputStream.newInstance(Funnels.asOutputStream(hasher));
+        try {
+            // Write length delimited messages, so the boundaries are part of the fingerprint
+            out.writeMessage(TripUpdate.TRIP_FIELD_NUMBER, update.getTrip());
+            for (StopTimeUpdate it : update.getStopTimeUpdateList()) {
+                out.writeMessage(TripUpdate.STOP_TIME_UPDATE_FIELD_NUMBER, it);
+            }
+            out.flush();
+        }
+        catch (IOException e) {
+            // Not thrown by the hasher
+            throw new UncheckedIOException(e);
+        }
+        return hasher.hash().asLong();
+    }
+}
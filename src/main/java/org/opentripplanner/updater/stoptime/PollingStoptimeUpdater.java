@@ -65,6 +65,11 @@ public class PollingStoptimeUpdater extends PollingGraphUpdater {
      */
     private GtfsRealtimeFuzzyTripMatcher fuzzyTripMatcher;
 
+    /**
+     * Set only if unchanged trip updates of FULL_DATASET messages should be skipped
+     */
+    private final DifferentialTripUpdateFilter differentialFilter;
+
     public PollingStoptimeUpdater(PollingStoptimeUpdaterParameters parameters) {
         super(parameters);
         // Create update streamer from preferences
@@ -82,6 +87,9 @@ public class PollingStoptimeUpdater extends PollingGraphUpdater {
         }
         this.purgeExpiredData = parameters.purgeExpiredData();
         this.fuzzyTripMatching = parameters.fuzzyTripMatching();
+        this.differentialFilter = parameters.skipUnchangedUpdates()
+            ? new DifferentialTripUpdateFilter()
+            : null;
 
         LOG.info("Creating stop time updater running every {} seconds : {}", pollingPeriodSeconds, updateSource);
     }
@@ -127,9 +135,11 @@ public class PollingStoptimeUpdater extends PollingGraphUpdater {
         boolean fullDataset = updateSource.getFullDatasetValueOfLastUpdates();
 
         if (updates != null) {
-            // Handle trip updates via graph writer runnable
-            TripUpdateGraphWriterRunnable runnable =
-                    new TripUpdateGraphWriterRunnable(fullDataset, updates, feedId);
+            // Handle trip updates via graph writer runnable, the unchanged updates are dropped
+            // by the differential filter on the graph writer thread
+            TripUpdateGraphWriterRunnable runnable = new TripUpdateGraphWriterRunnable(
+                fullDataset, updates, feedId, differentialFilter
+            );
             updaterManager.execute(runnable);
         }
     }
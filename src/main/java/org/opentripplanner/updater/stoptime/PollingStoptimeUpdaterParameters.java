@@ -10,6 +10,7 @@ public class PollingStoptimeUpdaterParameters implements PollingGraphUpdaterPara
   private final int maxSnapshotFrequencyMs;
   private final boolean purgeExpiredData;
   private final boolean fuzzyTripMatching;
+  private final boolean skipUnchangedUpdates;
 
   // Source
   private final DataSourceType sourceType;
@@ -24,6 +25,7 @@ public class PollingStoptimeUpdaterParameters implements PollingGraphUpdaterPara
       int maxSnapshotFrequencyMs,
       boolean purgeExpiredData,
       boolean fuzzyTripMatching,
+      boolean skipUnchangedUpdates,
       DataSourceType sourceType,
       String feedId,
       String httpSourceUrl,
@@ -35,6 +37,7 @@ public class PollingStoptimeUpdaterParameters implements PollingGraphUpdaterPara
     this.maxSnapshotFrequencyMs = maxSnapshotFrequencyMs;
     this.purgeExpiredData = purgeExpiredData;
     this.fuzzyTripMatching = fuzzyTripMatching;
+    this.skipUnchangedUpdates = skipUnchangedUpdates;
     this.sourceType = sourceType;
     this.feedId = feedId;
     this.httpSourceUrl = httpSourceUrl;
@@ -71,6 +74,10 @@ public class PollingStoptimeUpdaterParameters implements PollingGraphUpdaterPara
     return fuzzyTripMatching;
   }
 
+  boolean skipUnchangedUpdates() {
+    return skipUnchangedUpdates;
+  }
+
   public DataSourceType getSourceType() {
     return sourceType;
   }
@@ -12,6 +12,7 @@ import org.opentripplanner.model.StopPattern;
 import org.opentripplanner.model.StopTime;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.model.TimetableSnapshotCommitStatistics;
 import org.opentripplanner.model.TimetableSnapshotProvider;
 import org.opentripplanner.model.TransitMode;
 import org.opentripplanner.model.Trip;
@@ -31,10 +32,13 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Calendar;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * This class should be used to create snapshots of lookup tables of realtime data. This is
@@ -54,6 +58,12 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
      */
     private static final long MAX_ARRIVAL_DEPARTURE_TIME = 48 * 60 * 60;
 
+    /**
+     * Smaller batches of trip updates are prepared on the calling thread, the overhead of
+     * splitting the work is larger than the gain.
+     */
+    private static final int MIN_UPDATES_TO_PREPARE_IN_PARALLEL = 100;
+
     public int logFrequency = 2000;
 
     private int appliedBlockCount = 0;
@@ -106,6 +116,8 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
 
     private TransitLayerUpdater transitLayerUpdater;
 
+    private volatile TripUpdateBatchStatistics lastBatchStatistics = null;
+
     public TimetableSnapshotSource(final Graph graph) {
         timeZone = graph.getTimeZone();
         routingService = new RoutingService(graph);
@@ -139,6 +151,11 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
         return snapshotToReturn;
     }
 
+    @Override
+    public TimetableSnapshotCommitStatistics getCommitStatistics() {
+        return buffer.getCommitStatistics();
+    }
+
     private TimetableSnapshot getTimetableSnapshot(final boolean force) {
         final long now = System.currentTimeMillis();
         if (force || now - lastSnapshotTime > maxSnapshotFrequency) {
@@ -161,6 +178,15 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
      *
      * However, multi-feed support is not completed and we currently assume there is only one static
      * feed when matching IDs.
+     * <p>
+     * The updates are applied in two stages. First the trips are matched and the updated trip
+     * times of SCHEDULED trips are created, this is done in parallel for large batches and without
+     * holding the buffer lock, since it only depends on the scheduled timetables. Then the buffer
+     * is locked and the prepared updates are inserted in the order they appear in the list. A
+     * SCHEDULED update of a trip changed by an earlier update in the same list is prepared again
+     * at this point, so it sees the result of the earlier update, like it would in a later list.
+     * The time spent in each stage is available from {@link #getLastBatchStatistics()}, and
+     * logged with the number of applied updates.
      *
      * @param graph graph to update (needed for adding/changing stop patterns)
      * @param fullDataset true iff the list with updates represent all updates that are active right
@@ -174,83 +200,87 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
             return;
         }
 
+        LOG.debug("message contains {} trip updates", updates.size());
+
+        // Match and decode the updates outside the lock, the result is in the same order
+        final long prepareStart = System.nanoTime();
+        final Stream<TripUpdate> stream = updates.size() < MIN_UPDATES_TO_PREPARE_IN_PARALLEL
+                ? updates.stream()
+                : updates.parallelStream();
+        final List<PreparedTripUpdate> preparedUpdates = stream
+                .map(it -> prepareTripUpdate(it, feedId))
+                .collect(Collectors.toList());
+        final long prepareNanos = System.nanoTime() - prepareStart;
+
         // Acquire lock on buffer
         bufferLock.lock();
 
         try {
+            final long applyStart = System.nanoTime();
+            int applied = 0;
+
             if (fullDataset) {
                 // Remove all updates from the buffer
                 buffer.clear(feedId);
             }
 
-            LOG.debug("message contains {} trip updates", updates.size());
-            int uIndex = 0;
-            for (TripUpdate tripUpdate : updates) {
-                if (fuzzyTripMatcher != null && tripUpdate.hasTrip()) {
-                    final TripDescriptor trip = fuzzyTripMatcher.match(feedId, tripUpdate.getTrip());
-                    tripUpdate = tripUpdate.toBuilder().setTrip(trip).build();
-                }
+            // The trips changed by the non-SCHEDULED updates applied so far
+            final Set<String> changedTripIds = new HashSet<>();
 
-                if (!tripUpdate.hasTrip()) {
-                    LOG.warn("Missing TripDescriptor in gtfs-rt trip update: \n{}", tripUpdate);
+            int uIndex = 0;
+            for (PreparedTripUpdate prepared : preparedUpdates) {
+                if (prepared == null) {
+                    // The update was rejected when it was prepared
                     continue;
                 }
-
-                ServiceDate serviceDate = new ServiceDate();
-                final TripDescriptor tripDescriptor = tripUpdate.getTrip();
-
-                if (tripDescriptor.hasStartDate()) {
-                    try {
-                        serviceDate = ServiceDate.parseString(tripDescriptor.getStartDate());
-                    } catch (final ParseException e) {
-                        LOG.warn("Failed to parse start date in gtfs-rt trip update: \n{}", tripUpdate);
-                        continue;
-                    }
-                } else {
-                    // TODO: figure out the correct service date. For the special case that a trip
-                    // starts for example at 40:00, yesterday would probably be a better guess.
-                }
+                final TripUpdate tripUpdate = prepared.tripUpdate;
+                final ServiceDate serviceDate = prepared.serviceDate;
+                final String tripId = tripUpdate.getTrip().getTripId();
 
                 uIndex += 1;
                 LOG.debug("trip update #{} ({} updates) :",
                         uIndex, tripUpdate.getStopTimeUpdateCount());
                 LOG.trace("{}", tripUpdate);
 
-                // Determine what kind of trip update this is
-                boolean applied = false;
-                final TripDescriptor.ScheduleRelationship tripScheduleRelationship = determineTripScheduleRelationship(
-                        tripUpdate);
-                switch (tripScheduleRelationship) {
+                boolean success = false;
+                switch (prepared.tripScheduleRelationship) {
                     case SCHEDULED:
-                        applied = handleScheduledTrip(tripUpdate, feedId, serviceDate);
+                        if (changedTripIds.contains(tripId)) {
+                            // Prepared before the earlier update was applied, do it again
+                            prepareScheduledTrip(prepared, feedId);
+                        }
+                        success = handleScheduledTrip(prepared, feedId);
                         break;
                     case ADDED:
-                        applied = validateAndHandleAddedTrip(graph, tripUpdate, feedId, serviceDate);
+                        success = validateAndHandleAddedTrip(graph, tripUpdate, feedId, serviceDate);
                         break;
                     case UNSCHEDULED:
-                        applied = handleUnscheduledTrip(tripUpdate, feedId, serviceDate);
+                        success = handleUnscheduledTrip(tripUpdate, feedId, serviceDate);
                         break;
                     case CANCELED:
-                        applied = handleCanceledTrip(tripUpdate, feedId, serviceDate);
+                        success = handleCanceledTrip(tripUpdate, feedId, serviceDate);
                         break;
                     case MODIFIED:
-                        applied = validateAndHandleModifiedTrip(graph, tripUpdate, feedId, serviceDate);
+                        success = validateAndHandleModifiedTrip(graph, tripUpdate, feedId, serviceDate);
                         break;
                 }
 
-                if (applied) {
+                if (prepared.tripScheduleRelationship != TripDescriptor.ScheduleRelationship.SCHEDULED) {
+                    changedTripIds.add(tripId);
+                }
+
+                if (success) {
                     appliedBlockCount++;
+                    applied++;
                 } else {
                     LOG.warn("Failed to apply TripUpdate.");
                     LOG.trace(" Contents: {}", tripUpdate);
                 }
-
-                if (appliedBlockCount % logFrequency == 0) {
-                    LOG.info("Applied {} trip updates.", appliedBlockCount);
-                }
             }
             LOG.debug("end of update message");
 
+            final long snapshotStart = System.nanoTime();
+
             // Make a snapshot after each message in anticipation of incoming requests
             // Purge data if necessary (and force new snapshot if anything was purged)
             // Make sure that the public (locking) getTimetableSnapshot function is not called.
@@ -260,12 +290,85 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
             } else {
                 getTimetableSnapshot(false);
             }
+
+            final long snapshotEnd = System.nanoTime();
+            lastBatchStatistics = new TripUpdateBatchStatistics(
+                    updates.size(),
+                    applied,
+                    prepareNanos,
+                    snapshotStart - applyStart,
+                    snapshotEnd - snapshotStart
+            );
+            LOG.debug("Trip update batch done: {}", lastBatchStatistics);
+
+            // Log once every logFrequency applied updates, with the timing of the last batch
+            if (logFrequency > 0
+                    && appliedBlockCount / logFrequency > (appliedBlockCount - applied) / logFrequency) {
+                LOG.info(
+                        "Applied {} trip updates. Last batch: {}",
+                        appliedBlockCount,
+                        lastBatchStatistics
+                );
+            }
         } finally {
             // Always release lock
             bufferLock.unlock();
         }
     }
 
+    /**
+     * @return the stage timings of the last applied batch of trip updates, or {@code null} if no
+     *         updates are applied yet.
+     */
+    public TripUpdateBatchStatistics getLastBatchStatistics() {
+        return lastBatchStatistics;
+    }
+
+    /**
+     * Match and decode a trip update, this does not access the buffer and can be called from any
+     * thread without holding the buffer lock.
+     *
+     * @return the prepared update or {@code null} if the update should be skipped
+     */
+    private PreparedTripUpdate prepareTripUpdate(TripUpdate tripUpdate, final String feedId) {
+        if (fuzzyTripMatcher != null && tripUpdate.hasTrip()) {
+            final TripDescriptor trip = fuzzyTripMatcher.match(feedId, tripUpdate.getTrip());
+            tripUpdate = tripUpdate.toBuilder().setTrip(trip).build();
+        }
+
+        if (!tripUpdate.hasTrip()) {
+            LOG.warn("Missing TripDescriptor in gtfs-rt trip update: \n{}", tripUpdate);
+            return null;
+        }
+
+        ServiceDate serviceDate = new ServiceDate();
+        final TripDescriptor tripDescriptor = tripUpdate.getTrip();
+
+        if (tripDescriptor.hasStartDate()) {
+            try {
+                serviceDate = ServiceDate.parseString(tripDescriptor.getStartDate());
+            } catch (final ParseException e) {
+                LOG.warn("Failed to parse start date in gtfs-rt trip update: \n{}", tripUpdate);
+                return null;
+            }
+        } else {
+            // TODO: figure out the correct service date. For the special case that a trip
+            // starts for example at 40:00, yesterday would probably be a better guess.
+        }
+
+        // Determine what kind of trip update this is
+        final PreparedTripUpdate prepared = new PreparedTripUpdate(
+                tripUpdate,
+                serviceDate,
+                determineTripScheduleRelationship(tripUpdate)
+        );
+
+        if (prepared.tripScheduleRelationship == TripDescriptor.ScheduleRelationship.SCHEDULED) {
+            prepareScheduledTrip(prepared, feedId);
+        }
+        return prepared;
+    }
+
     /**
      * Determine how the trip update should be handled.
      *
@@ -307,13 +410,36 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
         return tripScheduleRelationship;
     }
 
-    private boolean handleScheduledTrip(final TripUpdate tripUpdate, final String feedId, final ServiceDate serviceDate) {
-        final TripDescriptor tripDescriptor = tripUpdate.getTrip();
+    /**
+     * Find the pattern and create the updated trip times of a SCHEDULED trip. The trip times are
+     * created from the *scheduled* timetable, so this does not depend on the buffer.
+     */
+    private void prepareScheduledTrip(final PreparedTripUpdate prepared, final String feedId) {
+        final TripUpdate tripUpdate = prepared.tripUpdate;
         // This does not include Agency ID or feed ID, trips are feed-unique and we currently assume a single static feed.
-        final String tripId = tripDescriptor.getTripId();
-        final TripPattern pattern = getPatternForTripId(feedId, tripId);
+        final String tripId = tripUpdate.getTrip().getTripId();
+        prepared.pattern = getPatternForTripId(feedId, tripId);
+
+        if (prepared.pattern == null || tripUpdate.getStopTimeUpdateCount() < 1) {
+            return;
+        }
+
+        final TripTimes updatedTripTimes = prepared.pattern.scheduledTimetable.createUpdatedTripTimes(
+                tripUpdate, timeZone, prepared.serviceDate);
+
+        if (updatedTripTimes != null) {
+            // Make sure that updated trip times have the correct real time state
+            updatedTripTimes.setRealTimeState(RealTimeState.UPDATED);
+        }
+        prepared.updatedTripTimes = updatedTripTimes;
+    }
+
+    private boolean handleScheduledTrip(final PreparedTripUpdate prepared, final String feedId) {
+        final TripUpdate tripUpdate = prepared.tripUpdate;
+        final String tripId = tripUpdate.getTrip().getTripId();
+        final ServiceDate serviceDate = prepared.serviceDate;
 
-        if (pattern == null) {
+        if (prepared.pattern == null) {
             LOG.warn("No pattern found for tripId {}, skipping TripUpdate.", tripId);
             return false;
         }
@@ -327,18 +453,12 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
         // changed, and is now changing back to the originally scheduled one) cancel that previously created trip.
         cancelPreviouslyAddedTrip(new FeedScopedId(feedId, tripId), serviceDate);
 
-        // Apply update on the *scheduled* time table and set the updated trip times in the buffer
-        final TripTimes updatedTripTimes = pattern.scheduledTimetable.createUpdatedTripTimes(tripUpdate,
-                timeZone, serviceDate);
-
-        if (updatedTripTimes == null) {
+        if (prepared.updatedTripTimes == null) {
             return false;
         }
 
-        // Make sure that updated trip times have the correct real time state
-        updatedTripTimes.setRealTimeState(RealTimeState.UPDATED);
-
-        final boolean success = buffer.update(pattern, updatedTripTimes, serviceDate);
+        // Set the updated trip times, created from the *scheduled* time table, in the buffer
+        final boolean success = buffer.update(prepared.pattern, prepared.updatedTripTimes, serviceDate);
         return success;
     }
 
@@ -980,4 +1100,26 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     private Stop getStopForStopId(String feedId, String stopId) {
         return routingService.getStopForId(new FeedScopedId(feedId, stopId));
     }
+
+    /**
+     * A trip update matched and decoded outside the buffer lock. For a SCHEDULED trip the pattern
+     * and the updated trip times are resolved as well.
+     */
+    private static class PreparedTripUpdate {
+        private final TripUpdate tripUpdate;
+        private final ServiceDate serviceDate;
+        private final TripDescriptor.ScheduleRelationship tripScheduleRelationship;
+        private TripPattern pattern;
+        private TripTimes updatedTripTimes;
+
+        private PreparedTripUpdate(
+                TripUpdate tripUpdate,
+                ServiceDate serviceDate,
+                TripDescriptor.ScheduleRelationship tripScheduleRelationship
+        ) {
+            this.tripUpdate = tripUpdate;
+            this.serviceDate = serviceDate;
+            this.tripScheduleRelationship = tripScheduleRelationship;
+        }
+    }
 }
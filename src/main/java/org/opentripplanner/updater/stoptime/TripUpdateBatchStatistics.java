@@ -0,0 +1,75 @@
+package org.opentripplanner.updater.stoptime;
+
+import org.opentripplanner.model.base.ToStringBuilder;
+
+/**
+ * The time spent in each stage when a batch of GTFS-RT trip updates is applied by the
+ * {@link TimetableSnapshotSource}:
+ * <ol>
+ *     <li>prepare - match the trips and create the updated trip times, in parallel and outside
+ *     the buffer lock.</li>
+ *     <li>apply - insert the prepared trip times into the buffer, holding the buffer lock.</li>
+ *     <li>snapshot - purge expired data and commit the buffer, holding the buffer lock.</li>
+ * </ol>
+ * This class is immutable and THREAD-SAFE.
+ */
+public class TripUpdateBatchStatistics {
+
+    private final int updates;
+    private final int applied;
+    private final long prepareNanos;
+    private final long applyNanos;
+    private final long snapshotNanos;
+
+    TripUpdateBatchStatistics(
+            int updates,
+            int applied,
+            long prepareNanos,
+            long applyNanos,
+            long snapshotNanos
+    ) {
+        this.updates = updates;
+        this.applied = applied;
+        this.prepareNanos = prepareNanos;
+        this.applyNanos = applyNanos;
+        this.snapshotNanos = snapshotNanos;
+    }
+
+    /** The number of trip updates in the batch. */
+    public int getUpdates() {
+        return updates;
+    }
+
+    /** The number of trip updates successfully applied to the buffer. */
+    public int getApplied() {
+        return applied;
+    }
+
+    public double getPrepareMs() {
+        return toMs(prepareNanos);
+    }
+
+    /** The time the buffer lock was held to insert the updates into the buffer. */
+    public double getApplyMs() {
+        return toMs(applyNanos);
+    }
+
+    public double getSnapshotMs() {
+        return toMs(snapshotNanos);
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.of(TripUpdateBatchStatistics.class)
+            .addNum("updates", updates)
+            .addNum("applied", applied)
+            .addNum("prepare", getPrepareMs(), "ms")
+            .addNum("apply", getApplyMs(), "ms")
+            .addNum("snapshot", getSnapshotMs(), "ms")
+            .toString();
+    }
+
+    private static double toMs(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
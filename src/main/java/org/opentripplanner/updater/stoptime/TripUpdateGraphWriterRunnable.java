@@ -25,7 +25,21 @@ class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
 
     private final String feedId;
 
+    /**
+     * Drop unchanged updates before they are applied, {@code null} if all updates are applied.
+     */
+    private final DifferentialTripUpdateFilter differentialFilter;
+
     TripUpdateGraphWriterRunnable(final boolean fullDataset, final List<TripUpdate> updates, final String feedId) {
+        this(fullDataset, updates, feedId, null);
+    }
+
+    TripUpdateGraphWriterRunnable(
+            final boolean fullDataset,
+            final List<TripUpdate> updates,
+            final String feedId,
+            final DifferentialTripUpdateFilter differentialFilter
+    ) {
         // Preconditions
         Preconditions.checkNotNull(updates);
         Preconditions.checkNotNull(feedId);
@@ -34,6 +48,7 @@ class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
         this.fullDataset = fullDataset;
         this.updates = updates;
         this.feedId = feedId;
+        this.differentialFilter = differentialFilter;
     }
 
     @Override
@@ -43,7 +58,24 @@ class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
         // TimetableSnapshotSource should already be set up
         TimetableSnapshotSource snapshotSource = graph.getOrSetupTimetableSnapshotProvider(null);
         if (snapshotSource != null) {
-            snapshotSource.applyTripUpdates(graph, fullDataset, updates, feedId);
+            if (differentialFilter == null) {
+                snapshotSource.applyTripUpdates(graph, fullDataset, updates, feedId);
+                return;
+            }
+            // The filter is only used on this thread, and the fingerprints are only kept if
+            // the updates are applied without an exception
+            List<TripUpdate> changed = differentialFilter.filter(updates, fullDataset);
+            LOG.debug(
+                "Applying {} of {} trip updates (total applied: {}, skipped: {})",
+                changed.size(),
+                updates.size(),
+                differentialFilter.getAppliedUpdates(),
+                differentialFilter.getSkippedUpdates()
+            );
+            snapshotSource.applyTripUpdates(
+                graph, differentialFilter.isFullDataset(), changed, feedId
+            );
+            differentialFilter.commit();
         } else {
             LOG.error("Could not find realtime data snapshot source in graph."
                     + " The following updates are not applied: {}", updates);
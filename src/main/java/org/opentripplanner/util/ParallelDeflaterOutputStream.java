@@ -0,0 +1,199 @@
+package org.opentripplanner.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+/**
+ * Compress a stream in independent blocks using all threads in the given executor. The written
+ * bytes are collected into fixed size blocks, each block is compressed in a separate task and the
+ * compressed blocks are written to the delegate in order. Use {@link ParallelInflaterInputStream}
+ * to read the stream.
+ * <p>
+ * Each block is written as a frame: {@code int rawLength, int storedLength} followed by the
+ * stored bytes. A block is stored uncompressed if compression is turned off, or if compressing it
+ * does not reduce the size; then the stored length is equal to the raw length. The stream ends
+ * with a {@code 0} raw length. Since the stream ends with a
+ * marker, several streams can be written after each other to the same delegate, see
+ * {@link #finish()}.
+ * <p>
+ * The {@link #flush()} method does NOT write a partly filled block, only {@link #finish()} and
+ * {@link #close()} do.
+ * <p>
+ * This class is NOT THREAD-SAFE.
+ */
+public class ParallelDeflaterOutputStream extends OutputStream {
+
+    static final int END_OF_STREAM = 0;
+    static final int DEFAULT_BLOCK_SIZE = 4 * 1024 * 1024;
+
+    private final DataOutputStream delegate;
+    private final ExecutorService executor;
+    private final boolean compress;
+    private final int blockSize;
+    private final int maxPendingBlocks;
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+    private final Deque<Integer> pendingRawLengths = new ArrayDeque<>();
+
+    private byte[] buffer;
+    private int size = 0;
+    private boolean finished = false;
+
+    public ParallelDeflaterOutputStream(
+            DataOutputStream delegate,
+            ExecutorService executor,
+            int nThreads,
+            boolean compress
+    ) {
+        this(delegate, executor, nThreads, compress, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param nThreads The number of threads in the executor, at most two blocks per thread are
+     *                 kept in memory waiting to be written.
+     * @param compress If {@code false} the blocks are written uncompressed, and the executor is
+     *                 not used.
+     */
+    ParallelDeflaterOutputStream(
+            DataOutputStream delegate,
+            ExecutorService executor,
+            int nThreads,
+            boolean compress,
+            int blockSize
+    ) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.compress = compress;
+        this.blockSize = blockSize;
+        this.maxPendingBlocks = 2 * nThreads;
+        this.buffer = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (size == buffer.length) {
+            submitBlock();
+        }
+        buffer[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (size == buffer.length) {
+                submitBlock();
+            }
+            int n = Math.min(len, buffer.length - size);
+            System.arraycopy(b, off, buffer, size, n);
+            size += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Compress and write the remaining bytes and the end of stream marker, without closing the
+     * delegate. Nothing can be written to this stream after it is finished.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        submitBlock();
+        while (!pendingBlocks.isEmpty()) {
+            writeBlock();
+        }
+        delegate.writeInt(END_OF_STREAM);
+        delegate.flush();
+        buffer = null;
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        delegate.close();
+    }
+
+
+    /* private methods */
+
+    private void submitBlock() throws IOException {
+        if (size == 0) {
+            return;
+        }
+        final byte[] raw = buffer;
+        final int rawLength = size;
+        pendingBlocks.add(
+            compress
+                ? executor.submit(() -> compress(raw, rawLength))
+                : CompletableFuture.completedFuture(uncompressed(raw, rawLength))
+        );
+        pendingRawLengths.add(rawLength);
+        buffer = new byte[blockSize];
+        size = 0;
+
+        while (pendingBlocks.size() > maxPendingBlocks) {
+            writeBlock();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        byte[] stored = waitFor(pendingBlocks.poll());
+        delegate.writeInt(pendingRawLengths.poll());
+        delegate.writeInt(stored.length);
+        delegate.write(stored);
+    }
+
+    private static byte[] uncompressed(byte[] raw, int rawLength) {
+        return rawLength == raw.length ? raw : Arrays.copyOf(raw, rawLength);
+    }
+
+    private static byte[] compress(byte[] raw, int rawLength) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw, 0, rawLength);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(rawLength / 2 + 64);
+            byte[] buf = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buf);
+                out.write(buf, 0, n);
+                if (out.size() >= rawLength) {
+                    // The block can not be compressed, store it as is
+                    return uncompressed(raw, rawLength);
+                }
+            }
+            return out.toByteArray();
+        }
+        finally {
+            deflater.end();
+        }
+    }
+
+    static <T> T waitFor(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+}
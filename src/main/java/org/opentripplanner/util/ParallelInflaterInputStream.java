@@ -0,0 +1,182 @@
+package org.opentripplanner.util;
+
+import static org.opentripplanner.util.ParallelDeflaterOutputStream.END_OF_STREAM;
+import static org.opentripplanner.util.ParallelDeflaterOutputStream.waitFor;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Read a stream written by {@link ParallelDeflaterOutputStream}. The next blocks are read from
+ * the source and decompressed in the given executor ahead of the reader, so the reader does not
+ * wait for the decompression. Uncompressed blocks are passed on as is.
+ * <p>
+ * The stream ends at the end of stream marker, the bytes after the marker are not read from the
+ * source. Closing this stream does NOT close the source, the remaining blocks are skipped so the
+ * source is positioned after the end of stream marker.
+ * <p>
+ * This class is NOT THREAD-SAFE.
+ */
+public class ParallelInflaterInputStream extends InputStream {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final DataInputStream source;
+    private final ExecutorService executor;
+    private final int maxPendingBlocks;
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+
+    private byte[] block = EMPTY;
+    private int pos = 0;
+    private boolean endOfSource = false;
+
+    /**
+     * @param nThreads The number of threads in the executor, at most two blocks per thread are
+     *                 decompressed ahead of the reader.
+     */
+    public ParallelInflaterInputStream(
+            DataInputStream source,
+            ExecutorService executor,
+            int nThreads
+    ) {
+        this.source = source;
+        this.executor = executor;
+        this.maxPendingBlocks = 2 * nThreads;
+    }
+
+    /**
+     * Skip a stream without decompressing it. The source is positioned after the end of stream
+     * marker.
+     */
+    public static void skip(DataInputStream source) throws IOException {
+        while (source.readInt() != END_OF_STREAM) {
+            int remaining = source.readInt();
+            while (remaining > 0) {
+                int n = source.skipBytes(remaining);
+                if (n == 0) {
+                    // Make sure the end of the source is detected
+                    source.readByte();
+                    n = 1;
+                }
+                remaining -= n;
+            }
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextBlockIfEmpty()) {
+            return -1;
+        }
+        return block[pos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextBlockIfEmpty()) {
+            return -1;
+        }
+        int n = Math.min(len, block.length - pos);
+        System.arraycopy(block, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return block.length - pos;
+    }
+
+    /**
+     * Skip the rest of the stream, the source is NOT closed.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Future<byte[]> it : pendingBlocks) {
+            it.cancel(false);
+        }
+        pendingBlocks.clear();
+        block = EMPTY;
+        pos = 0;
+        if (!endOfSource) {
+            skip(source);
+            endOfSource = true;
+        }
+    }
+
+
+    /* private methods */
+
+    /** @return {@code false} if the end of stream is reached. */
+    private boolean nextBlockIfEmpty() throws IOException {
+        while (pos == block.length) {
+            readAhead();
+            if (pendingBlocks.isEmpty()) {
+                return false;
+            }
+            block = waitFor(pendingBlocks.poll());
+            pos = 0;
+        }
+        return true;
+    }
+
+    private void readAhead() throws IOException {
+        while (!endOfSource && pendingBlocks.size() < maxPendingBlocks) {
+            final int rawLength = source.readInt();
+            if (rawLength == END_OF_STREAM) {
+                endOfSource = true;
+                return;
+            }
+            final byte[] stored = new byte[source.readInt()];
+            source.readFully(stored);
+            // A block with the same stored and raw length is not compressed
+            pendingBlocks.add(
+                stored.length == rawLength
+                    ? CompletableFuture.completedFuture(stored)
+                    : executor.submit(() -> decompress(stored, rawLength))
+            );
+        }
+    }
+
+    private static byte[] decompress(byte[] compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int n = 0;
+            while (n < rawLength) {
+                int len = inflater.inflate(raw, n, rawLength - n);
+                boolean noMoreOutput = inflater.finished()
+                    || inflater.needsInput()
+                    || inflater.needsDictionary();
+                if (len == 0 && noMoreOutput) {
+                    break;
+                }
+                n += len;
+            }
+            if (n != rawLength) {
+                throw new IOException(
+                    "Corrupt block, expected " + rawLength + " bytes, but got " + n + "."
+                );
+            }
+            return raw;
+        }
+        catch (DataFormatException e) {
+            throw new IOException(e);
+        }
+        finally {
+            inflater.end();
+        }
+    }
+}
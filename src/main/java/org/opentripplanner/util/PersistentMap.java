@@ -0,0 +1,405 @@
+package org.opentripplanner.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable hash map where a modified copy shares most of its structure with the original.
+ * The map is a hash array mapped trie (HAMT), {@link #plus(Object, Object)} and
+ * {@link #minus(Object)} return a new map and copy only the path from the root to the changed
+ * entry, at most 7 small arrays. Use this instead of cloning a large map when a copy must be made
+ * for each small change, like when a snapshot is published after each real-time update.
+ * <p>
+ * The map is read-only, all {@link Map} mutation methods throw
+ * {@link UnsupportedOperationException}. Null keys and values are allowed.
+ * <p>
+ * This class is THREAD-SAFE.
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    /** The max depth is 7 levels of 5 bits for a 32 bit hash, and a collision node. */
+    private static final int MAX_DEPTH = 8;
+
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        if (map instanceof PersistentMap) {
+            return (PersistentMap<K, V>) map;
+        }
+        PersistentMap<K, V> result = empty();
+        for (Entry<? extends K, ? extends V> it : map.entrySet()) {
+            result = result.plus(it.getKey(), it.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Return a map with the given key mapped to the given value. This map is returned if the key
+     * is already mapped to the same value instance.
+     */
+    public PersistentMap<K, V> plus(K key, V value) {
+        int hash = hash(key);
+        if (root == null) {
+            return new PersistentMap<>(BitmapNode.of(new Leaf<>(hash, key, value), 0), 1);
+        }
+        Leaf<K, V> existing = find(key, hash);
+        if (existing != null && existing.getValue() == value) {
+            return this;
+        }
+        Node newRoot = root.plus(0, new Leaf<>(hash, key, value));
+        return new PersistentMap<>(newRoot, existing == null ? size + 1 : size);
+    }
+
+    /**
+     * Return a map without the given key. This map is returned if the key does not exist.
+     */
+    public PersistentMap<K, V> minus(Object key) {
+        int hash = hash(key);
+        if (find(key, hash) == null) {
+            return this;
+        }
+        Object newRoot = root.minus(0, hash, key);
+        if (newRoot == null) {
+            return empty();
+        }
+        // Keep the root a node, even if it only contains one entry
+        Node node = newRoot instanceof Node
+            ? (Node) newRoot
+            : BitmapNode.of((Leaf<?, ?>) newRoot, 0);
+        return new PersistentMap<>(node, size - 1);
+    }
+
+    @Override
+    public V get(Object key) {
+        Leaf<K, V> leaf = find(key, hash(key));
+        return leaf == null ? null : leaf.getValue();
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        Leaf<K, V> leaf = find(key, hash(key));
+        return leaf == null ? defaultValue : leaf.getValue();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key, hash(key)) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new LeafIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+
+    /* private methods */
+
+    private static int hash(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Leaf<K, V> find(Object key, int hash) {
+        Node node = root;
+        int shift = 0;
+        while (node != null) {
+            Object child = node.find(shift, hash);
+            if (child == null) {
+                return null;
+            }
+            if (child instanceof Leaf) {
+                Leaf<K, V> leaf = (Leaf<K, V>) child;
+                return leaf.matches(hash, key) ? leaf : null;
+            }
+            if (child instanceof CollisionNode) {
+                return (Leaf<K, V>) ((CollisionNode) child).find(hash, key);
+            }
+            node = (Node) child;
+            shift += BITS;
+        }
+        return null;
+    }
+
+    private static final class Leaf<K, V> extends SimpleImmutableEntry<K, V> {
+        private final int hash;
+
+        Leaf(int hash, K key, V value) {
+            super(key, value);
+            this.hash = hash;
+        }
+
+        boolean matches(int hash, Object key) {
+            return this.hash == hash && Objects.equals(getKey(), key);
+        }
+    }
+
+    /**
+     * A node has an array of children, each child is a {@link Leaf} or a {@link Node}.
+     */
+    private abstract static class Node {
+        final Object[] children;
+
+        Node(Object[] children) {
+            this.children = children;
+        }
+
+        /** Return the child for the given hash, not necessarily with a matching key. */
+        abstract Object find(int shift, int hash);
+
+        abstract Node plus(int shift, Leaf<?, ?> leaf);
+
+        /**
+         * Return the node without the key, a single remaining leaf or {@code null} if the node
+         * becomes empty. The key must exist.
+         */
+        abstract Object minus(int shift, int hash, Object key);
+    }
+
+    /** The children are indexed by 5 bits of the hash, only existing children are stored. */
+    private static final class BitmapNode extends Node {
+        private final int bitmap;
+
+        BitmapNode(int bitmap, Object[] children) {
+            super(children);
+            this.bitmap = bitmap;
+        }
+
+        static BitmapNode of(Leaf<?, ?> leaf, int shift) {
+            return new BitmapNode(bit(leaf.hash, shift), new Object[] { leaf });
+        }
+
+        @Override
+        Object find(int shift, int hash) {
+            int bit = bit(hash, shift);
+            return (bitmap & bit) == 0 ? null : children[index(bit)];
+        }
+
+        @Override
+        Node plus(int shift, Leaf<?, ?> leaf) {
+            int bit = bit(leaf.hash, shift);
+            int index = index(bit);
+
+            if ((bitmap & bit) == 0) {
+                Object[] array = new Object[children.length + 1];
+                System.arraycopy(children, 0, array, 0, index);
+                array[index] = leaf;
+                System.arraycopy(children, index, array, index + 1, children.length - index);
+                return new BitmapNode(bitmap | bit, array);
+            }
+
+            Object child = children[index];
+            Object newChild;
+            if (child instanceof Leaf) {
+                Leaf<?, ?> existing = (Leaf<?, ?>) child;
+                newChild = existing.matches(leaf.hash, leaf.getKey())
+                    ? leaf
+                    : merge(existing, leaf, shift + BITS);
+            }
+            else {
+                newChild = ((Node) child).plus(shift + BITS, leaf);
+            }
+            return withChild(index, newChild);
+        }
+
+        @Override
+        Object minus(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            int index = index(bit);
+            Object child = children[index];
+            Object newChild = child instanceof Leaf ? null : ((Node) child).minus(shift + BITS, hash, key);
+
+            if (newChild != null) {
+                return withChild(index, newChild);
+            }
+            if (children.length == 1) {
+                return null;
+            }
+            if (children.length == 2 && children[1 - index] instanceof Leaf) {
+                // Let the parent inline the remaining leaf
+                return children[1 - index];
+            }
+            Object[] array = new Object[children.length - 1];
+            System.arraycopy(children, 0, array, 0, index);
+            System.arraycopy(children, index + 1, array, index, array.length - index);
+            return new BitmapNode(bitmap & ~bit, array);
+        }
+
+        private BitmapNode withChild(int index, Object child) {
+            Object[] array = children.clone();
+            array[index] = child;
+            return new BitmapNode(bitmap, array);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+
+        /** Create a node for two leaves with different keys. */
+        private static Node merge(Leaf<?, ?> a, Leaf<?, ?> b, int shift) {
+            if (a.hash == b.hash) {
+                return new CollisionNode(a.hash, new Object[] { a, b });
+            }
+            int bitA = bit(a.hash, shift);
+            int bitB = bit(b.hash, shift);
+            if (bitA == bitB) {
+                return new BitmapNode(bitA, new Object[] { merge(a, b, shift + BITS) });
+            }
+            return new BitmapNode(
+                bitA | bitB,
+                Integer.compareUnsigned(bitA, bitB) < 0 ? new Object[] { a, b } : new Object[] { b, a }
+            );
+        }
+    }
+
+    /** Leaves with the same hash, but different keys. */
+    private static final class CollisionNode extends Node {
+        private final int hash;
+
+        CollisionNode(int hash, Object[] leaves) {
+            super(leaves);
+            this.hash = hash;
+        }
+
+        @Override
+        Object find(int shift, int hash) {
+            return this;
+        }
+
+        Leaf<?, ?> find(int hash, Object key) {
+            for (Object it : children) {
+                if (((Leaf<?, ?>) it).matches(hash, key)) {
+                    return (Leaf<?, ?>) it;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        Node plus(int shift, Leaf<?, ?> leaf) {
+            if (leaf.hash != hash) {
+                // Push this node down one level and add the leaf next to it
+                return new BitmapNode(BitmapNode.bit(hash, shift), new Object[] { this })
+                    .plus(shift, leaf);
+            }
+            for (int i = 0; i < children.length; ++i) {
+                if (((Leaf<?, ?>) children[i]).matches(leaf.hash, leaf.getKey())) {
+                    Object[] array = children.clone();
+                    array[i] = leaf;
+                    return new CollisionNode(hash, array);
+                }
+            }
+            Object[] array = new Object[children.length + 1];
+            System.arraycopy(children, 0, array, 0, children.length);
+            array[children.length] = leaf;
+            return new CollisionNode(hash, array);
+        }
+
+        @Override
+        Object minus(int shift, int hash, Object key) {
+            if (children.length == 2) {
+                return ((Leaf<?, ?>) children[0]).matches(hash, key) ? children[1] : children[0];
+            }
+            Object[] array = new Object[children.length - 1];
+            int j = 0;
+            for (Object it : children) {
+                if (!((Leaf<?, ?>) it).matches(hash, key)) {
+                    array[j++] = it;
+                }
+            }
+            return new CollisionNode(this.hash, array);
+        }
+    }
+
+    /** Depth first iteration over the leaves, no collection is created. */
+    private static final class LeafIterator<K, V> implements Iterator<Entry<K, V>> {
+        private final Object[][] stack = new Object[MAX_DEPTH][];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth = -1;
+        private Leaf<K, V> next;
+
+        LeafIterator(Node root) {
+            if (root != null) {
+                stack[0] = root.children;
+                depth = 0;
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Leaf<K, V> result = next;
+            advance();
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Object[] children = stack[depth];
+                if (positions[depth] == children.length) {
+                    --depth;
+                    continue;
+                }
+                Object child = children[positions[depth]++];
+                if (child instanceof Leaf) {
+                    next = (Leaf<K, V>) child;
+                    return;
+                }
+                ++depth;
+                stack[depth] = ((Node) child).children;
+                positions[depth] = 0;
+            }
+        }
+    }
+}
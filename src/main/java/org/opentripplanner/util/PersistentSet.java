@@ -0,0 +1,66 @@
+package org.opentripplanner.util;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * An immutable hash set where a modified copy shares most of its structure with the original,
+ * see {@link PersistentMap}.
+ * <p>
+ * This class is THREAD-SAFE.
+ */
+public final class PersistentSet<E> extends AbstractSet<E> {
+
+    private static final PersistentSet<?> EMPTY = new PersistentSet<>(PersistentMap.empty());
+
+    private final PersistentMap<E, Boolean> map;
+
+    private PersistentSet(PersistentMap<E, Boolean> map) {
+        this.map = map;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentSet<E> empty() {
+        return (PersistentSet<E>) EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentSet<E> copyOf(Collection<? extends E> elements) {
+        if (elements instanceof PersistentSet) {
+            return (PersistentSet<E>) elements;
+        }
+        PersistentSet<E> result = empty();
+        for (E it : elements) {
+            result = result.plus(it);
+        }
+        return result;
+    }
+
+    /** Return a set with the given element, this set is returned if the element exists. */
+    public PersistentSet<E> plus(E element) {
+        PersistentMap<E, Boolean> newMap = map.plus(element, Boolean.TRUE);
+        return newMap == map ? this : new PersistentSet<>(newMap);
+    }
+
+    /** Return a set without the given element, this set is returned if the element does not exist. */
+    public PersistentSet<E> minus(Object element) {
+        PersistentMap<E, Boolean> newMap = map.minus(element);
+        return newMap == map ? this : new PersistentSet<>(newMap);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return map.containsKey(o);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return map.keySet().iterator();
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+}
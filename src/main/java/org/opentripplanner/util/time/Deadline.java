@@ -0,0 +1,69 @@
+package org.opentripplanner.util.time;
+
+import java.io.Serializable;
+import java.time.Duration;
+import org.opentripplanner.model.base.ToStringBuilder;
+
+
+/**
+ * A point in (wall-clock) time a request must complete by. The deadline is created when the
+ * request starts and passed down to the long-running parts of the search; each of them check it
+ * cooperatively and stop early, returning what is found so far, when it has expired.
+ * <p>
+ * The deadline remembers if a check has observed it as expired, so that the caller can report
+ * that the result is incomplete after the search is done, see {@link #hasExpired()}.
+ * <p>
+ * This class is THREAD-SAFE.
+ */
+public class Deadline implements Serializable {
+
+  private static final long NOT_SET = Long.MAX_VALUE;
+
+  /** A deadline that never expires. */
+  public static final Deadline NONE = new Deadline(NOT_SET);
+
+  private final long deadlineNanos;
+  private volatile boolean expired = false;
+
+  private Deadline(long deadlineNanos) {
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  /**
+   * Create a new deadline the given duration from now. A zero or negative duration returns
+   * {@link #NONE}.
+   */
+  public static Deadline after(Duration timeout) {
+    if (timeout.isZero() || timeout.isNegative()) { return NONE; }
+    return new Deadline(System.nanoTime() + timeout.toNanos());
+  }
+
+  /**
+   * Check if the deadline is passed. This is cheap, but reads the system clock, so avoid calling
+   * it in the innermost loops.
+   */
+  public boolean isExpired() {
+    if (expired) { return true; }
+    if (deadlineNanos == NOT_SET || System.nanoTime() - deadlineNanos < 0) { return false; }
+    expired = true;
+    return true;
+  }
+
+  /**
+   * Return {@code true} if a previous call to {@link #isExpired()} observed the deadline as
+   * passed. This does not read the clock; a search that completed in time is not reported as
+   * incomplete even if the deadline passed after it was done.
+   */
+  public boolean hasExpired() {
+    return expired;
+  }
+
+  @Override
+  public String toString() {
+    if (deadlineNanos == NOT_SET) { return "Deadline{NONE}"; }
+    return ToStringBuilder.of(Deadline.class)
+        .addNum("remaining", Math.max(0, deadlineNanos - System.nanoTime()) / 1_000_000, "ms")
+        .addBoolIfTrue("expired", expired)
+        .toString();
+  }
+}
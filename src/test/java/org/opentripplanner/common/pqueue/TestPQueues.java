@@ -3,6 +3,7 @@ package org.opentripplanner.common.pqueue;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.PriorityQueue;
+import java.util.Random;
 import junit.framework.TestCase;
 
 /*
@@ -12,7 +13,7 @@ import junit.framework.TestCase;
 public class TestPQueues extends TestCase { 
     private static final int N = 50000;
 
-    public void doQueue(BinHeap<Integer> q,
+    public void doQueue(OTPPriorityQueue<Integer> q,
                         List<Integer> input, List<Integer> expected) {
         List<Integer> result = new ArrayList<Integer>(N);
         int expectedSum = 0;
@@ -45,7 +46,7 @@ public class TestPQueues extends TestCase {
         assertTrue(sum == expectedSum);
     }
     
-    public void fillQueue(BinHeap<Integer> q, List<Integer> input) {
+    public void fillQueue(OTPPriorityQueue<Integer> q, List<Integer> input) {
         for (Integer i : input) {
             q.insert(i, i * 0.5);
         }
@@ -77,6 +78,68 @@ public class TestPQueues extends TestCase {
         }
         doQueue(new BinHeap<Integer>(), input, expected);
         fillQueue(new BinHeap<Integer>(), input);
+        doQueue(new QuaternaryHeap<Integer>(10), input, expected);
+        fillQueue(new QuaternaryHeap<Integer>(10), input);
+        // No element is stale, so the heap must grow
+        doQueue(new QuaternaryHeap<Integer>(10, i -> false), input, expected);
+    }
+
+    public void testQuaternaryHeapDropStaleElements() {
+        // Odd numbers are stale
+        QuaternaryHeap<Integer> q = new QuaternaryHeap<>(10, i -> i % 2 == 1);
+        List<Integer> expected = new ArrayList<>();
+
+        for (int i = 0; i < N; i++) {
+            int value = (N - i) % 1000;
+            q.insert(value, value);
+            if (value % 2 == 0) { expected.add(value); }
+        }
+        // Stale elements are only dropped when the heap is full
+        assertTrue(q.size() < N);
+
+        expected.sort(Integer::compareTo);
+        List<Integer> result = new ArrayList<>();
+        while (!q.empty()) {
+            Integer it = q.extract_min();
+            if (it % 2 == 0) { result.add(it); }
+        }
+        assertEquals(expected, result);
+    }
+
+    /**
+     * Simulate a street search: each visited element is expanded into a few new elements with a
+     * higher priority, and half of the inserted elements are dominated (stale) after they are
+     * queued. All queue types must visit the elements that are not stale in the same order. The
+     * priorities are distinct; elements with equal priority may be visited in a different order.
+     */
+    public void testAllQueueTypesVisitElementsInTheSameOrder() {
+        List<Double> expected = visitOrder(PriorityQueueType.BINARY_HEAP);
+
+        assertEquals(N, expected.size());
+        for (PriorityQueueType type : PriorityQueueType.values()) {
+            assertEquals(type.name(), expected, visitOrder(type));
+        }
+    }
+
+    private static List<Double> visitOrder(PriorityQueueType type) {
+        Random rnd = new Random(42);
+        OTPPriorityQueue<Element> q = type.create(10, e -> e.stale);
+        List<Double> visited = new ArrayList<>();
+
+        q.insert(new Element(0), 0);
+
+        while (visited.size() < N && !q.empty()) {
+            Element e = q.extract_min();
+            if (e.stale) { continue; }
+            visited.add(e.weight);
+
+            for (int j = 0; j < 3; ++j) {
+                Element child = new Element(e.weight + 600 * rnd.nextDouble());
+                q.insert(child, child.weight);
+                child.stale = rnd.nextBoolean();
+            }
+        }
+        return visited;
     }
 
     /*
@@ -130,4 +193,13 @@ public class TestPQueues extends TestCase {
 
         }
     }    
+
+    private static final class Element {
+        private final double weight;
+        private boolean stale = false;
+
+        private Element(double weight) {
+            this.weight = weight;
+        }
+    }
 }
@@ -190,6 +190,36 @@ public class TimetableSnapshotTest {
         snapshot.commit();
     }
 
+    @Test
+    public void testCommitStatistics() {
+        ServiceDate today = new ServiceDate();
+        TripPattern pattern = patternIndex.get(new FeedScopedId("agency", "1.1"));
+
+        TripUpdate tripUpdate = TripUpdate.newBuilder()
+                .setTrip(
+                        TripDescriptor.newBuilder()
+                                .setTripId("1.1")
+                                .setScheduleRelationship(ScheduleRelationship.CANCELED)
+                )
+                .build();
+
+        TimetableSnapshot resolver = new TimetableSnapshot();
+        TimetableSnapshotCommitStatistics statistics = resolver.getCommitStatistics();
+        assertEquals(0, statistics.getCommits());
+
+        // No commit is done if the buffer is not dirty
+        assertNull(resolver.commit());
+        assertEquals(0, statistics.getCommits());
+
+        assertTrue(updateResolver(resolver, pattern, tripUpdate, "agency", today));
+        TimetableSnapshot snapshot = resolver.commit();
+
+        assertEquals(1, statistics.getCommits());
+        assertEquals(1, statistics.getLastCommitUpdatedTimetables());
+        assertTrue(statistics.getLastCommitMs() >= 0);
+        assertNull(snapshot.getCommitStatistics());
+    }
+
     @Test
     public void testPurge() {
         ServiceDate today = new ServiceDate();
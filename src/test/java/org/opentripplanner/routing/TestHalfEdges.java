@@ -464,6 +464,34 @@ public class TestHalfEdges {
         tempEdges.forEach(DisposableEdgeCollection::disposeEdges);
     }
 
+    @Test
+    public void testRequestLinkingDoesNotChangeThePermanentVertices() {
+        int tlIn = tl.getDegreeIn(), blIn = bl.getDegreeIn();
+        int trOut = tr.getDegreeOut(), brOut = br.getDegreeOut();
+
+        // Start on the left street and end on the right street
+        RoutingRequest walking = new RoutingRequest(TraverseMode.WALK);
+        walking.from = new GenericLocation(40.004, -74.01);
+        walking.to = new GenericLocation(40.008, -74.0);
+        walking.setRoutingContext(graph);
+
+        // The temporary edges are only visible through the routing context
+        assertEquals(tlIn, tl.getDegreeIn());
+        assertEquals(blIn, bl.getDegreeIn());
+        assertEquals(trOut, tr.getDegreeOut());
+        assertEquals(brOut, br.getDegreeOut());
+        assertTrue(walking.rctx.getIncoming(tl).size() > tlIn);
+        assertTrue(walking.rctx.getOutgoing(tr).size() > trOut);
+
+        Vertex end = walking.rctx.toVertices.iterator().next();
+        ShortestPathTree spt = aStar.getShortestPathTree(walking);
+        assertNotNull(spt.getPath(end, false));
+
+        walking.cleanup();
+        assertEquals(tlIn, tl.getDegreeIn());
+        assertEquals(trOut, tr.getDegreeOut());
+    }
+
     @Test
     public void testNetworkLinker() {
         int numVerticesBefore = graph.getVertices().size();
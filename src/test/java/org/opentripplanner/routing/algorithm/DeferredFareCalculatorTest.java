@@ -0,0 +1,60 @@
+package org.opentripplanner.routing.algorithm;
+
+import org.junit.Test;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.model.plan.PlanTestConstants;
+import org.opentripplanner.routing.core.Fare;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.opentripplanner.model.plan.TestItineraryBuilder.newItinerary;
+
+public class DeferredFareCalculatorTest implements PlanTestConstants {
+
+    private final Itinerary walk = newItinerary(A, T11_00).walk(D5m, B).build();
+    private final Itinerary bus = newItinerary(A).bus(21, T11_00, T11_10, B).build();
+    private final Itinerary rail = newItinerary(A).rail(31, T11_00, T11_20, B).build();
+    private final Itinerary removed = newItinerary(A).bus(41, T11_05, T11_15, B).build();
+
+    private final AtomicInteger nCalculations = new AtomicInteger();
+
+    @Test
+    public void faresAreOnlyCalculatedForTheGivenItineraries() {
+        ExecutorService threadPool = Executors.newFixedThreadPool(2);
+        try {
+            var subject = new DeferredFareCalculator(new ParallelMapper(threadPool));
+            Fare walkFare = walk.fare;
+            Fare removedFare = removed.fare;
+            Fare busFare = new Fare();
+            Fare railFare = new Fare();
+            subject.add(bus, calculation(busFare));
+            subject.add(rail, calculation(railFare));
+            subject.add(removed, calculation(new Fare()));
+
+            // The removed itinerary was dropped by the itinerary filters
+            subject.calculateFares(List.of(rail, walk, bus));
+
+            assertSame(busFare, bus.fare);
+            assertSame(railFare, rail.fare);
+            assertSame(walkFare, walk.fare);
+            assertSame(removedFare, removed.fare);
+            assertEquals(2, nCalculations.get());
+        }
+        finally {
+            threadPool.shutdownNow();
+        }
+    }
+
+    private Supplier<Fare> calculation(Fare fare) {
+        return () -> {
+            nCalculations.incrementAndGet();
+            return fare;
+        };
+    }
+}
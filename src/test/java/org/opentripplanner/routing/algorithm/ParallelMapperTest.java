@@ -0,0 +1,85 @@
+package org.opentripplanner.routing.algorithm;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelMapperTest {
+
+    private final ExecutorService threadPool = Executors.newFixedThreadPool(4);
+
+    @After
+    public void after() {
+        threadPool.shutdownNow();
+    }
+
+    @Test
+    public void mapKeepsTheOrderOfTheInput() {
+        List<Integer> input = IntStream.range(0, 200).boxed().collect(Collectors.toList());
+        List<Integer> expected = input.stream().map(i -> 2 * i).collect(Collectors.toList());
+
+        // The first elements are the slowest, so they complete last
+        List<Integer> result = new ParallelMapper(threadPool).map(
+            input,
+            i -> { sleep(i < 4 ? 50 : 0); return 2 * i; },
+            "numbers"
+        );
+
+        assertEquals(expected, result);
+        assertEquals(expected, new ParallelMapper(null).map(input, i -> 2 * i, "numbers"));
+    }
+
+    @Test
+    public void mapKeepsTheCauseOfAFailedTask() {
+        RuntimeException cause = new RuntimeException("Boom");
+        try {
+            new ParallelMapper(threadPool).map(
+                List.of(1, 2, 3),
+                i -> { if (i == 2) { throw cause; } return i; },
+                "numbers"
+            );
+            fail();
+        }
+        catch (IllegalStateException e) {
+            assertSame(cause, e.getCause());
+        }
+    }
+
+    @Test
+    public void mapRestoresTheInterruptFlag() {
+        Thread.currentThread().interrupt();
+        try {
+            new ParallelMapper(threadPool).map(
+                List.of(1, 2, 3),
+                i -> { sleep(1000); return i; },
+                "numbers"
+            );
+            fail();
+        }
+        catch (IllegalStateException e) {
+            // Clears the flag, so it does not leak into other tests
+            assertTrue(Thread.interrupted());
+        }
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
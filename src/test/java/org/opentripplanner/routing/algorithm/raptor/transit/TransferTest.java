@@ -0,0 +1,100 @@
+package org.opentripplanner.routing.algorithm.raptor.transit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.LineString;
+import org.opentripplanner.common.geometry.GeometryUtils;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.core.TraverseMode;
+import org.opentripplanner.routing.core.TraverseModeSet;
+import org.opentripplanner.routing.core.intersection_model.ConstantIntersectionTraversalCostModel;
+import org.opentripplanner.routing.edgetype.StreetEdge;
+import org.opentripplanner.routing.edgetype.StreetTraversalPermission;
+import org.opentripplanner.routing.graph.Edge;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graph.Vertex;
+import org.opentripplanner.routing.vertextype.IntersectionVertex;
+import org.opentripplanner.routing.vertextype.StreetVertex;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TransferTest {
+
+    private Graph graph;
+    private List<Edge> edges;
+
+    @Before
+    public void before() {
+        graph = new Graph();
+        graph.setIntersectionTraversalCostModel(new ConstantIntersectionTraversalCostModel(10.0));
+
+        StreetVertex a = vertex("A", 0.0, 0.0);
+        StreetVertex b = vertex("B", 0.001, 0.0);
+        StreetVertex c = vertex("C", 0.001, 0.001);
+        StreetVertex d = vertex("D", 0.002, 0.001);
+
+        StreetEdge stairs = edge(b, c, 20.0);
+        stairs.setStairs(true);
+
+        edges = List.of(edge(a, b, 100.0), stairs, edge(c, d, 70.0));
+    }
+
+    @Test
+    public void costIsDerivedForRequestsWithTheSameWalkSpeed() {
+        Transfer subject = new Transfer(1, edges);
+
+        assertSameTransfer(subject, walkRequest(1.5, 2.0, 3.0, 1.0));
+        assertSameTransfer(subject, walkRequest(1.5, 1.0, 5.0, 4.0));
+        assertSameTransfer(subject, walkRequest(1.5, 3.0, 1.0, 0.0));
+    }
+
+    @Test
+    public void transferIsTraversedAgainIfWalkSpeedChange() {
+        Transfer subject = new Transfer(1, edges);
+
+        assertSameTransfer(subject, walkRequest(1.5, 2.0, 3.0, 1.0));
+        assertSameTransfer(subject, walkRequest(1.0, 2.0, 3.0, 1.0));
+    }
+
+    /**
+     * Compare the transfer with a new transfer, which has to traverse the edges.
+     */
+    private void assertSameTransfer(Transfer subject, RoutingRequest request) {
+        RaptorTransfer expected = new Transfer(1, edges).asRaptorTransfer(request).orElseThrow();
+        RaptorTransfer result = subject.asRaptorTransfer(request).orElseThrow();
+
+        assertEquals(expected.durationInSeconds(), result.durationInSeconds());
+        assertEquals(expected.generalizedCost(), result.generalizedCost());
+    }
+
+    private RoutingRequest walkRequest(
+            double walkSpeed,
+            double walkReluctance,
+            double stairsReluctance,
+            double turnReluctance
+    ) {
+        RoutingRequest request = new RoutingRequest();
+        request.setStreetSubRequestModes(new TraverseModeSet(TraverseMode.WALK));
+        request.walkSpeed = walkSpeed;
+        request.walkReluctance = walkReluctance;
+        request.stairsReluctance = stairsReluctance;
+        request.turnReluctance = turnReluctance;
+        request.setRoutingContext(graph, (Vertex) null, null);
+        return request;
+    }
+
+    private StreetVertex vertex(String label, double lat, double lon) {
+        return new IntersectionVertex(graph, label, lat, lon);
+    }
+
+    private StreetEdge edge(StreetVertex from, StreetVertex to, double length) {
+        Coordinate[] coords = { from.getCoordinate(), to.getCoordinate() };
+        LineString geom = GeometryUtils.getGeometryFactory().createLineString(coords);
+        String name = from.getLabel() + "_" + to.getLabel();
+        return new StreetEdge(from, to, geom, name, length, StreetTraversalPermission.ALL, false);
+    }
+}
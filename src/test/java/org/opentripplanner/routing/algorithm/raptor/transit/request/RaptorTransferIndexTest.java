@@ -0,0 +1,100 @@
+package org.opentripplanner.routing.algorithm.raptor.transit.request;
+
+import org.junit.Test;
+import org.opentripplanner.routing.algorithm.raptor.transit.Transfer;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.transit.raptor.api.transit.RaptorCostConverter;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class RaptorTransferIndexTest {
+
+    private static final Transfer TX_0_1 = new Transfer(1, 100);
+    private static final Transfer TX_0_2_LONG = new Transfer(2, 300);
+    private static final Transfer TX_0_2_SHORT = new Transfer(2, 200);
+    private static final Transfer TX_2_0 = new Transfer(0, 200);
+
+    private final RaptorTransferIndex subject = RaptorTransferIndex.create(
+        List.of(
+            List.of(TX_0_1, TX_0_2_LONG, TX_0_2_SHORT),
+            List.of(),
+            List.of(TX_2_0)
+        ),
+        walkRequest()
+    );
+
+    @Test
+    public void transfersAreIndexedByFromStop() {
+        assertEquals(3, subject.numberOfStops());
+        assertEquals(3, subject.numberOfTransfers());
+        assertEquals(0, toList(subject.getTransfersFromStop(1)).size());
+
+        List<RaptorTransfer> fromStop2 = toList(subject.getTransfersFromStop(2));
+        assertEquals(1, fromStop2.size());
+        assertEquals(0, fromStop2.get(0).stop());
+        assertSame(TX_2_0, ((TransferWithDuration) fromStop2.get(0)).transfer());
+    }
+
+    @Test
+    public void durationAndCostIsCalculatedForTheRequest() {
+        RaptorTransfer it = toList(subject.getTransfersFromStop(0)).get(0);
+
+        assertEquals(1, it.stop());
+        assertEquals(100, it.durationInSeconds());
+        assertEquals(RaptorCostConverter.toRaptorCost(200), it.generalizedCost());
+    }
+
+    @Test
+    public void onlyTheCheapestTransferToEachStopIsKept() {
+        List<RaptorTransfer> fromStop0 = toList(subject.getTransfersFromStop(0));
+
+        assertEquals(2, fromStop0.size());
+        assertEquals(2, fromStop0.get(1).stop());
+        assertEquals(200, fromStop0.get(1).durationInSeconds());
+        assertSame(TX_0_2_SHORT, ((TransferWithDuration) fromStop0.get(1)).transfer());
+    }
+
+    @Test
+    public void theLastOfTransfersWithEqualCostIsKept() {
+        Transfer first = new Transfer(1, 100);
+        Transfer last = new Transfer(1, 100);
+
+        RaptorTransferIndex index = RaptorTransferIndex.create(
+            List.of(List.of(first, last), List.of()),
+            walkRequest()
+        );
+
+        List<RaptorTransfer> fromStop0 = toList(index.getTransfersFromStop(0));
+        assertEquals(1, fromStop0.size());
+        assertSame(last, ((TransferWithDuration) fromStop0.get(0)).transfer());
+    }
+
+    @Test
+    public void theSameTransfersAreReturnedForEachCall() {
+        List<RaptorTransfer> first = toList(subject.getTransfersFromStop(0));
+        List<RaptorTransfer> second = toList(subject.getTransfersFromStop(0));
+
+        for (int i = 0; i < first.size(); ++i) {
+            assertSame(first.get(i), second.get(i));
+        }
+    }
+
+    private static RoutingRequest walkRequest() {
+        RoutingRequest request = new RoutingRequest();
+        request.walkSpeed = 1.0;
+        request.walkReluctance = 2.0;
+        return request;
+    }
+
+    private static List<RaptorTransfer> toList(Iterator<RaptorTransfer> it) {
+        List<RaptorTransfer> result = new ArrayList<>();
+        it.forEachRemaining(result::add);
+        return result;
+    }
+}
@@ -9,11 +9,16 @@ import org.opentripplanner.routing.trippattern.Deduplicator;
 import org.opentripplanner.routing.trippattern.TripTimes;
 
 import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 public class RoutingRequestTransitDataProviderFilterTest {
@@ -124,6 +129,139 @@ public class RoutingRequestTransitDataProviderFilterTest {
     assertFalse(valid);
   }
 
+  @Test
+  public void acceptedTripsMatchTripTimesPredicate() {
+    TripTimes bikesAllowed = createTestTripTimes();
+    bikesAllowed.trip.setBikesAllowed(BikeAccess.ALLOWED);
+    TripTimes wheelchairAccessible = createTestTripTimes();
+    wheelchairAccessible.trip.setWheelchairAccessible(1);
+    TripTimes canceled = createTestTripTimes();
+    canceled.trip.setBikesAllowed(BikeAccess.ALLOWED);
+    canceled.trip.setAlteration(TripAlteration.CANCELLATION);
+
+    var tripTimes = List.of(bikesAllowed, wheelchairAccessible, canceled);
+    var tripPatternForDate = new TripPatternForDate(
+        createTestTripPatternForDate().getTripPattern(), tripTimes, LocalDate.now()
+    );
+
+    for (boolean bikes : new boolean[] { false, true }) {
+      for (boolean wheelchair : new boolean[] { false, true }) {
+        for (boolean cancellations : new boolean[] { false, true }) {
+          var filter = new RoutingRequestTransitDataProviderFilter(
+              bikes, wheelchair, cancellations, Set.of(TransitMode.BUS), Set.of()
+          );
+          BitSet accepted = filter.acceptedTrips(tripPatternForDate);
+          for (int i = 0; i < tripTimes.size(); i++) {
+            assertEquals(
+                filter.tripTimesPredicate(tripTimes.get(i)),
+                accepted == null || accepted.get(i)
+            );
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void filtersWithEqualAcceptedTripsKeyAcceptTheSameTrips() {
+    TripTimes bikesAllowed = createTestTripTimes();
+    bikesAllowed.trip.setBikesAllowed(BikeAccess.ALLOWED);
+    TripTimes canceled = createTestTripTimes();
+    canceled.trip.setAlteration(TripAlteration.CANCELLATION);
+
+    var tripPatternForDate = new TripPatternForDate(
+        createTestTripPatternForDate().getTripPattern(),
+        List.of(bikesAllowed, canceled),
+        LocalDate.now()
+    );
+
+    Map<Object, BitSet> acceptedByKey = new HashMap<>();
+    for (boolean bikes : new boolean[] { false, true }) {
+      for (boolean wheelchair : new boolean[] { false, true }) {
+        for (boolean cancellations : new boolean[] { false, true }) {
+          for (var bannedRoutes : List.of(Set.<FeedScopedId>of(), Set.of(TEST_ROUTE_ID))) {
+            var filter = new RoutingRequestTransitDataProviderFilter(
+                bikes, wheelchair, cancellations, Set.of(TransitMode.BUS), bannedRoutes
+            );
+            Object key = filter.acceptedTripsKey();
+            BitSet accepted = filter.acceptedTrips(tripPatternForDate);
+            assertNotNull(key);
+            if (acceptedByKey.containsKey(key)) {
+              assertEquals(acceptedByKey.get(key), accepted);
+            }
+            acceptedByKey.put(key, accepted);
+          }
+        }
+      }
+    }
+    // No requirement, bikes allowed, wheelchair accessible and no cancellations
+    assertEquals(4, acceptedByKey.size());
+  }
+
+  @Test
+  public void onlyTheFirstActiveTripRequirementIsChecked() {
+    TripTimes bikesAllowed = createTestTripTimes();
+    bikesAllowed.trip.setBikesAllowed(BikeAccess.ALLOWED);
+    bikesAllowed.trip.setAlteration(TripAlteration.CANCELLATION);
+
+    var tripPatternForDate = new TripPatternForDate(
+        createTestTripPatternForDate().getTripPattern(), List.of(bikesAllowed), LocalDate.now()
+    );
+    var filter = new RoutingRequestTransitDataProviderFilter(
+        true, true, false, Set.of(TransitMode.BUS), Set.of()
+    );
+
+    assertTrue(filter.tripTimesPredicate(bikesAllowed));
+    assertTrue(filter.acceptedTrips(tripPatternForDate).get(0));
+  }
+
+  @Test
+  public void acceptedTripPatternsMatchTripPatternPredicate() {
+    var bus = createTestTripPatternForDates(TEST_ROUTE_ID, TransitMode.BUS);
+    var otherBus = createTestTripPatternForDates(new FeedScopedId("TEST", "R2"), TransitMode.BUS);
+    var rail = createTestTripPatternForDates(new FeedScopedId("TEST", "R3"), TransitMode.RAIL);
+    var tripPatterns = new TripPatternsForDateRange(
+        ZonedDateTime.now(), List.of(bus, otherBus, rail), 0
+    );
+
+    var filters = List.of(
+        new RoutingRequestTransitDataProviderFilter(
+            false, false, false, Set.of(TransitMode.BUS), Set.of()
+        ),
+        new RoutingRequestTransitDataProviderFilter(
+            false, false, false, Set.of(TransitMode.BUS, TransitMode.RAIL), Set.of(TEST_ROUTE_ID)
+        ),
+        new RoutingRequestTransitDataProviderFilter(
+            false, false, false, Set.of(), Set.of()
+        )
+    );
+
+    for (var filter : filters) {
+      BitSet accepted = filter.acceptedTripPatterns(tripPatterns);
+      for (int i = 0; i < tripPatterns.numberOfTripPatterns(); i++) {
+        assertEquals(
+            filter.tripPatternPredicate(
+                tripPatterns.getTripPattern(i).getFirstTripPatternForDate()
+            ),
+            accepted.get(i)
+        );
+      }
+    }
+  }
+
+  private TripPatternForDates createTestTripPatternForDates(FeedScopedId routeId, TransitMode mode) {
+    Route route = new Route(routeId);
+    route.setMode(mode);
+
+    TripPatternWithRaptorStopIndexes tripPattern = new TripPatternWithRaptorStopIndexes(
+        new int[0], new TripPattern(null, route, new StopPattern(List.of()))
+    );
+    TripPatternForDate tripPatternForDate = new TripPatternForDate(
+        tripPattern, List.of(createTestTripTimes()), LocalDate.now()
+    );
+    return new TripPatternForDates(tripPattern, List.of(tripPatternForDate), List.of(0));
+  }
+
   private TripPatternForDate createTestTripPatternForDate() {
     Route route = new Route(TEST_ROUTE_ID);
     route.setMode(TransitMode.BUS);
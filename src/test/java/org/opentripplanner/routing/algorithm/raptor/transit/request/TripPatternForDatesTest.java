@@ -0,0 +1,165 @@
+package org.opentripplanner.routing.algorithm.raptor.transit.request;
+
+import org.junit.Test;
+import org.opentripplanner.model.FeedScopedId;
+import org.opentripplanner.model.Route;
+import org.opentripplanner.model.StopPattern;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.model.TransitMode;
+import org.opentripplanner.model.Trip;
+import org.opentripplanner.model.TripPattern;
+import org.opentripplanner.routing.algorithm.raptor.transit.TripPatternForDate;
+import org.opentripplanner.routing.algorithm.raptor.transit.TripPatternWithRaptorStopIndexes;
+import org.opentripplanner.routing.trippattern.Deduplicator;
+import org.opentripplanner.routing.trippattern.TripTimes;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TripPatternForDatesTest {
+
+  private static final TripPattern TP = new TripPattern(
+          new FeedScopedId("F", "P1"),
+          new Route(new FeedScopedId("F", "L1")),
+          new StopPattern(List.of())
+  );
+
+  static {
+    TP.route.setMode(TransitMode.BUS);
+  }
+
+  @Test
+  public void flattenedTimesMatchTripSchedules() {
+    TripPatternWithRaptorStopIndexes tripPattern = new TripPatternWithId(
+        new FeedScopedId("F", "1"), new int[] { 3, 7 }, TP
+    );
+    List<TripTimes> tripTimes = List.of(createTripTimes("T1", 100), createTripTimes("T2", 900));
+
+    var subject = new TripPatternForDates(
+        tripPattern,
+        List.of(
+            new TripPatternForDate(tripPattern, tripTimes, LocalDate.of(2021, 1, 1)),
+            new TripPatternForDate(tripPattern, tripTimes, LocalDate.of(2021, 1, 2))
+        ),
+        List.of(0, 86400)
+    );
+
+    var timetable = subject.timetable();
+
+    assertEquals(4, timetable.numberOfTripSchedules());
+
+    for (int i = 0; i < timetable.numberOfTripSchedules(); ++i) {
+      var trip = timetable.getTripSchedule(i);
+      for (int s = 0; s < 2; ++s) {
+        assertEquals(trip.arrival(s), timetable.arrivalTime(i, s));
+        assertEquals(trip.departure(s), timetable.departureTime(i, s));
+        assertEquals(trip.arrival(s), timetable.arrivalTimesByStopPosition()[s * 4 + i]);
+        assertEquals(trip.departure(s), timetable.departureTimesByStopPosition()[s * 4 + i]);
+      }
+      // The trip schedule is only created once
+      assertSame(trip, timetable.getTripSchedule(i));
+    }
+    assertEquals(86400 + 900 + 60, timetable.departureTime(3, 0));
+    assertEquals(LocalDate.of(2021, 1, 2), timetable.getTripSchedule(2).getServiceDate());
+  }
+
+  @Test
+  public void newWithFilteredTripTimes() {
+    TripPatternWithRaptorStopIndexes tripPattern = new TripPatternWithId(
+        new FeedScopedId("F", "1"), new int[] { 3, 7 }, TP
+    );
+    TripTimes t1 = createTripTimes("T1", 100);
+    TripTimes t2 = createTripTimes("T2", 900);
+
+    var subject = new TripPatternForDates(
+        tripPattern,
+        List.of(
+            new TripPatternForDate(tripPattern, List.of(t1), LocalDate.of(2021, 1, 1)),
+            new TripPatternForDate(tripPattern, List.of(t1, t2), LocalDate.of(2021, 1, 2))
+        ),
+        List.of(0, 86400)
+    );
+
+    assertSame(subject, subject.newWithFilteredTripTimes(filter(t -> true)));
+    assertNull(subject.newWithFilteredTripTimes(filter(t -> false)));
+
+    var filtered = subject.newWithFilteredTripTimes(filter(t -> t == t2));
+    assertEquals(1, filtered.numberOfTripSchedules());
+    assertEquals(86400 + 960, filtered.timetable().departureTime(0, 0));
+  }
+
+  @Test
+  public void filteredTripTimesAreSharedByKey() {
+    TripPatternWithRaptorStopIndexes tripPattern = new TripPatternWithId(
+        new FeedScopedId("F", "1"), new int[] { 3, 7 }, TP
+    );
+    TripTimes t1 = createTripTimes("T1", 100);
+    TripTimes t2 = createTripTimes("T2", 900);
+
+    var subject = new TripPatternForDates(
+        tripPattern,
+        List.of(new TripPatternForDate(tripPattern, List.of(t1, t2), LocalDate.of(2021, 1, 1))),
+        List.of(0)
+    );
+
+    var filtered = subject.newWithFilteredTripTimes(filter(t -> t == t2, "A"));
+    assertEquals(1, filtered.numberOfTripSchedules());
+    assertSame(filtered, subject.newWithFilteredTripTimes(filter(t -> t == t2, "A")));
+    assertNull(subject.newWithFilteredTripTimes(filter(t -> false, "B")));
+    assertNull(subject.newWithFilteredTripTimes(filter(t -> true, "B")));
+    // Filters without a key are not cached
+    assertNotSame(
+        filtered,
+        subject.newWithFilteredTripTimes(filter(t -> t == t2))
+    );
+  }
+
+  private static TransitDataProviderFilter filter(Predicate<TripTimes> tripTimesFilter) {
+    return filter(tripTimesFilter, null);
+  }
+
+  private static TransitDataProviderFilter filter(
+      Predicate<TripTimes> tripTimesFilter,
+      Object acceptedTripsKey
+  ) {
+    return new TransitDataProviderFilter() {
+      @Override
+      public boolean tripPatternPredicate(TripPatternForDate tripPatternForDate) {
+        return true;
+      }
+
+      @Override
+      public boolean tripTimesPredicate(TripTimes tripTimes) {
+        return tripTimesFilter.test(tripTimes);
+      }
+
+      @Override
+      public Object acceptedTripsKey() {
+        return acceptedTripsKey;
+      }
+    };
+  }
+
+  private static TripTimes createTripTimes(String id, int startTime) {
+    StopTime stopTime1 = new StopTime();
+    StopTime stopTime2 = new StopTime();
+
+    stopTime1.setArrivalTime(startTime);
+    stopTime1.setDepartureTime(startTime + 60);
+    stopTime2.setArrivalTime(startTime + 600);
+    stopTime2.setDepartureTime(startTime + 600);
+
+    return new TripTimes(
+        new Trip(new FeedScopedId("F", id)),
+        Arrays.asList(stopTime1, stopTime2),
+        new Deduplicator()
+    );
+  }
+}
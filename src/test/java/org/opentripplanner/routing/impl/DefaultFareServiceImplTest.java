@@ -0,0 +1,65 @@
+package org.opentripplanner.routing.impl;
+
+import org.junit.Test;
+import org.opentripplanner.model.FareAttribute;
+import org.opentripplanner.model.FeedScopedId;
+import org.opentripplanner.model.Stop;
+import org.opentripplanner.routing.core.Fare.FareType;
+import org.opentripplanner.routing.core.FareRuleSet;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class DefaultFareServiceImplTest {
+
+    private static final String FEED = "F";
+    private static final FeedScopedId ROUTE = new FeedScopedId(FEED, "R1");
+    private static final Stop STOP = Stop.stopForTest("S1", 60.0, 10.0);
+
+    @Test
+    public void transferDurationIsCheckedForEachItinerary() {
+        FareAttribute transfer = attribute("transfer", 1.0f);
+        transfer.setTransferDuration(3600);
+        FareAttribute anyTime = attribute("anyTime", 2.0f);
+
+        DefaultFareServiceImpl subject = new DefaultFareServiceImpl();
+        subject.addFareRules(FareType.regular, List.of(rule(transfer), rule(anyTime)));
+
+        // The sequences match the same memoized rules, the transfer limit depends on the time
+        assertEquals(1.0f, cost(subject, ride("T1", 0, 600), ride("T2", 1800, 2400)), 0.0f);
+        assertEquals(2.0f, cost(subject, ride("T1", 0, 600), ride("T2", 7200, 7800)), 0.0f);
+        assertEquals(1.0f, cost(subject, ride("T1", 0, 600), ride("T2", 1800, 2400)), 0.0f);
+    }
+
+    private static float cost(DefaultFareServiceImpl subject, Ride... rides) {
+        return subject.calculateCost(
+            FareType.regular,
+            List.of(rides),
+            subject.fareRulesPerType.get(FareType.regular)
+        );
+    }
+
+    private static Ride ride(String tripId, long startTime, long endTime) {
+        Ride ride = new Ride();
+        ride.route = ROUTE;
+        ride.trip = new FeedScopedId(FEED, tripId);
+        ride.firstStop = STOP;
+        ride.lastStop = STOP;
+        ride.startTime = startTime;
+        ride.endTime = endTime;
+        return ride;
+    }
+
+    private static FareAttribute attribute(String id, float price) {
+        FareAttribute attribute = new FareAttribute(new FeedScopedId(FEED, id));
+        attribute.setPrice(price);
+        return attribute;
+    }
+
+    private static FareRuleSet rule(FareAttribute attribute) {
+        FareRuleSet rule = new FareRuleSet(attribute);
+        rule.addRoute(ROUTE);
+        return rule;
+    }
+}
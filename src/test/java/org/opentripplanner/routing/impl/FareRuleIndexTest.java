@@ -0,0 +1,133 @@
+package org.opentripplanner.routing.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opentripplanner.model.FareAttribute;
+import org.opentripplanner.model.FeedScopedId;
+import org.opentripplanner.routing.core.FareRuleSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FareRuleIndexTest {
+
+    private static final String FEED = "F";
+    private static final FeedScopedId R1 = new FeedScopedId(FEED, "R1");
+    private static final FeedScopedId R2 = new FeedScopedId(FEED, "R2");
+    private static final FeedScopedId T1 = new FeedScopedId(FEED, "T1");
+
+    private final FareRuleSet zoneAtoB = rule("A-B");
+    private final FareRuleSet fromZoneA = rule("A-*");
+    private final FareRuleSet toZoneA = rule("*-A");
+    private final FareRuleSet containsAB = rule("AB");
+    private final FareRuleSet route1 = rule("R1");
+    private final FareRuleSet routes1And2 = rule("R1,R2");
+    private final FareRuleSet trip1 = rule("T1");
+    private final FareRuleSet anyRide = rule("any");
+    private final FareRuleSet otherFeed = new FareRuleSet(
+        new FareAttribute(new FeedScopedId("X", "other"))
+    );
+
+    private FareRuleIndex subject;
+
+    @Before
+    public void before() {
+        zoneAtoB.addOriginDestination("A", "B");
+        fromZoneA.addOriginDestination("A", null);
+        toZoneA.addOriginDestination(null, "A");
+        containsAB.addContains("A");
+        containsAB.addContains("B");
+        route1.addRoute(R1);
+        routes1And2.addRoute(R1);
+        routes1And2.addRoute(R2);
+        trip1.addTrip(T1);
+
+        subject = new FareRuleIndex(List.of(
+            zoneAtoB, fromZoneA, toZoneA, containsAB, route1, routes1And2, trip1, anyRide, otherFeed
+        ));
+    }
+
+    @Test
+    public void matchOriginDestination() {
+        assertMatches(
+            sequenceOnTrip("A", "B", R2, T1),
+            zoneAtoB, fromZoneA, toZoneA, routes1And2, trip1, anyRide
+        );
+        assertMatches(sequence("B", "A", Set.of(), R2), routes1And2, anyRide);
+    }
+
+    @Test
+    public void matchContainedZones() {
+        assertMatches(sequence("C", "C", Set.of("A", "B"), R2), containsAB, routes1And2, anyRide);
+        assertMatches(sequence("C", "C", Set.of("A"), R2), routes1And2, anyRide);
+    }
+
+    @Test
+    public void matchAllRoutes() {
+        assertMatches(sequence("C", "C", Set.of(), R1), route1, routes1And2, anyRide);
+        assertMatches(sequence("C", "C", Set.of(), R1, R2), routes1And2, anyRide);
+    }
+
+    @Test
+    public void indexIsOnlyValidForTheIndexedRules() {
+        List<FareRuleSet> rules = List.of(anyRide);
+
+        assertTrue(new FareRuleIndex(rules).isIndexOf(rules));
+        assertFalse(new FareRuleIndex(rules).isIndexOf(List.of(anyRide)));
+    }
+
+    @Test
+    public void equalSequencesShareTheMemo() {
+        RideSequence sequence = sequence("A", "B", Set.of(), R1, R2);
+
+        assertSame(
+            subject.matchingAttributes(sequence),
+            subject.matchingAttributes(sequence("A", "B", Set.of(), R2, R1))
+        );
+    }
+
+    private void assertMatches(RideSequence sequence, FareRuleSet... expected) {
+        List<FareAttribute> expectedAttributes = new ArrayList<>();
+        for (FareRuleSet it : expected) {
+            expectedAttributes.add(it.getFareAttribute());
+        }
+        assertEquals(expectedAttributes, subject.matchingAttributes(sequence));
+        // The second lookup is found in the memo
+        assertEquals(expectedAttributes, subject.matchingAttributes(sequence));
+    }
+
+    private static RideSequence sequence(
+            String startZone,
+            String endZone,
+            Set<String> zones,
+            FeedScopedId... routes
+    ) {
+        return new RideSequence(
+            FEED, startZone, endZone, zones, routes[0], Set.of(routes),
+            new FeedScopedId(FEED, "T9"), Set.of(new FeedScopedId(FEED, "T9"))
+        );
+    }
+
+    private static RideSequence sequenceOnTrip(
+            String startZone,
+            String endZone,
+            FeedScopedId route,
+            FeedScopedId trip
+    ) {
+        return new RideSequence(
+            FEED, startZone, endZone, Set.of(), route, Set.of(route), trip, Set.of(trip)
+        );
+    }
+
+    private static FareRuleSet rule(String id) {
+        FareAttribute attribute = new FareAttribute(new FeedScopedId(FEED, id));
+        attribute.setPrice(1.0f);
+        return new FareRuleSet(attribute);
+    }
+}
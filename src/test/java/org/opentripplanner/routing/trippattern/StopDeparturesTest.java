@@ -0,0 +1,76 @@
+package org.opentripplanner.routing.trippattern;
+
+import org.junit.Test;
+import org.opentripplanner.model.FeedScopedId;
+import org.opentripplanner.model.Stop;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.model.Trip;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class StopDeparturesTest {
+
+    private static final Deduplicator DEDUPLICATOR = new Deduplicator();
+
+    // Trips are not in departure order, trip 1 is delayed passed trip 2 at the second stop
+    private final List<TripTimes> tripTimes = List.of(
+        tripTimes("T0", 600, 660),
+        tripTimes("T1", 300, 900),
+        tripTimes("T2", 120, 800)
+    );
+
+    @Test
+    public void departuresAreSortedOnDepartureTime() {
+        StopDepartures subject = StopDepartures.create(tripTimes, 1);
+
+        assertEquals(3, subject.size());
+        assertEquals(660, subject.departureTime(0));
+        assertEquals(0, subject.tripIndex(0));
+        assertEquals(800, subject.departureTime(1));
+        assertEquals(2, subject.tripIndex(1));
+        assertEquals(900, subject.departureTime(2));
+        assertEquals(1, subject.tripIndex(2));
+    }
+
+    @Test
+    public void findFirstDepartureAtOrAfter() {
+        StopDepartures subject = StopDepartures.create(tripTimes, 0);
+
+        assertEquals(0, subject.findFirstDepartureAtOrAfter(0));
+        assertEquals(0, subject.findFirstDepartureAtOrAfter(120));
+        assertEquals(1, subject.findFirstDepartureAtOrAfter(121));
+        assertEquals(2, subject.findFirstDepartureAtOrAfter(600));
+        assertEquals(3, subject.findFirstDepartureAtOrAfter(601));
+    }
+
+    @Test
+    public void tripsWithoutDepartureAreNotIncluded() {
+        TripTimes passed = new TripTimes(tripTimes.get(1));
+        passed.updateDepartureTime(0, TripTimes.UNAVAILABLE);
+
+        StopDepartures subject = StopDepartures.create(
+            List.of(tripTimes.get(0), passed, tripTimes.get(2)), 0
+        );
+
+        assertEquals(2, subject.size());
+        assertEquals(2, subject.tripIndex(0));
+        assertEquals(0, subject.tripIndex(1));
+    }
+
+    private static TripTimes tripTimes(String tripId, int... departureTimes) {
+        List<StopTime> stopTimes = new ArrayList<>();
+
+        for (int i = 0; i < departureTimes.length; ++i) {
+            StopTime stopTime = new StopTime();
+            stopTime.setStop(Stop.stopForTest("S" + i, 0.0, 0.0));
+            stopTime.setArrivalTime(departureTimes[i]);
+            stopTime.setDepartureTime(departureTimes[i]);
+            stopTime.setStopSequence(i);
+            stopTimes.add(stopTime);
+        }
+        return new TripTimes(new Trip(new FeedScopedId("F", tripId)), stopTimes, DEDUPLICATOR);
+    }
+}
@@ -0,0 +1,49 @@
+package org.opentripplanner.standalone.config.sandbox;
+
+import com.fasterxml.jackson.databind.node.MissingNode;
+import org.junit.Test;
+import org.opentripplanner.ext.flex.FlexParameters;
+import org.opentripplanner.standalone.config.NodeAdapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.opentripplanner.standalone.config.JsonSupport.jsonNodeForTest;
+
+public class FlexConfigTest {
+
+    @Test
+    public void missingConfigReturnsDefault() {
+        assertSame(
+            FlexParameters.DEFAULT,
+            FlexConfig.create(new NodeAdapter(MissingNode.getInstance(), "Test"))
+        );
+    }
+
+    @Test
+    public void parseParameters() {
+        FlexParameters subject = FlexConfig.create(new NodeAdapter(
+            jsonNodeForTest(
+                "{ 'streetPathCacheMaxVertices' : 1000, 'prefillStreetPathCache' : true }"
+            ),
+            "Test"
+        ));
+
+        assertEquals(1000, subject.streetPathCacheMaxVertices());
+        assertTrue(subject.prefillStreetPathCache());
+    }
+
+    @Test
+    public void parametersNotSetUseDefaultValues() {
+        FlexParameters subject = FlexConfig.create(new NodeAdapter(
+            jsonNodeForTest("{ 'prefillStreetPathCache' : true }"),
+            "Test"
+        ));
+
+        assertEquals(
+            FlexParameters.DEFAULT.streetPathCacheMaxVertices(),
+            subject.streetPathCacheMaxVertices()
+        );
+        assertTrue(subject.prefillStreetPathCache());
+    }
+}
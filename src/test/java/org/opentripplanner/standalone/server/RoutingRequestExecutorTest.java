@@ -0,0 +1,122 @@
+package org.opentripplanner.standalone.server;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class RoutingRequestExecutorTest {
+
+    private static final int TIMEOUT_MS = 5000;
+
+    private final CountDownLatch blocker = new CountDownLatch(1);
+    private RoutingRequestExecutor subject;
+
+    @After
+    public void tearDown() {
+        blocker.countDown();
+        subject.shutdown();
+    }
+
+    @Test
+    public void resumeWithResult() {
+        subject = new RoutingRequestExecutor(1, 1, TIMEOUT_MS);
+        AsyncResponse response = mock(AsyncResponse.class);
+
+        subject.execute(response, () -> "OK");
+
+        verify(response, timeout(TIMEOUT_MS)).resume((Object) "OK");
+        assertEquals(1, subject.getStatistics().getStarted());
+    }
+
+    @Test
+    public void rejectWhenQueueIsFull() {
+        subject = new RoutingRequestExecutor(1, 1, TIMEOUT_MS);
+        AsyncResponse running = mock(AsyncResponse.class);
+        AsyncResponse queued = mock(AsyncResponse.class);
+        AsyncResponse rejected = mock(AsyncResponse.class);
+
+        subject.execute(running, this::block);
+        subject.execute(queued, () -> "OK");
+        subject.execute(rejected, () -> "OK");
+
+        assertEquals(503, resumedStatus(rejected));
+        assertEquals(1, subject.getStatistics().getRejected());
+
+        blocker.countDown();
+        verify(queued, timeout(TIMEOUT_MS)).resume((Object) "OK");
+    }
+
+    @Test
+    public void rejectWhenWaitingTooLong() throws InterruptedException {
+        subject = new RoutingRequestExecutor(1, 1, 1);
+        AsyncResponse running = mock(AsyncResponse.class);
+        AsyncResponse expired = mock(AsyncResponse.class);
+
+        subject.execute(running, this::block);
+        subject.execute(expired, () -> "OK");
+        Thread.sleep(20);
+        blocker.countDown();
+
+        assertEquals(503, resumedStatus(expired));
+        assertEquals(1, subject.getStatistics().getExpired());
+    }
+
+    @Test
+    public void resumeWithInternalServerErrorOnError() {
+        subject = new RoutingRequestExecutor(1, 1, TIMEOUT_MS);
+        AsyncResponse response = mock(AsyncResponse.class);
+
+        subject.execute(response, () -> { throw new StackOverflowError(); });
+
+        assertEquals(500, resumedStatus(response));
+    }
+
+    @Test
+    public void resumeQueuedRequestsWithServiceUnavailableOnShutdown() throws InterruptedException {
+        subject = new RoutingRequestExecutor(1, 1, TIMEOUT_MS);
+        AsyncResponse running = mock(AsyncResponse.class);
+        AsyncResponse queued = mock(AsyncResponse.class);
+        AsyncResponse rejected = mock(AsyncResponse.class);
+
+        subject.execute(running, this::block);
+        subject.execute(queued, () -> "OK");
+
+        // The shutdown waits for the running request
+        Thread shutdown = new Thread(subject::shutdown);
+        shutdown.start();
+
+        assertEquals(503, resumedStatus(queued));
+
+        blocker.countDown();
+        shutdown.join(TIMEOUT_MS);
+        verify(running, timeout(TIMEOUT_MS)).resume((Object) "BLOCKED");
+
+        subject.execute(rejected, () -> "OK");
+        assertEquals(503, resumedStatus(rejected));
+    }
+
+    private Object block() {
+        try {
+            blocker.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "BLOCKED";
+    }
+
+    private static int resumedStatus(AsyncResponse response) {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(response, timeout(TIMEOUT_MS)).resume(captor.capture());
+        return ((Response) captor.getValue()).getStatus();
+    }
+}
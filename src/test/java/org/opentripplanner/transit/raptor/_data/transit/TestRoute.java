@@ -4,6 +4,7 @@ package org.opentripplanner.transit.raptor._data.transit;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.ToIntBiFunction;
 import org.opentripplanner.model.base.ToStringBuilder;
 import org.opentripplanner.transit.raptor.api.transit.RaptorGuaranteedTransferProvider;
 import org.opentripplanner.transit.raptor.api.transit.RaptorRoute;
@@ -16,6 +17,7 @@ public class TestRoute implements RaptorRoute<TestTripSchedule>, RaptorTimeTable
     private final List<TestTripSchedule> schedules = new ArrayList<>();
     private final TestTransferProvider transfersFrom = new TestTransferProvider();
     private final TestTransferProvider transfersTo = new TestTransferProvider();
+    private boolean stopMajorIndex = false;
 
 
     private TestRoute(TestTripPattern pattern) {
@@ -40,6 +42,16 @@ public class TestRoute implements RaptorRoute<TestTripSchedule>, RaptorTimeTable
         return schedules.size();
     }
 
+    @Override
+    public int[] arrivalTimesByStopPosition() {
+        return stopMajorIndex ? timesByStopPosition(TestTripSchedule::arrival) : null;
+    }
+
+    @Override
+    public int[] departureTimesByStopPosition() {
+        return stopMajorIndex ? timesByStopPosition(TestTripSchedule::departure) : null;
+    }
+
     @Override
     public RaptorTimeTable<TestTripSchedule> timetable() {
         return this;
@@ -73,6 +85,15 @@ public class TestRoute implements RaptorRoute<TestTripSchedule>, RaptorTimeTable
         return this;
     }
 
+    /**
+     * Provide the stop-major index of times to Raptor, by default the index is not supported.
+     * All trips must have the same number of stops.
+     */
+    public TestRoute withStopMajorIndex() {
+        this.stopMajorIndex = true;
+        return this;
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.of(TestRoute.class)
@@ -107,4 +128,17 @@ public class TestRoute implements RaptorRoute<TestTripSchedule>, RaptorTimeTable
                 fromTrip, fromStopPos, toTrip, toTripIndex, toStopPos, toTime
         );
     }
+
+    private int[] timesByStopPosition(ToIntBiFunction<TestTripSchedule, Integer> time) {
+        int nTrips = schedules.size();
+        int nStops = nTrips == 0 ? 0 : schedules.get(0).size();
+        int[] times = new int[nTrips * nStops];
+
+        for (int s = 0; s < nStops; ++s) {
+            for (int t = 0; t < nTrips; ++t) {
+                times[s * nTrips + t] = time.applyAsInt(schedules.get(t), s);
+            }
+        }
+        return times;
+    }
 }
@@ -0,0 +1,168 @@
+package org.opentripplanner.transit.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.opentripplanner.transit.raptor._data.api.PathUtils.pathsToString;
+import static org.opentripplanner.transit.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.transit.raptor._data.transit.TestTransfer.walk;
+import static org.opentripplanner.transit.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.transit.raptor._data.transit.TestTripSchedule.schedule;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.transit.raptor.RaptorService;
+import org.opentripplanner.transit.raptor._data.RaptorTestConstants;
+import org.opentripplanner.transit.raptor._data.transit.TestTransitData;
+import org.opentripplanner.transit.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.transit.raptor.api.request.RaptorProfile;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.transit.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransitDataProvider;
+import org.opentripplanner.transit.raptor.api.view.Heuristics;
+import org.opentripplanner.transit.raptor.api.view.Worker;
+import org.opentripplanner.transit.raptor.rangeraptor.configure.RaptorConfig;
+import org.opentripplanner.transit.raptor.util.StopArrays;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * Raptor should return the same paths when the multi-criteria search-window is split in slices
+ * and searched in parallel, as when the search is done in one thread.
+ */
+public class G01_ParallelMcSearchTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final RaptorConfig<TestTripSchedule> parallelConfig = new RaptorConfig<>(
+      new RaptorTuningParameters() {
+        @Override public int searchThreadPoolSize() { return 3; }
+        @Override public int searchWindowSliceMinutes() { return 10; }
+      }
+  );
+
+  /**
+   * Stops: 0..4
+   *
+   * Stop on route (stop indexes):
+   *   R1:  1 - 2 - 3
+   *   R2:  1 - 3
+   *
+   * Schedule:
+   *   R1: 00:05 - 00:10 - 00:20  (every 10 minutes)
+   *   R2: 00:12 - 00:18          (every 20 minutes)
+   *
+   * Access (toStop & duration):
+   *   1  30s
+   *
+   * Egress (fromStop & duration):
+   *   3  20s
+   */
+  @BeforeEach
+  public void setup() {
+    data.withRoute(
+        route(pattern("R1", STOP_A, STOP_B, STOP_C))
+            .withTimetable(
+                schedule("00:05, 00:10, 00:20"),
+                schedule("00:15, 00:20, 00:30"),
+                schedule("00:25, 00:30, 00:40"),
+                schedule("00:35, 00:40, 00:50"),
+                schedule("00:45, 00:50, 01:00"),
+                schedule("00:55, 01:00, 01:10")
+            )
+    );
+    data.withRoute(
+        route(pattern("R2", STOP_A, STOP_C))
+            .withTimetable(
+                schedule("00:12, 00:18"),
+                schedule("00:32, 00:38"),
+                schedule("00:52, 00:58")
+            )
+    );
+    requestBuilder.searchParams()
+        .addAccessPaths(walk(STOP_A, D30s))
+        .addEgressPaths(walk(STOP_C, D20s))
+        .earliestDepartureTime(T00_00)
+        .searchWindowInSeconds(T01_00)
+        .timetableEnabled(true);
+
+    ModuleTestDebugLogging.setupDebugLogging(data, requestBuilder);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    parallelConfig.shutdown();
+  }
+
+  @Test
+  public void multiCriteria() {
+    var request = requestBuilder
+        .profile(RaptorProfile.MULTI_CRITERIA)
+        .build();
+
+    var expected = new RaptorService<>(RaptorConfig.<TestTripSchedule>defaultConfigForTest())
+        .route(request, data);
+    var response = new RaptorService<>(parallelConfig).route(request, data);
+
+    assertEquals(pathsToString(expected), pathsToString(response));
+  }
+
+  @Test
+  public void stopArraysAreNotReturnedToThePoolIfTheSliceInTheCallingThreadFails() {
+    var request = requestBuilder
+        .profile(RaptorProfile.MULTI_CRITERIA)
+        .build();
+
+    var config = new FailInCallingThreadConfig(Thread.currentThread());
+
+    try {
+      assertThrows(
+          IllegalStateException.class,
+          () -> new RaptorService<>(config).route(request, data)
+      );
+      // The other slices may still be using the arrays
+      assertEquals(0, config.stopArraysPool().size());
+    }
+    finally {
+      config.shutdown();
+    }
+  }
+
+  /**
+   * The multi-criteria worker run in the given thread fails after it has taken its stop arrays.
+   */
+  private static class FailInCallingThreadConfig extends RaptorConfig<TestTripSchedule> {
+
+    private final Thread callingThread;
+
+    FailInCallingThreadConfig(Thread callingThread) {
+      super(
+          new RaptorTuningParameters() {
+            @Override public int searchThreadPoolSize() { return 3; }
+            @Override public int searchWindowSliceMinutes() { return 10; }
+            @Override public int stopArraysPoolSize() { return 100; }
+          }
+      );
+      this.callingThread = callingThread;
+    }
+
+    @Override
+    public Worker<TestTripSchedule> createMcWorker(
+        RaptorTransitDataProvider<TestTripSchedule> transitData,
+        RaptorRequest<TestTripSchedule> request,
+        Heuristics heuristics,
+        StopArrays stopArrays
+    ) {
+      Worker<TestTripSchedule> worker = super.createMcWorker(
+          transitData, request, heuristics, stopArrays
+      );
+      if (Thread.currentThread() != callingThread) {
+        return worker;
+      }
+      return () -> {
+        throw new IllegalStateException("Slice failed");
+      };
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package org.opentripplanner.transit.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.transit.raptor._data.api.PathUtils.pathsToString;
+import static org.opentripplanner.transit.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.transit.raptor._data.transit.TestTransfer.walk;
+import static org.opentripplanner.transit.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.transit.raptor._data.transit.TestTripSchedule.schedule;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.transit.raptor.RaptorService;
+import org.opentripplanner.transit.raptor._data.RaptorTestConstants;
+import org.opentripplanner.transit.raptor._data.transit.TestTransitData;
+import org.opentripplanner.transit.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.transit.raptor.api.request.Optimization;
+import org.opentripplanner.transit.raptor.api.request.RaptorProfile;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.transit.raptor.rangeraptor.configure.RaptorConfig;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * Raptor should return the same paths with the
+ * {@link Optimization#STOP_ARRIVAL_ARENA} enabled, as without it.
+ */
+public class G02_StopArrivalArenaTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final RaptorService<TestTripSchedule> raptorService = new RaptorService<>(
+      RaptorConfig.defaultConfigForTest()
+  );
+
+  /**
+   * Stops: 0..5
+   *
+   * Stop on route (stop indexes):
+   *   R1:  1 - 2 - 3
+   *   R2:  4 - 5
+   *   R3:  1 - 5
+   *
+   * Transfers:
+   *   2 -> 4  1m
+   *   3 -> 4  30s
+   *
+   * Access (toStop & duration):
+   *   1  30s
+   *
+   * Egress (fromStop & duration):
+   *   5  20s
+   */
+  @BeforeEach
+  public void setup() {
+    data.withRoutes(
+        route(pattern("R1", STOP_A, STOP_B, STOP_C))
+            .withTimetable(
+                schedule("00:02, 00:05, 00:10"),
+                schedule("00:12, 00:15, 00:20"),
+                schedule("00:22, 00:25, 00:30")
+            ),
+        route(pattern("R2", STOP_D, STOP_E))
+            .withTimetable(
+                schedule("00:08, 00:16"),
+                schedule("00:13, 00:21"),
+                schedule("00:18, 00:26"),
+                schedule("00:28, 00:36")
+            ),
+        route(pattern("R3", STOP_A, STOP_E))
+            .withTimetable(
+                schedule("00:04, 00:30"),
+                schedule("00:24, 00:40")
+            )
+    );
+    data.withTransfer(STOP_B, walk(STOP_D, D1m));
+    data.withTransfer(STOP_C, walk(STOP_D, D30s));
+
+    requestBuilder.searchParams()
+        .addAccessPaths(walk(STOP_A, D30s))
+        .addEgressPaths(walk(STOP_E, D20s))
+        .earliestDepartureTime(T00_00)
+        .latestArrivalTime(T01_00)
+        .searchWindowInSeconds(T00_30)
+        .timetableEnabled(true);
+
+    ModuleTestDebugLogging.setupDebugLogging(data, requestBuilder);
+  }
+
+  @Test
+  public void multiCriteria() {
+    var expected = raptorService.route(
+        requestBuilder.profile(RaptorProfile.MULTI_CRITERIA).build(),
+        data
+    );
+
+    var response = raptorService.route(
+        requestBuilder
+            .profile(RaptorProfile.MULTI_CRITERIA)
+            .enableOptimization(Optimization.STOP_ARRIVAL_ARENA)
+            .build(),
+        data
+    );
+
+    assertEquals(pathsToString(expected), pathsToString(response));
+  }
+}
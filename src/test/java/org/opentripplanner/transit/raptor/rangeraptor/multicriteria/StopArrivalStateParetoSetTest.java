@@ -3,6 +3,7 @@ package org.opentripplanner.transit.raptor.rangeraptor.multicriteria;
 import static org.opentripplanner.transit.raptor._data.transit.TestTransfer.walk;
 
 import java.util.Arrays;
+import java.util.List;
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
@@ -103,6 +104,29 @@ public class StopArrivalStateParetoSetTest {
         assertStopsInSet(STOP_1, STOP_4);
     }
 
+    @Test
+    public void qualifyWithPrimitiveCriteriaIsSameAsQualifyElement() {
+        subject.add(newTransferStopState(ROUND_1, STOP_1, 10, 20));
+        subject.add(newTransferStopState(ROUND_2, STOP_2, 8, 20));
+
+        List<AbstractStopArrival<RaptorTripSchedule>> candidates = List.of(
+            newTransferStopState(ROUND_1, STOP_3, 10, 20),
+            newTransferStopState(ROUND_1, STOP_3, 9, 20),
+            newTransferStopState(ROUND_1, STOP_3, 11, 20),
+            newTransferStopState(ROUND_2, STOP_3, 8, 19),
+            newTransferStopState(ROUND_3, STOP_3, 8, 20),
+            newTransferStopState(ROUND_3, STOP_3, 7, 30)
+        );
+
+        for (AbstractStopArrival<RaptorTripSchedule> it : candidates) {
+            Assert.assertEquals(
+                it.toString(),
+                subject.qualify(it),
+                subject.qualify(it.arrivalTime(), it.paretoRound(), it.cost())
+            );
+        }
+    }
+
     private void assertStopsInSet(int ... expStopIndexes) {
         int[] result = subject.stream().mapToInt(AbstractStopArrival::stop).sorted().toArray();
         Assert.assertEquals("Stop indexes", Arrays.toString(expStopIndexes), Arrays.toString(result));
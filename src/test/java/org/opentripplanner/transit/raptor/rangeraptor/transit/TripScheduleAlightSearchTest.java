@@ -216,6 +216,23 @@ public class TripScheduleAlightSearchTest implements RaptorTestConstants {
                 .withAlightTime(TIME_A2);
     }
 
+    @Test
+    public void alightTripsUsingTheStopMajorIndex() {
+        useRoute(TestRoute.route(pattern).withTimetable(tripA, tripB, tripC).withStopMajorIndex());
+
+        searchForTrip(TIME_LATE, STOP_POS_0)
+                .assertTripFound()
+                .withIndex(TRIP_C)
+                .withAlightTime(TIME_C1);
+
+        searchForTrip(TIME_B2, STOP_POS_1)
+                .assertTripFound()
+                .withIndex(TRIP_B)
+                .withAlightTime(TIME_B2);
+
+        searchForTrip(TIME_A2 - 1, STOP_POS_1).assertNoTripFound();
+    }
+
     private void withTrips(TestTripSchedule... schedules) {
         useRoute(TestRoute.route(pattern).withTimetable(schedules));
     }
@@ -187,6 +187,24 @@ public class TripScheduleBoardSearchTest implements RaptorTestConstants {
         }
     }
 
+    @Test
+    public void boardTripsUsingTheStopMajorIndex() {
+        var tripC = route.timetable().getTripSchedule(TRIP_C);
+        useTripPattern(TestRoute.route(pattern).withTimetable(tripA, tripB, tripC).withStopMajorIndex());
+
+        searchForTrip(TIME_0, STOP_POS_0)
+                .assertTripFound()
+                .withIndex(TRIP_A)
+                .withBoardTime(TIME_A1);
+
+        searchForTrip(TIME_A2 + 1, STOP_POS_1)
+                .assertTripFound()
+                .withIndex(TRIP_B)
+                .withBoardTime(TIME_B2);
+
+        searchForTrip(TIME_C2 + 1, STOP_POS_1).assertNoTripFound();
+    }
+
     private void withTrips(TestTripSchedule... schedules) {
         useTripPattern(TestRoute.route(pattern).withTimetable(schedules));
     }
@@ -74,6 +74,7 @@ public class SpeedTest {
      * Init profile used by the HttpServer
      */
     private final RaptorService<TripSchedule> service;
+    private final RaptorConfig<TripSchedule> raptorConfig;
 
 
     private SpeedTest(SpeedTestCmdLineOpts opts) {
@@ -83,7 +84,8 @@ public class SpeedTest {
         this.transitLayer = TransitLayerMapper.map(config.transitRoutingParams, graph);
         this.streetRouter = new EgressAccessRouter(graph, transitLayer);
         this.nAdditionalTransfers = opts.numOfExtraTransfers();
-        this.service = new RaptorService<>(new RaptorConfig<>(config.transitRoutingParams));
+        this.raptorConfig = new RaptorConfig<>(config.transitRoutingParams);
+        this.service = new RaptorService<>(raptorConfig);
     }
 
     public static void main(String[] args) {
@@ -130,6 +132,7 @@ public class SpeedTest {
             runSingleTest(i+1, nSamples);
         }
         printProfileStatistics();
+        System.err.println("\nStop arrays pool: " + raptorConfig.stopArraysPool());
 
         service.shutdown();
         System.err.println("\nSpeedTest done! " + projectInfo().getVersionString());
@@ -70,6 +70,14 @@ public enum SpeedTestProfile {
             RaptorProfile.MULTI_CRITERIA,
             SearchDirection.FORWARD,
             Optimization.PARETO_CHECK_AGAINST_DESTINATION
+    ),
+    mc_stop_arrival_arena(
+            "ma",
+            "Multi-Criteria Range Raptor with check on destination arrival and stop arrival arena.",
+            RaptorProfile.MULTI_CRITERIA,
+            SearchDirection.FORWARD,
+            Optimization.PARETO_CHECK_AGAINST_DESTINATION,
+            Optimization.STOP_ARRIVAL_ARENA
     );
 
     final String shortName;
@@ -0,0 +1,131 @@
+package org.opentripplanner.transit.raptor.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class StopArraysPoolTest {
+
+    @Test
+    public void arraysAreReusedAndResetAfterTheLeaseIsClosed() {
+        StopArraysPool subject = new StopArraysPool(10);
+
+        int[] a;
+        BitSet b;
+        String[] c;
+
+        try (StopArrays lease = subject.newLease()) {
+            a = lease.intArray(3, 7);
+            b = lease.bitSet(3);
+            c = lease.objectArray(String.class, 3);
+            a[1] = 1;
+            b.set(2);
+            c[0] = "A";
+        }
+        assertEquals(3, subject.misses());
+
+        try (StopArrays lease = subject.newLease()) {
+            assertSame(a, lease.intArray(3, 7));
+            assertSame(b, lease.bitSet(3));
+            assertSame(c, lease.objectArray(String.class, 3));
+        }
+        assertEquals(3, subject.hits());
+        assertEquals(7, a[1]);
+        assertTrue(b.isEmpty());
+        assertNull(c[0]);
+    }
+
+    @Test
+    public void onlyDirtyStopsAreResetIfTracked() {
+        StopArraysPool subject = new StopArraysPool(10);
+
+        int[] a;
+        String[] b;
+
+        try (StopArrays lease = subject.newLease()) {
+            BitSet dirtyStops = lease.bitSet(3);
+            a = lease.intArray(3, 7, dirtyStops);
+            b = lease.objectArray(String.class, 3, dirtyStops);
+            a[1] = 1;
+            b[2] = "B";
+            dirtyStops.set(1);
+            dirtyStops.set(2);
+        }
+
+        assertEquals("[7, 7, 7]", Arrays.toString(a));
+        assertEquals("[null, null, null]", Arrays.toString(b));
+
+        try (StopArrays lease = subject.newLease()) {
+            assertTrue(lease.bitSet(3).isEmpty());
+            assertSame(a, lease.intArray(3, 7));
+            assertSame(b, lease.objectArray(String.class, 3));
+        }
+    }
+
+    @Test
+    public void intArraysArePooledByInitialValue() {
+        StopArraysPool subject = new StopArraysPool(10);
+        int[] a;
+
+        try (StopArrays lease = subject.newLease()) {
+            a = lease.intArray(3, 7);
+        }
+        try (StopArrays lease = subject.newLease()) {
+            assertNotSame(a, lease.intArray(3, 5));
+            assertSame(a, lease.intArray(3, 7));
+        }
+    }
+
+    @Test
+    public void arraysWithAnotherSizeAreNotReused() {
+        StopArraysPool subject = new StopArraysPool(10);
+        int[] a;
+
+        try (StopArrays lease = subject.newLease()) {
+            a = lease.intArray(3, 0);
+        }
+        try (StopArrays lease = subject.newLease()) {
+            assertNotSame(a, lease.intArray(4, 0));
+        }
+        assertEquals(0, subject.hits());
+        assertEquals(2, subject.misses());
+    }
+
+    @Test
+    public void abandonedArraysAreNotReused() {
+        StopArraysPool subject = new StopArraysPool(10);
+        int[] a;
+
+        try (StopArrays lease = subject.newLease()) {
+            a = lease.intArray(3, 0);
+            lease.abandon();
+        }
+        try (StopArrays lease = subject.newLease()) {
+            assertNotSame(a, lease.intArray(3, 0));
+        }
+        assertEquals(0, subject.hits());
+    }
+
+    @Test
+    public void poolIsBounded() {
+        StopArraysPool subject = new StopArraysPool(1);
+
+        try (StopArrays lease = subject.newLease()) {
+            lease.intArray(3, 0);
+            lease.intArray(3, 0);
+        }
+        try (StopArrays lease = subject.newLease()) {
+            lease.intArray(3, 0);
+            lease.intArray(3, 0);
+        }
+        assertEquals(1, subject.hits());
+        assertEquals(3, subject.misses());
+    }
+}
@@ -0,0 +1,102 @@
+package org.opentripplanner.updater.stoptime;
+
+import com.google.transit.realtime.GtfsRealtime.TripDescriptor;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate.StopTimeEvent;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate.StopTimeUpdate;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DifferentialTripUpdateFilterTest {
+
+    private final DifferentialTripUpdateFilter subject = new DifferentialTripUpdateFilter();
+
+    @Test
+    public void firstMessageIsAppliedInFull() {
+        List<TripUpdate> updates = List.of(update("A", 60), update("B", 0));
+
+        assertEquals(updates, subject.filter(updates, true));
+        assertTrue(subject.isFullDataset());
+        assertEquals(2, subject.getAppliedUpdates());
+        assertEquals(0, subject.getSkippedUpdates());
+    }
+
+    @Test
+    public void unchangedUpdatesAreSkipped() {
+        subject.filter(List.of(update("A", 60), update("B", 0)), true);
+        subject.commit();
+
+        // The timestamp is not part of the fingerprint
+        TripUpdate newA = update("A", 60).toBuilder().setTimestamp(1000).build();
+        TripUpdate changedB = update("B", 120);
+        TripUpdate addedC = update("C", 0);
+
+        assertEquals(
+            List.of(changedB, addedC),
+            subject.filter(List.of(newA, changedB, addedC), true)
+        );
+        assertFalse(subject.isFullDataset());
+        assertEquals(4, subject.getAppliedUpdates());
+        assertEquals(1, subject.getSkippedUpdates());
+        subject.commit();
+
+        // Nothing changed
+        assertEquals(List.of(), subject.filter(List.of(newA, changedB, addedC), true));
+        assertFalse(subject.isFullDataset());
+    }
+
+    @Test
+    public void removedTripAppliesAllUpdates() {
+        subject.filter(List.of(update("A", 60), update("B", 0)), true);
+        subject.commit();
+
+        List<TripUpdate> updates = List.of(update("A", 60), update("C", 0));
+
+        assertEquals(updates, subject.filter(updates, true));
+        assertTrue(subject.isFullDataset());
+    }
+
+    @Test
+    public void differentialMessageResetsTheFingerprints() {
+        List<TripUpdate> updates = List.of(update("A", 60));
+        subject.filter(updates, true);
+        subject.commit();
+
+        assertEquals(updates, subject.filter(updates, false));
+        assertFalse(subject.isFullDataset());
+        subject.commit();
+
+        assertEquals(updates, subject.filter(updates, true));
+        assertTrue(subject.isFullDataset());
+    }
+
+    @Test
+    public void updatesNotCommittedAreAppliedAgain() {
+        List<TripUpdate> updates = List.of(update("A", 60), update("B", 0));
+        subject.filter(updates, true);
+        subject.commit();
+
+        // The next message fails to be applied, so it is not committed
+        List<TripUpdate> changed = List.of(update("A", 60), update("B", 120));
+        assertEquals(List.of(update("B", 120)), subject.filter(changed, true));
+
+        assertEquals(changed, subject.filter(changed, true));
+        assertTrue(subject.isFullDataset());
+    }
+
+    private static TripUpdate update(String tripId, int delay) {
+        return TripUpdate.newBuilder()
+            .setTrip(TripDescriptor.newBuilder().setTripId(tripId).setStartDate("20210101"))
+            .addStopTimeUpdate(
+                StopTimeUpdate.newBuilder()
+                    .setStopSequence(1)
+                    .setArrival(StopTimeEvent.newBuilder().setDelay(delay))
+            )
+            .build();
+    }
+}
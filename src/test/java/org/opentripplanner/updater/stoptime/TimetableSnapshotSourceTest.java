@@ -32,6 +32,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.opentripplanner.gtfs.GtfsContextBuilder.contextBuilder;
@@ -105,6 +106,29 @@ public class TimetableSnapshotSourceTest {
         assertNotSame(snapshot, newSnapshot);
     }
 
+    @Test
+    public void testLastBatchStatistics() throws InvalidProtocolBufferException {
+        assertNull(updater.getLastBatchStatistics());
+
+        final TripUpdate missingTrip = TripUpdate.newBuilder().setTrip(
+                TripDescriptor.newBuilder().setTripId("unknown")
+        ).addStopTimeUpdate(StopTimeUpdate.newBuilder().setStopSequence(1)).build();
+
+        updater.applyTripUpdates(
+                graph,
+                fullDataset,
+                Arrays.asList(TripUpdate.parseFrom(cancellation), missingTrip),
+                feedId
+        );
+
+        final TripUpdateBatchStatistics statistics = updater.getLastBatchStatistics();
+        assertEquals(2, statistics.getUpdates());
+        assertEquals(1, statistics.getApplied());
+        assertTrue(statistics.getPrepareMs() >= 0);
+        assertTrue(statistics.getApplyMs() >= 0);
+        assertTrue(statistics.getSnapshotMs() >= 0);
+    }
+
     @Test
     public void testHandleCanceledTrip() throws InvalidProtocolBufferException {
         final FeedScopedId tripId = new FeedScopedId(feedId, "1.1");
@@ -182,6 +206,45 @@ public class TimetableSnapshotSourceTest {
         assertEquals(RealTimeState.SCHEDULED, forToday.getTripTimes(tripIndex2).getRealTimeState());
     }
 
+    @Test
+    public void testUpdatesOfTheSameTripInOneBatchAreAppliedInOrder()
+            throws InvalidProtocolBufferException {
+        final FeedScopedId tripId = new FeedScopedId(feedId, "1.1");
+        final Trip trip = graph.index.getTripForId().get(tripId);
+        final TripPattern pattern = graph.index.getPatternForTrip().get(trip);
+        final int tripIndex = pattern.scheduledTimetable.getTripIndex(tripId);
+
+        // The trip is canceled, and then delayed by a later update in the same batch
+        updater.applyTripUpdates(
+                graph,
+                fullDataset,
+                Arrays.asList(TripUpdate.parseFrom(cancellation), delayedTripUpdate("1.1", 1)),
+                feedId
+        );
+
+        final TripTimes tripTimes = updater.getTimetableSnapshot()
+                .resolve(pattern, serviceDate)
+                .getTripTimes(tripIndex);
+        assertEquals(RealTimeState.UPDATED, tripTimes.getRealTimeState());
+        assertEquals(1, tripTimes.getDepartureDelay(1));
+
+        // The same result as when the updates are applied in two batches
+        final TimetableSnapshotSource twoBatches = new TimetableSnapshotSource(graph);
+        twoBatches.applyTripUpdates(
+                graph, fullDataset, Arrays.asList(TripUpdate.parseFrom(cancellation)), feedId
+        );
+        twoBatches.applyTripUpdates(
+                graph, fullDataset, Arrays.asList(delayedTripUpdate("1.1", 1)), feedId
+        );
+
+        final TripTimes expected = twoBatches.getTimetableSnapshot()
+                .resolve(pattern, serviceDate)
+                .getTripTimes(tripIndex);
+        assertEquals(expected.getRealTimeState(), tripTimes.getRealTimeState());
+        assertEquals(expected.getDepartureDelay(1), tripTimes.getDepartureDelay(1));
+        assertEquals(expected.isCanceled(), tripTimes.isCanceled());
+    }
+
     @Test
     public void testHandleAddedTrip() throws ParseException {
         // GIVEN
@@ -477,4 +540,19 @@ public class TimetableSnapshotSourceTest {
         assertNotSame(snapshotA.resolve(pattern, null ), snapshotA.resolve(pattern, serviceDate));
         assertSame   (snapshotB.resolve(pattern, null ), snapshotB.resolve(pattern, previously));
     }
+
+    private static TripUpdate delayedTripUpdate(String tripId, int delay) {
+        final TripUpdate.Builder tripUpdateBuilder = TripUpdate.newBuilder();
+        tripUpdateBuilder.setTrip(TripDescriptor.newBuilder()
+                .setTripId(tripId)
+                .setScheduleRelationship(TripDescriptor.ScheduleRelationship.SCHEDULED));
+
+        final StopTimeUpdate.Builder stopTimeUpdateBuilder = tripUpdateBuilder.addStopTimeUpdateBuilder();
+        stopTimeUpdateBuilder.setScheduleRelationship(StopTimeUpdate.ScheduleRelationship.SCHEDULED);
+        stopTimeUpdateBuilder.setStopSequence(2);
+        stopTimeUpdateBuilder.getArrivalBuilder().setDelay(delay);
+        stopTimeUpdateBuilder.getDepartureBuilder().setDelay(delay);
+
+        return tripUpdateBuilder.build();
+    }
 }
@@ -0,0 +1,122 @@
+package org.opentripplanner.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelInflaterInputStreamTest {
+
+    private static final int N_THREADS = 3;
+    private static final int BLOCK_SIZE = 1000;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(N_THREADS);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void roundTripSeveralStreams() throws IOException {
+        byte[] first = randomBytes(10_500);
+        byte[] second = randomBytes(BLOCK_SIZE);
+        byte[] third = new byte[0];
+
+        DataInputStream source = source(first, second, third);
+
+        assertArrayEquals(first, readAll(source));
+        assertArrayEquals(second, readAll(source));
+        assertArrayEquals(third, readAll(source));
+        assertEquals(-1, source.read());
+    }
+
+    @Test
+    public void roundTripUncompressedAndIncompressibleStreams() throws IOException {
+        byte[] first = randomBytes(10_500);
+        byte[] incompressible = new byte[2 * BLOCK_SIZE];
+        new Random(7).nextBytes(incompressible);
+
+        DataInputStream uncompressed = source(false, first, incompressible);
+        assertArrayEquals(first, readAll(uncompressed));
+        assertArrayEquals(incompressible, readAll(uncompressed));
+        assertEquals(-1, uncompressed.read());
+
+        // Blocks that do not get smaller are stored as is, even if compression is on
+        DataInputStream compressed = source(true, incompressible);
+        assertArrayEquals(incompressible, readAll(compressed));
+        assertEquals(-1, compressed.read());
+    }
+
+    @Test
+    public void skipStream() throws IOException {
+        byte[] first = randomBytes(5_100);
+        byte[] second = randomBytes(7);
+
+        DataInputStream source = source(first, second);
+
+        ParallelInflaterInputStream.skip(source);
+        assertArrayEquals(second, readAll(source));
+        assertEquals(-1, source.read());
+    }
+
+    @Test
+    public void closeSkipsTheRestOfTheStream() throws IOException {
+        byte[] first = randomBytes(20_000);
+        byte[] second = randomBytes(1_500);
+
+        DataInputStream source = source(first, second);
+
+        try (var in = new ParallelInflaterInputStream(source, executor, N_THREADS)) {
+            assertEquals(first[0] & 0xFF, in.read());
+        }
+        assertArrayEquals(second, readAll(source));
+    }
+
+    private DataInputStream source(byte[] ... streams) throws IOException {
+        return source(true, streams);
+    }
+
+    private DataInputStream source(boolean compress, byte[] ... streams) throws IOException {
+        var buf = new ByteArrayOutputStream();
+        var out = new DataOutputStream(buf);
+        for (byte[] it : streams) {
+            var deflater = new ParallelDeflaterOutputStream(
+                out, executor, N_THREADS, compress, BLOCK_SIZE
+            );
+            // Write a single byte and the rest as an array to test both write methods
+            if (it.length > 0) {
+                deflater.write(it[0]);
+                deflater.write(it, 1, it.length - 1);
+            }
+            deflater.finish();
+        }
+        out.close();
+        return new DataInputStream(new ByteArrayInputStream(buf.toByteArray()));
+    }
+
+    private byte[] readAll(DataInputStream source) throws IOException {
+        try (var in = new ParallelInflaterInputStream(source, executor, N_THREADS)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        // Use a small alphabet to get compressible data
+        Random random = new Random(size);
+        for (int i = 0; i < size; ++i) {
+            bytes[i] = (byte) ('a' + random.nextInt(4));
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,86 @@
+package org.opentripplanner.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class PersistentMapTest {
+
+    @Test
+    public void plusAndMinusDoNotChangeTheOriginal() {
+        PersistentMap<String, Integer> original = PersistentMap.<String, Integer>empty()
+            .plus("A", 1)
+            .plus("B", 2);
+
+        PersistentMap<String, Integer> copy = original.plus("C", 3).minus("A").plus("B", 5);
+
+        assertEquals(Map.of("A", 1, "B", 2), original);
+        assertEquals(Map.of("B", 5, "C", 3), copy);
+        assertEquals(2, copy.size());
+        assertNull(copy.get("A"));
+        assertFalse(copy.containsKey("A"));
+    }
+
+    @Test
+    public void unchangedMapIsReturned() {
+        Integer one = 1;
+        PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty().plus("A", one);
+
+        assertSame(map, map.plus("A", one));
+        assertSame(map, map.minus("X"));
+        assertSame(PersistentMap.empty(), map.minus("A"));
+    }
+
+    @Test
+    public void keysWithTheSameHashCode() {
+        // "Aa" and "BB" have the same hash code
+        PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty()
+            .plus("Aa", 1)
+            .plus("BB", 2)
+            .plus("C", 3);
+
+        assertEquals(Map.of("Aa", 1, "BB", 2, "C", 3), map);
+        assertEquals(Map.of("BB", 2, "C", 3), map.minus("Aa"));
+        assertEquals(Map.of("Aa", 1, "C", 3), map.minus("BB"));
+    }
+
+    @Test
+    public void sameContentAsHashMap() {
+        Random random = new Random(7);
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentMap<Integer, Integer> map = PersistentMap.empty();
+
+        for (int i = 0; i < 20_000; ++i) {
+            int key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            }
+            else {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            }
+        }
+        assertEquals(expected, map);
+        assertEquals(expected.size(), map.entrySet().stream().count());
+    }
+
+    @Test
+    public void persistentSet() {
+        PersistentSet<String> set = PersistentSet.copyOf(List.of("A", "B"));
+
+        assertTrue(set.contains("A"));
+        assertSame(set, set.plus("A"));
+        assertEquals(Set.of("B", "C"), set.minus("A").plus("C"));
+        assertEquals(Set.of("A", "B"), set);
+    }
+}
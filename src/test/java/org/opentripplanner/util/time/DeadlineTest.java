@@ -0,0 +1,44 @@
+package org.opentripplanner.util.time;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+public class DeadlineTest {
+
+  @Test
+  public void noneNeverExpires() {
+    assertFalse(Deadline.NONE.isExpired());
+    assertFalse(Deadline.NONE.hasExpired());
+    assertEquals("Deadline{NONE}", Deadline.NONE.toString());
+  }
+
+  @Test
+  public void zeroOrNegativeTimeoutIsNoDeadline() {
+    assertSame(Deadline.NONE, Deadline.after(Duration.ZERO));
+    assertSame(Deadline.NONE, Deadline.after(Duration.ofSeconds(-1)));
+  }
+
+  @Test
+  public void notExpiredBeforeTimeout() {
+    Deadline subject = Deadline.after(Duration.ofHours(1));
+
+    assertFalse(subject.isExpired());
+    assertFalse(subject.hasExpired());
+  }
+
+  @Test
+  public void expiredIsRememberedWhenChecked() throws InterruptedException {
+    Deadline subject = Deadline.after(Duration.ofNanos(1));
+    Thread.sleep(1);
+
+    // The clock is not read until the deadline is checked
+    assertFalse(subject.hasExpired());
+    assertTrue(subject.isExpired());
+    assertTrue(subject.hasExpired());
+  }
+}